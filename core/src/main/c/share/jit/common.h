@@ -34,6 +34,9 @@ enum class data_type_t : uint8_t {
     f32,
     i64,
     f64,
+    i128,
+    i256,
+    string,
 };
 
 enum class data_kind_t : uint8_t {
@@ -62,6 +65,7 @@ enum class opcodes : int32_t {
     Mul,
     Div,
     Rem,
+    StartsWith,
 };
 
 struct instruction_t {
@@ -115,11 +119,19 @@ inline uint32_t type_shift(data_type_t type) {
         case data_type_t::i64:
         case data_type_t::f64:
             return 3;
+        case data_type_t::i128:
+            return 4;
+        case data_type_t::i256:
+            return 5;
         default:
             __builtin_unreachable();
     }
 }
 
+inline bool is_extended_type(data_type_t type) {
+    return type == data_type_t::i128 || type == data_type_t::i256 || type == data_type_t::string;
+}
+
 inline data_kind_t dst_kind(const jit_value_t &lhs, const jit_value_t &rhs) {
     auto dk = (lhs.dkind() == data_kind_t::kConst && rhs.dkind() == data_kind_t::kConst) ? data_kind_t::kConst
                                                                                          : data_kind_t::kMemory;
@@ -72,7 +72,7 @@ struct Function {
         uint32_t exec_hint = (options >> 3) & 3; // 0 - scalar, 1 - single size type, 2 - mixed size types, ...
         bool null_check = (options >> 5) & 1; // 1 - with null check
         int unroll_factor = 1;
-        if (exec_hint == single_size && features.hasAVX2()) {
+        if (exec_hint == single_size && features.hasAVX2() && !has_extended_types(istream, size)) {
             auto step = 256 / ((1 << type_size) * 8);
             c.func()->frame().setAvxEnabled();
             avx2_loop(istream, size, step, null_check, unroll_factor);
@@ -81,6 +81,21 @@ struct Function {
         }
     };
 
+    static bool has_extended_types(const instruction_t *istream, size_t size) {
+        // 128/256-bit and string operands are only supported by the scalar loop
+        for (size_t i = 0; i < size; ++i) {
+            auto &instr = istream[i];
+            if (instr.opcode == opcodes::StartsWith) {
+                return true;
+            }
+            if ((instr.opcode == opcodes::Mem || instr.opcode == opcodes::Var)
+                && is_extended_type(static_cast<data_type_t>(instr.options))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     void scalar_tail(const instruction_t *istream, size_t size, bool null_check, const x86::Gp &stop, int unroll_factor = 1) {
 
         Label l_loop = c.newLabel();
@@ -92,7 +107,7 @@ struct Function {
         c.bind(l_loop);
 
         for (int i = 0; i < unroll_factor; ++i) {
-            questdb::x86::emit_code(c, istream, size, values, null_check, cols_ptr, vars_ptr, input_index);
+            questdb::x86::emit_code(c, istream, size, values, null_check, cols_ptr, cols_size, vars_ptr, input_index);
 
             auto mask = values.pop();
 
@@ -355,3 +370,8 @@ JNIEXPORT jlong JNICALL Java_io_questdb_jit_FiltersCompiler_callFunction(JNIEnv
     return 0;
 #endif
 }
+
+JNIEXPORT jint JNICALL Java_io_questdb_jit_FiltersCompiler_getIRVersion(JNIEnv *e, jclass cl) {
+    // 2 - UUID, LONG128, LONG256 and STRING operands, StartsWith operator
+    return 2;
+}
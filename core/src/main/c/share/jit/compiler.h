@@ -49,6 +49,8 @@ JNIEXPORT jlong JNICALL Java_io_questdb_jit_FiltersCompiler_callFunction(JNIEnv
                                                                         jlong rowsSize,
                                                                         jlong rowsStartOffset);
 
+JNIEXPORT jint JNICALL Java_io_questdb_jit_FiltersCompiler_getIRVersion(JNIEnv *e, jclass cl);
+
 JNIEXPORT void JNICALL Java_io_questdb_jit_FiltersCompiler_runTests(JNIEnv *e, jclass cl);
 
 }
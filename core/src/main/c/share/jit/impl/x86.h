@@ -771,6 +771,136 @@ namespace questdb::x86 {
     inline Gpd float_ne_epsilon(Compiler &c, const Xmm &xmm0, const Xmm &xmm1, float epsilon) {
         return float_cmp_epsilon(c, xmm0, xmm1, epsilon, false);
     }
+
+    // Compares 128 or 256 bit values (UUID, LONG128, LONG256) stored in memory word by word.
+    inline Gpd wide_cmp(Compiler &c, const Mem &lhs, const Mem &rhs, uint32_t words, bool eq) {
+        c.comment("wide_cmp");
+        Gp acc = c.newInt64();
+        Gp t = c.newInt64();
+        for (uint32_t i = 0; i < words; ++i) {
+            Mem l = lhs.cloneAdjusted(8 * i);
+            l.setSize(8);
+            Mem r = rhs.cloneAdjusted(8 * i);
+            r.setSize(8);
+            if (i == 0) {
+                c.mov(acc, l);
+                c.xor_(acc, r);
+            } else {
+                c.mov(t, l);
+                c.xor_(t, r);
+                c.or_(acc, t);
+            }
+        }
+        Gp r = c.newInt32();
+        c.xor_(r, r);
+        c.test(acc, acc);
+        if (eq) {
+            c.sete(r.r8Lo());
+        } else {
+            c.setne(r.r8Lo());
+        }
+        return r.as<Gpd>();
+    }
+
+    // Compares len_bytes bytes of UTF-16 chars at lhs and rhs. Jumps to l_ne on the first difference.
+    inline void chars_cmp(Compiler &c, const Gp &lhs, const Gp &rhs, const Gp &len_bytes, const Label &l_ne) {
+        Label l_loop8 = c.newLabel();
+        Label l_loop2 = c.newLabel();
+        Label l_exit = c.newLabel();
+        Gp i = c.newInt64();
+        Gp t = c.newInt64();
+        Gp stop = c.newInt64();
+
+        c.xor_(i, i);
+        // 8 bytes at a time
+        c.mov(stop, len_bytes);
+        c.sub(stop, 8);
+        c.bind(l_loop8);
+        c.cmp(i, stop);
+        c.jg(l_loop2);
+        c.mov(t, qword_ptr(lhs, i));
+        c.cmp(t, qword_ptr(rhs, i));
+        c.jne(l_ne);
+        c.add(i, 8);
+        c.jmp(l_loop8);
+        // remaining chars
+        c.bind(l_loop2);
+        c.cmp(i, len_bytes);
+        c.jge(l_exit);
+        c.movzx(t.r32(), word_ptr(lhs, i));
+        c.cmp(t.r16(), word_ptr(rhs, i));
+        c.jne(l_ne);
+        c.add(i, 2);
+        c.jmp(l_loop2);
+        c.bind(l_exit);
+    }
+
+    // lhs and rhs point to string headers: 32-bit length (-1 for null) followed by UTF-16 chars.
+    // Null is equal to null, like in the Java implementation.
+    inline Gpd string_cmp(Compiler &c, const Gp &lhs, const Gp &rhs, bool eq) {
+        c.comment("string_cmp");
+        Label l_ne = c.newLabel();
+        Label l_exit = c.newLabel();
+        Gp r = c.newInt32();
+        Gp len = c.newInt32();
+        Gp len_bytes = c.newInt64();
+        Gp lhs_chars = c.newInt64();
+        Gp rhs_chars = c.newInt64();
+
+        c.mov(r, eq ? 1 : 0);
+        c.mov(len, dword_ptr(lhs));
+        c.cmp(len, dword_ptr(rhs));
+        c.jne(l_ne);
+        c.test(len, len);
+        c.jle(l_exit);
+
+        c.movsxd(len_bytes, len);
+        c.shl(len_bytes, 1);
+        c.lea(lhs_chars, ptr(lhs, 4));
+        c.lea(rhs_chars, ptr(rhs, 4));
+        chars_cmp(c, lhs_chars, rhs_chars, len_bytes, l_ne);
+        c.jmp(l_exit);
+
+        c.bind(l_ne);
+        c.mov(r, eq ? 0 : 1);
+        c.bind(l_exit);
+        return r.as<Gpd>();
+    }
+
+    // Null strings and null prefixes never match.
+    inline Gpd string_starts_with(Compiler &c, const Gp &str, const Gp &prefix) {
+        c.comment("string_starts_with");
+        Label l_ne = c.newLabel();
+        Label l_exit = c.newLabel();
+        Gp r = c.newInt32();
+        Gp str_len = c.newInt32();
+        Gp prefix_len = c.newInt32();
+        Gp len_bytes = c.newInt64();
+        Gp str_chars = c.newInt64();
+        Gp prefix_chars = c.newInt64();
+
+        c.mov(str_len, dword_ptr(str));
+        c.mov(prefix_len, dword_ptr(prefix));
+        c.test(str_len, str_len);
+        c.js(l_ne);
+        c.test(prefix_len, prefix_len);
+        c.js(l_ne);
+        c.cmp(prefix_len, str_len);
+        c.jg(l_ne);
+
+        c.movsxd(len_bytes, prefix_len);
+        c.shl(len_bytes, 1);
+        c.lea(str_chars, ptr(str, 4));
+        c.lea(prefix_chars, ptr(prefix, 4));
+        chars_cmp(c, str_chars, prefix_chars, len_bytes, l_ne);
+        c.mov(r, 1);
+        c.jmp(l_exit);
+
+        c.bind(l_ne);
+        c.xor_(r, r);
+        c.bind(l_exit);
+        return r.as<Gpd>();
+    }
 }
 
 #endif //QUESTDB_JIT_IMPL_X86_H
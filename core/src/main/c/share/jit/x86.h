@@ -33,16 +33,44 @@ namespace questdb::x86 {
 
     jit_value_t
     read_vars_mem(Compiler &c, data_type_t type, int32_t idx, const Gp &vars_ptr) {
+        if (is_extended_type(type)) {
+            // the slot holds the offset of the value appended after the slots
+            Gp var_address = c.newInt64("var_address");
+            c.mov(var_address, ptr(vars_ptr, 8 * idx, 8));
+            c.add(var_address, vars_ptr);
+            if (type == data_type_t::string) {
+                return {var_address, type, data_kind_t::kMemory};
+            }
+            return {Mem(var_address, 0, 1 << type_shift(type)), type, data_kind_t::kMemory};
+        }
         auto shift = type_shift(type);
         auto type_size = 1 << shift;
         return {Mem(vars_ptr, 8 * idx, type_size), type, data_kind_t::kMemory};
     }
 
     jit_value_t
-    read_mem(Compiler &c, data_type_t type, int32_t column_idx, const Gp &cols_ptr, const Gp &input_index) {
+    read_mem(Compiler &c, data_type_t type, int32_t column_idx, const Gp &cols_ptr, const Gp &cols_size,
+             const Gp &input_index) {
         Gp column_address = c.newInt64("column_address");
         c.mov(column_address, ptr(cols_ptr, 8 * column_idx, 8));
+        if (type == data_type_t::string) {
+            // index page addresses follow the data page addresses
+            Gp index_address = c.newInt64("index_address");
+            c.mov(index_address, ptr(cols_ptr, cols_size, 3, 8 * column_idx, 8));
+            Gp header_address = c.newInt64("header_address");
+            c.mov(header_address, ptr(index_address, input_index, 3, 0, 8));
+            c.add(header_address, column_address);
+            return {header_address, type, data_kind_t::kMemory};
+        }
         auto shift = type_shift(type);
+        if (shift > 3) {
+            // scale can't exceed 8 in an address, compute the row offset separately
+            Gp row_address = c.newInt64("row_address");
+            c.mov(row_address, input_index);
+            c.shl(row_address, shift);
+            c.add(row_address, column_address);
+            return {Mem(row_address, 0, 1 << shift), type, data_kind_t::kMemory};
+        }
         auto type_size = 1 << shift;
         return {Mem(column_address, input_index, shift, 0, type_size), type, data_kind_t::kMemory};
     }
@@ -81,6 +109,10 @@ namespace questdb::x86 {
                 c.movsd(row_data, mem);
                 return {row_data, type, data_kind_t::kMemory};
             }
+            case data_type_t::i128:
+            case data_type_t::i256:
+                // compared in memory, word by word
+                return v;
             default:
                 __builtin_unreachable();
         }
@@ -240,6 +272,12 @@ namespace questdb::x86 {
                 return {float_eq_epsilon(c, lhs.xmm(), rhs.xmm(), FLOAT_EPSILON), data_type_t::i32, dk};
             case data_type_t::f64:
                 return {double_eq_epsilon(c, lhs.xmm(), rhs.xmm(), DOUBLE_EPSILON), data_type_t::i32, dk};
+            case data_type_t::i128:
+                return {wide_cmp(c, lhs.op().as<Mem>(), rhs.op().as<Mem>(), 2, true), data_type_t::i32, dk};
+            case data_type_t::i256:
+                return {wide_cmp(c, lhs.op().as<Mem>(), rhs.op().as<Mem>(), 4, true), data_type_t::i32, dk};
+            case data_type_t::string:
+                return {string_cmp(c, lhs.gp(), rhs.gp(), true), data_type_t::i32, dk};
             default:
                 __builtin_unreachable();
         }
@@ -259,6 +297,12 @@ namespace questdb::x86 {
                 return {float_ne_epsilon(c, lhs.xmm(), rhs.xmm(), FLOAT_EPSILON), data_type_t::i32, dk};
             case data_type_t::f64:
                 return {double_ne_epsilon(c, lhs.xmm(), rhs.xmm(), DOUBLE_EPSILON), data_type_t::i32, dk};
+            case data_type_t::i128:
+                return {wide_cmp(c, lhs.op().as<Mem>(), rhs.op().as<Mem>(), 2, false), data_type_t::i32, dk};
+            case data_type_t::i256:
+                return {wide_cmp(c, lhs.op().as<Mem>(), rhs.op().as<Mem>(), 4, false), data_type_t::i32, dk};
+            case data_type_t::string:
+                return {string_cmp(c, lhs.gp(), rhs.gp(), false), data_type_t::i32, dk};
             default:
                 __builtin_unreachable();
         }
@@ -422,6 +466,10 @@ namespace questdb::x86 {
 
     inline std::pair<jit_value_t, jit_value_t>
     convert(Compiler &c, const jit_value_t &lhs, const jit_value_t &rhs, bool null_check) {
+        if (is_extended_type(lhs.dtype())) {
+            // the serializer guarantees both sides have the same type
+            return std::make_pair(lhs, rhs);
+        }
         switch (lhs.dtype()) {
             case data_type_t::i8:
             case data_type_t::i16:
@@ -585,6 +633,10 @@ namespace questdb::x86 {
             case opcodes::Div:
                 values.append(div(c, lhs, rhs, null_check));
                 break;
+            case opcodes::StartsWith:
+                values.append(jit_value_t(string_starts_with(c, lhs.gp(), rhs.gp()), data_type_t::i32,
+                                          dst_kind(lhs, rhs)));
+                break;
             default:
                 __builtin_unreachable();
         }
@@ -594,6 +646,7 @@ namespace questdb::x86 {
     emit_code(Compiler &c, const instruction_t *istream, size_t size, ZoneStack<jit_value_t> &values,
               bool null_check,
               const Gp &cols_ptr,
+              const Gp &cols_size,
               const Gp &vars_ptr,
               const Gp &input_index) {
 
@@ -613,7 +666,7 @@ namespace questdb::x86 {
                 case opcodes::Mem: {
                     auto type = static_cast<data_type_t>(instr.options);
                     auto idx  = static_cast<int32_t>(instr.ipayload);
-                    values.append(read_mem(c, type, idx, cols_ptr, input_index));
+                    values.append(read_mem(c, type, idx, cols_ptr, cols_size, input_index));
                 }
                     break;
                 case opcodes::Imm:
@@ -25,6 +25,7 @@
 package io.questdb;
 
 import io.questdb.cairo.TableWriterMetrics;
+import io.questdb.cairo.sql.QueryPlanCacheMetrics;
 import io.questdb.cutlass.http.processors.JsonQueryMetrics;
 import io.questdb.cutlass.pgwire.PGWireMetrics;
 import io.questdb.metrics.*;
@@ -40,6 +41,7 @@ public class Metrics implements Scrapable {
     private final JsonQueryMetrics jsonQuery;
     private final MetricsRegistry metricsRegistry;
     private final PGWireMetrics pgWire;
+    private final QueryPlanCacheMetrics queryPlanCache;
     private final Runtime runtime = Runtime.getRuntime();
     private final VirtualGauge.StatProvider jvmFreeMemRef = runtime::freeMemory;
     private final VirtualGauge.StatProvider jvmTotalMemRef = runtime::totalMemory;
@@ -51,6 +53,7 @@ public class Metrics implements Scrapable {
         this.gcMetrics = new GCMetrics();
         this.jsonQuery = new JsonQueryMetrics(metricsRegistry);
         this.pgWire = new PGWireMetrics(metricsRegistry);
+        this.queryPlanCache = new QueryPlanCacheMetrics(metricsRegistry);
         this.healthCheck = new HealthMetricsImpl(metricsRegistry);
         this.tableWriter = new TableWriterMetrics(metricsRegistry);
         createMemoryGauges(metricsRegistry);
@@ -81,6 +84,10 @@ public class Metrics implements Scrapable {
         return pgWire;
     }
 
+    public QueryPlanCacheMetrics queryPlanCache() {
+        return queryPlanCache;
+    }
+
     @Override
     public void scrapeIntoPrometheus(CharSink sink) {
         metricsRegistry.scrapeIntoPrometheus(sink);
@@ -28,6 +28,7 @@ import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoEngine;
 import io.questdb.cairo.ColumnIndexerJob;
 import io.questdb.cairo.O3Utils;
+import io.questdb.cairo.PartitionCompressionJob;
 import io.questdb.cairo.wal.CheckWalTransactionsJob;
 import io.questdb.cairo.wal.WalPurgeJob;
 import io.questdb.cairo.wal.WalUtils;
@@ -123,6 +124,10 @@ public class ServerMain implements Closeable {
                             }
                         }
 
+                        final PartitionCompressionJob partitionCompressionJob = new PartitionCompressionJob(engine);
+                        sharedPool.assign(partitionCompressionJob);
+                        sharedPool.freeOnExit(partitionCompressionJob);
+
                         // text import
                         TextImportJob.assignToPool(messageBus, sharedPool);
                         if (cairoConfig.getSqlCopyInputRoot() != null) {
@@ -158,6 +163,8 @@ public class ServerMain implements Closeable {
                     WorkerPoolManager.Requester.WAL_APPLY
             );
             WalUtils.setupWorkerPool(walApplyWorkerPool, engine, workerPoolManager.getSharedWorkerCount(), ffCache);
+            // WAL apply workers, which are idle or wait for own O3 commit, merge partitions of other tables
+            O3Utils.setupO3Jobs(walApplyWorkerPool, engine.getMessageBus());
         }
 
         // http
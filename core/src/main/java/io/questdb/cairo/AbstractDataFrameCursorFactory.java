@@ -34,6 +34,7 @@ public abstract class AbstractDataFrameCursorFactory implements DataFrameCursorF
     private final GenericRecordMetadata metadata;
     private final TableToken tableToken;
     private final long tableVersion;
+    protected ZoneMapFilter zoneMapFilter;
 
     public AbstractDataFrameCursorFactory(TableToken tableToken, long tableVersion, GenericRecordMetadata metadata) {
         this.tableToken = tableToken;
@@ -49,6 +50,14 @@ public abstract class AbstractDataFrameCursorFactory implements DataFrameCursorF
         return metadata;
     }
 
+    /**
+     * Sets predicates of the query filter, which are used to skip partitions and row
+     * blocks by their zone maps. The filter still has to be applied to the frames.
+     */
+    public void setZoneMapFilter(ZoneMapFilter zoneMapFilter) {
+        this.zoneMapFilter = zoneMapFilter;
+    }
+
     @Override
     public boolean supportTableRowId(TableToken tableToken) {
         return this.tableToken.equals(tableToken);
@@ -28,12 +28,17 @@ import io.questdb.cairo.sql.DataFrame;
 import io.questdb.cairo.sql.DataFrameCursor;
 import io.questdb.cairo.sql.StaticSymbolTable;
 import io.questdb.std.Misc;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class AbstractFullDataFrameCursor implements DataFrameCursor {
     protected final FullTableDataFrame frame = new FullTableDataFrame();
     protected int partitionHi;
     protected int partitionIndex;
+    // row range of the partition, which is being split into frames by zone map
+    protected long partitionRowHi;
+    protected long partitionRowLo;
     protected TableReader reader;
+    protected ZoneMapFilter zoneMapFilter;
 
     @Override
     public void close() {
@@ -56,8 +61,16 @@ public abstract class AbstractFullDataFrameCursor implements DataFrameCursor {
     }
 
     public DataFrameCursor of(TableReader reader) {
+        return of(reader, null);
+    }
+
+    public DataFrameCursor of(TableReader reader, @Nullable ZoneMapFilter zoneMapFilter) {
         this.reader = reader;
         this.partitionHi = reader.getPartitionCount();
+        this.zoneMapFilter = zoneMapFilter;
+        if (zoneMapFilter != null) {
+            zoneMapFilter.of(reader);
+        }
         toTop();
         return this;
     }
@@ -75,6 +88,21 @@ public abstract class AbstractFullDataFrameCursor implements DataFrameCursor {
         return reader.size();
     }
 
+    /**
+     * Checks whether the partition has zone map statistics of the filtered columns.
+     * Such partition is returned as a sequence of frames that cover only the row blocks,
+     * which may match the filter.
+     */
+    protected boolean openZoneMap(int partitionIndex, long partitionRowCount) {
+        if (zoneMapFilter != null && zoneMapFilter.openPartition(partitionIndex, partitionRowCount)) {
+            frame.partitionIndex = partitionIndex;
+            partitionRowLo = 0;
+            partitionRowHi = partitionRowCount;
+            return true;
+        }
+        return false;
+    }
+
     protected class FullTableDataFrame implements DataFrame {
         protected int partitionIndex;
         protected long rowHi;
@@ -33,6 +33,7 @@ import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.model.RuntimeIntrinsicIntervalModel;
 import io.questdb.std.LongList;
 import io.questdb.std.Misc;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class AbstractIntervalDataFrameCursor implements DataFrameCursor {
     static final int SCAN_DOWN = 1;
@@ -52,6 +53,7 @@ public abstract class AbstractIntervalDataFrameCursor implements DataFrameCursor
     protected TableReader reader;
     protected long size = -1;
     protected long sizeSoFar = 0;
+    protected ZoneMapFilter zoneMapFilter;
     private int initialIntervalsHi;
     private int initialIntervalsLo;
     private int initialPartitionHi;
@@ -88,7 +90,15 @@ public abstract class AbstractIntervalDataFrameCursor implements DataFrameCursor
     }
 
     public AbstractIntervalDataFrameCursor of(TableReader reader, SqlExecutionContext sqlContext) throws SqlException {
+        return of(reader, sqlContext, null);
+    }
+
+    public AbstractIntervalDataFrameCursor of(TableReader reader, SqlExecutionContext sqlContext, @Nullable ZoneMapFilter zoneMapFilter) throws SqlException {
         this.reader = reader;
+        this.zoneMapFilter = zoneMapFilter;
+        if (zoneMapFilter != null) {
+            zoneMapFilter.of(reader);
+        }
         this.intervals = this.intervalsModel.calculateIntervals(sqlContext);
         calculateRanges(intervals);
         return this;
@@ -262,6 +272,24 @@ public abstract class AbstractIntervalDataFrameCursor implements DataFrameCursor
         this.initialPartitionHi = Math.min(reader.getPartitionCount(), reader.getPartitionIndexByTimestamp(intervalHi) + 1);
     }
 
+    /**
+     * Narrows the data frame down to the row blocks, which may match the filter according
+     * to the zone map of the partition.
+     *
+     * @return false when no row of the frame can match the filter
+     */
+    protected boolean applyZoneMap(long partitionRowCount) {
+        if (zoneMapFilter != null && zoneMapFilter.openPartition(dataFrame.partitionIndex, partitionRowCount)) {
+            final long lo = zoneMapFilter.findMatchLo(dataFrame.rowLo, dataFrame.rowHi);
+            if (lo == dataFrame.rowHi) {
+                return false;
+            }
+            dataFrame.rowHi = zoneMapFilter.findPrevMatchHi(lo, dataFrame.rowHi);
+            dataFrame.rowLo = lo;
+        }
+        return true;
+    }
+
     protected static long search(MemoryR column, long value, long low, long high, int increment) {
         while (low < high) {
             long mid = (low + high - 1) >>> 1;
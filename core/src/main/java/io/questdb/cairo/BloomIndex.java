@@ -0,0 +1,265 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCMR;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+
+import java.io.Closeable;
+
+/**
+ * Split block Bloom filters of the bloom indexed columns of a single partition. Filters are built per
+ * {@link ZoneMap} block and answer whether a block may contain a value, so that equality lookups on
+ * high cardinality columns skip the blocks that cannot match. The filters are kept in the
+ * {@link #FILE_NAME} file of the partition directory, which has the following layout:
+ * <pre>
+ * | block row count | partition row count | column count | block count |
+ * | column index | column type | column name txn | column top | bucket count | (bucket[bucket count])[block count] | ...
+ * </pre>
+ * Header values are longs, a bucket is 8 ints, each one of them gets a single bit set per value.
+ * Nulls are not added to the filters. Entries are matched against the column version of the
+ * partition before use, same as the zone map ones.
+ */
+public class BloomIndex implements Closeable {
+    public static final String FILE_NAME = "_bf";
+    static final int BITS_PER_VALUE = 10;
+    static final int BUCKET_SIZE = 8 * Integer.BYTES;
+    static final int ENTRY_BUCKET_COUNT = 4;
+    static final int ENTRY_COLUMN_INDEX = 0;
+    static final int ENTRY_COLUMN_NAME_TXN = 2;
+    static final int ENTRY_COLUMN_TOP = 3;
+    static final int ENTRY_COLUMN_TYPE = 1;
+    static final int ENTRY_HEADER_SIZE = 5 * Long.BYTES;
+    static final int HEADER_BLOCK_COUNT = 3;
+    static final int HEADER_BLOCK_ROW_COUNT = 0;
+    static final int HEADER_COLUMN_COUNT = 2;
+    static final int HEADER_ROW_COUNT = 1;
+    static final int HEADER_SIZE = 4 * Long.BYTES;
+    private static final Log LOG = LogFactory.getLog(BloomIndex.class);
+    // salts of the Parquet split block Bloom filter
+    private static final int[] SALT = {
+            0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d,
+            0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31
+    };
+    private final LongList columnOffsets = new LongList();
+    private final MemoryCMR mem = Vm.getCMRInstance();
+    private long blockRowCount;
+    private long loadedTxn = -1;
+    private long partitionNameTxn = -1;
+    private long partitionRowCount = -1;
+    private long partitionTimestamp = Long.MIN_VALUE;
+
+    public static long getBucketCount(long valueCount) {
+        return Math.max(1, (valueCount * BITS_PER_VALUE + BUCKET_SIZE * 8 - 1) / (BUCKET_SIZE * 8));
+    }
+
+    public static long hashLong(long value) {
+        // murmur3 finalizer, both halves of the hash are used
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    public static long hashStr(CharSequence value) {
+        long h = value.length();
+        for (int i = 0, n = value.length(); i < n; i++) {
+            h = h * 31 + value.charAt(i);
+        }
+        return hashLong(h);
+    }
+
+    /**
+     * Same as {@link #hashStr(CharSequence)} for UTF-16 chars stored in native memory.
+     */
+    public static long hashStr(long lo, int len) {
+        long h = len;
+        for (long p = lo, hi = lo + (long) len * Character.BYTES; p < hi; p += Character.BYTES) {
+            h = h * 31 + Unsafe.getUnsafe().getChar(p);
+        }
+        return hashLong(h);
+    }
+
+    public static long hashUuid(long lo, long hi) {
+        return hashLong(lo ^ hashLong(hi));
+    }
+
+    public static boolean isSupported(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+            case ColumnType.LONG:
+            case ColumnType.UUID:
+            case ColumnType.STRING:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Adds value hash to the filter of a block.
+     *
+     * @param addr        address of the first bucket of the filter
+     * @param bucketCount number of buckets in the filter
+     * @param hash        value hash
+     */
+    public static void put(long addr, long bucketCount, long hash) {
+        final long p = addr + getBucket(bucketCount, hash) * BUCKET_SIZE;
+        final int key = (int) hash;
+        for (int i = 0; i < 8; i++) {
+            final long wordAddr = p + (long) i * Integer.BYTES;
+            Unsafe.getUnsafe().putInt(wordAddr, Unsafe.getUnsafe().getInt(wordAddr) | (1 << ((key * SALT[i]) >>> 27)));
+        }
+    }
+
+    @Override
+    public void close() {
+        mem.close();
+        columnOffsets.clear();
+        blockRowCount = 0;
+        loadedTxn = -1;
+        partitionTimestamp = Long.MIN_VALUE;
+        partitionNameTxn = -1;
+        partitionRowCount = -1;
+    }
+
+    /**
+     * Finds filters of the column.
+     *
+     * @return offset of the column entry or -1 when the partition has no filters of this column version
+     */
+    public long findColumn(int columnIndex, long columnNameTxn, long columnTop) {
+        for (int i = 0, n = columnOffsets.size(); i < n; i++) {
+            final long offset = columnOffsets.getQuick(i);
+            if (mem.getLong(offset + ENTRY_COLUMN_INDEX * Long.BYTES) == columnIndex) {
+                if (mem.getLong(offset + ENTRY_COLUMN_NAME_TXN * Long.BYTES) == columnNameTxn
+                        && mem.getLong(offset + ENTRY_COLUMN_TOP * Long.BYTES) == columnTop) {
+                    return offset;
+                }
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    public long getBlockRowCount() {
+        return blockRowCount;
+    }
+
+    /**
+     * @return false when the block has no rows with the hashed value, true means that
+     * the block may have such rows
+     */
+    public boolean mayContain(long columnOffset, long block, long hash) {
+        final long bucketCount = mem.getLong(columnOffset + ENTRY_BUCKET_COUNT * Long.BYTES);
+        final long p = columnOffset + ENTRY_HEADER_SIZE + (block * bucketCount + getBucket(bucketCount, hash)) * BUCKET_SIZE;
+        final int key = (int) hash;
+        for (int i = 0; i < 8; i++) {
+            if ((mem.getInt(p + (long) i * Integer.BYTES) & (1 << ((key * SALT[i]) >>> 27))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Maps the filters of a partition unless they are already mapped. A missing file is looked
+     * up again only after the reader moves on to another transaction.
+     *
+     * @param partitionPath path of the partition directory
+     * @return false when the partition has no valid filters
+     */
+    public boolean of(FilesFacade ff, Path partitionPath, long partitionTimestamp, long partitionNameTxn, long partitionRowCount, long txn) {
+        if (this.partitionTimestamp == partitionTimestamp
+                && this.partitionNameTxn == partitionNameTxn
+                && this.partitionRowCount == partitionRowCount
+                && (columnOffsets.size() > 0 || loadedTxn == txn)) {
+            return columnOffsets.size() > 0;
+        }
+        close();
+        this.partitionTimestamp = partitionTimestamp;
+        this.partitionNameTxn = partitionNameTxn;
+        this.partitionRowCount = partitionRowCount;
+        this.loadedTxn = txn;
+        load(ff, partitionPath.concat(FILE_NAME).$(), partitionRowCount);
+        return columnOffsets.size() > 0;
+    }
+
+    private static long getBucket(long bucketCount, long hash) {
+        return ((hash >>> 32) * bucketCount) >>> 32;
+    }
+
+    private void load(FilesFacade ff, Path path, long partitionRowCount) {
+        if (!ff.exists(path)) {
+            return;
+        }
+        try {
+            mem.of(ff, path, ff.getMapPageSize(), -1, MemoryTag.MMAP_TABLE_READER);
+        } catch (CairoException e) {
+            LOG.info().$("could not open bloom index [path=").$(path).$(", errno=").$(e.getErrno()).I$();
+            mem.close();
+            return;
+        }
+        final long len = mem.size();
+        if (len < HEADER_SIZE) {
+            LOG.info().$("ignoring invalid bloom index [path=").$(path).$(", size=").$(len).I$();
+            mem.close();
+            return;
+        }
+        final long blockRowCount = mem.getLong(HEADER_BLOCK_ROW_COUNT * Long.BYTES);
+        final long rowCount = mem.getLong(HEADER_ROW_COUNT * Long.BYTES);
+        final long columnCount = mem.getLong(HEADER_COLUMN_COUNT * Long.BYTES);
+        final long blockCount = mem.getLong(HEADER_BLOCK_COUNT * Long.BYTES);
+        if (rowCount != partitionRowCount || blockRowCount < 1 || blockCount != ZoneMap.getBlockCount(rowCount, blockRowCount)) {
+            // the partition changed after the filters were written
+            mem.close();
+            return;
+        }
+        long offset = HEADER_SIZE;
+        for (long i = 0; i < columnCount; i++) {
+            if (offset + ENTRY_HEADER_SIZE > len) {
+                break;
+            }
+            final long bucketCount = mem.getLong(offset + ENTRY_BUCKET_COUNT * Long.BYTES);
+            final long entrySize = ENTRY_HEADER_SIZE + blockCount * bucketCount * BUCKET_SIZE;
+            if (bucketCount < 1 || offset + entrySize > len) {
+                break;
+            }
+            columnOffsets.add(offset);
+            offset += entrySize;
+        }
+        if (offset != len) {
+            LOG.info().$("ignoring invalid bloom index [path=").$(path).$(", size=").$(len).I$();
+            columnOffsets.clear();
+            mem.close();
+            return;
+        }
+        this.blockRowCount = blockRowCount;
+    }
+}
@@ -221,6 +221,12 @@ public interface CairoConfiguration {
         return "hs_err_pid+";
     }
 
+    /**
+     * Number of page frames ahead of the one being reduced, which column pages are
+     * advised to the OS to be read ahead. Zero disables the read-ahead.
+     */
+    int getPageFramePrefetchCount();
+
     int getPageFrameReduceColumnListCapacity();
 
     int getPageFrameReduceQueueCapacity();
@@ -233,10 +239,18 @@ public interface CairoConfiguration {
 
     int getParallelIndexThreshold();
 
+    /**
+     * Interval in milliseconds between the checks for partitions to be compressed
+     * according to the compressionAge parameter of the tables.
+     */
+    long getPartitionCompressionCheckInterval();
+
     int getPartitionPurgeListCapacity();
 
     int getQueryCacheEventQueueCapacity();
 
+    int getQueryPlanCacheCapacity();
+
     default Rnd getRandom() {
         Rnd rnd = RANDOM.get();
         if (rnd == null) {
@@ -411,6 +425,18 @@ public interface CairoConfiguration {
 
     long getWalSegmentRolloverRowCount();
 
+    /**
+     * Maximum number of rows of consecutive WAL data transactions to be applied to the table
+     * with a single O3 merge and commit. Values less than 2 switch squashing off.
+     */
+    long getWalSquashMaxRows();
+
+    /**
+     * Maximum size in bytes of the column data of consecutive WAL data transactions
+     * to be applied to the table with a single O3 merge and commit.
+     */
+    long getWalSquashMaxSize();
+
     int getWalTxnNotificationQueueCapacity();
 
     int getWithClauseModelPoolCapacity();
@@ -429,12 +455,19 @@ public interface CairoConfiguration {
 
     int getWriterTickRowsCountMod();
 
+    /**
+     * Number of rows in a block of partition zone maps, see {@link ZoneMap}. Zero disables zone maps.
+     */
+    long getZoneMapBlockRowCount();
+
     boolean isIOURingEnabled();
 
     boolean isO3QuickSortEnabled();
 
     boolean isParallelIndexingEnabled();
 
+    boolean isQueryPlanCacheEnabled();
+
     boolean isReadOnlyInstance();
 
     /**
@@ -450,6 +483,12 @@ public interface CairoConfiguration {
 
     boolean isSqlParallelFilterPreTouchEnabled();
 
+    boolean isSqlParallelGroupByEnabled();
+
+    boolean isSqlParallelHashJoinEnabled();
+
+    boolean isSqlParallelOrderByEnabled();
+
     boolean isWalSupported();
 
     /**
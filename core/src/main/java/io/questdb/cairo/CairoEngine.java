@@ -30,6 +30,7 @@ import io.questdb.Metrics;
 import io.questdb.cairo.mig.EngineMigration;
 import io.questdb.cairo.pool.*;
 import io.questdb.cairo.sql.AsyncWriterCommand;
+import io.questdb.cairo.sql.QueryPlanCache;
 import io.questdb.cairo.sql.TableRecordMetadata;
 import io.questdb.cairo.sql.TableReferenceOutOfDateException;
 import io.questdb.cairo.vm.api.MemoryMARW;
@@ -64,6 +65,7 @@ public class CairoEngine implements Closeable, WriterSource {
     private final MessageBusImpl messageBus;
     private final MetadataPool metadataPool;
     private final Metrics metrics;
+    private final QueryPlanCache queryPlanCache;
     private final ReaderPool readerPool;
     private final IDGenerator tableIdGenerator;
     private final TableNameRegistry tableNameRegistry;
@@ -88,6 +90,7 @@ public class CairoEngine implements Closeable, WriterSource {
         this.configuration = configuration;
         this.textImportExecutionContext = new TextImportExecutionContext(configuration);
         this.metrics = metrics;
+        this.queryPlanCache = new QueryPlanCache(configuration, metrics.queryPlanCache());
         this.tableSequencerAPI = new TableSequencerAPI(this, configuration);
         this.messageBus = new MessageBusImpl(configuration);
         this.writerPool = new WriterPool(this.getConfiguration(), this.getMessageBus(), metrics);
@@ -144,12 +147,14 @@ public class CairoEngine implements Closeable, WriterSource {
         boolean b3 = tableSequencerAPI.releaseAll();
         boolean b4 = metadataPool.releaseAll();
         boolean b5 = walWriterPool.releaseAll();
+        queryPlanCache.clear();
         messageBus.reset();
         return b1 & b2 & b3 & b4 & b5;
     }
 
     @Override
     public void close() {
+        Misc.free(queryPlanCache);
         Misc.free(writerPool);
         Misc.free(readerPool);
         Misc.free(metadataPool);
@@ -378,6 +383,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return this.writerPool.getPoolListener();
     }
 
+    public QueryPlanCache getQueryPlanCache() {
+        return queryPlanCache;
+    }
+
     public TableReader getReader(CairoSecurityContext securityContext, TableToken tableToken) {
         verifyTableToken(tableToken);
         return readerPool.get(tableToken);
@@ -0,0 +1,313 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.LPSZ;
+
+/**
+ * Block compression of column files of cold partitions. A compressed file has the name of the
+ * original column file followed by {@link #FILE_SUFFIX} and the following layout:
+ * <pre>
+ * | magic int | flags int | raw size long | block count long | block end offsets long[block count] | deflated blocks |
+ * </pre>
+ * Each block covers up to {@link #BLOCK_SIZE} bytes of raw data and is deflated independently.
+ * Block end offsets are relative to the start of the first block. Timestamp and offset files
+ * are delta-of-delta encoded before deflation, which makes them compress to a fraction of their size.
+ */
+public final class ColumnCompression {
+    public static final int BLOCK_SIZE = 1 << 20;
+    public static final String FILE_SUFFIX = ".z";
+    public static final int FLAG_DELTA_OF_DELTA = 1;
+    public static final int HEADER_SIZE = 24;
+    private static final Log LOG = LogFactory.getLog(ColumnCompression.class);
+    private static final int MAGIC = 0x5a4c4f43;
+    private static final int OUT_BUF_SIZE = BLOCK_SIZE + (BLOCK_SIZE >>> 8) + 64;
+
+    private ColumnCompression() {
+    }
+
+    /**
+     * Compresses the first srcSize bytes of the src file into the dst file.
+     *
+     * @return size of the compressed file
+     */
+    public static long compress(FilesFacade ff, LPSZ src, long srcSize, LPSZ dst, int flags, long opts) {
+        final long blockCount = (srcSize + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        final long headerSize = HEADER_SIZE + blockCount * Long.BYTES;
+        final boolean deltaOfDelta = (flags & FLAG_DELTA_OF_DELTA) != 0;
+        final int srcFd = TableUtils.openRO(ff, src, LOG);
+        int dstFd = -1;
+        long srcAddr = 0;
+        long headerAddr = 0;
+        long outAddr = 0;
+        long scratchAddr = 0;
+        long z = 0;
+        try {
+            dstFd = TableUtils.openRW(ff, dst, LOG, opts);
+            if (!ff.truncate(dstFd, 0)) {
+                throw CairoException.critical(ff.errno()).put("could not truncate [file=").put(dst).put(']');
+            }
+            headerAddr = Unsafe.malloc(headerSize, MemoryTag.NATIVE_DEFAULT);
+            Unsafe.getUnsafe().putInt(headerAddr, MAGIC);
+            Unsafe.getUnsafe().putInt(headerAddr + 4, flags);
+            Unsafe.getUnsafe().putLong(headerAddr + 8, srcSize);
+            Unsafe.getUnsafe().putLong(headerAddr + 16, blockCount);
+
+            long offset = 0;
+            if (blockCount > 0) {
+                srcAddr = TableUtils.mapRO(ff, srcFd, srcSize, MemoryTag.MMAP_DEFAULT);
+                outAddr = Unsafe.malloc(OUT_BUF_SIZE, MemoryTag.NATIVE_DEFAULT);
+                if (deltaOfDelta) {
+                    scratchAddr = Unsafe.malloc(BLOCK_SIZE, MemoryTag.NATIVE_DEFAULT);
+                }
+                z = Zip.deflateInit();
+                if (z < 0) {
+                    z = 0;
+                    throw CairoException.critical(0).put("could not initialize deflater [file=").put(dst).put(']');
+                }
+                for (long b = 0; b < blockCount; b++) {
+                    final long blockLo = b * BLOCK_SIZE;
+                    final int blockSize = (int) Math.min(BLOCK_SIZE, srcSize - blockLo);
+                    long inAddr = srcAddr + blockLo;
+                    if (deltaOfDelta) {
+                        encodeDeltaOfDelta(inAddr, scratchAddr, blockSize);
+                        inAddr = scratchAddr;
+                    }
+                    if (b > 0) {
+                        Zip.deflateReset(z);
+                    }
+                    Zip.setInput(z, inAddr, blockSize);
+                    final int ret = Zip.deflate(z, outAddr, OUT_BUF_SIZE, true);
+                    if (ret != Zip.Z_STREAM_END) {
+                        throw CairoException.critical(0).put("could not deflate [file=").put(dst).put(", ret=").put(ret).put(']');
+                    }
+                    final int len = OUT_BUF_SIZE - Zip.availOut(z);
+                    write(ff, dstFd, outAddr, len, headerSize + offset, dst);
+                    offset += len;
+                    Unsafe.getUnsafe().putLong(headerAddr + HEADER_SIZE + b * Long.BYTES, offset);
+                }
+            }
+            write(ff, dstFd, headerAddr, headerSize, 0, dst);
+            return headerSize + offset;
+        } finally {
+            if (z != 0) {
+                Zip.deflateEnd(z);
+            }
+            if (srcAddr != 0) {
+                ff.munmap(srcAddr, srcSize, MemoryTag.MMAP_DEFAULT);
+            }
+            if (headerAddr != 0) {
+                Unsafe.free(headerAddr, headerSize, MemoryTag.NATIVE_DEFAULT);
+            }
+            if (outAddr != 0) {
+                Unsafe.free(outAddr, OUT_BUF_SIZE, MemoryTag.NATIVE_DEFAULT);
+            }
+            if (scratchAddr != 0) {
+                Unsafe.free(scratchAddr, BLOCK_SIZE, MemoryTag.NATIVE_DEFAULT);
+            }
+            ff.close(srcFd);
+            if (dstFd > -1) {
+                ff.close(dstFd);
+            }
+        }
+    }
+
+    /**
+     * Decompresses the file open as fd into memory at dstAddr, which must have room for rawSize bytes.
+     */
+    public static void decompress(FilesFacade ff, int fd, long dstAddr, long rawSize) {
+        final long fileSize = ff.length(fd);
+        if (fileSize < HEADER_SIZE) {
+            throw CairoException.critical(0).put("compressed column file is too small [fd=").put(fd).put(", size=").put(fileSize).put(']');
+        }
+        final long addr = TableUtils.mapRO(ff, fd, fileSize, MemoryTag.MMAP_DEFAULT);
+        long z = 0;
+        try {
+            final int flags = Unsafe.getUnsafe().getInt(addr + 4);
+            final long blockCount = Unsafe.getUnsafe().getLong(addr + 16);
+            final long dataAddr = addr + HEADER_SIZE + blockCount * Long.BYTES;
+            if (Unsafe.getUnsafe().getInt(addr) != MAGIC
+                    || Unsafe.getUnsafe().getLong(addr + 8) != rawSize
+                    || blockCount != (rawSize + BLOCK_SIZE - 1) / BLOCK_SIZE
+                    || dataAddr > addr + fileSize) {
+                throw CairoException.critical(0).put("corrupt compressed column file [fd=").put(fd).put(']');
+            }
+            if (blockCount == 0) {
+                return;
+            }
+            z = Zip.inflateInit(true);
+            if (z < 0) {
+                z = 0;
+                throw CairoException.critical(0).put("could not initialize inflater [fd=").put(fd).put(']');
+            }
+            long lo = 0;
+            for (long b = 0; b < blockCount; b++) {
+                final long hi = Unsafe.getUnsafe().getLong(addr + HEADER_SIZE + b * Long.BYTES);
+                if (hi < lo || dataAddr + hi > addr + fileSize) {
+                    throw CairoException.critical(0).put("corrupt compressed column file [fd=").put(fd).put(", block=").put(b).put(']');
+                }
+                final long blockLo = b * BLOCK_SIZE;
+                final int blockSize = (int) Math.min(BLOCK_SIZE, rawSize - blockLo);
+                if (b > 0) {
+                    Zip.inflateReset(z);
+                }
+                Zip.setInput(z, dataAddr + lo, (int) (hi - lo));
+                final int len = Zip.inflate(z, dstAddr + blockLo, blockSize, true);
+                if (len != blockSize) {
+                    throw CairoException.critical(0).put("could not inflate [fd=").put(fd).put(", block=").put(b).put(", ret=").put(len).put(']');
+                }
+                if ((flags & FLAG_DELTA_OF_DELTA) != 0) {
+                    decodeDeltaOfDelta(dstAddr + blockLo, blockSize);
+                }
+                lo = hi;
+            }
+        } finally {
+            if (z != 0) {
+                Zip.inflateEnd(z);
+            }
+            ff.munmap(addr, fileSize, MemoryTag.MMAP_DEFAULT);
+        }
+    }
+
+    /**
+     * Restores the raw column file dst from the compressed file src.
+     */
+    public static void decompress(FilesFacade ff, LPSZ src, LPSZ dst, long opts) {
+        final int srcFd = TableUtils.openRO(ff, src, LOG);
+        int dstFd = -1;
+        long dstAddr = 0;
+        long rawSize = 0;
+        try {
+            rawSize = getRawSize(ff, srcFd);
+            dstFd = TableUtils.openRW(ff, dst, LOG, opts);
+            if (!ff.truncate(dstFd, rawSize)) {
+                throw CairoException.critical(ff.errno()).put("could not truncate [file=").put(dst).put(", size=").put(rawSize).put(']');
+            }
+            if (rawSize > 0) {
+                dstAddr = TableUtils.mapRW(ff, dstFd, rawSize, MemoryTag.MMAP_DEFAULT);
+                decompress(ff, srcFd, dstAddr, rawSize);
+            }
+        } finally {
+            if (dstAddr != 0) {
+                ff.munmap(dstAddr, rawSize, MemoryTag.MMAP_DEFAULT);
+            }
+            if (dstFd > -1) {
+                ff.close(dstFd);
+            }
+            ff.close(srcFd);
+        }
+    }
+
+    public static long getRawSize(FilesFacade ff, int fd) {
+        final long rawSize = ff.readNonNegativeLong(fd, 8);
+        if (rawSize < 0) {
+            throw CairoException.critical(ff.errno()).put("could not read compressed column size [fd=").put(fd).put(']');
+        }
+        return rawSize;
+    }
+
+    /**
+     * Reads the first long value of a compressed column file without inflating the whole file.
+     */
+    public static long readFirstLong(FilesFacade ff, LPSZ path) {
+        final int fd = TableUtils.openRO(ff, path, LOG);
+        final long fileSize = ff.length(fd);
+        long addr = 0;
+        long z = 0;
+        long buf = 0;
+        try {
+            if (fileSize < HEADER_SIZE + Long.BYTES || getRawSize(ff, fd) < Long.BYTES) {
+                throw CairoException.critical(0).put("compressed column file is too small [file=").put(path).put(']');
+            }
+            addr = TableUtils.mapRO(ff, fd, fileSize, MemoryTag.MMAP_DEFAULT);
+            final long blockCount = Unsafe.getUnsafe().getLong(addr + 16);
+            final long dataOffset = HEADER_SIZE + blockCount * Long.BYTES;
+            final long hi = Unsafe.getUnsafe().getLong(addr + HEADER_SIZE);
+            if (Unsafe.getUnsafe().getInt(addr) != MAGIC || hi < 0 || dataOffset + hi > fileSize) {
+                throw CairoException.critical(0).put("corrupt compressed column file [file=").put(path).put(']');
+            }
+            z = Zip.inflateInit(true);
+            if (z < 0) {
+                z = 0;
+                throw CairoException.critical(0).put("could not initialize inflater [file=").put(path).put(']');
+            }
+            buf = Unsafe.malloc(Long.BYTES, MemoryTag.NATIVE_DEFAULT);
+            Zip.setInput(z, addr + dataOffset, (int) hi);
+            final int len = Zip.inflate(z, buf, Long.BYTES, false);
+            if (len != Long.BYTES) {
+                throw CairoException.critical(0).put("could not inflate [file=").put(path).put(", ret=").put(len).put(']');
+            }
+            // delta-of-delta encoding keeps the first value of a block as is
+            return Unsafe.getUnsafe().getLong(buf);
+        } finally {
+            if (buf != 0) {
+                Unsafe.free(buf, Long.BYTES, MemoryTag.NATIVE_DEFAULT);
+            }
+            if (z != 0) {
+                Zip.inflateEnd(z);
+            }
+            if (addr != 0) {
+                ff.munmap(addr, fileSize, MemoryTag.MMAP_DEFAULT);
+            }
+            ff.close(fd);
+        }
+    }
+
+    private static void decodeDeltaOfDelta(long addr, int size) {
+        long prev = 0;
+        long prevDelta = 0;
+        for (long p = addr, lim = addr + size - Long.BYTES; p <= lim; p += Long.BYTES) {
+            final long delta = prevDelta + Unsafe.getUnsafe().getLong(p);
+            prev += delta;
+            prevDelta = delta;
+            Unsafe.getUnsafe().putLong(p, prev);
+        }
+    }
+
+    private static void encodeDeltaOfDelta(long srcAddr, long dstAddr, int size) {
+        long prev = 0;
+        long prevDelta = 0;
+        int i = 0;
+        for (int lim = size - Long.BYTES; i <= lim; i += Long.BYTES) {
+            final long value = Unsafe.getUnsafe().getLong(srcAddr + i);
+            final long delta = value - prev;
+            Unsafe.getUnsafe().putLong(dstAddr + i, delta - prevDelta);
+            prev = value;
+            prevDelta = delta;
+        }
+        // copy the tail of a block which is not a multiple of 8 verbatim
+        Vect.memcpy(dstAddr + i, srcAddr + i, size - i);
+    }
+
+    private static void write(FilesFacade ff, int fd, long addr, long len, long offset, LPSZ path) {
+        if (ff.write(fd, addr, len, offset) != len) {
+            throw CairoException.critical(ff.errno()).put("could not write [file=").put(path).put(", offset=").put(offset).put(", len=").put(len).put(']');
+        }
+    }
+}
@@ -287,6 +287,23 @@ public class ColumnPurgeOperator implements Closeable {
                     }
                 }
 
+                // partitions inflated from compressed files keep the compressed files alongside
+                path.trimTo(pathTrimToPartition);
+                TableUtils.dFile(path, task.getColumnName(), columnVersion);
+                if (couldNotRemove(ff, path.put(ColumnCompression.FILE_SUFFIX).$())) {
+                    allDone = false;
+                    continue;
+                }
+
+                if (ColumnType.isVariableLength(task.getColumnType())) {
+                    path.trimTo(pathTrimToPartition);
+                    TableUtils.iFile(path, task.getColumnName(), columnVersion);
+                    if (couldNotRemove(ff, path.put(ColumnCompression.FILE_SUFFIX).$())) {
+                        allDone = false;
+                        continue;
+                    }
+                }
+
                 // Check if it's symbol, try remove .k and .v files in the partition
                 if (ColumnType.isSymbol(task.getColumnType())) {
                     path.trimTo(pathTrimToPartition);
@@ -383,6 +383,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 1024;
     }
 
+    @Override
+    public int getPageFramePrefetchCount() {
+        return 2;
+    }
+
     @Override
     public int getPageFrameReduceColumnListCapacity() {
         return 16;
@@ -413,6 +418,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 100000;
     }
 
+    @Override
+    public long getPartitionCompressionCheckInterval() {
+        return 60_000;
+    }
+
     @Override
     public int getPartitionPurgeListCapacity() {
         return 64;
@@ -423,6 +433,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 4;
     }
 
+    @Override
+    public int getQueryPlanCacheCapacity() {
+        return 256;
+    }
+
     @Override
     public int getReaderPoolMaxSegments() {
         return 5;
@@ -790,6 +805,16 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 200000;
     }
 
+    @Override
+    public long getWalSquashMaxRows() {
+        return 1_000_000;
+    }
+
+    @Override
+    public long getWalSquashMaxSize() {
+        return 256 * Numbers.SIZE_1MB;
+    }
+
     @Override
     public int getWalTxnNotificationQueueCapacity() {
         return 4096;
@@ -839,6 +864,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 1024 - 1;
     }
 
+    @Override
+    public long getZoneMapBlockRowCount() {
+        return 0;
+    }
+
     @Override
     public boolean isIOURingEnabled() {
         return true;
@@ -854,6 +884,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isQueryPlanCacheEnabled() {
+        return true;
+    }
+
     @Override
     public boolean isReadOnlyInstance() {
         return false;
@@ -879,6 +914,21 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isSqlParallelGroupByEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isSqlParallelHashJoinEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isSqlParallelOrderByEnabled() {
+        return true;
+    }
+
     @Override
     public boolean isWalSupported() {
         return false;
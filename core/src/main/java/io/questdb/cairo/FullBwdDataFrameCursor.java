@@ -31,13 +31,22 @@ public class FullBwdDataFrameCursor extends AbstractFullDataFrameCursor {
 
     @Override
     public DataFrame next() {
+        if (partitionRowLo < partitionRowHi && nextZoneMapFrame()) {
+            return frame;
+        }
         while (this.partitionIndex > -1) {
             final long hi = reader.openPartition(partitionIndex);
             if (hi < 1) {
                 // this partition is missing, skip
                 partitionIndex--;
+            } else if (openZoneMap(partitionIndex, hi)) {
+                partitionIndex--;
+                if (nextZoneMapFrame()) {
+                    return frame;
+                }
             } else {
                 frame.partitionIndex = partitionIndex;
+                frame.rowLo = 0;
                 frame.rowHi = hi;
                 partitionIndex--;
                 return frame;
@@ -79,6 +88,7 @@ public class FullBwdDataFrameCursor extends AbstractFullDataFrameCursor {
         frame.rowHi = position > -1L ? partitionRows - position : position;
         frame.rowLo = 0;
         this.partitionIndex = partitionIndex - 1;
+        this.partitionRowLo = this.partitionRowHi = 0;
 
         return frame;
     }
@@ -90,5 +100,19 @@ public class FullBwdDataFrameCursor extends AbstractFullDataFrameCursor {
     @Override
     public void toTop() {
         this.partitionIndex = this.partitionHi - 1;
+        this.partitionRowLo = 0;
+        this.partitionRowHi = 0;
+    }
+
+    private boolean nextZoneMapFrame() {
+        final long hi = zoneMapFilter.findPrevMatchHi(partitionRowLo, partitionRowHi);
+        if (hi > partitionRowLo) {
+            frame.rowLo = zoneMapFilter.findPrevMatchLo(partitionRowLo, hi);
+            frame.rowHi = hi;
+            partitionRowHi = frame.rowLo;
+            return true;
+        }
+        partitionRowLo = partitionRowHi = 0;
+        return false;
     }
 }
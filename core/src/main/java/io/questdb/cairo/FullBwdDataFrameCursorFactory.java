@@ -38,7 +38,7 @@ public class FullBwdDataFrameCursorFactory extends AbstractDataFrameCursorFactor
     @Override
     public DataFrameCursor getCursor(SqlExecutionContext executionContext, int order) {
         if (order == ORDER_DESC || order == ORDER_ANY) {
-            return cursor.of(getReader(executionContext));
+            return cursor.of(getReader(executionContext), zoneMapFilter);
         }
 
         throw new UnsupportedOperationException();
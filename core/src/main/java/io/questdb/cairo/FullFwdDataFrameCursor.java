@@ -31,11 +31,19 @@ public class FullFwdDataFrameCursor extends AbstractFullDataFrameCursor {
 
     @Override
     public @Nullable DataFrame next() {
+        if (partitionRowLo < partitionRowHi && nextZoneMapFrame()) {
+            return frame;
+        }
         while (partitionIndex < partitionHi) {
             final long hi = getTableReader().openPartition(partitionIndex);
             if (hi < 1) {
                 // this partition is missing, skip
                 partitionIndex++;
+            } else if (openZoneMap(partitionIndex, hi)) {
+                partitionIndex++;
+                if (nextZoneMapFrame()) {
+                    return frame;
+                }
             } else {
                 frame.partitionIndex = partitionIndex;
                 frame.rowLo = 0;
@@ -79,6 +87,7 @@ public class FullFwdDataFrameCursor extends AbstractFullDataFrameCursor {
         frame.rowHi = partitionRows;
         frame.rowLo = position;
         this.partitionIndex = partitionIndex + 1;
+        this.partitionRowLo = this.partitionRowHi = 0;
 
         return frame;
     }
@@ -90,5 +99,19 @@ public class FullFwdDataFrameCursor extends AbstractFullDataFrameCursor {
     @Override
     public void toTop() {
         this.partitionIndex = 0;
+        this.partitionRowLo = 0;
+        this.partitionRowHi = 0;
+    }
+
+    private boolean nextZoneMapFrame() {
+        final long lo = zoneMapFilter.findMatchLo(partitionRowLo, partitionRowHi);
+        if (lo < partitionRowHi) {
+            frame.rowLo = lo;
+            frame.rowHi = zoneMapFilter.findMatchHi(lo, partitionRowHi);
+            partitionRowLo = frame.rowHi;
+            return true;
+        }
+        partitionRowLo = partitionRowHi = 0;
+        return false;
     }
 }
@@ -39,7 +39,7 @@ public class FullFwdDataFrameCursorFactory extends AbstractDataFrameCursorFactor
     @Override
     public DataFrameCursor getCursor(SqlExecutionContext executionContext, int order) {
         if (order == ORDER_ASC || order == ORDER_ANY) {
-            return cursor.of(getReader(executionContext));
+            return cursor.of(getReader(executionContext), zoneMapFilter);
         }
 
         // Create backward scanning cursor when needed. Factory requesting backward cursor must
@@ -47,7 +47,7 @@ public class FullFwdDataFrameCursorFactory extends AbstractDataFrameCursorFactor
         if (bwdCursor == null) {
             bwdCursor = new FullBwdDataFrameCursor();
         }
-        return bwdCursor.of(getReader(executionContext));
+        return bwdCursor.of(getReader(executionContext), zoneMapFilter);
     }
 
     @Override
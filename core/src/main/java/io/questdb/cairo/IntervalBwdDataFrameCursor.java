@@ -123,7 +123,9 @@ public class IntervalBwdDataFrameCursor extends AbstractIntervalDataFrameCursor
                     dataFrame.rowLo = lo;
                     dataFrame.rowHi = hi;
                     sizeSoFar += hi - lo;
-                    return dataFrame;
+                    if (applyZoneMap(rowCount)) {
+                        return dataFrame;
+                    }
                 }
             } else {
                 // partition was empty, just skip to next
@@ -57,7 +57,7 @@ public class IntervalBwdDataFrameCursorFactory extends AbstractDataFrameCursorFa
     @Override
     public DataFrameCursor getCursor(SqlExecutionContext executionContext, int order) throws SqlException {
         if (order == ORDER_DESC || order == ORDER_ANY) {
-            cursor.of(getReader(executionContext), executionContext);
+            cursor.of(getReader(executionContext), executionContext, zoneMapFilter);
             return cursor;
         }
         throw new UnsupportedOperationException();
@@ -109,7 +109,10 @@ public class IntervalFwdDataFrameCursor extends AbstractIntervalDataFrameCursor
                         intervalsLo++;
                     }
 
-                    return dataFrame;
+                    if (applyZoneMap(rowCount)) {
+                        return dataFrame;
+                    }
+                    continue;
                 }
                 // interval yielded empty data frame
                 partitionLimit = hi;
@@ -58,14 +58,14 @@ public class IntervalFwdDataFrameCursorFactory extends AbstractDataFrameCursorFa
     @Override
     public DataFrameCursor getCursor(SqlExecutionContext executionContext, int order) throws SqlException {
         if (order == ORDER_ASC || order == ORDER_ANY) {
-            cursor.of(getReader(executionContext), executionContext);
+            cursor.of(getReader(executionContext), executionContext, zoneMapFilter);
             return cursor;
         }
 
         if (bwdCursor == null) {
             bwdCursor = new IntervalBwdDataFrameCursor(intervals, cursor.getTimestampIndex());
         }
-        return bwdCursor.of(getReader(executionContext), executionContext);
+        return bwdCursor.of(getReader(executionContext), executionContext, zoneMapFilter);
     }
 
     @Override
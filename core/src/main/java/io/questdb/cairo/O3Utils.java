@@ -40,6 +40,18 @@ public class O3Utils {
 
     private static final Log LOG = LogFactory.getLog(O3Utils.class);
 
+    /**
+     * Assigns jobs processing O3 merge tasks. The tasks of all tables are published to the same
+     * queues, so the pool workers merge partitions of any table, while each table writer waits
+     * for its own tasks only before committing.
+     */
+    public static void setupO3Jobs(WorkerPool workerPool, MessageBus messageBus) {
+        workerPool.assign(new O3PartitionJob(messageBus));
+        workerPool.assign(new O3OpenColumnJob(messageBus));
+        workerPool.assign(new O3CopyJob(messageBus));
+        workerPool.assign(new O3CallbackJob(messageBus));
+    }
+
     public static void setupWorkerPool(
             WorkerPool workerPool,
             CairoEngine cairoEngine,
@@ -58,10 +70,7 @@ public class O3Utils {
             workerPool.assign(columnPurgeJob);
         }
 
-        workerPool.assign(new O3PartitionJob(messageBus));
-        workerPool.assign(new O3OpenColumnJob(messageBus));
-        workerPool.assign(new O3CopyJob(messageBus));
-        workerPool.assign(new O3CallbackJob(messageBus));
+        setupO3Jobs(workerPool, messageBus);
         workerPool.freeOnExit(purgeDiscoveryJob);
 
         final MicrosecondClock microsecondClock = messageBus.getConfiguration().getMicrosecondClock();
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.ObjList;
+import io.questdb.std.datetime.microtime.MicrosecondClock;
+import io.questdb.std.str.Path;
+
+import java.io.Closeable;
+
+/**
+ * Periodically compresses partitions of the tables, which have the compressionAge parameter set,
+ * once the partitions become older than the configured age.
+ */
+public class PartitionCompressionJob extends SynchronizedJob implements Closeable {
+    private static final Log LOG = LogFactory.getLog(PartitionCompressionJob.class);
+    private final long checkInterval;
+    private final MicrosecondClock clock;
+    private final CairoEngine engine;
+    private final FilesFacade ff;
+    private final Path path = new Path();
+    private final int rootLen;
+    private final ObjList<TableToken> tableTokenBucket = new ObjList<>();
+    private long last = 0;
+
+    public PartitionCompressionJob(CairoEngine engine) {
+        final CairoConfiguration configuration = engine.getConfiguration();
+        this.engine = engine;
+        this.ff = configuration.getFilesFacade();
+        this.clock = configuration.getMicrosecondClock();
+        this.checkInterval = configuration.getPartitionCompressionCheckInterval() * 1000;
+        this.rootLen = path.of(configuration.getRoot()).length();
+    }
+
+    @Override
+    public void close() {
+        path.close();
+    }
+
+    /**
+     * Compresses eligible partitions of all tables.
+     *
+     * @return number of compressed partitions
+     */
+    public int compressPartitions() {
+        final long now = clock.getTicks();
+        int compressedCount = 0;
+        tableTokenBucket.clear();
+        engine.getTableTokens(tableTokenBucket, false);
+        for (int i = 0, n = tableTokenBucket.size(); i < n; i++) {
+            final TableToken tableToken = tableTokenBucket.getQuick(i);
+            final long compressionAge = readCompressionAge(tableToken);
+            if (compressionAge > 0) {
+                try (TableWriter writer = engine.getWriterUnsafe(tableToken, "partition compression")) {
+                    compressedCount += writer.compressPartitions(now - compressionAge);
+                } catch (EntryUnavailableException e) {
+                    LOG.debug().$("table is busy, skipping [table=").utf8(tableToken.getTableName()).I$();
+                } catch (CairoException e) {
+                    LOG.error().$("could not compress partitions [table=").utf8(tableToken.getTableName())
+                            .$(", errno=").$(e.getErrno())
+                            .$(", error=").$(e.getFlyweightMessage())
+                            .I$();
+                }
+            }
+        }
+        return compressedCount;
+    }
+
+    private long readCompressionAge(TableToken tableToken) {
+        path.trimTo(rootLen).concat(tableToken.getDirName()).concat(TableUtils.META_FILE_NAME).$();
+        final int fd = ff.openRO(path);
+        if (fd < 0) {
+            // the table may have been dropped concurrently
+            return -1;
+        }
+        try {
+            return ff.readNonNegativeLong(fd, TableUtils.META_OFFSET_COMPRESSION_AGE);
+        } finally {
+            ff.close(fd);
+        }
+    }
+
+    @Override
+    protected boolean runSerially() {
+        final long t = clock.getTicks();
+        if (last + checkInterval < t) {
+            last = t;
+            return compressPartitions() > 0;
+        }
+        return false;
+    }
+}
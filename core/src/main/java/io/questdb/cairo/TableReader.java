@@ -27,6 +27,7 @@ package io.questdb.cairo;
 import io.questdb.MessageBus;
 import io.questdb.cairo.sql.StaticSymbolTable;
 import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.cairo.vm.MemoryCMRCompressedImpl;
 import io.questdb.cairo.vm.NullMemoryMR;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryMR;
@@ -69,6 +70,7 @@ public class TableReader implements Closeable, SymbolTableSource {
     private final MemoryMR todoMem = Vm.getMRInstance();
     private final TxReader txFile;
     private final TxnScoreboard txnScoreboard;
+    private final ObjList<ZoneMap> zoneMaps = new ObjList<>();
     private ObjList<BitmapIndexReader> bitmapIndexes;
     private int columnCount;
     private int columnCountShl;
@@ -334,6 +336,37 @@ public class TableReader implements Closeable, SymbolTableSource {
         return txFile.getStructureVersion();
     }
 
+    /**
+     * Returns min/max statistics of a partition, which are loaded on first use and
+     * kept until the partition changes.
+     *
+     * @param partitionIndex index of the partition
+     * @return statistics or null when the partition has none
+     */
+    public ZoneMap getZoneMap(int partitionIndex) {
+        // the last partition is still being appended to and read-only partitions may come
+        // from another table, their statistics cannot be trusted
+        if (partitionIndex >= partitionCount - 1 || txFile.isPartitionReadOnly(partitionIndex)) {
+            return null;
+        }
+        ZoneMap zoneMap = zoneMaps.getQuiet(partitionIndex);
+        if (zoneMap == null) {
+            zoneMap = new ZoneMap();
+            zoneMaps.extendAndSet(partitionIndex, zoneMap);
+        }
+        final long partitionTimestamp = txFile.getPartitionTimestamp(partitionIndex);
+        final long partitionNameTxn = txFile.getPartitionNameTxn(partitionIndex);
+        try {
+            TableUtils.setPathForPartition(path, rootLen, partitionBy, partitionTimestamp, partitionNameTxn);
+            if (zoneMap.of(ff, path, partitionTimestamp, partitionNameTxn, txFile.getPartitionSize(partitionIndex), txn)) {
+                return zoneMap;
+            }
+            return null;
+        } finally {
+            path.trimTo(rootLen);
+        }
+    }
+
     public void goActive() {
         reload();
     }
@@ -771,11 +804,22 @@ public class TableReader implements Closeable, SymbolTableSource {
             ObjList<MemoryMR> columns,
             int primaryIndex,
             MemoryMR mem,
-            long columnSize
+            long columnSize,
+            boolean compressed
     ) {
-        if (mem != null && mem != NullMemoryMR.INSTANCE) {
+        if (compressed) {
+            // compressed column files are inflated into native memory as a whole
+            path.put(ColumnCompression.FILE_SUFFIX).$();
+            if (!(mem instanceof MemoryCMRCompressedImpl)) {
+                Misc.free(mem);
+                mem = Vm.getCompressedMRInstance();
+                columns.setQuick(primaryIndex, mem);
+            }
+            mem.of(ff, path, columnSize, columnSize, MemoryTag.NATIVE_TABLE_READER);
+        } else if (mem != null && mem != NullMemoryMR.INSTANCE && !(mem instanceof MemoryCMRCompressedImpl)) {
             mem.of(ff, path, columnSize, columnSize, MemoryTag.MMAP_TABLE_READER);
         } else {
+            Misc.free(mem);
             mem = Vm.getMRInstance(ff, path, columnSize, MemoryTag.MMAP_TABLE_READER);
             columns.setQuick(primaryIndex, mem);
         }
@@ -1009,18 +1053,19 @@ public class TableReader implements Closeable, SymbolTableSource {
             // of when the column was added.
             if (columnRowCount > 0 && (versionRecordIndex > -1L || columnVersionReader.getColumnTopPartitionTimestamp(writerIndex) <= partitionTimestamp)) {
                 final int columnType = metadata.getColumnType(columnIndex);
+                final boolean compressed = txFile.isPartitionCompressed(partitionIndex);
 
                 if (ColumnType.isVariableLength(columnType)) {
                     long columnSize = columnRowCount * 8L + 8L;
                     TableUtils.iFile(path.trimTo(plen), name, columnTxn);
-                    mem2 = openOrCreateMemory(path, columns, secondaryIndex, mem2, columnSize);
+                    mem2 = openOrCreateMemory(path, columns, secondaryIndex, mem2, columnSize, compressed);
                     columnSize = mem2.getLong(columnRowCount * 8L);
                     TableUtils.dFile(path.trimTo(plen), name, columnTxn);
-                    openOrCreateMemory(path, columns, primaryIndex, mem1, columnSize);
+                    openOrCreateMemory(path, columns, primaryIndex, mem1, columnSize, compressed);
                 } else {
                     long columnSize = columnRowCount << ColumnType.pow2SizeOf(columnType);
                     TableUtils.dFile(path.trimTo(plen), name, columnTxn);
-                    openOrCreateMemory(path, columns, primaryIndex, mem1, columnSize);
+                    openOrCreateMemory(path, columns, primaryIndex, mem1, columnSize, compressed);
                     Misc.free(columns.getAndSetQuick(secondaryIndex, null));
                 }
 
@@ -1124,7 +1169,8 @@ public class TableReader implements Closeable, SymbolTableSource {
             for (int i = 0; i < columnCount; i++) {
                 final int index = getPrimaryColumnIndex(columnBase, i);
                 final MemoryMR mem1 = columns.getQuick(index);
-                if (mem1 instanceof NullMemoryMR) {
+                // compressed partition that grows has been inflated back by the writer
+                if (mem1 instanceof NullMemoryMR || mem1 instanceof MemoryCMRCompressedImpl) {
                     reloadColumnAt(
                             partitionIndex,
                             path,
@@ -66,6 +66,7 @@ public final class TableUtils {
     public static final long META_COLUMN_DATA_SIZE = 32;
     public static final String META_FILE_NAME = "_meta";
     public static final long META_OFFSET_COLUMN_TYPES = 128;
+    public static final long META_OFFSET_COMPRESSION_AGE = 48; // LONG
     public static final long META_OFFSET_COUNT = 0;
     public static final long META_OFFSET_MAX_UNCOMMITTED_ROWS = 20; // LONG
     public static final long META_OFFSET_O3_MAX_LAG = 24; // LONG
@@ -156,8 +156,15 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private final TxnScoreboard txnScoreboard;
     private final Uuid uuid = new Uuid();
     private final LowerCaseCharSequenceIntHashMap validationMap = new LowerCaseCharSequenceIntHashMap();
+    // WAL rows of several transactions staged to be committed at once, same layout as walMappedColumns
+    private final ObjList<MemoryCARW> walBatchColumns = new ObjList<>();
+    // first batch row of each transaction in the batch
+    private final LongList walBatchTxnRowLo = new LongList();
     private final WeakClosableObjectPool<MemoryCMOR> walColumnMemoryPool;
     private final ObjList<MemoryCMOR> walMappedColumns = new ObjList<>();
+    // partitions, which zone maps are written after commit
+    private final LongList zoneMapPartitions = new LongList();
+    private final ZoneMapWriter zoneMapWriter;
     private ObjList<? extends MemoryA> activeColumns;
     private ObjList<Runnable> activeNullSetters;
     private ColumnVersionReader attachColumnVersionReader;
@@ -227,6 +234,12 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private final FragileCode RECOVER_FROM_SWAP_RENAME_FAILURE = this::recoverFromSwapRenameFailure;
     private final FragileCode RECOVER_FROM_COLUMN_OPEN_FAILURE = this::recoverOpenColumnFailure;
     private UpdateOperatorImpl updateOperatorImpl;
+    private boolean walBatchOrdered = true;
+    private long walBatchRowCount;
+    private long walBatchSize;
+    private long walBatchTimestampMax = Long.MIN_VALUE;
+    private long walBatchTimestampMin = Long.MAX_VALUE;
+    private long zoneMapLastPartitionTimestamp = Long.MIN_VALUE;
 
     public TableWriter(
             CairoConfiguration configuration,
@@ -256,6 +269,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         this.path = new Path().of(root).concat(tableToken);
         this.other = new Path().of(root).concat(tableToken);
         this.rootLen = path.length();
+        this.zoneMapWriter = new ZoneMapWriter(configuration);
         try {
             if (lock) {
                 lock();
@@ -605,6 +619,89 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         metrics.tableWriter().addPhysicallyWrittenRows(rows);
     }
 
+    /**
+     * Copies rows of a WAL DATA transaction to the batch to be committed by {@link #commitWalBatch(long)}.
+     * Symbol keys are remapped to the table symbol keys on the way, the new symbol values are added
+     * to the symbol maps straight away and become visible with the batch commit.
+     */
+    public void appendWalBatch(
+            @Transient Path walPath,
+            boolean inOrder,
+            long rowLo,
+            long rowHi,
+            long o3TimestampMin,
+            long o3TimestampMax,
+            SymbolMapDiffCursor mapDiffCursor
+    ) {
+        if (walBatchRowCount == 0) {
+            if (inTransaction()) {
+                distressed = true;
+                throw CairoException.critical(0).put("cannot process WAL while in transaction");
+            }
+            openWalBatchColumns();
+        }
+
+        final int timestampIndex = metadata.getTimestampIndex();
+        final int walRootPathLen = walPath.length();
+        final long batchRowLo = walBatchRowCount;
+        final long rowCount = rowHi - rowLo;
+        try {
+            mmapWalColumns(walPath, timestampIndex, rowLo, rowHi);
+            try {
+                for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                    final int type = metadata.getColumnType(columnIndex);
+                    if (type > 0) {
+                        final int primaryIndex = getPrimaryColumnIndex(columnIndex);
+                        final MemoryCR srcPrimary = walMappedColumns.getQuick(primaryIndex);
+                        final MemoryCARW dstPrimary = walBatchColumns.getQuick(primaryIndex);
+                        if (!ColumnType.isVariableLength(type)) {
+                            int shl = ColumnType.pow2SizeOf(type);
+                            if (columnIndex == timestampIndex) {
+                                shl += 1;
+                            }
+                            dstPrimary.putBlockOfBytes(srcPrimary.addressOf(rowLo << shl), rowCount << shl);
+                            walBatchSize += rowCount << shl;
+                        } else {
+                            final MemoryCR srcSecondary = walMappedColumns.getQuick(primaryIndex + 1);
+                            final MemoryCARW dstSecondary = walBatchColumns.getQuick(primaryIndex + 1);
+                            final long varLo = srcSecondary.getLong(rowLo << 3);
+                            final long varHi = srcSecondary.getLong(rowHi << 3);
+                            final long dstVarLo = dstPrimary.getAppendOffset();
+                            dstPrimary.putBlockOfBytes(srcPrimary.addressOf(varLo), varHi - varLo);
+                            // overwrite the trailing offset of the previous transaction
+                            dstSecondary.jumpTo(batchRowLo << 3);
+                            Vect.shiftCopyFixedSizeColumnData(
+                                    varLo - dstVarLo,
+                                    srcSecondary.addressOf(rowLo << 3),
+                                    0,
+                                    rowCount,
+                                    dstSecondary.appendAddressFor((rowCount + 1) << 3)
+                            );
+                            walBatchSize += varHi - varLo + (rowCount << 3);
+                        }
+                    }
+                }
+            } finally {
+                closeWalColumns();
+            }
+
+            try {
+                o3Columns = walBatchColumns;
+                remapWalSymbols(mapDiffCursor, batchRowLo, batchRowLo + rowCount, walPath);
+            } finally {
+                o3Columns = o3MemColumns;
+            }
+        } finally {
+            walPath.trimTo(walRootPathLen);
+        }
+
+        walBatchTxnRowLo.add(batchRowLo);
+        walBatchOrdered &= inOrder && o3TimestampMin >= walBatchTimestampMax;
+        walBatchTimestampMin = Math.min(walBatchTimestampMin, o3TimestampMin);
+        walBatchTimestampMax = Math.max(walBatchTimestampMax, o3TimestampMax);
+        walBatchRowCount += rowCount;
+    }
+
     public void apply(AbstractOperation operation, long seqTxn) {
         try {
             setSeqTxn(seqTxn);
@@ -742,6 +839,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     }
                 }
 
+                if (!isSoftLink) {
+                    // statistics of the detached partition may not match the column versions of this table
+                    removeZoneMap(path);
+                }
                 checkPassed = true;
             } else {
                 LOG.info().$("attach partition command failed, partition to attach does not exist [path=").$(detachedPath).I$();
@@ -848,6 +949,107 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         txWriter.commit(defaultCommitMode, denseSymbolMapWriters);
     }
 
+    /**
+     * Merges the rows staged by {@link #appendWalBatch} into the table with a single O3 pass
+     * and commits them as the given sequencer transaction.
+     */
+    public void commitWalBatch(long seqTxn) {
+        if (walBatchRowCount == 0) {
+            return;
+        }
+
+        try {
+            txWriter.beginPartitionSizeUpdate();
+            LOG.info().$("processing WAL batch [table=").utf8(tableToken.getTableName())
+                    .$(", rowCount=").$(walBatchRowCount)
+                    .$(", tsMin=").$ts(walBatchTimestampMin).$(", tsMax=").$ts(walBatchTimestampMax)
+                    .$(", ordered=").$(walBatchOrdered)
+                    .$(", seqTxn=").$(seqTxn)
+                    .I$();
+            if (rowAction == ROW_ACTION_OPEN_PARTITION && txWriter.getMaxTimestamp() == Long.MIN_VALUE) {
+                // table truncated, open partition file.
+                openFirstPartition(walBatchTimestampMin);
+            }
+
+            final int timestampIndex = metadata.getTimestampIndex();
+            this.lastPartitionTimestamp = partitionFloorMethod.floor(partitionTimestampHi);
+            final long partitionTimestampHiLimit = partitionCeilMethod.ceil(partitionTimestampHi) - 1;
+            // row ids of the timestamp index are relative to the WAL segments, renumber them to the batch rows
+            final long timestampAddr = walBatchColumns.getQuick(getPrimaryColumnIndex(timestampIndex)).addressOf(0);
+            Vect.flattenIndex(timestampAddr, walBatchRowCount);
+            if (!walBatchOrdered) {
+                reverseWalBatchTransactions(timestampAddr);
+            }
+            o3RowCount = walBatchRowCount;
+            try {
+                processWalColumns(
+                        walBatchColumns,
+                        timestampIndex,
+                        walBatchOrdered,
+                        0,
+                        walBatchRowCount,
+                        walBatchTimestampMin,
+                        walBatchTimestampMax,
+                        null,
+                        null
+                );
+            } finally {
+                finishO3Append(0L);
+                o3Columns = o3MemColumns;
+            }
+            finishO3Commit(partitionTimestampHiLimit);
+            commitWalData(seqTxn);
+        } finally {
+            resetWalBatch();
+        }
+    }
+
+    /**
+     * Compresses column files of the partitions, which end at or before the given timestamp. Each partition
+     * is compressed into a new partition version and committed on its own, the previous version is purged once
+     * readers no longer use it. The last partition is never compressed as it is open for appends.
+     *
+     * @param timestampHi partitions that end at or before this timestamp are compressed
+     * @return number of compressed partitions
+     */
+    public int compressPartitions(long timestampHi) {
+        if (!PartitionBy.isPartitioned(partitionBy)) {
+            return 0;
+        }
+
+        // commit changes, there may be uncommitted rows of any partition
+        commit();
+
+        int compressedCount = 0;
+        try {
+            for (int i = 0, n = txWriter.getPartitionCount() - 1; i < n; i++) {
+                if (partitionCeilMethod.ceil(txWriter.getPartitionTimestamp(i)) > timestampHi) {
+                    break;
+                }
+                if (!txWriter.isPartitionCompressed(i) && !txWriter.isPartitionReadOnly(i)) {
+                    compressPartition(i);
+                    compressedCount++;
+                }
+            }
+        } finally {
+            processPartitionRemoveCandidates();
+        }
+        return compressedCount;
+    }
+
+    /**
+     * Inflates column files of a compressed partition next to the compressed files, so that the partition
+     * can be modified. The partition is marked as not compressed with the next commit.
+     *
+     * @param partitionIndex index of the partition
+     */
+    public void decompressPartition(int partitionIndex) {
+        decompressPartitionFiles(txWriter.getPartitionTimestamp(partitionIndex), txWriter.getPartitionNameTxn(partitionIndex));
+        txWriter.setPartitionCompressed(partitionIndex, false);
+        // column files of the partition were swapped, readers have to reopen them
+        txWriter.bumpPartitionTableVersion();
+    }
+
     public void destroy() {
         // Closes all the files and makes this instance unusable e.g. it cannot return to the pool on close.
         LOG.info().$("closing table files [table=").utf8(tableToken.getTableName())
@@ -883,6 +1085,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         long minTimestamp = txWriter.getMinTimestamp();
 
         long partitionNameTxn = txWriter.getPartitionNameTxn(partitionIndex);
+        if (txWriter.isPartitionCompressed(partitionIndex)) {
+            // detached partitions are attached back as raw column files
+            decompressPartitionFiles(timestamp, partitionNameTxn);
+        }
         Path detachedPath = Path.PATH.get();
 
         try {
@@ -1221,6 +1427,20 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return updateOperatorImpl;
     }
 
+    /**
+     * @return number of rows staged by {@link #appendWalBatch} and not yet committed
+     */
+    public long getWalBatchRowCount() {
+        return walBatchRowCount;
+    }
+
+    /**
+     * @return number of bytes of column data staged by {@link #appendWalBatch} and not yet committed
+     */
+    public long getWalBatchSize() {
+        return walBatchSize;
+    }
+
     public boolean hasO3() {
         return o3MasterRef > -1;
     }
@@ -1240,13 +1460,17 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     }
 
     public boolean inTransaction() {
-        return txWriter != null && (txWriter.inTransaction() || hasO3() || columnVersionWriter.hasChanges());
+        return txWriter != null && (txWriter.inTransaction() || hasO3() || columnVersionWriter.hasChanges() || walBatchRowCount > 0);
     }
 
     public boolean isOpen() {
         return tempMem16b != 0;
     }
 
+    public boolean isPartitionCompressed(int partitionIndex) {
+        return txWriter.isPartitionCompressed(partitionIndex);
+    }
+
     public boolean isPartitionReadOnly(int partitionIndex) {
         return txWriter.isPartitionReadOnly(partitionIndex);
     }
@@ -1379,37 +1603,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             mmapWalColumns(walPath, timestampIndex, rowLo, rowHi);
 
             try {
-                o3Columns = walMappedColumns;
-                MemoryCR walTimestampColumn = walMappedColumns.getQuick(getPrimaryColumnIndex(timestampIndex));
-                long timestampAddr;
-                long o3Lo = rowLo;
-                long o3Hi = rowHi;
-
-                if (!ordered) {
-                    final long timestampMemorySize = (rowHi - rowLo) << 4;
-                    o3TimestampMem.jumpTo(timestampMemorySize);
-                    long destTimestampAddr = o3TimestampMem.getAddress();
-                    Vect.memcpy(destTimestampAddr, walTimestampColumn.addressOf(rowLo << 4), timestampMemorySize);
-                    if (rowHi - rowLo > 600 || !o3QuickSortEnabled) {
-                        o3TimestampMemCpy.jumpTo(timestampMemorySize);
-                        Vect.radixSortLongIndexAscInPlace(destTimestampAddr, o3RowCount, o3TimestampMemCpy.addressOf(0));
-                    } else {
-                        Vect.quickSortLongIndexAscInPlace(destTimestampAddr, o3RowCount);
-                    }
-
-                    o3Sort(destTimestampAddr, timestampIndex, rowHi - rowLo);
-                    timestampAddr = destTimestampAddr;
-
-                    // Sorted data is now sorted in memory copy of the data from mmap files
-                    // Row indexes start from 0, not rowLo
-                    o3Hi = rowHi - rowLo;
-                    o3Lo = 0L;
-                } else {
-                    timestampAddr = walTimestampColumn.addressOf(0);
-                }
-
-                o3Columns = remapWalSymbols(mapDiffCursor, o3Lo, o3Hi, walPath);
-                processO3Block(0L, timestampIndex, timestampAddr, o3Hi, o3TimestampMin, o3TimestampMax, !ordered, o3Lo);
+                processWalColumns(walMappedColumns, timestampIndex, ordered, rowLo, rowHi, o3TimestampMin, o3TimestampMax, mapDiffCursor, walPath);
             } finally {
                 finishO3Append(0L);
                 o3Columns = o3MemColumns;
@@ -1448,21 +1642,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             openFirstPartition(o3TimestampMin);
         }
         processWalBlock(walPath, metadata.getTimestampIndex(), inOrder, rowLo, rowHi, o3TimestampMin, o3TimestampMax, mapDiffCursor);
-        final long committedRowCount = txWriter.unsafeCommittedFixedRowCount() + txWriter.unsafeCommittedTransientRowCount();
-        final long rowsAdded = txWriter.getRowCount() - committedRowCount;
-
-        updateIndexes();
-        columnVersionWriter.commit();
-        txWriter.setSeqTxn(seqTxn);
-        txWriter.setColumnVersion(columnVersionWriter.getVersion());
-        txWriter.commit(defaultCommitMode, this.denseSymbolMapWriters);
-
-        // Bookmark masterRef to track how many rows is in uncommitted state
-        this.committedMasterRef = masterRef;
-        processPartitionRemoveCandidates();
-
-        metrics.tableWriter().incrementCommits();
-        metrics.tableWriter().addCommittedRows(rowsAdded);
+        commitWalData(seqTxn);
     }
 
     public void publishAsyncWriterCommand(AsyncWriterCommand asyncWriterCommand) {
@@ -1623,6 +1803,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                 final int prevIndex = index - 1;
                 prevTimestamp = txWriter.getPartitionTimestamp(prevIndex);
                 newTransientRowCount = txWriter.getPartitionSize(prevIndex);
+                if (txWriter.isPartitionCompressed(prevIndex)) {
+                    // the previous partition becomes active and is appended to in place
+                    decompressPartition(prevIndex);
+                }
                 try {
                     setPathForPartition(path.trimTo(rootLen), partitionBy, prevTimestamp, false);
                     TableUtils.txnPartitionConditionally(path, txWriter.getPartitionNameTxn(prevIndex));
@@ -1742,7 +1926,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             try {
                 LOG.info().$("tx rollback [name=").utf8(tableToken.getTableName()).I$();
                 partitionRemoveCandidates.clear();
+                zoneMapPartitions.clear();
                 o3CommitBatchTimestampMin = Long.MAX_VALUE;
+                resetWalBatch();
                 if ((masterRef & 1) != 0) {
                     masterRef++;
                 }
@@ -1796,6 +1982,28 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    @Override
+    public void setMetaCompressionAge(long compressionAgeUs) {
+        try {
+            commit();
+            long metaSize = copyMetadataAndUpdateVersion();
+            openMetaSwapFileByIndex(ff, ddlMem, path, rootLen, this.metaSwapIndex);
+            try {
+                ddlMem.jumpTo(META_OFFSET_COMPRESSION_AGE);
+                ddlMem.putLong(compressionAgeUs);
+                ddlMem.jumpTo(metaSize);
+            } finally {
+                ddlMem.close();
+            }
+
+            finishMetaSwapUpdate();
+            metadata.setCompressionAge(compressionAgeUs);
+            clearTodoLog();
+        } finally {
+            ddlMem.close();
+        }
+    }
+
     @Override
     public void setMetaO3MaxLag(long o3MaxLagUs) {
         try {
@@ -2628,6 +2836,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             // Bookmark masterRef to track how many rows is in uncommitted state
             this.committedMasterRef = masterRef;
             processPartitionRemoveCandidates();
+            writeZoneMaps();
 
             metrics.tableWriter().incrementCommits();
             metrics.tableWriter().addCommittedRows(rowsAdded);
@@ -2840,6 +3049,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         ddlMem.putLong(metaMem.getLong(META_OFFSET_O3_MAX_LAG));
         ddlMem.putLong(txWriter.getStructureVersion() + 1);
         ddlMem.putBool(metaMem.getBool(META_OFFSET_WAL_ENABLED));
+        ddlMem.jumpTo(META_OFFSET_COMPRESSION_AGE);
+        ddlMem.putLong(metaMem.getLong(META_OFFSET_COMPRESSION_AGE));
         metadata.setStructureVersion(txWriter.getStructureVersion() + 1);
     }
 
@@ -2929,6 +3140,148 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return identical;
     }
 
+    private void commitWalData(long seqTxn) {
+        final long committedRowCount = txWriter.unsafeCommittedFixedRowCount() + txWriter.unsafeCommittedTransientRowCount();
+        final long rowsAdded = txWriter.getRowCount() - committedRowCount;
+
+        updateIndexes();
+        columnVersionWriter.commit();
+        txWriter.setSeqTxn(seqTxn);
+        txWriter.setColumnVersion(columnVersionWriter.getVersion());
+        txWriter.commit(defaultCommitMode, this.denseSymbolMapWriters);
+
+        // Bookmark masterRef to track how many rows is in uncommitted state
+        this.committedMasterRef = masterRef;
+        processPartitionRemoveCandidates();
+        writeZoneMaps();
+
+        metrics.tableWriter().incrementCommits();
+        metrics.tableWriter().addCommittedRows(rowsAdded);
+    }
+
+    private long compressColumnFile(long size, int flags) {
+        // path points at the column file, other at the same file in the new partition version
+        if (size > 0) {
+            return ColumnCompression.compress(ff, path, size, other.put(ColumnCompression.FILE_SUFFIX).$(), flags, configuration.getWriterFileOpenOpts());
+        }
+        return 0;
+    }
+
+    private void compressPartition(int partitionIndex) {
+        final long partitionTimestamp = txWriter.getPartitionTimestamp(partitionIndex);
+        final long partitionSize = txWriter.getPartitionSize(partitionIndex);
+        final long srcNameTxn = txWriter.getPartitionNameTxn(partitionIndex);
+        final long dstNameTxn = txWriter.getTxn();
+        long rawSize = 0;
+        long compressedSize = 0;
+        try {
+            setPathForPartition(path, rootLen, partitionBy, partitionTimestamp, srcNameTxn);
+            setPathForPartition(other, rootLen, partitionBy, partitionTimestamp, dstNameTxn);
+            final int plen = path.length();
+            final int olen = other.length();
+            if (ff.exists(other.$()) && ff.rmdir(other) != 0) {
+                throw CairoException.critical(ff.errno()).put("could not remove stale partition version [path=").put(other).put(']');
+            }
+            if (ff.mkdirs(other.trimTo(olen).slash$(), mkDirMode) != 0) {
+                throw CairoException.critical(ff.errno()).put("could not create directory [path=").put(other).put(']');
+            }
+
+            try {
+                for (int i = 0; i < columnCount; i++) {
+                    final int columnType = metadata.getColumnType(i);
+                    final long columnTop = columnVersionWriter.getColumnTop(partitionTimestamp, i);
+                    if (columnType < 0 || columnTop < 0) {
+                        // column is deleted or does not exist in the partition
+                        continue;
+                    }
+
+                    final CharSequence name = metadata.getColumnName(i);
+                    final long columnNameTxn = columnVersionWriter.getColumnNameTxn(partitionTimestamp, i);
+                    final long columnRowCount = partitionSize - columnTop;
+                    if (columnRowCount > 0) {
+                        final long dataSize;
+                        final int dataFlags;
+                        if (ColumnType.isVariableLength(columnType)) {
+                            final long indexSize = (columnRowCount + 1) * Long.BYTES;
+                            iFile(path.trimTo(plen), name, columnNameTxn);
+                            dataSize = TableUtils.readLongAtOffset(ff, path, tempMem16b, columnRowCount * Long.BYTES);
+                            iFile(other.trimTo(olen), name, columnNameTxn);
+                            compressedSize += compressColumnFile(indexSize, ColumnCompression.FLAG_DELTA_OF_DELTA);
+                            rawSize += indexSize;
+                            dataFlags = 0;
+                        } else {
+                            dataSize = columnRowCount << ColumnType.pow2SizeOf(columnType);
+                            dataFlags = i == metadata.getTimestampIndex() ? ColumnCompression.FLAG_DELTA_OF_DELTA : 0;
+                        }
+                        dFile(path.trimTo(plen), name, columnNameTxn);
+                        dFile(other.trimTo(olen), name, columnNameTxn);
+                        compressedSize += compressColumnFile(dataSize, dataFlags);
+                        rawSize += dataSize;
+                    } else {
+                        // column top covers the whole partition, readers do not open these files
+                        linkOrCopyFile(dFile(path.trimTo(plen), name, columnNameTxn), dFile(other.trimTo(olen), name, columnNameTxn));
+                        linkOrCopyFile(iFile(path.trimTo(plen), name, columnNameTxn), iFile(other.trimTo(olen), name, columnNameTxn));
+                    }
+                    linkOrCopyFile(keyFileName(path.trimTo(plen), name, columnNameTxn), keyFileName(other.trimTo(olen), name, columnNameTxn));
+                    linkOrCopyFile(valueFileName(path.trimTo(plen), name, columnNameTxn), valueFileName(other.trimTo(olen), name, columnNameTxn));
+                }
+                linkOrCopyFile(path.trimTo(plen).concat(ZoneMap.FILE_NAME).$(), other.trimTo(olen).concat(ZoneMap.FILE_NAME).$());
+            } catch (Throwable e) {
+                if (ff.rmdir(other.trimTo(olen).$()) != 0) {
+                    LOG.error().$("could not remove partially compressed partition [path=").utf8(other).$(", errno=").$(ff.errno()).I$();
+                }
+                throw e;
+            }
+
+            txWriter.updatePartitionSizeAndTxnByIndex(partitionIndex * LONGS_PER_TX_ATTACHED_PARTITION, partitionSize);
+            txWriter.setPartitionCompressed(partitionIndex, true);
+            txWriter.bumpPartitionTableVersion();
+            partitionRemoveCandidates.add(partitionTimestamp, srcNameTxn);
+            txWriter.commit(defaultCommitMode, denseSymbolMapWriters);
+        } finally {
+            path.trimTo(rootLen);
+            other.trimTo(rootLen);
+        }
+
+        LOG.info().$("compressed partition [table=").utf8(tableToken.getTableName())
+                .$(", partition=").$ts(partitionTimestamp)
+                .$(", nameTxn=").$(dstNameTxn)
+                .$(", rawSize=").$(rawSize)
+                .$(", compressedSize=").$(compressedSize)
+                .I$();
+    }
+
+    private void decompressPartitionFiles(long partitionTimestamp, long partitionNameTxn) {
+        final long opts = configuration.getWriterFileOpenOpts();
+        try {
+            setPathForPartition(path, rootLen, partitionBy, partitionTimestamp, partitionNameTxn);
+            setPathForPartition(other, rootLen, partitionBy, partitionTimestamp, partitionNameTxn);
+            final int plen = path.length();
+            for (int i = 0; i < columnCount; i++) {
+                if (metadata.getColumnType(i) > 0) {
+                    final CharSequence name = metadata.getColumnName(i);
+                    final long columnNameTxn = columnVersionWriter.getColumnNameTxn(partitionTimestamp, i);
+                    // compressed files are absent when the column does not have data in the partition
+                    dFile(path.trimTo(plen), name, columnNameTxn);
+                    if (ff.exists(path.put(ColumnCompression.FILE_SUFFIX).$())) {
+                        ColumnCompression.decompress(ff, path, dFile(other.trimTo(plen), name, columnNameTxn), opts);
+                    }
+                    iFile(path.trimTo(plen), name, columnNameTxn);
+                    if (ff.exists(path.put(ColumnCompression.FILE_SUFFIX).$())) {
+                        ColumnCompression.decompress(ff, path, iFile(other.trimTo(plen), name, columnNameTxn), opts);
+                    }
+                }
+            }
+        } finally {
+            path.trimTo(rootLen);
+            other.trimTo(rootLen);
+        }
+        LOG.info().$("decompressed partition [table=").utf8(tableToken.getTableName())
+                .$(", partition=").$ts(partitionTimestamp)
+                .$(", nameTxn=").$(partitionNameTxn)
+                .I$();
+    }
+
     private void doClose(boolean truncate) {
         // destroy() may already closed everything
         boolean tx = inTransaction();
@@ -2948,12 +3301,14 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         Misc.free(o3PartitionUpdateSink);
         Misc.free(slaveTxReader);
         Misc.free(commandQueue);
+        Misc.free(zoneMapWriter);
         updateOperatorImpl = Misc.free(updateOperatorImpl);
         dropIndexOperator = null;
         noOpRowCount = 0L;
         lastOpenPartitionTs = -1L;
         lastOpenPartitionIsReadOnly = false;
         freeColumns(truncate & !distressed);
+        Misc.freeObjListAndClear(walBatchColumns);
         try {
             releaseLock(!truncate | tx | performRecovery | distressed);
         } finally {
@@ -3111,7 +3466,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         long ts = this.txWriter.getMaxTimestamp();
         if (ts > Numbers.LONG_NaN) {
             final int columnIndex = metadata.getColumnIndex(columnName);
-            try (final MemoryMR roMem = indexMem) {
+            try (
+                    final MemoryMR roMem = indexMem;
+                    final MemoryMR compressedMem = Vm.getCompressedMRInstance()
+            ) {
                 // Index last partition separately
                 for (int i = 0, n = txWriter.getPartitionCount() - 1; i < n; i++) {
 
@@ -3121,9 +3479,15 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
                     if (ff.exists(path.$())) {
                         final int plen = path.length();
+                        // compressed partitions are indexed from the inflated column
+                        final boolean compressed = txWriter.isPartitionCompressed(i);
+                        final MemoryMR columnMem = compressed ? compressedMem : roMem;
 
                         long columnNameTxn = columnVersionWriter.getColumnNameTxn(timestamp, columnIndex);
                         TableUtils.dFile(path.trimTo(plen), columnName, columnNameTxn);
+                        if (compressed) {
+                            path.put(ColumnCompression.FILE_SUFFIX).$();
+                        }
 
                         if (ff.exists(path)) {
 
@@ -3137,9 +3501,14 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                             if (columnTop > -1L && partitionSize > columnTop) {
                                 TableUtils.dFile(path.trimTo(plen), columnName, columnNameTxn);
                                 final long columnSize = (partitionSize - columnTop) << ColumnType.pow2SizeOf(ColumnType.INT);
-                                roMem.of(ff, path, columnSize, columnSize, MemoryTag.MMAP_TABLE_WRITER);
+                                if (compressed) {
+                                    path.put(ColumnCompression.FILE_SUFFIX).$();
+                                    columnMem.of(ff, path, columnSize, columnSize, MemoryTag.NATIVE_TABLE_WRITER);
+                                } else {
+                                    columnMem.of(ff, path, columnSize, columnSize, MemoryTag.MMAP_TABLE_WRITER);
+                                }
                                 indexer.configureWriter(configuration, path.trimTo(plen), columnName, columnNameTxn, columnTop);
-                                indexer.index(roMem, columnTop, partitionSize);
+                                indexer.index(columnMem, columnTop, partitionSize);
                             }
                         }
                     }
@@ -3173,6 +3542,12 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return true;
     }
 
+    private void linkOrCopyFile(LPSZ src, LPSZ dst) {
+        if (ff.exists(src) && ff.hardLink(src, dst) != 0 && ff.copy(src, dst) < 0) {
+            throw CairoException.critical(ff.errno()).put("could not copy [from=").put(src).put(", to=").put(dst).put(']');
+        }
+    }
+
     private void lock() {
         try {
             path.trimTo(rootLen);
@@ -3913,6 +4288,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                 .$(", partitionSize=").$(partitionSize)
                 .I$();
 
+        zoneMapPartitions.add(partitionTimestamp);
         if (partitionMutates) {
             final long srcDataTxn = txWriter.getPartitionNameTxnByIndex(partitionIndex);
             LOG.info()
@@ -4295,6 +4671,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
     private void openPartition(long timestamp) {
         try {
+            if (partitionBy != PartitionBy.NONE && txWriter.isPartitionCompressedByPartitionTimestamp(timestamp)) {
+                // the active partition is appended to in place
+                decompressPartition(txWriter.getPartitionIndex(timestamp));
+            }
             setStateForTimestamp(path, timestamp, true);
             int plen = path.length();
             if (ff.mkdirs(path.slash$(), mkDirMode) != 0) {
@@ -4340,6 +4720,22 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private void openWalBatchColumns() {
+        walBatchColumns.setPos(columnCount * 2);
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            final int type = metadata.getColumnType(columnIndex);
+            if (type > 0) {
+                final int primaryIndex = getPrimaryColumnIndex(columnIndex);
+                if (walBatchColumns.getQuick(primaryIndex) == null) {
+                    walBatchColumns.setQuick(primaryIndex, Vm.getCARWInstance(o3ColumnMemorySize, Integer.MAX_VALUE, MemoryTag.NATIVE_O3));
+                }
+                if (ColumnType.isVariableLength(type) && walBatchColumns.getQuick(primaryIndex + 1) == null) {
+                    walBatchColumns.setQuick(primaryIndex + 1, Vm.getCARWInstance(o3ColumnMemorySize, Integer.MAX_VALUE, MemoryTag.NATIVE_O3));
+                }
+            }
+        }
+    }
+
     private long openTodoMem() {
         path.concat(TODO_FILE_NAME).$();
         try {
@@ -4523,6 +4919,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     final long srcNameTxn;
                     final int partitionIndex = txWriter.findAttachedPartitionIndexByLoTimestamp(partitionTimestamp);
                     if (partitionIndex > -1) {
+                        if (txWriter.isPartitionCompressedByPartitionTimestamp(partitionTimestamp)) {
+                            // o3 merge reads raw column files
+                            decompressPartition(partitionIndex / LONGS_PER_TX_ATTACHED_PARTITION);
+                        }
                         if (last) {
                             srcDataMax = transientRowCount;
                         } else {
@@ -4817,6 +5217,50 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private void processWalColumns(
+            ReadOnlyObjList<? extends MemoryCR> walColumns,
+            int timestampIndex,
+            boolean ordered,
+            long rowLo,
+            long rowHi,
+            long o3TimestampMin,
+            long o3TimestampMax,
+            SymbolMapDiffCursor mapDiffCursor,
+            Path walPath
+    ) {
+        o3Columns = walColumns;
+        MemoryCR walTimestampColumn = walColumns.getQuick(getPrimaryColumnIndex(timestampIndex));
+        long timestampAddr;
+        long o3Lo = rowLo;
+        long o3Hi = rowHi;
+
+        if (!ordered) {
+            final long timestampMemorySize = (rowHi - rowLo) << 4;
+            o3TimestampMem.jumpTo(timestampMemorySize);
+            long destTimestampAddr = o3TimestampMem.getAddress();
+            Vect.memcpy(destTimestampAddr, walTimestampColumn.addressOf(rowLo << 4), timestampMemorySize);
+            if (rowHi - rowLo > 600 || !o3QuickSortEnabled) {
+                o3TimestampMemCpy.jumpTo(timestampMemorySize);
+                Vect.radixSortLongIndexAscInPlace(destTimestampAddr, o3RowCount, o3TimestampMemCpy.addressOf(0));
+            } else {
+                Vect.quickSortLongIndexAscInPlace(destTimestampAddr, o3RowCount);
+            }
+
+            o3Sort(destTimestampAddr, timestampIndex, rowHi - rowLo);
+            timestampAddr = destTimestampAddr;
+
+            // Sorted data is now sorted in memory copy of the data from mmap files
+            // Row indexes start from 0, not rowLo
+            o3Hi = rowHi - rowLo;
+            o3Lo = 0L;
+        } else {
+            timestampAddr = walTimestampColumn.addressOf(0);
+        }
+
+        o3Columns = remapWalSymbols(mapDiffCursor, o3Lo, o3Hi, walPath);
+        processO3Block(0L, timestampIndex, timestampAddr, o3Hi, o3TimestampMin, o3TimestampMax, !ordered, o3Lo);
+    }
+
     private void publishTableWriterEvent(int cmdType, long tableId, long correlationId, int errorCode, CharSequence errorMsg, long affectedRowsCount, int eventType) {
         long pubCursor;
         do {
@@ -4868,6 +5312,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         setStateForTimestamp(other, partitionTimestamp, false);
         try {
             dFile(other, metadata.getColumnName(metadata.getTimestampIndex()), COLUMN_NAME_TXN_NONE);
+            if (txWriter.isPartitionCompressedByPartitionTimestamp(partitionTimestamp)) {
+                return ColumnCompression.readFirstLong(ff, other.put(ColumnCompression.FILE_SUFFIX).$());
+            }
             if (ff.exists(other)) {
                 // read min timestamp value
                 final int fd = TableUtils.openRO(ff, other, LOG);
@@ -5198,6 +5645,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             long columnNameTxn = columnVersionWriter.getColumnNameTxn(partitionTimestamp, columnIndex);
             removeFileAndOrLog(ff, dFile(path, columnName, columnNameTxn));
             removeFileAndOrLog(ff, iFile(path.trimTo(plen), columnName, columnNameTxn));
+            dFile(path.trimTo(plen), columnName, columnNameTxn);
+            removeFileAndOrLog(ff, path.put(ColumnCompression.FILE_SUFFIX).$());
+            iFile(path.trimTo(plen), columnName, columnNameTxn);
+            removeFileAndOrLog(ff, path.put(ColumnCompression.FILE_SUFFIX).$());
             removeFileAndOrLog(ff, keyFileName(path.trimTo(plen), columnName, columnNameTxn));
             removeFileAndOrLog(ff, valueFileName(path.trimTo(plen), columnName, columnNameTxn));
             path.trimTo(rootLen);
@@ -5378,6 +5829,15 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private void removeZoneMap(Path partitionPath) {
+        final int plen = partitionPath.length();
+        partitionPath.concat(ZoneMap.FILE_NAME).$();
+        if (ff.exists(partitionPath) && !ff.remove(partitionPath)) {
+            LOG.error().$("could not remove zone map [path=").$(partitionPath).$(", errno=").$(ff.errno()).I$();
+        }
+        partitionPath.trimTo(plen);
+    }
+
     private int rename(int retries) {
         try {
             int index = 0;
@@ -5448,6 +5908,12 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         long columnNameTxn = columnVersionWriter.getColumnNameTxn(partitionTimestamp, columnIndex);
         renameFileOrLog(ff, dFile(path.trimTo(plen), columnName, columnNameTxn), dFile(other.trimTo(plen), newName, columnNameTxn));
         renameFileOrLog(ff, iFile(path.trimTo(plen), columnName, columnNameTxn), iFile(other.trimTo(plen), newName, columnNameTxn));
+        dFile(path.trimTo(plen), columnName, columnNameTxn);
+        dFile(other.trimTo(plen), newName, columnNameTxn);
+        renameFileOrLog(ff, path.put(ColumnCompression.FILE_SUFFIX).$(), other.put(ColumnCompression.FILE_SUFFIX).$());
+        iFile(path.trimTo(plen), columnName, columnNameTxn);
+        iFile(other.trimTo(plen), newName, columnNameTxn);
+        renameFileOrLog(ff, path.put(ColumnCompression.FILE_SUFFIX).$(), other.put(ColumnCompression.FILE_SUFFIX).$());
         renameFileOrLog(ff, keyFileName(path.trimTo(plen), columnName, columnNameTxn), keyFileName(other.trimTo(plen), newName, columnNameTxn));
         renameFileOrLog(ff, valueFileName(path.trimTo(plen), columnName, columnNameTxn), valueFileName(other.trimTo(plen), newName, columnNameTxn));
         path.trimTo(rootLen);
@@ -5633,6 +6099,21 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         clearTodoLog();
     }
 
+    private void resetWalBatch() {
+        for (int i = 0, n = walBatchColumns.size(); i < n; i++) {
+            final MemoryCARW mem = walBatchColumns.getQuick(i);
+            if (mem != null) {
+                mem.truncate();
+            }
+        }
+        walBatchTxnRowLo.clear();
+        walBatchOrdered = true;
+        walBatchRowCount = 0;
+        walBatchSize = 0;
+        walBatchTimestampMax = Long.MIN_VALUE;
+        walBatchTimestampMin = Long.MAX_VALUE;
+    }
+
     private void resizeColumnTopSink(long o3TimestampMin, long o3TimestampMax) {
         long maxPartitionsAffected = (o3TimestampMax - o3TimestampMin) / PartitionBy.getPartitionTimeIntervalFloor(partitionBy) + 2;
         long size = maxPartitionsAffected * (metadata.getColumnCount() + 1);
@@ -5671,6 +6152,23 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private void reverseWalBatchTransactions(long timestampAddr) {
+        // O3 merge puts the rows of a later transaction before the existing rows with the same timestamp,
+        // lay the transactions out last to first for the stable sort to keep that order
+        final long size = walBatchRowCount << 4;
+        o3TimestampMemCpy.jumpTo(size);
+        final long copyAddr = o3TimestampMemCpy.addressOf(0);
+        long copyOffset = 0;
+        long hi = walBatchRowCount;
+        for (int i = walBatchTxnRowLo.size() - 1; i > -1; i--) {
+            final long lo = walBatchTxnRowLo.getQuick(i);
+            Vect.memcpy(copyAddr + copyOffset, timestampAddr + (lo << 4), (hi - lo) << 4);
+            copyOffset += (hi - lo) << 4;
+            hi = lo;
+        }
+        Vect.memcpy(timestampAddr, copyAddr, size);
+    }
+
     private void rollbackIndexes() {
         final long maxRow = txWriter.getTransientRowCount() - 1;
         for (int i = 0, n = denseIndexers.size(); i < n; i++) {
@@ -5859,6 +6357,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         // added so far. Index writers will start point to different
         // files after switch.
         updateIndexes();
+        zoneMapPartitions.add(txWriter.getLastPartitionTimestamp());
         txWriter.switchPartitions(timestamp);
         openPartition(timestamp);
         setAppendPosition(0, false);
@@ -6095,6 +6594,56 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         todoMem.jumpTo(56);
     }
 
+    private void writeZoneMaps() {
+        if (configuration.getZoneMapBlockRowCount() < 1 || !PartitionBy.isPartitioned(partitionBy)) {
+            zoneMapPartitions.clear();
+            return;
+        }
+
+        // partition stops being the last one when rows are appended to the next partition
+        // in order or out of order
+        final long lastPartitionTimestamp = txWriter.getLastPartitionTimestamp();
+        if (zoneMapLastPartitionTimestamp != lastPartitionTimestamp) {
+            if (zoneMapLastPartitionTimestamp != Long.MIN_VALUE) {
+                zoneMapPartitions.add(zoneMapLastPartitionTimestamp);
+            }
+            zoneMapLastPartitionTimestamp = lastPartitionTimestamp;
+        }
+
+        if (zoneMapPartitions.size() > 0) {
+            zoneMapPartitions.sort();
+            long prevTimestamp = Long.MIN_VALUE;
+            for (int i = 0, n = zoneMapPartitions.size(); i < n; i++) {
+                final long partitionTimestamp = zoneMapPartitions.getQuick(i);
+                if (partitionTimestamp == prevTimestamp) {
+                    continue;
+                }
+                prevTimestamp = partitionTimestamp;
+                final int partitionIndex = txWriter.getPartitionIndex(partitionTimestamp);
+                // last partition keeps changing, compressed and read-only partitions have no column files to read
+                if (partitionIndex < 0
+                        || partitionIndex == txWriter.getPartitionCount() - 1
+                        || txWriter.isPartitionCompressed(partitionIndex)
+                        || txWriter.isPartitionReadOnly(partitionIndex)) {
+                    continue;
+                }
+                try {
+                    setPathForPartition(path, rootLen, partitionBy, partitionTimestamp, txWriter.getPartitionNameTxn(partitionIndex));
+                    zoneMapWriter.write(path, metadata, columnVersionWriter, partitionTimestamp, txWriter.getPartitionSize(partitionIndex));
+                } catch (CairoException e) {
+                    // queries scan the partition without the zone map
+                    LOG.error().$("could not write zone map [table=").utf8(tableToken.getTableName())
+                            .$(", partition=").$ts(partitionTimestamp)
+                            .$(", e=").$((Sinkable) e)
+                            .I$();
+                } finally {
+                    path.trimTo(rootLen);
+                }
+            }
+            zoneMapPartitions.clear();
+        }
+    }
+
     static void indexAndCountDown(ColumnIndexer indexer, long lo, long hi, SOCountDownLatch latch) {
         try {
             indexer.refreshSourceAndIndex(lo, hi);
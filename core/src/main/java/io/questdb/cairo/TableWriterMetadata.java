@@ -30,6 +30,7 @@ import io.questdb.cairo.vm.api.MemoryMR;
 import io.questdb.std.Chars;
 
 class TableWriterMetadata extends AbstractRecordMetadata implements TableRecordMetadata {
+    private long compressionAge;
     private int maxUncommittedRows;
     private long o3MaxLag;
     private long structureVersion;
@@ -49,6 +50,10 @@ class TableWriterMetadata extends AbstractRecordMetadata implements TableRecordM
         // nothing to release
     }
 
+    public long getCompressionAge() {
+        return compressionAge;
+    }
+
     @Override
     public int getMaxUncommittedRows() {
         return maxUncommittedRows;
@@ -94,6 +99,7 @@ class TableWriterMetadata extends AbstractRecordMetadata implements TableRecordM
         this.tableId = metaMem.getInt(TableUtils.META_OFFSET_TABLE_ID);
         this.maxUncommittedRows = metaMem.getInt(TableUtils.META_OFFSET_MAX_UNCOMMITTED_ROWS);
         this.o3MaxLag = metaMem.getLong(TableUtils.META_OFFSET_O3_MAX_LAG);
+        this.compressionAge = metaMem.getLong(TableUtils.META_OFFSET_COMPRESSION_AGE);
         TableUtils.validateMeta(metaMem, columnNameIndexMap, ColumnType.VERSION);
         this.timestampIndex = metaMem.getInt(TableUtils.META_OFFSET_TIMESTAMP_INDEX);
         this.columnMetadata.clear();
@@ -128,6 +134,10 @@ class TableWriterMetadata extends AbstractRecordMetadata implements TableRecordM
         }
     }
 
+    public void setCompressionAge(long compressionAgeUs) {
+        this.compressionAge = compressionAgeUs;
+    }
+
     public void setMaxUncommittedRows(int rows) {
         this.maxUncommittedRows = rows;
     }
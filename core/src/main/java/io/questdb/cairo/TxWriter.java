@@ -298,6 +298,25 @@ public final class TxWriter extends TxReader implements Closeable, Mutable, Symb
         }
     }
 
+    public void setPartitionCompressed(int partitionIndex, boolean isCompressed) {
+        setPartitionCompressedByIndex(partitionIndex * LONGS_PER_TX_ATTACHED_PARTITION, isCompressed);
+    }
+
+    public void setPartitionCompressedByIndex(int index, boolean isCompressed) {
+        if (index < 0) {
+            throw CairoException.nonCritical().put("bad partition index -1");
+        }
+        int offset = index + PARTITION_MASKED_SIZE_OFFSET;
+        long maskedSize = attachedPartitions.getQuick(offset);
+        if (isCompressed) {
+            maskedSize |= 1L << PARTITION_MASK_COMPRESSED_BIT_OFFSET;
+        } else {
+            maskedSize &= ~(1L << PARTITION_MASK_COMPRESSED_BIT_OFFSET);
+        }
+        attachedPartitions.setQuick(offset, maskedSize);
+        recordStructureVersion++;
+    }
+
     public void setPartitionReadOnly(int partitionIndex, boolean isReadOnly) {
         setPartitionReadOnlyByIndex(partitionIndex * LONGS_PER_TX_ATTACHED_PARTITION, isReadOnly);
     }
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+
+/**
+ * Min/max/null-count statistics of the columns of a single partition. The statistics are kept in
+ * the {@link #FILE_NAME} file of the partition directory, which has the following layout of longs:
+ * <pre>
+ * | block row count | partition row count | column count | block count |
+ * | column index | column type | column name txn | column top | (min, max, null count)[block count] | ...
+ * </pre>
+ * Partition rows are split into blocks of the block row count, rows below the column top count as nulls.
+ * Integer, symbol key and timestamp values are stored as longs, floating point values as double bits.
+ * Null values are excluded from min and max, which are undefined for blocks that have nulls only.
+ * Entries are matched against the column version of the partition before use, the statistics of
+ * a column re-written since the file was created are ignored.
+ */
+public class ZoneMap implements Mutable {
+    public static final String FILE_NAME = "_zm";
+    static final int BLOCK_MAX = 1;
+    static final int BLOCK_MIN = 0;
+    static final int BLOCK_NULL_COUNT = 2;
+    static final int BLOCK_SIZE = 3;
+    static final int ENTRY_COLUMN_INDEX = 0;
+    static final int ENTRY_COLUMN_NAME_TXN = 2;
+    static final int ENTRY_COLUMN_TOP = 3;
+    static final int ENTRY_COLUMN_TYPE = 1;
+    static final int ENTRY_HEADER_SIZE = 4;
+    static final int HEADER_BLOCK_COUNT = 3;
+    static final int HEADER_BLOCK_ROW_COUNT = 0;
+    static final int HEADER_COLUMN_COUNT = 2;
+    static final int HEADER_ROW_COUNT = 1;
+    static final int HEADER_SIZE = 4;
+    private static final Log LOG = LogFactory.getLog(ZoneMap.class);
+    private final LongList data = new LongList();
+    private long blockCount;
+    private long blockRowCount;
+    private int columnCount;
+    private long loadedTxn = -1;
+    private long partitionNameTxn = -1;
+    private long partitionRowCount = -1;
+    private long partitionTimestamp = Long.MIN_VALUE;
+
+    public static long getBlockCount(long rowCount, long blockRowCount) {
+        return (rowCount + blockRowCount - 1) / blockRowCount;
+    }
+
+    public static boolean isSupported(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.INT:
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+            case ColumnType.DOUBLE:
+            case ColumnType.SYMBOL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public void clear() {
+        data.clear();
+        columnCount = 0;
+        blockCount = 0;
+        blockRowCount = 0;
+        loadedTxn = -1;
+        partitionTimestamp = Long.MIN_VALUE;
+        partitionNameTxn = -1;
+        partitionRowCount = -1;
+    }
+
+    /**
+     * Finds statistics of the column.
+     *
+     * @return offset of the column entry or -1 when the partition has no statistics of this column version
+     */
+    public int findColumn(int columnIndex, long columnNameTxn, long columnTop) {
+        final int entrySize = getEntrySize();
+        for (int i = 0, offset = HEADER_SIZE; i < columnCount; i++, offset += entrySize) {
+            if (data.getQuick(offset + ENTRY_COLUMN_INDEX) == columnIndex) {
+                if (data.getQuick(offset + ENTRY_COLUMN_NAME_TXN) == columnNameTxn && data.getQuick(offset + ENTRY_COLUMN_TOP) == columnTop) {
+                    return offset;
+                }
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    public long getBlockCount() {
+        return blockCount;
+    }
+
+    public long getBlockRowCount() {
+        return blockRowCount;
+    }
+
+    public long getMax(int columnOffset, long block) {
+        return data.getQuick(blockOffset(columnOffset, block) + BLOCK_MAX);
+    }
+
+    public long getMin(int columnOffset, long block) {
+        return data.getQuick(blockOffset(columnOffset, block) + BLOCK_MIN);
+    }
+
+    public long getNullCount(int columnOffset, long block) {
+        return data.getQuick(blockOffset(columnOffset, block) + BLOCK_NULL_COUNT);
+    }
+
+    public boolean isEmpty() {
+        return columnCount == 0;
+    }
+
+    /**
+     * Loads the statistics of a partition unless they are already loaded. A missing file is looked
+     * up again only after the reader moves on to another transaction, the writer creates the file
+     * after it commits the partition.
+     *
+     * @param partitionPath path of the partition directory
+     * @return false when the partition has no valid statistics
+     */
+    public boolean of(FilesFacade ff, Path partitionPath, long partitionTimestamp, long partitionNameTxn, long partitionRowCount, long txn) {
+        if (this.partitionTimestamp == partitionTimestamp
+                && this.partitionNameTxn == partitionNameTxn
+                && this.partitionRowCount == partitionRowCount
+                && (columnCount > 0 || loadedTxn == txn)) {
+            return columnCount > 0;
+        }
+        clear();
+        this.partitionTimestamp = partitionTimestamp;
+        this.partitionNameTxn = partitionNameTxn;
+        this.partitionRowCount = partitionRowCount;
+        this.loadedTxn = txn;
+        load(ff, partitionPath.concat(FILE_NAME).$(), partitionRowCount);
+        return columnCount > 0;
+    }
+
+    private int blockOffset(int columnOffset, long block) {
+        return (int) (columnOffset + ENTRY_HEADER_SIZE + block * BLOCK_SIZE);
+    }
+
+    private int getEntrySize() {
+        return (int) (ENTRY_HEADER_SIZE + blockCount * BLOCK_SIZE);
+    }
+
+    private void load(FilesFacade ff, Path path, long partitionRowCount) {
+        final int fd = ff.openRO(path);
+        if (fd < 0) {
+            return;
+        }
+        long addr = 0;
+        long len = 0;
+        try {
+            len = ff.length(fd);
+            if (len < HEADER_SIZE * Long.BYTES || len % Long.BYTES != 0 || len > Integer.MAX_VALUE) {
+                LOG.info().$("ignoring invalid zone map [path=").$(path).$(", size=").$(len).I$();
+                return;
+            }
+            addr = Unsafe.malloc(len, MemoryTag.NATIVE_DEFAULT);
+            if (ff.read(fd, addr, len, 0) != len) {
+                LOG.info().$("could not read zone map [path=").$(path).$(", errno=").$(ff.errno()).I$();
+                return;
+            }
+            final long blockRowCount = Unsafe.getUnsafe().getLong(addr + HEADER_BLOCK_ROW_COUNT * Long.BYTES);
+            final long rowCount = Unsafe.getUnsafe().getLong(addr + HEADER_ROW_COUNT * Long.BYTES);
+            final long columnCount = Unsafe.getUnsafe().getLong(addr + HEADER_COLUMN_COUNT * Long.BYTES);
+            final long blockCount = Unsafe.getUnsafe().getLong(addr + HEADER_BLOCK_COUNT * Long.BYTES);
+            if (rowCount != partitionRowCount
+                    || blockRowCount < 1
+                    || blockCount != getBlockCount(rowCount, blockRowCount)
+                    || len != (HEADER_SIZE + columnCount * (ENTRY_HEADER_SIZE + blockCount * BLOCK_SIZE)) * Long.BYTES) {
+                // the partition changed after the zone map was written
+                return;
+            }
+            final int n = (int) (len / Long.BYTES);
+            data.setPos(n);
+            for (int i = 0; i < n; i++) {
+                data.setQuick(i, Unsafe.getUnsafe().getLong(addr + (long) i * Long.BYTES));
+            }
+            this.blockRowCount = blockRowCount;
+            this.blockCount = blockCount;
+            this.columnCount = (int) columnCount;
+        } finally {
+            if (addr != 0) {
+                Unsafe.free(addr, len, MemoryTag.NATIVE_DEFAULT);
+            }
+            ff.close(fd);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.std.*;
+
+/**
+ * Conjunction of "column op constant" predicates, which is checked against partition
+ * {@link ZoneMap} statistics to skip partitions and row blocks that cannot match a filter.
+ * The filter itself is still applied to the rows that are not skipped. Predicates on columns
+ * without statistics are assumed to match.
+ */
+public class ZoneMapFilter implements Mutable {
+    public static final int OP_EQ = 0;
+    public static final int OP_GE = 1;
+    public static final int OP_GT = 2;
+    public static final int OP_LE = 3;
+    public static final int OP_LT = 4;
+    // equality of doubles is tolerant, see EqDoubleFunctionFactory
+    private static final double DOUBLE_EQ_TOLERANCE = 0.0000000001;
+    private final IntList columnIndexes = new IntList();
+    private final IntList columnOffsets = new IntList();
+    private final IntList columnTypes = new IntList();
+    private final IntList ops = new IntList();
+    private final ObjList<String> symbolValues = new ObjList<>();
+    private final LongList values = new LongList();
+    private long blockRowCount;
+    private long partitionRowCount;
+    private TableReader reader;
+    private ZoneMap zoneMap;
+
+    public void addDouble(int columnIndex, int columnType, int op, double value) {
+        add(columnIndex, columnType, op, Double.doubleToRawLongBits(value), null);
+    }
+
+    public void addLong(int columnIndex, int columnType, int op, long value) {
+        add(columnIndex, columnType, op, value, null);
+    }
+
+    public void addSymbol(int columnIndex, int columnType, String value) {
+        add(columnIndex, columnType, OP_EQ, 0, value);
+    }
+
+    @Override
+    public void clear() {
+        columnIndexes.clear();
+        columnOffsets.clear();
+        columnTypes.clear();
+        ops.clear();
+        symbolValues.clear();
+        values.clear();
+        reader = null;
+        zoneMap = null;
+    }
+
+    /**
+     * Finds the end of a run of blocks, which may match the filter.
+     *
+     * @param rowLo first row of the run
+     * @param rowHi upper boundary of the search, exclusive
+     * @return row after the last row of the run
+     */
+    public long findMatchHi(long rowLo, long rowHi) {
+        long block = rowLo / blockRowCount;
+        while (block * blockRowCount < rowHi && mayMatch(block)) {
+            block++;
+        }
+        return Math.min(block * blockRowCount, rowHi);
+    }
+
+    /**
+     * Finds the first row that belongs to a block, which may match the filter.
+     *
+     * @param rowLo lower boundary of the search, inclusive
+     * @param rowHi upper boundary of the search, exclusive
+     * @return first row or rowHi when no block matches
+     */
+    public long findMatchLo(long rowLo, long rowHi) {
+        for (long block = rowLo / blockRowCount; block * blockRowCount < rowHi; block++) {
+            if (mayMatch(block)) {
+                return Math.max(block * blockRowCount, rowLo);
+            }
+        }
+        return rowHi;
+    }
+
+    /**
+     * Finds the end of the last block, which may match the filter.
+     *
+     * @param rowLo lower boundary of the search, inclusive
+     * @param rowHi upper boundary of the search, exclusive
+     * @return row after the last row of the block or rowLo when no block matches
+     */
+    public long findPrevMatchHi(long rowLo, long rowHi) {
+        for (long block = (rowHi - 1) / blockRowCount; block > -1 && (block + 1) * blockRowCount > rowLo; block--) {
+            if (mayMatch(block)) {
+                return Math.min((block + 1) * blockRowCount, rowHi);
+            }
+        }
+        return rowLo;
+    }
+
+    /**
+     * Finds the start of a run of blocks, which may match the filter.
+     *
+     * @param rowLo lower boundary of the search, inclusive
+     * @param rowHi row after the last row of the run
+     * @return first row of the run
+     */
+    public long findPrevMatchLo(long rowLo, long rowHi) {
+        long block = (rowHi - 1) / blockRowCount;
+        while (block > -1 && block * blockRowCount > rowLo && mayMatch(block - 1)) {
+            block--;
+        }
+        return Math.max(block * blockRowCount, rowLo);
+    }
+
+    public boolean isEmpty() {
+        return ops.size() == 0;
+    }
+
+    /**
+     * @return false when no row in the range can match the filter
+     */
+    public boolean mayMatch(long rowLo, long rowHi) {
+        return findMatchLo(rowLo, rowHi) < rowHi;
+    }
+
+    /**
+     * Prepares the filter for the query. Symbol values are resolved to their keys in the reader.
+     */
+    public void of(TableReader reader) {
+        this.reader = reader;
+        this.zoneMap = null;
+        for (int i = 0, n = ops.size(); i < n; i++) {
+            final String symbol = symbolValues.getQuick(i);
+            if (symbol != null) {
+                values.setQuick(i, reader.getSymbolMapReader(columnIndexes.getQuick(i)).keyOf(symbol));
+            }
+        }
+    }
+
+    /**
+     * Switches the filter to the statistics of a partition.
+     *
+     * @return false when the partition has no statistics of the filtered columns,
+     * in which case the whole partition has to be scanned
+     */
+    public boolean openPartition(int partitionIndex, long partitionRowCount) {
+        zoneMap = reader.getZoneMap(partitionIndex);
+        if (zoneMap == null) {
+            return false;
+        }
+        final ColumnVersionReader columnVersions = reader.getColumnVersionReader();
+        final long partitionTimestamp = reader.getPartitionTimestampByIndex(partitionIndex);
+        boolean found = false;
+        for (int i = 0, n = ops.size(); i < n; i++) {
+            final int columnIndex = columnIndexes.getQuick(i);
+            final int offset = zoneMap.findColumn(
+                    columnIndex,
+                    columnVersions.getColumnNameTxn(partitionTimestamp, columnIndex),
+                    columnVersions.getColumnTop(partitionTimestamp, columnIndex)
+            );
+            columnOffsets.setQuick(i, offset);
+            found |= offset > -1;
+        }
+        if (!found) {
+            zoneMap = null;
+            return false;
+        }
+        this.blockRowCount = zoneMap.getBlockRowCount();
+        this.partitionRowCount = partitionRowCount;
+        return true;
+    }
+
+    private static boolean mayMatchDouble(int op, double value, double min, double max) {
+        switch (op) {
+            case OP_EQ:
+                return value > min - DOUBLE_EQ_TOLERANCE && value < max + DOUBLE_EQ_TOLERANCE;
+            case OP_GE:
+                return max >= value;
+            case OP_GT:
+                return max > value;
+            case OP_LE:
+                return min <= value;
+            default:
+                return min < value;
+        }
+    }
+
+    private static boolean mayMatchLong(int op, long value, long min, long max) {
+        switch (op) {
+            case OP_EQ:
+                return value >= min && value <= max;
+            case OP_GE:
+                return max >= value;
+            case OP_GT:
+                return max > value;
+            case OP_LE:
+                return min <= value;
+            default:
+                return min < value;
+        }
+    }
+
+    private void add(int columnIndex, int columnType, int op, long value, String symbol) {
+        columnIndexes.add(columnIndex);
+        columnOffsets.add(-1);
+        columnTypes.add(columnType);
+        ops.add(op);
+        symbolValues.add(symbol);
+        values.add(value);
+    }
+
+    private boolean mayMatch(long block) {
+        final long blockRows = Math.min(blockRowCount, partitionRowCount - block * blockRowCount);
+        for (int i = 0, n = ops.size(); i < n; i++) {
+            final int offset = columnOffsets.getQuick(i);
+            if (offset < 0) {
+                continue;
+            }
+            final int op = ops.getQuick(i);
+            final long value = values.getQuick(i);
+            final long nullCount = zoneMap.getNullCount(offset, block);
+            final boolean isDouble = ColumnType.tagOf(columnTypes.getQuick(i)) == ColumnType.DOUBLE;
+            if (!isDouble && nullCount > 0 && (op == OP_LE || op == OP_LT)) {
+                // integer nulls are the smallest values of their types and may be compared as such
+                continue;
+            }
+            if (nullCount >= blockRows || value == SymbolTable.VALUE_NOT_FOUND && symbolValues.getQuick(i) != null) {
+                return false;
+            }
+            final long min = zoneMap.getMin(offset, block);
+            final long max = zoneMap.getMax(offset, block);
+            if (isDouble) {
+                if (!mayMatchDouble(op, Double.longBitsToDouble(value), Double.longBitsToDouble(min), Double.longBitsToDouble(max))) {
+                    return false;
+                }
+            } else if (!mayMatchLong(op, value, min, max)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
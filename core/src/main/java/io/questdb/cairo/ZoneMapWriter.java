@@ -0,0 +1,221 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryMARW;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+
+import java.io.Closeable;
+
+/**
+ * Computes {@link ZoneMap} statistics of a partition from its column files and writes them
+ * into the partition directory. The file is written under a temporary name and renamed,
+ * so that readers never see a partially written zone map.
+ */
+public class ZoneMapWriter implements Closeable {
+    private static final Log LOG = LogFactory.getLog(ZoneMapWriter.class);
+    private static final String TEMP_FILE_NAME = ZoneMap.FILE_NAME + ".tmp";
+    private final long blockRowCount;
+    private final FilesFacade ff;
+    private final MemoryMARW mem = Vm.getMARWInstance();
+    private final Path other = new Path();
+    private final Path path = new Path();
+
+    public ZoneMapWriter(CairoConfiguration configuration) {
+        this.ff = configuration.getFilesFacade();
+        this.blockRowCount = configuration.getZoneMapBlockRowCount();
+    }
+
+    @Override
+    public void close() {
+        mem.close(false);
+        Misc.free(path);
+        Misc.free(other);
+    }
+
+    /**
+     * Writes statistics of the supported columns of a partition.
+     *
+     * @param partitionPath      path of the partition directory
+     * @param metadata           table metadata
+     * @param columnVersions     column versions of the table
+     * @param partitionTimestamp timestamp of the partition
+     * @param rowCount           number of rows in the partition
+     */
+    public void write(Path partitionPath, RecordMetadata metadata, ColumnVersionReader columnVersions, long partitionTimestamp, long rowCount) {
+        path.of(partitionPath);
+        final int plen = path.length();
+        final long blockCount = ZoneMap.getBlockCount(rowCount, blockRowCount);
+        try {
+            mem.smallFile(ff, path.concat(TEMP_FILE_NAME).$(), MemoryTag.MMAP_TABLE_WRITER);
+            mem.putLong(blockRowCount);
+            mem.putLong(rowCount);
+            mem.putLong(0);
+            mem.putLong(blockCount);
+            int columnCount = 0;
+            for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+                final int columnType = metadata.getColumnType(i);
+                final long columnTop = columnVersions.getColumnTop(partitionTimestamp, i);
+                // designated timestamp is pruned by partition and interval bounds
+                if (columnType < 0 || columnTop < 0 || i == metadata.getTimestampIndex() || !ZoneMap.isSupported(columnType)) {
+                    continue;
+                }
+                final long columnNameTxn = columnVersions.getColumnNameTxn(partitionTimestamp, i);
+                final long columnRowCount = rowCount - Math.min(columnTop, rowCount);
+                final int shl = ColumnType.pow2SizeOf(columnType);
+                long addr = 0;
+                if (columnRowCount > 0) {
+                    TableUtils.dFile(path.trimTo(plen), metadata.getColumnName(i), columnNameTxn);
+                    addr = mapColumn(columnRowCount << shl);
+                    if (addr == 0) {
+                        continue;
+                    }
+                }
+                try {
+                    mem.putLong(i);
+                    mem.putLong(columnType);
+                    mem.putLong(columnNameTxn);
+                    mem.putLong(columnTop);
+                    for (long block = 0; block < blockCount; block++) {
+                        final long lo = block * blockRowCount;
+                        final long hi = Math.min(lo + blockRowCount, rowCount);
+                        final long nullCount = Math.max(0, Math.min(hi, columnTop) - lo);
+                        if (hi > columnTop) {
+                            putBlock(addr, columnType, Math.max(lo, columnTop) - columnTop, hi - columnTop, nullCount);
+                        } else {
+                            mem.putLong(Long.MAX_VALUE);
+                            mem.putLong(Long.MIN_VALUE);
+                            mem.putLong(nullCount);
+                        }
+                    }
+                    columnCount++;
+                } finally {
+                    if (addr != 0) {
+                        ff.munmap(addr, columnRowCount << shl, MemoryTag.MMAP_TABLE_WRITER);
+                    }
+                }
+            }
+            mem.putLong(ZoneMap.HEADER_COLUMN_COUNT * Long.BYTES, columnCount);
+            mem.close(true, Vm.TRUNCATE_TO_POINTER);
+
+            path.trimTo(plen).concat(TEMP_FILE_NAME).$();
+            other.of(partitionPath).concat(ZoneMap.FILE_NAME).$();
+            if (ff.exists(other) && !ff.remove(other)) {
+                throw CairoException.critical(ff.errno()).put("could not remove zone map [path=").put(other).put(']');
+            }
+            if (ff.rename(path, other) != Files.FILES_RENAME_OK) {
+                throw CairoException.critical(ff.errno()).put("could not rename zone map [from=").put(path).put(", to=").put(other).put(']');
+            }
+        } finally {
+            mem.close(false);
+        }
+        LOG.debug().$("written zone map [path=").$(other).$(", rowCount=").$(rowCount).$(", blockCount=").$(blockCount).I$();
+    }
+
+    private long mapColumn(long size) {
+        final int fd = ff.openRO(path);
+        if (fd < 0) {
+            LOG.info().$("could not open column for zone map [path=").$(path).$(", errno=").$(ff.errno()).I$();
+            return 0;
+        }
+        try {
+            if (ff.length(fd) < size) {
+                LOG.info().$("column file is too short for zone map [path=").$(path).$(", size=").$(size).I$();
+                return 0;
+            }
+            return TableUtils.mapRO(ff, fd, size, MemoryTag.MMAP_TABLE_WRITER);
+        } finally {
+            ff.close(fd);
+        }
+    }
+
+    private void putBlock(long addr, int columnType, long lo, long hi, long nullCount) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.BYTE:
+                for (long p = addr + lo, lim = addr + hi; p < lim; p++) {
+                    final byte v = Unsafe.getUnsafe().getByte(p);
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                }
+                break;
+            case ColumnType.SHORT:
+                for (long p = addr + (lo << 1), lim = addr + (hi << 1); p < lim; p += Short.BYTES) {
+                    final short v = Unsafe.getUnsafe().getShort(p);
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                }
+                break;
+            case ColumnType.INT:
+            case ColumnType.SYMBOL:
+                for (long p = addr + (lo << 2), lim = addr + (hi << 2); p < lim; p += Integer.BYTES) {
+                    final int v = Unsafe.getUnsafe().getInt(p);
+                    if (v != Numbers.INT_NaN) {
+                        min = Math.min(min, v);
+                        max = Math.max(max, v);
+                    } else {
+                        nullCount++;
+                    }
+                }
+                break;
+            case ColumnType.DOUBLE:
+                double dMin = Double.POSITIVE_INFINITY;
+                double dMax = Double.NEGATIVE_INFINITY;
+                for (long p = addr + (lo << 3), lim = addr + (hi << 3); p < lim; p += Double.BYTES) {
+                    final double v = Unsafe.getUnsafe().getDouble(p);
+                    if (v == v) {
+                        dMin = Math.min(dMin, v);
+                        dMax = Math.max(dMax, v);
+                    } else {
+                        nullCount++;
+                    }
+                }
+                min = Double.doubleToRawLongBits(dMin);
+                max = Double.doubleToRawLongBits(dMax);
+                break;
+            default:
+                for (long p = addr + (lo << 3), lim = addr + (hi << 3); p < lim; p += Long.BYTES) {
+                    final long v = Unsafe.getUnsafe().getLong(p);
+                    if (v != Numbers.LONG_NaN) {
+                        min = Math.min(min, v);
+                        max = Math.max(max, v);
+                    } else {
+                        nullCount++;
+                    }
+                }
+                break;
+        }
+        mem.putLong(min);
+        mem.putLong(max);
+        mem.putLong(nullCount);
+    }
+}
@@ -197,6 +197,11 @@ public class CompactMap implements Map, Reopenable {
         return record;
     }
 
+    @Override
+    public void merge(Map srcMap, MapValueMergeFunction mergeFunc) {
+        throw new UnsupportedOperationException();
+    }
+
     public int getValueColumnCount() {
         return valueColumnCount;
     }
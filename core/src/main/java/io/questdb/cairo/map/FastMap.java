@@ -92,6 +92,7 @@ public class FastMap implements Map, Reopenable {
     private final FastMapValue value2;
     private final FastMapValue value3;
     private final int valueColumnCount;
+    private final int[] valueOffsets;
     private final int valueSize;
     private long capacity;
     private int free;
@@ -206,6 +207,7 @@ public class FastMap implements Map, Reopenable {
             valueColumnCount = 0;
         }
         this.valueSize = valueSize;
+        this.valueOffsets = valueOffsets;
         keyOffset = offset;
 
         value = new FastMapValue(valueOffsets);
@@ -257,6 +259,60 @@ public class FastMap implements Map, Reopenable {
         return record;
     }
 
+    @Override
+    public void merge(Map srcMap, MapValueMergeFunction mergeFunc) {
+        assert this != srcMap;
+        final FastMap srcFastMap = (FastMap) srcMap;
+        assert keySize == srcFastMap.keySize && valueSize == srcFastMap.valueSize;
+
+        final DirectLongList srcOffsets = srcFastMap.offsets;
+        final long srcStart = srcFastMap.kStart;
+        // Walk the source hash table rather than the key memory to reuse hash codes.
+        OUTER:
+        for (int i = 0, n = (int) srcOffsets.size(); i < n; i++) {
+            final long srcPackedOffset = getPackedOffset(srcOffsets, i);
+            final long srcOffset = unpackOffset(srcPackedOffset);
+            if (srcOffset < 0) {
+                continue;
+            }
+            final long srcAddress = srcStart + srcOffset;
+            final int hashCode = unpackHashCode(srcPackedOffset);
+            final int entrySize = keySize == -1 ? Unsafe.getUnsafe().getInt(srcAddress) : keyOffset + keySize;
+
+            int index = hashCode & mask;
+            long packedOffset;
+            long offset;
+            while ((offset = unpackOffset(packedOffset = getPackedOffset(offsets, index))) > -1) {
+                if (hashCode == unpackHashCode(packedOffset) && keyEq(kStart + offset, srcAddress, entrySize)) {
+                    mergeFunc.merge(
+                            valueOf(kStart + offset, false, value),
+                            srcFastMap.valueOf(srcAddress, false, srcFastMap.value)
+                    );
+                    continue OUTER;
+                }
+                index = (index + 1) & mask;
+            }
+
+            // The key is not in this map yet, so copy the whole key-value pair.
+            key.startAddress = key.appendAddress = kPos;
+            key.checkSize(entrySize);
+            Vect.memcpy(key.startAddress, srcAddress, entrySize);
+            key.appendAddress = key.startAddress + entrySize;
+            asNew(key, index, hashCode, value);
+        }
+    }
+
+    /**
+     * Creates a key that is written to its own memory rather than to the map's key memory.
+     * Such a key can only be used to look up values. As long as the map is not modified,
+     * lookups made with different probe keys can run concurrently, e.g. one key per thread.
+     *
+     * @return new probe key, to be closed by the caller
+     */
+    public ProbeKey newProbeKey() {
+        return keySize == -1 ? new VarSizeProbeKey() : new FixedSizeProbeKey();
+    }
+
     public void reopen() {
         if (kStart == 0) {
             // handles both mem and offsets
@@ -351,6 +407,13 @@ public class FastMap implements Map, Reopenable {
         return null;
     }
 
+    private boolean keyEq(long address, long srcAddress, int entrySize) {
+        if (keySize == -1 && Unsafe.getUnsafe().getInt(address) != entrySize) {
+            return false;
+        }
+        return Vect.memeq(address + keyOffset, srcAddress + keyOffset, entrySize - keyOffset);
+    }
+
     private void rehash() {
         int capacity = keyCapacity << 1;
         mask = capacity - 1;
@@ -495,7 +558,7 @@ public class FastMap implements Map, Reopenable {
             }
         }
 
-        private MapValue findValue(FastMapValue value) {
+        protected MapValue findValue(FastMapValue value) {
             commit();
             int hashCode = hash();
             int index = hashCode & mask;
@@ -524,6 +587,10 @@ public class FastMap implements Map, Reopenable {
         protected abstract boolean eq(long offset);
 
         protected abstract int hash();
+
+        protected long keyLimit() {
+            return kLimit;
+        }
     }
 
     private class FixedSizeKey extends BaseKey {
@@ -541,21 +608,21 @@ public class FastMap implements Map, Reopenable {
 
         @Override
         public void putBool(boolean value) {
-            assert appendAddress + Byte.BYTES <= kLimit;
+            assert appendAddress + Byte.BYTES <= keyLimit();
             Unsafe.getUnsafe().putByte(appendAddress, (byte) (value ? 1 : 0));
             appendAddress += Byte.BYTES;
         }
 
         @Override
         public void putByte(byte value) {
-            assert appendAddress + Byte.BYTES <= kLimit;
+            assert appendAddress + Byte.BYTES <= keyLimit();
             Unsafe.getUnsafe().putByte(appendAddress, value);
             appendAddress += Byte.BYTES;
         }
 
         @Override
         public void putChar(char value) {
-            assert appendAddress + Character.BYTES <= kLimit;
+            assert appendAddress + Character.BYTES <= keyLimit();
             Unsafe.getUnsafe().putChar(appendAddress, value);
             appendAddress += Character.BYTES;
         }
@@ -567,35 +634,35 @@ public class FastMap implements Map, Reopenable {
 
         @Override
         public void putDouble(double value) {
-            assert appendAddress + Double.BYTES <= kLimit;
+            assert appendAddress + Double.BYTES <= keyLimit();
             Unsafe.getUnsafe().putDouble(appendAddress, value);
             appendAddress += Double.BYTES;
         }
 
         @Override
         public void putFloat(float value) {
-            assert appendAddress + Float.BYTES <= kLimit;
+            assert appendAddress + Float.BYTES <= keyLimit();
             Unsafe.getUnsafe().putFloat(appendAddress, value);
             appendAddress += Float.BYTES;
         }
 
         @Override
         public void putInt(int value) {
-            assert appendAddress + Integer.BYTES <= kLimit;
+            assert appendAddress + Integer.BYTES <= keyLimit();
             Unsafe.getUnsafe().putInt(appendAddress, value);
             appendAddress += Integer.BYTES;
         }
 
         @Override
         public void putLong(long value) {
-            assert appendAddress + Long.BYTES <= kLimit;
+            assert appendAddress + Long.BYTES <= keyLimit();
             Unsafe.getUnsafe().putLong(appendAddress, value);
             appendAddress += Long.BYTES;
         }
 
         @Override
         public void putLong128(long lo, long hi) {
-            assert appendAddress + 16 <= kLimit;
+            assert appendAddress + 16 <= keyLimit();
             Unsafe.getUnsafe().putLong(appendAddress, lo);
             Unsafe.getUnsafe().putLong(appendAddress + Long.BYTES, hi);
             appendAddress += 16;
@@ -603,7 +670,7 @@ public class FastMap implements Map, Reopenable {
 
         @Override
         public void putLong256(Long256 value) {
-            assert appendAddress + Long256.BYTES <= kLimit;
+            assert appendAddress + Long256.BYTES <= keyLimit();
             Unsafe.getUnsafe().putLong(appendAddress, value.getLong0());
             Unsafe.getUnsafe().putLong(appendAddress + Long.BYTES, value.getLong1());
             Unsafe.getUnsafe().putLong(appendAddress + Long.BYTES * 2, value.getLong2());
@@ -613,7 +680,7 @@ public class FastMap implements Map, Reopenable {
 
         @Override
         public void putShort(short value) {
-            assert appendAddress + Short.BYTES <= kLimit;
+            assert appendAddress + Short.BYTES <= keyLimit();
             Unsafe.getUnsafe().putShort(appendAddress, value);
             appendAddress += Short.BYTES;
         }
@@ -659,6 +726,94 @@ public class FastMap implements Map, Reopenable {
         }
     }
 
+    private class FixedSizeProbeKey extends FixedSizeKey implements ProbeKey {
+        private final ProbeKeyMemory memory = new ProbeKeyMemory(keyOffset + keySize, mapMemoryTag);
+        private final FastMapValue probeValue = new FastMapValue(valueOffsets);
+
+        @Override
+        public void close() {
+            memory.close();
+        }
+
+        @Override
+        public MapValue createValue() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MapValue createValue2() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MapValue createValue3() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MapValue findValue() {
+            return findValue(probeValue);
+        }
+
+        @Override
+        public MapValue findValue2() {
+            return findValue(probeValue);
+        }
+
+        @Override
+        public MapValue findValue3() {
+            return findValue(probeValue);
+        }
+
+        @Override
+        public FixedSizeProbeKey init() {
+            startAddress = memory.address;
+            appendAddress = startAddress + keyOffset;
+            return this;
+        }
+
+        @Override
+        protected void checkSize(int size) {
+            // the memory fits the whole key
+        }
+
+        @Override
+        protected long keyLimit() {
+            return memory.address + memory.size;
+        }
+    }
+
+    private static class ProbeKeyMemory implements QuietCloseable {
+        private final int memoryTag;
+        private long address;
+        private long size;
+
+        private ProbeKeyMemory(long size, int memoryTag) {
+            this.memoryTag = memoryTag;
+            this.size = Math.max(Numbers.ceilPow2(size), Long.BYTES);
+            this.address = Unsafe.malloc(this.size, memoryTag);
+        }
+
+        @Override
+        public void close() {
+            if (address != 0) {
+                Unsafe.free(address, size, memoryTag);
+                address = 0;
+                size = 0;
+            }
+        }
+
+        // returns the distance the memory was moved by
+        private long grow(long minSize) {
+            final long newSize = Numbers.ceilPow2(minSize);
+            final long newAddress = Unsafe.realloc(address, size, newSize, memoryTag);
+            final long d = newAddress - address;
+            address = newAddress;
+            size = newSize;
+            return d;
+        }
+    }
+
     private class VarSizeKey extends BaseKey {
         private int len;
 
@@ -857,4 +1012,74 @@ public class FastMap implements Map, Reopenable {
             return Hash.hashMem32(startAddress + keyOffset, len - keyOffset);
         }
     }
+
+    private class VarSizeProbeKey extends VarSizeKey implements ProbeKey {
+        private final ProbeKeyMemory memory = new ProbeKeyMemory(keyOffset + 64, mapMemoryTag);
+        private final FastMapValue probeValue = new FastMapValue(valueOffsets);
+
+        @Override
+        public void close() {
+            memory.close();
+        }
+
+        @Override
+        public MapValue createValue() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MapValue createValue2() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MapValue createValue3() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MapValue findValue() {
+            return findValue(probeValue);
+        }
+
+        @Override
+        public MapValue findValue2() {
+            return findValue(probeValue);
+        }
+
+        @Override
+        public MapValue findValue3() {
+            return findValue(probeValue);
+        }
+
+        @Override
+        public VarSizeProbeKey init() {
+            startAddress = memory.address;
+            appendAddress = startAddress + keyOffset;
+            return this;
+        }
+
+        @Override
+        protected void checkSize(int size) {
+            final long minSize = appendAddress + size - startAddress;
+            if (minSize > memory.size) {
+                final long d = memory.grow(minSize);
+                startAddress += d;
+                appendAddress += d;
+            }
+        }
+
+        @Override
+        protected long keyLimit() {
+            return memory.address + memory.size;
+        }
+    }
+
+    /**
+     * Key written to its own memory, see {@link #newProbeKey()}. Values can only be looked up
+     * with such a key, its createValue() methods throw {@link UnsupportedOperationException}.
+     */
+    public interface ProbeKey extends MapKey, QuietCloseable {
+        ProbeKey init();
+    }
 }
@@ -38,6 +38,16 @@ public interface Map extends Mutable, Closeable, Reopenable {
 
     MapRecord getRecord();
 
+    /**
+     * Copies all key-value pairs from the source map into this map. When a key is
+     * present in both maps, the values are combined with the provided merge function.
+     * Both maps must have the same key and value structure.
+     *
+     * @param srcMap    source map; it remains unchanged
+     * @param mergeFunc function used to combine values of the keys present in both maps
+     */
+    void merge(Map srcMap, MapValueMergeFunction mergeFunc);
+
     void restoreInitialCapacity();
 
     long size();
@@ -153,7 +153,9 @@ public class NetworkSqlExecutionCircuitBreaker implements SqlExecutionCircuitBre
     }
 
     protected boolean testConnection(int fd) {
-        if (!configuration.checkConnection()) {
+        // queries running outside a network connection, e.g. from an embedded
+        // execution context, have no peer to lose
+        if (!configuration.checkConnection() || fd == -1) {
             return false;
         }
         return nf.testConnection(fd, buffer, bufferSize);
@@ -31,6 +31,8 @@ import io.questdb.std.*;
 public class PageAddressCache implements Mutable {
 
     private final long cacheSizeThreshold;
+    // Value size as a power of 2 for fixed size columns, -1 for variable length columns.
+    private final IntList columnShiftBits = new IntList();
     // Index remapping for variable length columns.
     private final IntList varLenColumnIndexes = new IntList();
     private int columnCount;
@@ -63,6 +65,7 @@ public class PageAddressCache implements Mutable {
     @Override
     public void clear() {
         varLenColumnIndexes.clear();
+        columnShiftBits.clear();
         if (pageAddresses.size() < cacheSizeThreshold) {
             pageAddresses.clear();
             indexPageAddresses.clear();
@@ -80,6 +83,10 @@ public class PageAddressCache implements Mutable {
         return columnCount;
     }
 
+    public int getColumnShiftBits(int columnIndex) {
+        return columnShiftBits.getQuick(columnIndex);
+    }
+
     public long getIndexPageAddress(int frameIndex, int columnIndex) {
         assert indexPageAddresses.size() >= varLenColumnCount * (frameIndex + 1);
         int varLenColumnIndex = varLenColumnIndexes.getQuick(columnIndex);
@@ -109,14 +116,21 @@ public class PageAddressCache implements Mutable {
         return false;
     }
 
+    public boolean isVarLenColumn(int columnIndex) {
+        return varLenColumnIndexes.getQuick(columnIndex) > -1;
+    }
+
     public void of(@Transient RecordMetadata metadata) {
         this.columnCount = metadata.getColumnCount();
         this.varLenColumnIndexes.setAll(columnCount, -1);
+        this.columnShiftBits.setAll(columnCount, -1);
         this.varLenColumnCount = 0;
         for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
             final int columnType = metadata.getColumnType(columnIndex);
             if (ColumnType.isVariableLength(columnType)) {
                 varLenColumnIndexes.setQuick(columnIndex, varLenColumnCount++);
+            } else {
+                columnShiftBits.setQuick(columnIndex, ColumnType.pow2SizeOf(columnType));
             }
         }
     }
@@ -0,0 +1,281 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.sql;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.griffin.SqlException;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.ThreadLocal;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Compiled query plans shared by all connections of an engine, regardless of the protocol.
+ * <p>
+ * Plans are keyed by the query text with insignificant whitespace collapsed. Each plan also keeps
+ * the types of the bind variables resolved by the compiler, so it is handed out only to callers
+ * whose already defined bind variables have matching types. Record cursor factories are not
+ * thread-safe, hence a plan leaves the cache while it is in use and is pushed back once the query
+ * is done. The cache is bounded by the number of plans, the least recently returned plans are
+ * evicted first.
+ * <p>
+ * Plans are validated against table metadata versions when a cursor is opened. A plan that
+ * refers to an altered, dropped or renamed table fails with {@link TableReferenceOutOfDateException}
+ * and the caller must free it instead of pushing it back.
+ */
+public class QueryPlanCache implements Closeable, Mutable {
+
+    private static final Log LOG = LogFactory.getLog(QueryPlanCache.class);
+    private static final ThreadLocal<StringSink> tlKeySink = new ThreadLocal<>(StringSink::new);
+    private final int capacity;
+    private final boolean enabled;
+    private final CharSequenceObjHashMap<Entry> entries = new CharSequenceObjHashMap<>();
+    private final QueryPlanCacheMetrics metrics;
+    // most recently pushed entry
+    private Entry head;
+    // least recently pushed entry, evicted first
+    private Entry tail;
+
+    public QueryPlanCache(CairoConfiguration configuration, QueryPlanCacheMetrics metrics) {
+        this.capacity = configuration.getQueryPlanCacheCapacity();
+        this.enabled = configuration.isQueryPlanCacheEnabled() && capacity > 0;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Collapses whitespace outside of quoted literals and identifiers into a single space
+     * and trims the text, so that formatting differences do not produce separate plans.
+     *
+     * @param sql  query text
+     * @param sink receives the normalized text
+     */
+    public static void normalize(CharSequence sql, StringSink sink) {
+        sink.clear();
+        char quote = 0;
+        boolean pendingSpace = false;
+        for (int i = 0, n = sql.length(); i < n; i++) {
+            final char c = sql.charAt(i);
+            if (quote == 0) {
+                if (Character.isWhitespace(c)) {
+                    pendingSpace = sink.length() > 0;
+                    continue;
+                }
+                if (pendingSpace) {
+                    sink.put(' ');
+                    pendingSpace = false;
+                }
+                if (c == '\'' || c == '"') {
+                    quote = c;
+                }
+            } else if (c == quote) {
+                quote = 0;
+            }
+            sink.put(c);
+        }
+    }
+
+    @Override
+    public void clear() {
+        Entry entry;
+        synchronized (this) {
+            entry = head;
+            head = tail = null;
+            entries.clear();
+        }
+        int freed = 0;
+        while (entry != null) {
+            Misc.free(entry.factory);
+            entry = entry.next;
+            freed++;
+        }
+        metrics.cachedPlansGauge().add(-freed);
+        if (freed > 0) {
+            LOG.info().$("cleared [plans=").$(freed).I$();
+        }
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes the plan for the given query out of the cache. On a hit, bind variables that
+     * are not yet defined are defined with the types resolved when the plan was compiled.
+     *
+     * @param sql                 query text
+     * @param bindVariableService bind variables of the caller, can be null
+     * @return cached plan or null
+     * @throws SqlException when a bind variable cannot be defined
+     */
+    public RecordCursorFactory poll(CharSequence sql, @Nullable BindVariableService bindVariableService) throws SqlException {
+        if (!enabled) {
+            return null;
+        }
+        final StringSink key = tlKeySink.get();
+        normalize(sql, key);
+        Entry entry = null;
+        synchronized (this) {
+            final int index = entries.keyIndex(key);
+            if (index < 0) {
+                final Entry candidate = entries.valueAtQuick(index);
+                if (isCompatible(candidate.bindVariableTypes, bindVariableService)) {
+                    entries.removeAt(index);
+                    unlink(candidate);
+                    entry = candidate;
+                }
+            }
+        }
+        if (entry == null) {
+            metrics.markMiss();
+            LOG.debug().$("miss [sql=").utf8(key).I$();
+            return null;
+        }
+        metrics.markHit();
+        metrics.cachedPlansGauge().dec();
+        LOG.debug().$("hit [sql=").utf8(key).I$();
+        if (bindVariableService != null) {
+            final IntList types = entry.bindVariableTypes;
+            for (int i = 0, n = types.size(); i < n; i++) {
+                if (bindVariableService.getFunction(i) == null) {
+                    bindVariableService.define(i, types.getQuick(i), 0);
+                }
+            }
+        }
+        return entry.factory;
+    }
+
+    /**
+     * Returns the plan to the cache. When the cache already holds a plan for the same query,
+     * or the cache is disabled, the given plan is freed.
+     *
+     * @param sql               query text
+     * @param bindVariableTypes types of indexed bind variables resolved by the compiler, can be null
+     * @param factory           plan to cache
+     */
+    public void push(CharSequence sql, @Nullable IntList bindVariableTypes, RecordCursorFactory factory) {
+        if (factory == null) {
+            return;
+        }
+        if (!enabled) {
+            Misc.free(factory);
+            return;
+        }
+        final StringSink key = tlKeySink.get();
+        normalize(sql, key);
+        Entry evicted = null;
+        boolean added = false;
+        synchronized (this) {
+            final int index = entries.keyIndex(key);
+            if (index > -1) {
+                final Entry entry = new Entry(Chars.toString(key), factory);
+                if (bindVariableTypes != null) {
+                    entry.bindVariableTypes.addAll(bindVariableTypes);
+                }
+                entries.putAt(index, entry.key, entry);
+                linkFirst(entry);
+                added = true;
+                if (entries.size() > capacity) {
+                    evicted = tail;
+                    unlink(evicted);
+                    entries.remove(evicted.key);
+                }
+            }
+        }
+        if (added) {
+            metrics.cachedPlansGauge().inc();
+            LOG.debug().$("push [sql=").utf8(key).I$();
+        } else {
+            Misc.free(factory);
+        }
+        if (evicted != null) {
+            metrics.cachedPlansGauge().dec();
+            LOG.debug().$("evict [sql=").utf8(evicted.key).I$();
+            Misc.free(evicted.factory);
+        }
+    }
+
+    private static boolean isCompatible(IntList types, @Nullable BindVariableService bindVariableService) {
+        if (bindVariableService == null) {
+            return types.size() == 0;
+        }
+        if (bindVariableService.getNamedVariables().size() > 0) {
+            return false;
+        }
+        for (int i = 0, n = bindVariableService.getIndexedVariableCount(); i < n; i++) {
+            final Function function = bindVariableService.getFunction(i);
+            if (function != null && (i >= types.size() || function.getType() != types.getQuick(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void linkFirst(Entry entry) {
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        } else {
+            tail = entry;
+        }
+        head = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            head = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            tail = entry.prev;
+        }
+        entry.prev = entry.next = null;
+    }
+
+    private static class Entry {
+        private final IntList bindVariableTypes = new IntList();
+        private final RecordCursorFactory factory;
+        private final String key;
+        private Entry next;
+        private Entry prev;
+
+        private Entry(String key, RecordCursorFactory factory) {
+            this.key = key;
+            this.factory = factory;
+        }
+    }
+}
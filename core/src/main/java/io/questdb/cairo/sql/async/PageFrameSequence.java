@@ -49,10 +49,12 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
     private static final long LOCAL_TASK_CURSOR = Long.MAX_VALUE;
     private static final Log LOG = LogFactory.getLog(PageFrameSequence.class);
     private final MillisecondClock clock;
+    private final FilesFacade ff;
     private final LongList frameRowCounts = new LongList();
     private final WeakClosableObjectPool<PageFrameReduceTask> localTaskPool;
     private final MessageBus messageBus;
     private final PageAddressCache pageAddressCache;
+    private final int prefetchCount;
     private final AtomicInteger reduceCounter = new AtomicInteger(0);
     private final PageFrameReducer reducer;
     private final AtomicBoolean valid = new AtomicBoolean(true);
@@ -85,6 +87,8 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         this.reducer = reducer;
         this.clock = configuration.getMillisecondClock();
         this.localTaskPool = localTaskPool;
+        this.ff = configuration.getFilesFacade();
+        this.prefetchCount = configuration.getPageFramePrefetchCount();
     }
 
     /**
@@ -251,6 +255,19 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         return valid.get();
     }
 
+    /**
+     * Advises the OS to read ahead column pages of the frame, which is located the configured
+     * number of frames after the given one, while the given frame is being reduced.
+     * The method is thread-safe and is called once for each reduced frame.
+     *
+     * @param frameIndex index of the frame being reduced
+     */
+    public void prefetch(int frameIndex) {
+        if (prefetchCount > 0 && frameIndex + prefetchCount < frameCount) {
+            prefetchFrame(frameIndex + prefetchCount);
+        }
+    }
+
     /**
      * This method is not thread safe. It's always invoked on a single "query owner" thread.
      * <p>
@@ -312,6 +329,10 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         try {
             final PageFrameCursor pageFrameCursor = base.getPageFrameCursor(executionContext, order);
             final int frameCount = setupAddressCache(base, pageFrameCursor);
+            // frames below are prefetched by reducers of the preceding frames
+            for (int i = 0, n = Math.min(prefetchCount, frameCount); i < n; i++) {
+                prefetchFrame(i);
+            }
 
             // this method sets a lot of state of the page sequence
             prepareForDispatch(rnd, frameCount, pageFrameCursor, atom, collectSubSeq);
@@ -461,6 +482,36 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         this.circuitBreaker.setFd(executionContextCircuitBreaker.getFd());
     }
 
+    private void prefetchFrame(int frameIndex) {
+        final long frameRowCount = getFrameRowCount(frameIndex);
+        for (int columnIndex = 0, n = pageAddressCache.getColumnCount(); columnIndex < n; columnIndex++) {
+            final long pageAddress = pageAddressCache.getPageAddress(frameIndex, columnIndex);
+            if (pageAddress == 0) {
+                // column top, nothing to read
+                continue;
+            }
+            if (pageAddressCache.isVarLenColumn(columnIndex)) {
+                // the index page holds one extra offset, which is the end of the frame's data
+                final long indexPageAddress = pageAddressCache.getIndexPageAddress(frameIndex, columnIndex);
+                prefetchPages(indexPageAddress, (frameRowCount + 1) * Long.BYTES);
+                // variable length page starts at the beginning of the column, skip data of the preceding frames
+                final long dataLo = Unsafe.getUnsafe().getLong(indexPageAddress);
+                final long dataHi = pageAddressCache.getPageSize(frameIndex, columnIndex);
+                if (dataHi > dataLo) {
+                    prefetchPages(pageAddress + dataLo, dataHi - dataLo);
+                }
+            } else {
+                prefetchPages(pageAddress, frameRowCount << pageAddressCache.getColumnShiftBits(columnIndex));
+            }
+        }
+    }
+
+    private void prefetchPages(long address, long len) {
+        // madvise requires page aligned address
+        final long alignedAddress = address & -Files.PAGE_SIZE;
+        ff.madvise(alignedAddress, len + address - alignedAddress, Files.POSIX_MADV_WILLNEED);
+    }
+
     private void prepareForDispatch(
             Rnd rnd,
             int frameCount,
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.vm;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnCompression;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.vm.api.MemoryCMR;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.LPSZ;
+
+// contiguous readable memory inflated from a compressed column file
+public class MemoryCMRCompressedImpl extends AbstractMemoryCR implements MemoryCMR {
+    private static final Log LOG = LogFactory.getLog(MemoryCMRCompressedImpl.class);
+    private int memoryTag = MemoryTag.NATIVE_TABLE_READER;
+
+    @Override
+    public void close() {
+        clear();
+        if (pageAddress != 0) {
+            Unsafe.free(pageAddress, size, memoryTag);
+            pageAddress = 0;
+        }
+        size = 0;
+        if (ff != null && ff.close(fd)) {
+            LOG.debug().$("closed [fd=").$(fd).I$();
+            fd = -1;
+        }
+    }
+
+    @Override
+    public void extend(long newSize) {
+        if (newSize > size) {
+            throw CairoException.critical(0)
+                    .put("compressed column cannot be extended [fd=").put(fd)
+                    .put(", size=").put(size)
+                    .put(", newSize=").put(newSize)
+                    .put(']');
+        }
+    }
+
+    @Override
+    public void growToFileSize() {
+        // the compressed file is immutable and already inflated
+    }
+
+    @Override
+    public void of(FilesFacade ff, LPSZ name, long extendSegmentSize, long size, int memoryTag, long opts, int madviseOpts) {
+        close();
+        this.ff = ff;
+        this.memoryTag = memoryTag;
+        fd = TableUtils.openRO(ff, name, LOG);
+        try {
+            final long rawSize = ColumnCompression.getRawSize(ff, fd);
+            if (size > rawSize) {
+                throw CairoException.critical(0)
+                        .put("compressed column is too short [file=").put(name)
+                        .put(", size=").put(rawSize)
+                        .put(", expected=").put(size)
+                        .put(']');
+            }
+            if (rawSize > 0) {
+                pageAddress = Unsafe.malloc(rawSize, memoryTag);
+                this.size = rawSize;
+                ColumnCompression.decompress(ff, fd, pageAddress, rawSize);
+            }
+        } catch (Throwable e) {
+            close();
+            throw e;
+        }
+        LOG.debug().$("inflated [file=").$(name).$(", fd=").$(fd).$(", size=").$(this.size).I$();
+    }
+}
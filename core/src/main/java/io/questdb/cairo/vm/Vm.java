@@ -93,6 +93,10 @@ public class Vm {
         return new MemoryCMRImpl();
     }
 
+    public static MemoryMR getCompressedMRInstance() {
+        return new MemoryCMRCompressedImpl();
+    }
+
     public static MemoryMA getMAInstance() {
         return new MemoryPMARImpl();
     }
@@ -57,12 +57,24 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
     private final IntLongHashMap lastAppliedSeqTxns = new IntLongHashMap();
     private final OperationCompiler operationCompiler;
     private final WalEventReader walEventReader;
+    private final long walSquashMaxRows;
+    private final long walSquashMaxSize;
+    // DATA transaction read from the sequencer log but not applied yet; once squashing starts
+    // it is copied to the writer batch and pendingSeqTxn tracks the last transaction of the batch
+    private long pendingRowCount;
+    private int pendingSegmentId;
+    private long pendingSegmentTxn;
+    private long pendingSeqTxn = -1;
+    private boolean pendingSquashed;
+    private int pendingWalId;
 
     public ApplyWal2TableJob(CairoEngine engine, int workerCount, int sharedWorkerCount, @Nullable FunctionFactoryCache ffCache) {
         super(engine.getMessageBus().getWalTxnNotificationQueue(), engine.getMessageBus().getWalTxnNotificationSubSequence());
         this.engine = engine;
         this.operationCompiler = new OperationCompiler(engine, workerCount, sharedWorkerCount, ffCache);
         walEventReader = new WalEventReader(engine.getConfiguration().getFilesFacade());
+        walSquashMaxRows = engine.getConfiguration().getWalSquashMaxRows();
+        walSquashMaxSize = engine.getConfiguration().getWalSquashMaxSize();
     }
 
     public long applyWAL(
@@ -226,6 +238,11 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
         return true;
     }
 
+    private static void setWalPath(Path tempPath, CairoEngine engine, TableToken tableToken, int walId, int segmentId) {
+        // Always set full path when using thread static path
+        tempPath.of(engine.getConfiguration().getRoot()).concat(tableToken).slash().put(WAL_NAME_BASE).put(walId).slash().put(segmentId);
+    }
+
     private static boolean tryDestroyDroppedTable(TableToken tableToken, TableWriter writer, CairoEngine engine, Path tempPath) {
         if (engine.lockReadersByTableToken(tableToken)) {
             TableWriter writerToClose = null;
@@ -256,6 +273,22 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
         return false;
     }
 
+    private void appendWalBatch(TableToken tableToken, TableWriter writer, CairoEngine engine, Path tempPath, int walId, int segmentId, long segmentTxn) {
+        setWalPath(tempPath, engine, tableToken, walId, segmentId);
+        try (WalEventReader eventReader = walEventReader) {
+            final WalEventCursor.DataInfo dataInfo = eventReader.of(tempPath, WAL_FORMAT_VERSION, segmentTxn).getDataInfo();
+            writer.appendWalBatch(
+                    tempPath,
+                    !dataInfo.isOutOfOrder(),
+                    dataInfo.getStartRowID(),
+                    dataInfo.getEndRowID(),
+                    dataInfo.getMinTimestamp(),
+                    dataInfo.getMaxTimestamp(),
+                    dataInfo
+            );
+        }
+    }
+
     private void applyOutstandingWalTransactions(
             TableToken tableToken,
             TableWriter writer,
@@ -267,6 +300,9 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
 
         try (TransactionLogCursor transactionLogCursor = tableSequencerAPI.getCursor(tableToken, writer.getSeqTxn())) {
             TableMetadataChangeLog structuralChangeCursor = null;
+            // writer seqTxn lags behind while the DATA transactions are squashed
+            long expectedSeqTxn = writer.getSeqTxn() + 1;
+            pendingSeqTxn = -1;
             try {
                 while (transactionLogCursor.hasNext()) {
                     final int walId = transactionLogCursor.getWalId();
@@ -275,14 +311,16 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
                     final long commitTimestamp = transactionLogCursor.getCommitTimestamp();
                     final long seqTxn = transactionLogCursor.getTxn();
 
-                    if (seqTxn != writer.getSeqTxn() + 1) {
+                    if (seqTxn != expectedSeqTxn) {
                         throw CairoException.critical(0)
-                                .put("unexpected sequencer transaction, expected ").put(writer.getSeqTxn() + 1)
+                                .put("unexpected sequencer transaction, expected ").put(expectedSeqTxn)
                                 .put(" but was ").put(seqTxn);
                     }
+                    expectedSeqTxn = seqTxn + 1;
 
                     switch (walId) {
                         case METADATA_WALID:
+                            applyPendingWalData(tableToken, writer, engine, operationCompiler, tempPath);
                             // This is metadata change
                             // to be taken from Sequencer directly
                             final long newStructureVersion = transactionLogCursor.getStructureVersion();
@@ -316,6 +354,7 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
                             break;
 
                         case DROP_TABLE_WALID:
+                            applyPendingWalData(tableToken, writer, engine, operationCompiler, tempPath);
                             tryDestroyDroppedTable(tableToken, writer, engine, tempPath);
                             return;
 
@@ -325,18 +364,40 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
                                     .put(tableToken.getTableName()).put(", seqTxn=").put(seqTxn).put(']');
 
                         default:
-                            // Always set full path when using thread static path
                             operationCompiler.setNowAndFixClock(commitTimestamp);
-                            tempPath.of(engine.getConfiguration().getRoot()).concat(tableToken).slash().put(WAL_NAME_BASE).put(walId).slash().put(segmentId);
-                            processWalCommit(writer, tempPath, segmentTxn, operationCompiler, seqTxn);
+                            setWalPath(tempPath, engine, tableToken, walId, segmentId);
+                            final long dataRowCount = walSquashMaxRows > 1 ? readWalDataRowCount(tempPath, segmentTxn) : -1;
+                            if (dataRowCount > 0) {
+                                squashWalData(tableToken, writer, engine, operationCompiler, tempPath, walId, segmentId, segmentTxn, seqTxn, dataRowCount);
+                            } else {
+                                applyPendingWalData(tableToken, writer, engine, operationCompiler, tempPath);
+                                setWalPath(tempPath, engine, tableToken, walId, segmentId);
+                                processWalCommit(writer, tempPath, segmentTxn, operationCompiler, seqTxn);
+                            }
                     }
                 }
+                applyPendingWalData(tableToken, writer, engine, operationCompiler, tempPath);
             } finally {
+                pendingSeqTxn = -1;
                 Misc.free(structuralChangeCursor);
             }
         }
     }
 
+    private void applyPendingWalData(TableToken tableToken, TableWriter writer, CairoEngine engine, OperationCompiler operationCompiler, Path tempPath) {
+        if (pendingSeqTxn == -1) {
+            return;
+        }
+        final long seqTxn = pendingSeqTxn;
+        pendingSeqTxn = -1;
+        if (pendingSquashed) {
+            writer.commitWalBatch(seqTxn);
+        } else {
+            setWalPath(tempPath, engine, tableToken, pendingWalId, pendingSegmentId);
+            processWalCommit(writer, tempPath, pendingSegmentTxn, operationCompiler, seqTxn);
+        }
+    }
+
     private void processWalCommit(TableWriter writer, @Transient Path walPath, long segmentTxn, OperationCompiler operationCompiler, long seqTxn) {
         try (WalEventReader eventReader = walEventReader) {
             final WalEventCursor walEventCursor = eventReader.of(walPath, WAL_FORMAT_VERSION, segmentTxn);
@@ -415,6 +476,53 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
         }
     }
 
+    private long readWalDataRowCount(@Transient Path walPath, long segmentTxn) {
+        try (WalEventReader eventReader = walEventReader) {
+            final WalEventCursor walEventCursor = eventReader.of(walPath, WAL_FORMAT_VERSION, segmentTxn);
+            if (walEventCursor.getType() != DATA) {
+                return -1;
+            }
+            final WalEventCursor.DataInfo dataInfo = walEventCursor.getDataInfo();
+            return dataInfo.getEndRowID() - dataInfo.getStartRowID();
+        }
+    }
+
+    private void squashWalData(
+            TableToken tableToken,
+            TableWriter writer,
+            CairoEngine engine,
+            OperationCompiler operationCompiler,
+            Path tempPath,
+            int walId,
+            int segmentId,
+            long segmentTxn,
+            long seqTxn,
+            long rowCount
+    ) {
+        if (pendingSeqTxn != -1) {
+            final long batchRowCount = pendingSquashed ? writer.getWalBatchRowCount() : pendingRowCount;
+            if (batchRowCount + rowCount > walSquashMaxRows || writer.getWalBatchSize() >= walSquashMaxSize) {
+                applyPendingWalData(tableToken, writer, engine, operationCompiler, tempPath);
+            }
+        }
+
+        if (pendingSeqTxn == -1) {
+            // keep the transaction aside, it is applied on its own unless the next one is squashed with it
+            pendingWalId = walId;
+            pendingSegmentId = segmentId;
+            pendingSegmentTxn = segmentTxn;
+            pendingRowCount = rowCount;
+            pendingSquashed = false;
+        } else {
+            if (!pendingSquashed) {
+                appendWalBatch(tableToken, writer, engine, tempPath, pendingWalId, pendingSegmentId, pendingSegmentTxn);
+                pendingSquashed = true;
+            }
+            appendWalBatch(tableToken, writer, engine, tempPath, walId, segmentId, segmentTxn);
+        }
+        pendingSeqTxn = seqTxn;
+    }
+
     @Override
     protected boolean doRun(int workerId, long cursor) {
         final TableToken tableToken;
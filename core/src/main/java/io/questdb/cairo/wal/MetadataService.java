@@ -99,6 +99,8 @@ public interface MetadataService {
 
     void renameColumn(CharSequence columnName, CharSequence newName);
 
+    void setMetaCompressionAge(long compressionAgeUs);
+
     void setMetaMaxUncommittedRows(int maxUncommittedRows);
 
     void setMetaO3MaxLag(long o3MaxLagUs);
@@ -81,6 +81,11 @@ public interface MetadataServiceStub extends MetadataService {
         throw CairoException.critical(0).put("remove partition does not update sequencer metadata");
     }
 
+    @Override
+    default void setMetaCompressionAge(long compressionAgeUs) {
+        throw CairoException.critical(0).put("change of compressionAge does not update sequencer metadata");
+    }
+
     @Override
     default void setMetaMaxUncommittedRows(int maxUncommittedRows) {
         throw CairoException.critical(0).put("change max uncommitted does not update sequencer metadata");
@@ -88,12 +88,9 @@ public class HttpServer implements Closeable {
                 public boolean run(int workerId) {
                     long seq = queryCacheEventSubSeq.next();
                     if (seq > -1) {
-                        // Queue is not empty, so flush query cache.
+                        // Queue is not empty. Plans are cached by the engine and were already
+                        // flushed by the publisher, so just acknowledge the event.
                         LOG.info().$("flushing HTTP server query cache [worker=").$(workerId).$(']').$();
-                        QueryCache queryCache = QueryCache.getWeakThreadLocalInstance();
-                        if (queryCache != null) {
-                            queryCache.clear();
-                        }
                         queryCacheEventSubSeq.done(seq);
                     }
 
@@ -106,10 +103,7 @@ public class HttpServer implements Closeable {
 
             // http context factory has thread local pools
             // therefore we need each thread to clean their thread locals individually
-            pool.assignThreadLocalCleaner(i, () -> {
-                httpContextFactory.freeThreadLocal();
-                Misc.free(QueryCache.getWeakThreadLocalInstance());
-            });
+            pool.assignThreadLocalCleaner(i, httpContextFactory::freeThreadLocal);
 
             pool.freeOnExit(() -> {
                 messageBus.getQueryCacheEventFanOut().remove(queryCacheEventSubSeq);
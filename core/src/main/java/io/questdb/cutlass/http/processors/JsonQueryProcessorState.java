@@ -69,6 +69,7 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
     private final HttpConnectionContext httpConnectionContext;
     private final NanosecondClock nanosecondClock;
     private final StringSink query = new StringSink();
+    private final QueryPlanCache queryPlanCache;
     private final ObjList<StateResumeAction> resumeActions = new ObjList<>();
     private final long statementTimeout;
     private int columnCount;
@@ -97,11 +98,13 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
 
     public JsonQueryProcessorState(
             HttpConnectionContext httpConnectionContext,
+            QueryPlanCache queryPlanCache,
             NanosecondClock nanosecondClock,
             int floatScale,
             int doubleScale
     ) {
         this.httpConnectionContext = httpConnectionContext;
+        this.queryPlanCache = queryPlanCache;
         resumeActions.extendAndSet(QUERY_PREFIX, this::onQueryPrefix);
         resumeActions.extendAndSet(QUERY_METADATA, this::onQueryMetadata);
         resumeActions.extendAndSet(QUERY_METADATA_SUFFIX, this::onQueryMetadataSuffix);
@@ -127,7 +130,7 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         record = null;
         if (recordCursorFactory != null) {
             if (queryCacheable) {
-                QueryCache.getThreadLocalInstance().push(query, recordCursorFactory);
+                QueryCache.push(queryPlanCache, query, recordCursorFactory);
             } else {
                 recordCursorFactory.close();
             }
@@ -24,78 +24,52 @@
 
 package io.questdb.cutlass.http.processors;
 
-import io.questdb.Metrics;
+import io.questdb.cairo.sql.QueryPlanCache;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cutlass.http.HttpServerConfiguration;
+import io.questdb.griffin.SqlException;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
-import io.questdb.metrics.Gauge;
-import io.questdb.std.AssociativeCache;
-import org.jetbrains.annotations.NotNull;
+import io.questdb.std.Misc;
 
-import java.io.Closeable;
-
-public final class QueryCache implements Closeable {
+/**
+ * Routes HTTP query processors to the engine-wide {@link QueryPlanCache}, so that compiled
+ * plans are shared between HTTP workers and PostgreSQL wire protocol connections. The HTTP
+ * server configuration only decides whether HTTP queries use the cache at all.
+ */
+public final class QueryCache {
 
     private static final Log LOG = LogFactory.getLog(QueryCache.class);
-    private static ThreadLocal<QueryCache> TL_QUERY_CACHE;
-    private static HttpServerConfiguration httpServerConfiguration;
-    private static Metrics metrics;
-    private final AssociativeCache<RecordCursorFactory> cache;
+    private static boolean enabled;
 
-    public QueryCache(int blocks, int rows, Gauge cachedQueriesGauge) {
-        this.cache = new AssociativeCache<>(blocks, rows, cachedQueriesGauge);
+    private QueryCache() {
     }
 
-    public static void configure(HttpServerConfiguration configuration, Metrics metrics) {
-        TL_QUERY_CACHE = new ThreadLocal<>();
-        httpServerConfiguration = configuration;
-        QueryCache.metrics = metrics;
+    public static void configure(HttpServerConfiguration configuration) {
+        enabled = configuration.isQueryCacheEnabled();
     }
 
-    public static @NotNull QueryCache getThreadLocalInstance() {
-        QueryCache cache = TL_QUERY_CACHE.get();
-        if (cache == null) {
-            final boolean enableQueryCache = httpServerConfiguration.isQueryCacheEnabled();
-            final int blockCount = enableQueryCache ? httpServerConfiguration.getQueryCacheBlockCount() : 1;
-            final int rowCount = enableQueryCache ? httpServerConfiguration.getQueryCacheRowCount() : 1;
-            TL_QUERY_CACHE.set(cache = new QueryCache(blockCount, rowCount, metrics.jsonQuery().cachedQueriesGauge()));
-        }
-        return cache;
-    }
-
-    public static QueryCache getWeakThreadLocalInstance() {
-        if (TL_QUERY_CACHE != null) {
-            return TL_QUERY_CACHE.get();
+    public static RecordCursorFactory poll(QueryPlanCache planCache, CharSequence sql) throws SqlException {
+        if (enabled) {
+            final RecordCursorFactory factory = planCache.poll(sql, null);
+            log(factory == null ? "miss" : "hit", sql);
+            return factory;
         }
         return null;
     }
 
-    public void clear() {
-        cache.clear();
-        LOG.info().$("cleared").$();
-    }
-
-    @Override
-    public void close() {
-        cache.close();
-        LOG.info().$("closed").$();
-    }
-
-    public RecordCursorFactory poll(CharSequence sql) {
-        final RecordCursorFactory factory = cache.poll(sql);
-        log(factory == null ? "miss" : "hit", sql);
-        return factory;
-    }
-
-    public void push(CharSequence sql, RecordCursorFactory factory) {
+    public static void push(QueryPlanCache planCache, CharSequence sql, RecordCursorFactory factory) {
         if (factory != null) {
-            cache.put(sql, factory);
-            log("push", sql);
+            if (enabled) {
+                planCache.push(sql, null, factory);
+                log("push", sql);
+            } else {
+                Misc.free(factory);
+            }
         }
     }
 
-    private void log(CharSequence action, CharSequence sql) {
+    private static void log(CharSequence action, CharSequence sql) {
         LOG.info().$(action)
                 .$(" [thread=").$(Thread.currentThread().getName())
                 .$(", sql=").utf8(sql)
@@ -24,6 +24,7 @@
 
 package io.questdb.cutlass.http.processors;
 
+import io.questdb.cairo.sql.QueryPlanCache;
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
@@ -39,6 +40,7 @@ import java.io.Closeable;
 public class TextQueryProcessorState implements Mutable, Closeable {
     final StringSink query = new StringSink();
     private final HttpConnectionContext httpConnectionContext;
+    private final QueryPlanCache queryPlanCache;
     int columnIndex;
     long count;
     boolean countRows = false;
@@ -56,8 +58,9 @@ public class TextQueryProcessorState implements Mutable, Closeable {
     long stop;
     private boolean queryCacheable = false;
 
-    public TextQueryProcessorState(HttpConnectionContext httpConnectionContext) {
+    public TextQueryProcessorState(HttpConnectionContext httpConnectionContext, QueryPlanCache queryPlanCache) {
         this.httpConnectionContext = httpConnectionContext;
+        this.queryPlanCache = queryPlanCache;
     }
 
     @Override
@@ -70,7 +73,7 @@ public class TextQueryProcessorState implements Mutable, Closeable {
         cursor = Misc.free(cursor);
         if (null != recordCursorFactory) {
             if (queryCacheable) {
-                QueryCache.getThreadLocalInstance().push(query, recordCursorFactory);
+                QueryCache.push(queryPlanCache, query, recordCursorFactory);
             } else {
                 recordCursorFactory.close();
             }
@@ -127,11 +127,13 @@ public class PGConnectionContext extends AbstractMutableIOContext<PGConnectionCo
     private final WeakMutableObjectPool<NamedStatementWrapper> namedStatementWrapperPool;
     private final NetworkFacade nf;
     private final Path path = new Path();
+    private final QueryPlanCache queryPlanCache;
     private final ObjObjHashMap<TableToken, TableWriterAPI> pendingWriters;
     private final int recvBufferSize;
     private final ResponseAsciiSink responseAsciiSink = new ResponseAsciiSink();
     @Nullable
     private final PGAuthenticator roUserAuthenticator;
+    private final boolean selectCacheEnabled;
     private final IntList selectColumnTypes = new IntList();
     private final int sendBufferSize;
     private final String serverVersion;
@@ -183,11 +185,10 @@ public class PGConnectionContext extends AbstractMutableIOContext<PGConnectionCo
     private TypesAndInsert typesAndInsert = null;
     // these references are held by context only for a period of processing single request
     // in PF world this request can span multiple messages, but still, only for one request
-    // the rationale is to be able to return "selectAndTypes" instance to thread-local
-    // cache, which is "typesAndSelectCache". We typically do this after query results are
+    // the rationale is to be able to return the select factory to the engine-wide
+    // cache, which is "queryPlanCache". We typically do this after query results are
     // served to client or query errored out due to network issues
     private TypesAndSelect typesAndSelect = null;
-    private AssociativeCache<TypesAndSelect> typesAndSelectCache;
     private boolean typesAndSelectIsCached = true;
     private WeakSelfReturningObjectPool<TypesAndSelect> typesAndSelectPool;
     private TypesAndUpdate typesAndUpdate = null;
@@ -231,6 +232,8 @@ public class PGConnectionContext extends AbstractMutableIOContext<PGConnectionCo
         final int insertBlockCount = enableInsertCache ? configuration.getInsertCacheBlockCount() : 1; // 8
         final int insertRowCount = enableInsertCache ? configuration.getInsertCacheRowCount() : 1; // 8
         this.typesAndInsertCache = new AssociativeCache<>(insertBlockCount, insertRowCount);
+        this.queryPlanCache = engine.getQueryPlanCache();
+        this.selectCacheEnabled = configuration.isSelectCacheEnabled();
         this.batchCallback = new PGConnectionBatchCallback();
         this.bindSelectColumnFormats = new IntList();
         this.queryTag = TAG_OK;
@@ -365,14 +368,12 @@ public class PGConnectionContext extends AbstractMutableIOContext<PGConnectionCo
 
     public void handleClientOperation(
             @Transient SqlCompiler compiler,
-            @Transient AssociativeCache<TypesAndSelect> selectAndTypesCache,
             @Transient WeakSelfReturningObjectPool<TypesAndSelect> selectAndTypesPool,
             @Transient AssociativeCache<TypesAndUpdate> typesAndUpdateCache,
             @Transient WeakSelfReturningObjectPool<TypesAndUpdate> typesAndUpdatePool,
             int operation
     ) throws PeerDisconnectedException, PeerIsSlowToReadException, PeerIsSlowToWriteException, QueryPausedException, BadProtocolException {
 
-        this.typesAndSelectCache = selectAndTypesCache;
         this.typesAndSelectPool = selectAndTypesPool;
         this.typesAndUpdateCache = typesAndUpdateCache;
         this.typesAndUpdatePool = typesAndUpdatePool;
@@ -1109,14 +1110,12 @@ public class PGConnectionContext extends AbstractMutableIOContext<PGConnectionCo
         // we do not want to overwrite cache entries and potentially
         // leak memory
         if (typesAndSelect != null) {
-            if (typesAndSelectIsCached) {
-                typesAndSelectCache.put(queryText, typesAndSelect);
-                // clear selectAndTypes so that context doesn't accidentally
-                // free the factory when context finishes abnormally
-                this.typesAndSelect = null;
-            } else {
-                this.typesAndSelect = Misc.free(this.typesAndSelect);
+            if (typesAndSelectIsCached && selectCacheEnabled) {
+                // detach the factory so that returning the container
+                // to the pool does not free the cached plan
+                queryPlanCache.push(queryText, typesAndSelect.getTypes(), typesAndSelect.detachFactory());
             }
+            this.typesAndSelect = Misc.free(this.typesAndSelect);
         }
 
         if (typesAndUpdate != null) {
@@ -1168,15 +1167,16 @@ public class PGConnectionContext extends AbstractMutableIOContext<PGConnectionCo
                 return false;
             }
 
-            typesAndSelect = typesAndSelectCache.poll(queryText);
-
-            if (typesAndSelect != null) {
-                LOG.info().$("query cache used [fd=").$(fd).I$();
-                // cache hit, define bind variables
-                bindVariableService.clear();
-                typesAndSelect.defineBindVariables(bindVariableService);
-                queryTag = TAG_SELECT;
-                return false;
+            if (selectCacheEnabled) {
+                // cache hit defines bind variables with the types the plan was compiled for
+                final RecordCursorFactory factory = queryPlanCache.poll(queryText, bindVariableService);
+                if (factory != null) {
+                    LOG.info().$("query cache used [fd=").$(fd).I$();
+                    typesAndSelect = typesAndSelectPool.pop();
+                    typesAndSelect.of(factory, bindVariableService);
+                    queryTag = TAG_SELECT;
+                    return false;
+                }
             }
 
             // not cached - compile to see what it is
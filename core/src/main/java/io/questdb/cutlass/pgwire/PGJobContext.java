@@ -42,7 +42,6 @@ import java.io.Closeable;
 public class PGJobContext implements Closeable {
 
     private final SqlCompiler compiler;
-    private final AssociativeCache<TypesAndSelect> typesAndSelectCache;
     private final WeakSelfReturningObjectPool<TypesAndSelect> typesAndSelectPool;
     private final AssociativeCache<TypesAndUpdate> typesAndUpdateCache;
     private final WeakSelfReturningObjectPool<TypesAndUpdate> typesAndUpdatePool;
@@ -57,10 +56,10 @@ public class PGJobContext implements Closeable {
 
         final Metrics metrics = engine.getMetrics();
 
+        // select factories are cached by the engine, the pool only recycles containers
         final boolean enableSelectCache = configuration.isSelectCacheEnabled();
         final int blockCount = enableSelectCache ? configuration.getSelectCacheBlockCount() : 1;
         final int rowCount = enableSelectCache ? configuration.getSelectCacheRowCount() : 1;
-        typesAndSelectCache = new AssociativeCache<>(blockCount, rowCount, metrics.pgWire().cachedSelectsGauge());
         typesAndSelectPool = new WeakSelfReturningObjectPool<>(TypesAndSelect::new, blockCount * rowCount);
 
         final boolean enabledUpdateCache = configuration.isUpdateCacheEnabled();
@@ -73,12 +72,10 @@ public class PGJobContext implements Closeable {
     @Override
     public void close() {
         Misc.free(compiler);
-        Misc.free(typesAndSelectCache);
         Misc.free(typesAndUpdateCache);
     }
 
     public void flushQueryCache() {
-        typesAndSelectCache.clear();
         typesAndUpdateCache.clear();
     }
 
@@ -88,7 +85,6 @@ public class PGJobContext implements Closeable {
     ) throws PeerIsSlowToWriteException, PeerIsSlowToReadException, PeerDisconnectedException, QueryPausedException, BadProtocolException {
         context.handleClientOperation(
                 compiler,
-                typesAndSelectCache,
                 typesAndSelectPool,
                 typesAndUpdateCache,
                 typesAndUpdatePool,
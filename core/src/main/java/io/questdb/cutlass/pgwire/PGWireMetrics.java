@@ -29,18 +29,12 @@ import io.questdb.metrics.MetricsRegistry;
 
 public class PGWireMetrics {
 
-    private final Gauge cachedSelectsGauge;
     private final Gauge cachedUpdatesGauge;
 
     public PGWireMetrics(MetricsRegistry metricsRegistry) {
-        this.cachedSelectsGauge = metricsRegistry.newGauge("pg_wire_select_queries_cached");
         this.cachedUpdatesGauge = metricsRegistry.newGauge("pg_wire_update_queries_cached");
     }
 
-    public Gauge cachedSelectsGauge() {
-        return cachedSelectsGauge;
-    }
-
     public Gauge cachedUpdatesGauge() {
         return cachedUpdatesGauge;
     }
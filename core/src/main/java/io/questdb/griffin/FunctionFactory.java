@@ -91,6 +91,14 @@ public interface FunctionFactory {
         return false;
     }
 
+    /**
+     * @return true if the factory produces analytic functions, which are only valid with an OVER clause.
+     * Window factories may share the name with group-by factories, e.g. sum(), the OVER clause picks one of them.
+     */
+    default boolean isWindow() {
+        return false;
+    }
+
     Function newInstance(
             int position,
             @Transient ObjList<Function> args,
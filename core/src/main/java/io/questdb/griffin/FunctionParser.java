@@ -28,6 +28,7 @@ import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.ImplicitCastException;
 import io.questdb.cairo.sql.*;
+import io.questdb.griffin.engine.analytic.AnalyticContext;
 import io.questdb.griffin.engine.functions.AbstractUnaryTimestampFunction;
 import io.questdb.griffin.engine.functions.CursorFunction;
 import io.questdb.griffin.engine.functions.GroupByFunction;
@@ -540,6 +541,10 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
         int candidateSigArgTypeSum = -1;
         int bestMatch = MATCH_NO_MATCH;
 
+        // window and group-by factories can share the name, the OVER clause decides which of them applies
+        final boolean filterWindow = functionFactoryCache.isWindow(node.token) && functionFactoryCache.isGroupBy(node.token);
+        final boolean windowContext = filterWindow && isWindowContext();
+
         undefinedVariables.clear();
 
         // find all undefined args for the purpose of setting
@@ -553,6 +558,9 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
         for (int i = 0, n = overload.size(); i < n; i++) {
             final FunctionFactoryDescriptor descriptor = overload.getQuick(i);
             final FunctionFactory factory = descriptor.getFactory();
+            if (filterWindow && factory.isWindow() != windowContext) {
+                continue;
+            }
             int sigArgCount = descriptor.getSigArgCount();
 
             final boolean sigVarArg;
@@ -960,6 +968,11 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
         return bindVariableService;
     }
 
+    private boolean isWindowContext() {
+        final AnalyticContext analyticContext = sqlExecutionContext.getAnalyticContext();
+        return analyticContext != null && !analyticContext.isEmpty();
+    }
+
     private Function parseIndexedParameter(int position, CharSequence name) throws SqlException {
         // get variable index from token
         try {
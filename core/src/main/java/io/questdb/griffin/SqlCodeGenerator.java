@@ -34,6 +34,7 @@ import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryCARW;
 import io.questdb.griffin.engine.*;
 import io.questdb.griffin.engine.analytic.AnalyticFunction;
+import io.questdb.griffin.engine.analytic.AnalyticRecordCursorFactory;
 import io.questdb.griffin.engine.analytic.CachedAnalyticRecordCursorFactory;
 import io.questdb.griffin.engine.functions.GroupByFunction;
 import io.questdb.griffin.engine.functions.SymbolFunction;
@@ -257,6 +258,22 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         return new LtJoinRecordCursorFactory(configuration, metadata, masterFactory, slaveFactory, mapKeyTypes, mapValueTypes, slaveColumnTypes, masterKeySink, slaveKeySink, columnSplit, slaveValueSink, columnIndex, joinContext);
     }
 
+    // index of the timestamp column the frame is bound by, -1 when rows of the frame are counted rather than timed
+    private static int getAnalyticTimestampIndex(AnalyticColumn ac, RecordMetadata metadata) throws SqlException {
+        if (ac.getFramingMode() != AnalyticColumn.FRAMING_RANGE || ac.getRowsLo() == AnalyticColumn.UNBOUNDED_PRECEDING) {
+            return -1;
+        }
+        final ExpressionNode orderBy = ac.getOrderBy().getQuick(0);
+        final int index = metadata.getColumnIndexQuiet(orderBy.token);
+        if (index < 0 || !ColumnType.isTimestamp(metadata.getColumnType(index))) {
+            throw SqlException.$(ac.getRowsLoPos(), "RANGE frame with offset requires ORDER BY on a timestamp column");
+        }
+        if (ac.getOrderByDirection().getQuick(0) != ORDER_DIRECTION_ASCENDING) {
+            throw SqlException.$(ac.getRowsLoPos(), "RANGE frame with offset requires ascending order");
+        }
+        return index;
+    }
+
     private static int getOrderByDirectionOrDefault(QueryModel model, int index) {
         IntList direction = model.getOrderByDirectionAdvice();
         if (index >= direction.size()) {
@@ -416,6 +433,42 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         return null;
     }
 
+    private @Nullable ObjList<ObjList<GroupByFunction>> compileWorkerGroupByFunctionsConditionally(
+            boolean condition,
+            int workerCount,
+            QueryModel model,
+            RecordMetadata metadata,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        if (condition) {
+            ObjList<ObjList<GroupByFunction>> workerGroupByFunctions = new ObjList<>(workerCount);
+            try {
+                for (int i = 0; i < workerCount; i++) {
+                    final ObjList<GroupByFunction> groupByFunctions = new ObjList<>();
+                    workerGroupByFunctions.extendAndSet(i, groupByFunctions);
+                    // value types and positions are known at this point, so we use throw-away lists here
+                    arrayColumnTypes.clear();
+                    GroupByUtils.prepareGroupByFunctions(
+                            model,
+                            metadata,
+                            functionParser,
+                            executionContext,
+                            groupByFunctions,
+                            groupByFunctionPositions,
+                            arrayColumnTypes
+                    );
+                }
+            } catch (Throwable e) {
+                for (int i = 0, n = workerGroupByFunctions.size(); i < n; i++) {
+                    Misc.freeObjList(workerGroupByFunctions.getQuick(i));
+                }
+                throw e;
+            }
+            return workerGroupByFunctions;
+        }
+        return null;
+    }
+
     private RecordCursorFactory createAsOfJoin(
             RecordMetadata metadata,
             RecordCursorFactory master,
@@ -425,6 +478,23 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             int columnSplit,
             JoinContext joinContext
     ) {
+        if (listColumnFilterA.size() == 1) {
+            final int masterKeyIndex = listColumnFilterB.getColumnIndexFactored(0);
+            final int slaveKeyIndex = listColumnFilterA.getColumnIndexFactored(0);
+            if (AsOfJoinFastRecordCursorFactory.isSupported(master.getMetadata(), masterKeyIndex, slave, slaveKeyIndex)) {
+                return new AsOfJoinFastRecordCursorFactory(
+                        configuration,
+                        metadata,
+                        master,
+                        slave,
+                        masterKeyIndex,
+                        slaveKeyIndex,
+                        columnSplit,
+                        joinContext
+                );
+            }
+        }
+
         valueTypes.clear();
         valueTypes.add(ColumnType.LONG);
         valueTypes.add(ColumnType.LONG);
@@ -624,7 +694,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             RecordCursorFactory slave,
             int joinType,
             Function filter,
-            JoinContext context
+            JoinContext context,
+            SqlExecutionContext executionContext
     ) {
         /*
          * JoinContext provides the following information:
@@ -659,6 +730,42 @@ public class SqlCodeGenerator implements Mutable, Closeable {
 
         if (slave.recordCursorSupportsRandomAccess() && !fullFatJoins) {
             if (joinType == JOIN_INNER) {
+                if (
+                        configuration.isSqlParallelHashJoinEnabled()
+                                && (master.supportPageFrameCursor() || isFilterFusionSupported(master))
+                ) {
+                    // Fuse the master filter into the probe pass, if there is one.
+                    RecordCursorFactory base = master;
+                    AsyncFilterAtom filterAtom = null;
+                    if (!base.supportPageFrameCursor()) {
+                        final RecordCursorFactory filterFactory = base;
+                        filterAtom = filterFactory instanceof AsyncJitFilteredRecordCursorFactory
+                                ? ((AsyncJitFilteredRecordCursorFactory) filterFactory).getFilterAtom()
+                                : ((AsyncFilteredRecordCursorFactory) filterFactory).getFilterAtom();
+                        base = filterFactory.getBaseFactory();
+                        if (filterFactory instanceof AsyncJitFilteredRecordCursorFactory) {
+                            ((AsyncJitFilteredRecordCursorFactory) filterFactory).halfClose();
+                        } else {
+                            ((AsyncFilteredRecordCursorFactory) filterFactory).halfClose();
+                        }
+                    }
+                    return new AsyncHashJoinLightRecordCursorFactory(
+                            configuration,
+                            executionContext.getMessageBus(),
+                            metadata,
+                            base,
+                            slave,
+                            keyTypes,
+                            valueTypes,
+                            masterKeySink,
+                            slaveKeySink,
+                            masterMetadata.getColumnCount(),
+                            context,
+                            filterAtom,
+                            reduceTaskPool,
+                            executionContext.getSharedWorkerCount()
+                    );
+                }
                 return new HashJoinLightRecordCursorFactory(
                         configuration,
                         metadata,
@@ -1699,7 +1806,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                         slave,
                                         joinType,
                                         filter,
-                                        slaveModel.getContext()
+                                        slaveModel.getContext(),
+                                        executionContext
                                 );
                                 masterAlias = null;
                                 break;
@@ -2215,6 +2323,40 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 if (recordCursorFactory.recordCursorSupportsRandomAccess()) {
                     if (canBeOptimized(model, executionContext, loFunc, hiFunc)) {
                         model.setLimitImplemented(true);
+                        if (
+                                configuration.isSqlParallelOrderByEnabled()
+                                        && listColumnFilterA.size() == 1
+                                        && AsyncTopKAtom.isKeyTypeSupported(metadata.getColumnType(Math.abs(listColumnFilterA.getQuick(0)) - 1))
+                                        && (recordCursorFactory.supportPageFrameCursor() || isFilterFusionSupported(recordCursorFactory))
+                        ) {
+                            // Fuse the filter into the top K pass, if there is one.
+                            RecordCursorFactory base = recordCursorFactory;
+                            AsyncFilterAtom filterAtom = null;
+                            if (!base.supportPageFrameCursor()) {
+                                final RecordCursorFactory filterFactory = base;
+                                filterAtom = filterFactory instanceof AsyncJitFilteredRecordCursorFactory
+                                        ? ((AsyncJitFilteredRecordCursorFactory) filterFactory).getFilterAtom()
+                                        : ((AsyncFilteredRecordCursorFactory) filterFactory).getFilterAtom();
+                                base = filterFactory.getBaseFactory();
+                                if (filterFactory instanceof AsyncJitFilteredRecordCursorFactory) {
+                                    ((AsyncJitFilteredRecordCursorFactory) filterFactory).halfClose();
+                                } else {
+                                    ((AsyncFilteredRecordCursorFactory) filterFactory).halfClose();
+                                }
+                            }
+                            return new AsyncTopKRecordCursorFactory(
+                                    configuration,
+                                    executionContext.getMessageBus(),
+                                    orderedMetadata,
+                                    base,
+                                    listColumnFilterA.copy(),
+                                    loFunc,
+                                    hiFunc,
+                                    filterAtom,
+                                    reduceTaskPool,
+                                    executionContext.getSharedWorkerCount()
+                            );
+                        }
                         return new LimitedSizeSortedLightRecordCursorFactory(
                                 configuration,
                                 orderedMetadata,
@@ -2224,6 +2366,37 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                 hiFunc,
                                 listColumnFilterA.copy()
                         );
+                    } else if (
+                            configuration.isSqlParallelOrderByEnabled()
+                                    && (recordCursorFactory.supportPageFrameCursor() || isFilterFusionSupported(recordCursorFactory))
+                    ) {
+                        final Class<RecordComparator> comparatorClass = recordComparatorCompiler.compileClass(metadata, listColumnFilterA);
+                        // Fuse the filter into the sorting pass, if there is one.
+                        RecordCursorFactory base = recordCursorFactory;
+                        AsyncFilterAtom filterAtom = null;
+                        if (!base.supportPageFrameCursor()) {
+                            final RecordCursorFactory filterFactory = base;
+                            filterAtom = filterFactory instanceof AsyncJitFilteredRecordCursorFactory
+                                    ? ((AsyncJitFilteredRecordCursorFactory) filterFactory).getFilterAtom()
+                                    : ((AsyncFilteredRecordCursorFactory) filterFactory).getFilterAtom();
+                            base = filterFactory.getBaseFactory();
+                            if (filterFactory instanceof AsyncJitFilteredRecordCursorFactory) {
+                                ((AsyncJitFilteredRecordCursorFactory) filterFactory).halfClose();
+                            } else {
+                                ((AsyncFilteredRecordCursorFactory) filterFactory).halfClose();
+                            }
+                        }
+                        return new AsyncSortLightRecordCursorFactory(
+                                configuration,
+                                executionContext.getMessageBus(),
+                                orderedMetadata,
+                                base,
+                                comparatorClass,
+                                listColumnFilterA.copy(),
+                                filterAtom,
+                                reduceTaskPool,
+                                executionContext.getSharedWorkerCount()
+                        );
                     } else {
                         return new SortedLightRecordCursorFactory(
                                 configuration,
@@ -2261,6 +2434,65 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
     }
 
+    private RecordCursorFactory generateParallelSampleBy(
+            QueryModel model,
+            SqlExecutionContext executionContext,
+            RecordCursorFactory factory,
+            RecordMetadata metadata,
+            GenericRecordMetadata groupByMetadata,
+            ObjList<GroupByFunction> groupByFunctions,
+            ObjList<Function> recordFunctions,
+            TimestampSampler timestampSampler,
+            int timestampIndex,
+            Function offsetFunc,
+            int offsetFuncPos
+    ) throws SqlException {
+        final int workerCount = executionContext.getSharedWorkerCount();
+        final ObjList<ObjList<GroupByFunction>> perWorkerGroupByFunctions = compileWorkerGroupByFunctionsConditionally(
+                !GroupByUtils.isReadThreadSafe(groupByFunctions),
+                workerCount,
+                model,
+                metadata,
+                executionContext
+        );
+
+        // Fuse the filter into the aggregation pass, if there is one.
+        AsyncFilterAtom filterAtom = null;
+        if (!factory.supportPageFrameCursor()) {
+            final RecordCursorFactory filterFactory = factory;
+            filterAtom = filterFactory instanceof AsyncJitFilteredRecordCursorFactory
+                    ? ((AsyncJitFilteredRecordCursorFactory) filterFactory).getFilterAtom()
+                    : ((AsyncFilteredRecordCursorFactory) filterFactory).getFilterAtom();
+            factory = filterFactory.getBaseFactory();
+            if (filterFactory instanceof AsyncJitFilteredRecordCursorFactory) {
+                ((AsyncJitFilteredRecordCursorFactory) filterFactory).halfClose();
+            } else {
+                ((AsyncFilteredRecordCursorFactory) filterFactory).halfClose();
+            }
+        }
+
+        return new AsyncSampleByRecordCursorFactory(
+                asm,
+                configuration,
+                executionContext.getMessageBus(),
+                factory,
+                listColumnFilterA,
+                keyTypes,
+                valueTypes,
+                groupByMetadata,
+                groupByFunctions,
+                perWorkerGroupByFunctions,
+                recordFunctions,
+                filterAtom,
+                timestampSampler,
+                timestampIndex,
+                offsetFunc,
+                offsetFuncPos,
+                reduceTaskPool,
+                workerCount
+        );
+    }
+
     private RecordCursorFactory generateQuery(QueryModel model, SqlExecutionContext executionContext, boolean processJoins) throws SqlException {
         RecordCursorFactory factory = generateQuery0(model, executionContext, processJoins);
         if (model.getUnionModel() != null) {
@@ -2535,6 +2767,30 @@ public class SqlCodeGenerator implements Mutable, Closeable {
 
             if (isFillNone) {
 
+                if (
+                        configuration.isSqlParallelGroupByEnabled()
+                                && timezoneName == null
+                                && timestampSampler.isBucketSizeFixed()
+                                && GroupByUtils.isParallelismSupported(groupByFunctions)
+                                // with the default alignment the filter must see the first observation
+                                // before the buckets are known, so it can't be fused
+                                && (factory.supportPageFrameCursor() || (offset != null && isFilterFusionSupported(factory)))
+                ) {
+                    return generateParallelSampleBy(
+                            model,
+                            executionContext,
+                            factory,
+                            metadata,
+                            groupByMetadata,
+                            groupByFunctions,
+                            recordFunctions,
+                            timestampSampler,
+                            timestampIndex,
+                            offsetFunc,
+                            offsetFuncPos
+                    );
+                }
+
                 if (keyTypes.getColumnCount() == 0) {
                     // this sample by is not keyed
                     return new SampleByFillNoneNotKeyedRecordCursorFactory(
@@ -2685,6 +2941,23 @@ public class SqlCodeGenerator implements Mutable, Closeable {
 
     private RecordCursorFactory generateSelectAnalytic(QueryModel model, SqlExecutionContext executionContext) throws SqlException {
         final RecordCursorFactory base = generateSubQuery(model, executionContext);
+        try {
+            final RecordCursorFactory factory = generateSelectAnalyticStreaming(model, base, executionContext);
+            if (factory != null) {
+                return factory;
+            }
+            return generateSelectAnalyticCached(model, base, executionContext);
+        } catch (Throwable th) {
+            Misc.free(base);
+            throw th;
+        }
+    }
+
+    private RecordCursorFactory generateSelectAnalyticCached(
+            QueryModel model,
+            RecordCursorFactory base,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
         final RecordMetadata baseMetadata = base.getMetadata();
         final ObjList<QueryColumn> columns = model.getColumns();
         final int columnCount = columns.size();
@@ -2752,68 +3025,14 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             final QueryColumn qc = columns.getQuick(i);
             if (qc instanceof AnalyticColumn) {
                 final AnalyticColumn ac = (AnalyticColumn) qc;
-                final ExpressionNode ast = qc.getAst();
-                if (ast.paramCount > 1) {
-                    Misc.free(base);
-                    throw SqlException.$(ast.position, "too many arguments");
-                }
-
-                ObjList<Function> partitionBy = null;
-                int psz = ac.getPartitionBy().size();
-                if (psz > 0) {
-                    partitionBy = new ObjList<>(psz);
-                    for (int j = 0; j < psz; j++) {
-                        partitionBy.add(
-                                functionParser.parseFunction(ac.getPartitionBy().getQuick(j), chainMetadata, executionContext)
-                        );
-                    }
-                }
-
-                final VirtualRecord partitionByRecord;
-                final RecordSink partitionBySink;
-
-                if (partitionBy != null) {
-                    partitionByRecord = new VirtualRecord(partitionBy);
-                    keyTypes.clear();
-                    final int partitionByCount = partitionBy.size();
-
-                    for (int j = 0; j < partitionByCount; j++) {
-                        keyTypes.add(partitionBy.getQuick(j).getType());
-                    }
-                    entityColumnFilter.of(partitionByCount);
-                    // create sink
-                    partitionBySink = RecordSinkFactory.getInstance(
-                            asm,
-                            keyTypes,
-                            entityColumnFilter,
-                            false
-                    );
-                } else {
-                    partitionByRecord = null;
-                    partitionBySink = null;
-                }
-
-
                 final int osz = ac.getOrderBy().size();
-                executionContext.configureAnalyticContext(
-                        partitionByRecord,
-                        partitionBySink,
-                        keyTypes,
-                        osz > 0,
-                        base.recordCursorSupportsRandomAccess()
+                final AnalyticFunction analyticFunction = parseAnalyticFunction(
+                        ac,
+                        chainMetadata,
+                        getAnalyticTimestampIndex(ac, chainMetadata),
+                        base.recordCursorSupportsRandomAccess(),
+                        executionContext
                 );
-                final Function f;
-                try {
-                    f = functionParser.parseFunction(ast, baseMetadata, executionContext);
-                    if (!(f instanceof AnalyticFunction)) {
-                        Misc.free(base);
-                        throw SqlException.$(ast.position, "non-analytic function called in analytic context");
-                    }
-                } finally {
-                    executionContext.clearAnalyticContext();
-                }
-
-                AnalyticFunction analyticFunction = (AnalyticFunction) f;
 
                 // analyze order by clause on the current model and optimise out
                 // order by on analytic function if it matches the one on the model
@@ -2901,6 +3120,84 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         );
     }
 
+    private RecordCursorFactory generateSelectAnalyticStreaming(
+            QueryModel model,
+            RecordCursorFactory base,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        final RecordMetadata baseMetadata = base.getMetadata();
+        final int timestampIndex = base.hasDescendingOrder() ? -1 : baseMetadata.getTimestampIndex();
+        final ObjList<QueryColumn> columns = model.getColumns();
+        final int columnCount = columns.size();
+
+        // rows are not cached, so the base cursor has to return them in the order of every window
+        for (int i = 0; i < columnCount; i++) {
+            final QueryColumn qc = columns.getQuick(i);
+            if (qc instanceof AnalyticColumn) {
+                final AnalyticColumn ac = (AnalyticColumn) qc;
+                if (ac.isWholePartition()) {
+                    return null;
+                }
+                final int osz = ac.getOrderBy().size();
+                if (osz > 1) {
+                    return null;
+                }
+                if (osz == 1 && (
+                        timestampIndex == -1
+                                || ac.getOrderByDirection().getQuick(0) != ORDER_DIRECTION_ASCENDING
+                                || baseMetadata.getColumnIndexQuiet(ac.getOrderBy().getQuick(0).token) != timestampIndex
+                )) {
+                    return null;
+                }
+            }
+        }
+
+        final GenericRecordMetadata metadata = new GenericRecordMetadata();
+        final ObjList<Function> functions = new ObjList<>(columnCount);
+        final ObjList<AnalyticFunction> analyticFunctions = new ObjList<>();
+        try {
+            for (int i = 0; i < columnCount; i++) {
+                final QueryColumn qc = columns.getQuick(i);
+                if (qc instanceof AnalyticColumn) {
+                    final AnalyticColumn ac = (AnalyticColumn) qc;
+                    final AnalyticFunction analyticFunction = parseAnalyticFunction(
+                            ac,
+                            baseMetadata,
+                            getAnalyticTimestampIndex(ac, baseMetadata),
+                            base.recordCursorSupportsRandomAccess(),
+                            executionContext
+                    );
+                    functions.add(analyticFunction);
+                    if (analyticFunction.getPassCount() != AnalyticFunction.ZERO_PASS) {
+                        // the function needs rows that have not been read yet
+                        Misc.freeObjList(functions);
+                        return null;
+                    }
+                    analyticFunctions.add(analyticFunction);
+                    metadata.add(new TableColumnMetadata(
+                            Chars.toString(qc.getAlias()),
+                            analyticFunction.getType(),
+                            false,
+                            0,
+                            false,
+                            null
+                    ));
+                } else {
+                    final int columnIndex = baseMetadata.getColumnIndexQuiet(qc.getAst().token);
+                    functions.add(functionParser.parseFunction(qc.getAst(), baseMetadata, executionContext));
+                    metadata.add(AbstractRecordMetadata.copyOf(baseMetadata, columnIndex));
+                    if (columnIndex == timestampIndex) {
+                        metadata.setTimestampIndex(i);
+                    }
+                }
+            }
+        } catch (Throwable th) {
+            Misc.freeObjList(functions);
+            throw th;
+        }
+        return new AnalyticRecordCursorFactory(metadata, base, functions, analyticFunctions);
+    }
+
     private RecordCursorFactory generateSelectChoose(QueryModel model, SqlExecutionContext executionContext) throws SqlException {
         final RecordCursorFactory factory = generateSubQuery(model, executionContext);
 
@@ -3325,6 +3622,70 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 throw e;
             }
 
+            if (
+                    configuration.isSqlParallelGroupByEnabled()
+                            && GroupByUtils.isParallelismSupported(groupByFunctions)
+                            && (factory.supportPageFrameCursor() || isFilterFusionSupported(factory))
+            ) {
+                final int workerCount = executionContext.getSharedWorkerCount();
+                final ObjList<ObjList<GroupByFunction>> perWorkerGroupByFunctions = compileWorkerGroupByFunctionsConditionally(
+                        !GroupByUtils.isReadThreadSafe(groupByFunctions),
+                        workerCount,
+                        model,
+                        metadata,
+                        executionContext
+                );
+
+                // Fuse the filter into the aggregation pass, if there is one.
+                AsyncFilterAtom filterAtom = null;
+                if (!factory.supportPageFrameCursor()) {
+                    final RecordCursorFactory filterFactory = factory;
+                    filterAtom = filterFactory instanceof AsyncJitFilteredRecordCursorFactory
+                            ? ((AsyncJitFilteredRecordCursorFactory) filterFactory).getFilterAtom()
+                            : ((AsyncFilteredRecordCursorFactory) filterFactory).getFilterAtom();
+                    factory = filterFactory.getBaseFactory();
+                    if (filterFactory instanceof AsyncJitFilteredRecordCursorFactory) {
+                        ((AsyncJitFilteredRecordCursorFactory) filterFactory).halfClose();
+                    } else {
+                        ((AsyncFilteredRecordCursorFactory) filterFactory).halfClose();
+                    }
+                }
+
+                if (keyTypes.getColumnCount() == 0) {
+                    return new AsyncGroupByNotKeyedRecordCursorFactory(
+                            asm,
+                            configuration,
+                            executionContext.getMessageBus(),
+                            factory,
+                            groupByMetadata,
+                            groupByFunctions,
+                            perWorkerGroupByFunctions,
+                            recordFunctions,
+                            valueTypes.getColumnCount(),
+                            filterAtom,
+                            reduceTaskPool,
+                            workerCount
+                    );
+                }
+
+                return new AsyncGroupByRecordCursorFactory(
+                        asm,
+                        configuration,
+                        executionContext.getMessageBus(),
+                        factory,
+                        listColumnFilterA,
+                        keyTypes,
+                        valueTypes,
+                        groupByMetadata,
+                        groupByFunctions,
+                        perWorkerGroupByFunctions,
+                        recordFunctions,
+                        filterAtom,
+                        reduceTaskPool,
+                        workerCount
+                );
+            }
+
             if (keyTypes.getColumnCount() == 0) {
                 return new GroupByNotKeyedRecordCursorFactory(
                         asm,
@@ -4044,6 +4405,14 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 rowFactory = new DataFrameRowCursorFactory();
             }
 
+            if (intrinsicModel.filter != null && configuration.getZoneMapBlockRowCount() > 0 && dfcFactory instanceof AbstractDataFrameCursorFactory) {
+                final ZoneMapFilter zoneMapFilter = new ZoneMapFilter();
+                generateZoneMapFilter(intrinsicModel.filter, metadata, zoneMapFilter);
+                if (!zoneMapFilter.isEmpty()) {
+                    ((AbstractDataFrameCursorFactory) dfcFactory).setZoneMapFilter(zoneMapFilter);
+                }
+            }
+
             model.setWhereClause(intrinsicModel.filter);
             return new DataFrameRecordCursorFactory(
                     configuration,
@@ -4222,6 +4591,79 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         return unionFactory;
     }
 
+    // collects "column op constant" predicates of the top-level "and" chain of the filter
+    private void generateZoneMapFilter(ExpressionNode node, RecordMetadata metadata, ZoneMapFilter zoneMapFilter) {
+        if (node.type != ExpressionNode.OPERATION || node.paramCount != 2) {
+            return;
+        }
+        if (isAndKeyword(node.token)) {
+            generateZoneMapFilter(node.lhs, metadata, zoneMapFilter);
+            generateZoneMapFilter(node.rhs, metadata, zoneMapFilter);
+            return;
+        }
+
+        ExpressionNode columnNode = node.lhs;
+        ExpressionNode constantNode = node.rhs;
+        boolean flip = false;
+        if (columnNode.type != LITERAL) {
+            columnNode = node.rhs;
+            constantNode = node.lhs;
+            flip = true;
+        }
+        if (columnNode.type != LITERAL || constantNode.type != CONSTANT) {
+            return;
+        }
+
+        final int op;
+        final CharSequence token = node.token;
+        if (Chars.equals(token, '=')) {
+            op = ZoneMapFilter.OP_EQ;
+        } else if (Chars.equals(token, '<')) {
+            op = flip ? ZoneMapFilter.OP_GT : ZoneMapFilter.OP_LT;
+        } else if (Chars.equals(token, "<=")) {
+            op = flip ? ZoneMapFilter.OP_GE : ZoneMapFilter.OP_LE;
+        } else if (Chars.equals(token, '>')) {
+            op = flip ? ZoneMapFilter.OP_LT : ZoneMapFilter.OP_GT;
+        } else if (Chars.equals(token, ">=")) {
+            op = flip ? ZoneMapFilter.OP_LE : ZoneMapFilter.OP_GE;
+        } else {
+            return;
+        }
+
+        final int columnIndex = metadata.getColumnIndexQuiet(columnNode.token);
+        if (columnIndex < 0) {
+            return;
+        }
+        final int columnType = metadata.getColumnType(columnIndex);
+        if (!ZoneMap.isSupported(columnType)) {
+            return;
+        }
+
+        final CharSequence value = constantNode.token;
+        try {
+            switch (ColumnType.tagOf(columnType)) {
+                case ColumnType.SYMBOL:
+                    // quotes within the value are escaped, leave such values to the filter
+                    if (op == ZoneMapFilter.OP_EQ && Chars.isQuoted(value) && Chars.indexOf(value, 1, value.length() - 1, '\'') < 0) {
+                        zoneMapFilter.addSymbol(columnIndex, columnType, Chars.toString(value, 1, value.length() - 1));
+                    }
+                    break;
+                case ColumnType.DOUBLE:
+                    zoneMapFilter.addDouble(columnIndex, columnType, op, Numbers.parseDouble(value));
+                    break;
+                default:
+                    final long v = Numbers.parseLong(value);
+                    // nulls are stored as the smallest values of the column types
+                    if (v != Numbers.LONG_NaN && v != Numbers.INT_NaN) {
+                        zoneMapFilter.addLong(columnIndex, columnType, op, v);
+                    }
+                    break;
+            }
+        } catch (NumericException ignore) {
+            // not a numeric constant, the predicate is left to the filter
+        }
+    }
+
     @Nullable
     private Function getHiFunction(QueryModel model, SqlExecutionContext executionContext) throws SqlException {
         return toLimitFunction(executionContext, model.getLimitHi(), null);
@@ -4259,6 +4701,14 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         return metadata.getTimestampIndex();
     }
 
+    private boolean isFilterFusionSupported(RecordCursorFactory factory) {
+        // the filter can be fused into a parallel GROUP BY as long as it doesn't apply a LIMIT
+        if (factory instanceof AsyncFilteredRecordCursorFactory || factory instanceof AsyncJitFilteredRecordCursorFactory) {
+            return !factory.followedLimitAdvice() && factory.getBaseFactory().supportPageFrameCursor();
+        }
+        return false;
+    }
+
     private boolean isOrderDescendingByDesignatedTimestampOnly(QueryModel model) {
         return model.getOrderByAdvice().size() == 1 && model.getTimestamp() != null &&
                 Chars.equalsIgnoreCase(model.getOrderByAdvice().getQuick(0).token, model.getTimestamp().token) &&
@@ -4305,6 +4755,77 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
     }
 
+    private AnalyticFunction parseAnalyticFunction(
+            AnalyticColumn ac,
+            RecordMetadata metadata,
+            int timestampIndex,
+            boolean baseSupportsRandomAccess,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        ObjList<Function> partitionBy = null;
+        int psz = ac.getPartitionBy().size();
+        if (psz > 0) {
+            partitionBy = new ObjList<>(psz);
+            for (int j = 0; j < psz; j++) {
+                partitionBy.add(
+                        functionParser.parseFunction(ac.getPartitionBy().getQuick(j), metadata, executionContext)
+                );
+            }
+        }
+
+        final VirtualRecord partitionByRecord;
+        final RecordSink partitionBySink;
+
+        if (partitionBy != null) {
+            partitionByRecord = new VirtualRecord(partitionBy);
+            keyTypes.clear();
+            final int partitionByCount = partitionBy.size();
+
+            for (int j = 0; j < partitionByCount; j++) {
+                keyTypes.add(partitionBy.getQuick(j).getType());
+            }
+            entityColumnFilter.of(partitionByCount);
+            // create sink
+            partitionBySink = RecordSinkFactory.getInstance(
+                    asm,
+                    keyTypes,
+                    entityColumnFilter,
+                    false
+            );
+        } else {
+            partitionByRecord = null;
+            partitionBySink = null;
+        }
+
+        executionContext.configureAnalyticContext(
+                partitionByRecord,
+                partitionBySink,
+                keyTypes,
+                ac.getOrderBy().size() > 0,
+                baseSupportsRandomAccess,
+                ac.getFramingMode(),
+                ac.getRowsLo(),
+                ac.getRowsHi(),
+                timestampIndex
+        );
+        final ExpressionNode ast = ac.getAst();
+        final Function f;
+        try {
+            f = functionParser.parseFunction(ast, metadata, executionContext);
+        } catch (Throwable th) {
+            Misc.freeObjList(partitionBy);
+            throw th;
+        } finally {
+            executionContext.clearAnalyticContext();
+        }
+        if (!(f instanceof AnalyticFunction)) {
+            Misc.free(f);
+            Misc.freeObjList(partitionBy);
+            throw SqlException.$(ast.position, "non-analytic function called in analytic context");
+        }
+        return (AnalyticFunction) f;
+    }
+
     private int prepareLatestByColumnIndexes(ObjList<ExpressionNode> latestBy, RecordMetadata myMeta) throws SqlException {
         keyTypes.clear();
         listColumnFilterA.clear();
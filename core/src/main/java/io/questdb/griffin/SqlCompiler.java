@@ -1088,6 +1088,12 @@ public class SqlCompiler implements Closeable {
                 throw SqlException.$(paramNameNamePosition, "o3MaxLag must be non negative");
             }
             return compiledQuery.ofAlter(alterOperationBuilder.ofSetO3MaxLag(tableNamePosition, tableToken, tableId, o3MaxLag).build());
+        } else if (isCompressionAgeKeyword(paramName)) {
+            long compressionAge = SqlUtil.expectMicros(value, paramNameNamePosition);
+            if (compressionAge < 0) {
+                throw SqlException.$(paramNameNamePosition, "compressionAge must be non negative");
+            }
+            return compiledQuery.ofAlter(alterOperationBuilder.ofSetCompressionAge(tableNamePosition, tableToken, tableId, compressionAge).build());
         } else {
             throw SqlException.$(paramNameNamePosition, "unknown parameter '").put(paramName).put('\'');
         }
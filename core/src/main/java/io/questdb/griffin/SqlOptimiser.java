@@ -2341,7 +2341,8 @@ class SqlOptimiser {
                 if (model.getSampleBy() == null) {
                     for (int i = 0; i < n; i++) {
                         QueryColumn col = columns.getQuick(i);
-                        if (hasAggregates(col.getAst())) {
+                        // window aggregates depend on the order of rows
+                        if (!(col instanceof AnalyticColumn) && hasAggregates(col.getAst())) {
                             orderByMnemonic = OrderByMnemonic.ORDER_BY_INVARIANT;
                             break;
                         }
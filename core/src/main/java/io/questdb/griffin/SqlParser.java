@@ -31,6 +31,7 @@ import io.questdb.cairo.TableUtils;
 import io.questdb.cutlass.text.Atomicity;
 import io.questdb.griffin.model.*;
 import io.questdb.std.*;
+import io.questdb.std.datetime.microtime.Timestamps;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -111,6 +112,28 @@ public final class SqlParser {
         return SqlException.unexpectedToken(lexer.lastTokenPosition(), token);
     }
 
+    private static long getFrameUnitMicros(CharSequence tok) {
+        if (isMicrosecondsKeyword(tok)) {
+            return 1;
+        }
+        if (isMillisecondsKeyword(tok)) {
+            return Timestamps.MILLI_MICROS;
+        }
+        if (isSecondKeyword(tok) || isSecondsKeyword(tok)) {
+            return Timestamps.SECOND_MICROS;
+        }
+        if (isMinuteKeyword(tok) || isMinutesKeyword(tok)) {
+            return Timestamps.MINUTE_MICROS;
+        }
+        if (isHourKeyword(tok) || isHoursKeyword(tok)) {
+            return Timestamps.HOUR_MICROS;
+        }
+        if (isDayKeyword(tok) || isDaysKeyword(tok)) {
+            return Timestamps.DAY_MICROS;
+        }
+        return 0;
+    }
+
     private static boolean isValidSampleByPeriodLetter(CharSequence token) {
         if (token.length() != 1) return false;
         switch (token.charAt(0)) {
@@ -346,6 +369,84 @@ public final class SqlParser {
         return tok;
     }
 
+    private CharSequence parseAnalyticFrame(GenericLexer lexer, AnalyticColumn col, CharSequence tok) throws SqlException {
+        final int framingMode = isRowsKeyword(tok) ? AnalyticColumn.FRAMING_ROWS : AnalyticColumn.FRAMING_RANGE;
+        tok = tok(lexer, "'between', 'unbounded', 'current' or integer");
+        final boolean between = isBetweenKeyword(tok);
+        if (between) {
+            tok = tok(lexer, "'unbounded', 'current' or integer");
+        }
+
+        final int loPos = lexer.lastTokenPosition();
+        final long lo = parseAnalyticFrameBound(lexer, tok, framingMode);
+        if (lo > 0) {
+            throw SqlException.$(loPos, "frame start cannot be FOLLOWING");
+        }
+
+        long hi = 0;
+        if (between) {
+            expectTok(lexer, "and");
+            tok = tok(lexer, "'unbounded', 'current' or integer");
+            final int hiPos = lexer.lastTokenPosition();
+            hi = parseAnalyticFrameBound(lexer, tok, framingMode);
+            if (hi != 0 && (hi != AnalyticColumn.UNBOUNDED_FOLLOWING || lo != AnalyticColumn.UNBOUNDED_PRECEDING)) {
+                // frames are evaluated in a single pass, they cannot look ahead of the current row
+                throw SqlException.$(hiPos, "frame end must be CURRENT ROW, or UNBOUNDED FOLLOWING when frame start is UNBOUNDED PRECEDING");
+            }
+        }
+
+        if (framingMode == AnalyticColumn.FRAMING_RANGE && lo != AnalyticColumn.UNBOUNDED_PRECEDING && col.getOrderBy().size() != 1) {
+            throw SqlException.$(loPos, "RANGE frame with offset requires exactly one ORDER BY column");
+        }
+        col.setFrame(framingMode, lo, loPos, hi);
+        return tokIncludingLocalBrace(lexer, "')'");
+    }
+
+    private long parseAnalyticFrameBound(GenericLexer lexer, CharSequence tok, int framingMode) throws SqlException {
+        if (isUnboundedKeyword(tok)) {
+            tok = tok(lexer, "'preceding' or 'following'");
+            if (isPrecedingKeyword(tok)) {
+                return AnalyticColumn.UNBOUNDED_PRECEDING;
+            }
+            if (isFollowingKeyword(tok)) {
+                return AnalyticColumn.UNBOUNDED_FOLLOWING;
+            }
+            throw err(lexer, tok, "'preceding' or 'following' expected");
+        }
+
+        if (isCurrentKeyword(tok)) {
+            expectTok(lexer, "row");
+            return 0;
+        }
+
+        long offset;
+        try {
+            offset = Numbers.parseLong(tok);
+        } catch (NumericException e) {
+            throw err(lexer, tok, "'unbounded', 'current' or non-negative integer expected");
+        }
+
+        tok = tok(lexer, "'preceding' or 'following'");
+        if (framingMode == AnalyticColumn.FRAMING_RANGE) {
+            final long unit = getFrameUnitMicros(tok);
+            if (unit > 0) {
+                if (offset > Long.MAX_VALUE / unit) {
+                    throw err(lexer, tok, "frame offset is too large");
+                }
+                offset *= unit;
+                tok = tok(lexer, "'preceding' or 'following'");
+            }
+        }
+
+        if (isPrecedingKeyword(tok)) {
+            return -offset;
+        }
+        if (isFollowingKeyword(tok)) {
+            return offset;
+        }
+        throw err(lexer, tok, "'preceding' or 'following' expected");
+    }
+
     private QueryModel parseAsSubQueryAndExpectClosingBrace(GenericLexer lexer, LowerCaseCharSequenceObjHashMap<WithClauseModel> withClauses) throws SqlException {
         final QueryModel model = parseAsSubQuery(lexer, withClauses);
         expectTok(lexer, ')');
@@ -1577,17 +1678,18 @@ public final class SqlParser {
                 // analytic
                 expectTok(lexer, '(');
 
-                col = analyticColumnPool.next().of(null, expr);
-                tok = tokIncludingLocalBrace(lexer, "'partition' or 'order' or ')'");
+                final AnalyticColumn ac = analyticColumnPool.next().of(null, expr);
+                col = ac;
+                tok = tokIncludingLocalBrace(lexer, "'partition', 'order', 'rows', 'range' or ')'");
 
                 if (isPartitionKeyword(tok)) {
                     expectTok(lexer, "by");
 
-                    ObjList<ExpressionNode> partitionBy = ((AnalyticColumn) col).getPartitionBy();
+                    ObjList<ExpressionNode> partitionBy = ac.getPartitionBy();
 
                     do {
                         partitionBy.add(expectExpr(lexer));
-                        tok = tok(lexer, "'order' or ')'");
+                        tok = tok(lexer, "'order', 'rows', 'range' or ')'");
                     } while (Chars.equals(tok, ','));
                 }
                 if (isOrderKeyword(tok)) {
@@ -1599,16 +1701,22 @@ public final class SqlParser {
                         tok = tokIncludingLocalBrace(lexer, "'asc' or 'desc'");
 
                         if (isDescKeyword(tok)) {
-                            ((AnalyticColumn) col).addOrderBy(orderByExpr, QueryModel.ORDER_DIRECTION_DESCENDING);
-                            tok = tokIncludingLocalBrace(lexer, "',' or ')'");
+                            ac.addOrderBy(orderByExpr, QueryModel.ORDER_DIRECTION_DESCENDING);
+                            tok = tokIncludingLocalBrace(lexer, "',', 'rows', 'range' or ')'");
                         } else {
-                            ((AnalyticColumn) col).addOrderBy(orderByExpr, QueryModel.ORDER_DIRECTION_ASCENDING);
+                            ac.addOrderBy(orderByExpr, QueryModel.ORDER_DIRECTION_ASCENDING);
                             if (isAscKeyword(tok)) {
-                                tok = tokIncludingLocalBrace(lexer, "',' or ')'");
+                                tok = tokIncludingLocalBrace(lexer, "',', 'rows', 'range' or ')'");
                             }
                         }
                     } while (Chars.equals(tok, ','));
                 }
+                if (isRowsKeyword(tok) || isRangeKeyword(tok)) {
+                    tok = parseAnalyticFrame(lexer, ac, tok);
+                } else if (ac.getOrderBy().size() > 0) {
+                    // the default frame of an ordered window ends at the current row
+                    ac.setFrame(AnalyticColumn.FRAMING_RANGE, AnalyticColumn.UNBOUNDED_PRECEDING, 0, 0);
+                }
                 expectTok(tok, lexer.lastTokenPosition(), ')');
                 tok = optTok(lexer);
 
@@ -148,6 +148,10 @@ public class UpdateOperatorImpl extends PurgingOperator implements QuietCloseabl
                                     .put(", partitionTimestamp=").ts(tableWriter.getPartitionTimestamp(rowPartitionIndex))
                                     .put(']');
                         }
+                        if (tableWriter.isPartitionCompressed(rowPartitionIndex)) {
+                            // updated column files are copied from the raw ones
+                            tableWriter.decompressPartition(rowPartitionIndex);
+                        }
                         if (partitionIndex > -1) {
                             LOG.info()
                                     .$("updating partition [partitionIndex=").$(partitionIndex)
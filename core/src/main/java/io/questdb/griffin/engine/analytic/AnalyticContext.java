@@ -31,12 +31,24 @@ import io.questdb.cairo.sql.VirtualRecord;
 public interface AnalyticContext {
     boolean baseSupportsRandomAccess();
 
+    int getFramingMode();
+
     ColumnTypes getPartitionByKeyTypes();
 
     VirtualRecord getPartitionByRecord();
 
     RecordSink getPartitionBySink();
 
+    long getRowsHi();
+
+    long getRowsLo();
+
+    /**
+     * @return index of the ORDER BY column of the window in the records passed to analytic functions, when
+     * the window is ordered by a single timestamp column, -1 otherwise
+     */
+    int getTimestampIndex();
+
     boolean isEmpty();
 
     boolean isOrdered();
@@ -33,15 +33,33 @@ import io.questdb.griffin.engine.orderby.RecordComparatorCompiler;
 import io.questdb.std.IntList;
 
 public interface AnalyticFunction extends Function {
-    int STREAM = 1;
-    int THREE_PASS = 3;
+    // value of the current row is known as soon as the row is read, see computeNext()
+    int ZERO_PASS = 0;
+    // values are written by pass1() while cached rows are visited in the window order
+    int ONE_PASS = 1;
+    // values are written by pass2() once pass1() has seen all cached rows
     int TWO_PASS = 2;
 
+    /**
+     * Computes the value of the function for the given row. Rows are passed in the order of the window.
+     * The value is then read with the getters of the function. Only called for functions
+     * returning {@link #ZERO_PASS} from {@link #getPassCount()}.
+     *
+     * @param record current row
+     */
+    default void computeNext(Record record) {
+        throw new UnsupportedOperationException();
+    }
+
+    default int getPassCount() {
+        return ONE_PASS;
+    }
+
     void initRecordComparator(RecordComparatorCompiler recordComparatorCompiler, ArrayColumnTypes chainTypes, IntList order);
 
     void pass1(Record record, long recordOffset, AnalyticSPI spi);
 
-    void pass2(Record record);
+    void pass2(Record record, long recordOffset, AnalyticSPI spi);
 
     void preparePass2(RecordCursor cursor);
 
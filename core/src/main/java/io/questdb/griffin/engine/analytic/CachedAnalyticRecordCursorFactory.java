@@ -43,6 +43,8 @@ import org.jetbrains.annotations.Nullable;
 public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFactory {
     private final ObjList<AnalyticFunction> allFunctions;
     private final RecordCursorFactory base;
+    // chain column index -> base column index
+    private final IntList columnIndexes;
     private final ObjList<RecordComparator> comparators;
     private final CachedAnalyticRecordCursor cursor;
     private final ObjList<ObjList<AnalyticFunction>> orderedFunctions;
@@ -68,6 +70,7 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
         assert orderedGroupCount == orderedFunctions.size();
         this.orderedFunctions = orderedFunctions;
         this.comparators = comparators;
+        this.columnIndexes = columnIndexes;
         RecordChain recordChain = new RecordChain(
                 chainMetadata,
                 recordSink,
@@ -101,6 +104,12 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
         this.unorderedFunctions = unorderedFunctions;
     }
 
+    @Override
+    public String getBaseColumnName(int idx) {
+        // function arguments refer to the columns of the record chain
+        return base.getMetadata().getColumnName(columnIndexes.getQuick(idx));
+    }
+
     @Override
     public RecordCursorFactory getBaseFactory() {
         return base;
@@ -121,7 +130,7 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
     @Override
     public void toPlan(PlanSink sink) {
         sink.type("CachedAnalytic");
-        sink.optAttr("functions", allFunctions);
+        sink.optAttr("functions", allFunctions, true);
         sink.child(base);
     }
 
@@ -273,6 +282,19 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
                 }
             }
 
+            // run pass2 for functions that need to see all rows of the partition first
+            for (int j = 0, n = allFunctions.size(); j < n; j++) {
+                final AnalyticFunction f = allFunctions.getQuick(j);
+                if (f.getPassCount() == AnalyticFunction.TWO_PASS) {
+                    f.preparePass2(this);
+                    recordChain.toTop();
+                    while (recordChain.hasNext()) {
+                        circuitBreaker.statefulThrowExceptionIfTripped();
+                        f.pass2(chainRecord, chainRecord.getRowId(), recordChain);
+                    }
+                }
+            }
+
             recordChain.toTop();
         }
 
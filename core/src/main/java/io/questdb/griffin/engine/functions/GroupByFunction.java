@@ -38,8 +38,34 @@ public interface GroupByFunction extends Function, Mutable {
 
     void computeFirst(MapValue mapValue, Record record);
 
+    /**
+     * Same as {@link #computeFirst(MapValue, Record)}, but also receives the id of the row.
+     * Used by parallel aggregation where order-dependent functions, such as first(),
+     * need to know which of the partial aggregates comes first when merging them.
+     * Row ids are only guaranteed to grow along with the row order within a single query.
+     *
+     * @param mapValue value to be initialized
+     * @param record   current record
+     * @param rowId    id of the current record
+     */
+    default void computeFirst(MapValue mapValue, Record record, long rowId) {
+        computeFirst(mapValue, record);
+    }
+
     void computeNext(MapValue mapValue, Record record);
 
+    /**
+     * Same as {@link #computeNext(MapValue, Record)}, but also receives the id of the row.
+     * See {@link #computeFirst(MapValue, Record, long)} for the details.
+     *
+     * @param mapValue value to be updated
+     * @param record   current record
+     * @param rowId    id of the current record
+     */
+    default void computeNext(MapValue mapValue, Record record, long rowId) {
+        computeNext(mapValue, record);
+    }
+
     default void interpolateBoundary(MapValue mapValue1,
                                      MapValue mapValue2,
                                      long boundaryTimestamp,
@@ -54,10 +80,33 @@ public interface GroupByFunction extends Function, Mutable {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Returns true when the function supports parallel execution. Such functions may compute
+     * partial aggregates over disjoint subsets of rows, e.g. page frames, in separate map values
+     * and then combine them via the {@link #merge(MapValue, MapValue)} method.
+     *
+     * @return true if the function implements {@link #merge(MapValue, MapValue)}
+     */
+    default boolean isParallelismSupported() {
+        return false;
+    }
+
     default boolean isScalar() {
         return true;
     }
 
+    /**
+     * Merges the partial aggregate held in the source value into the destination value.
+     * Both values were initialized with {@link #computeFirst(MapValue, Record)} and have
+     * the same structure.
+     *
+     * @param destValue value to be updated
+     * @param srcValue  value holding the partial aggregate to be merged
+     */
+    default void merge(MapValue destValue, MapValue srcValue) {
+        throw new UnsupportedOperationException();
+    }
+
     void pushValueTypes(ArrayColumnTypes columnTypes);
 
     default void setByte(MapValue mapValue, byte value) {
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.SingleColumnType;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapFactory;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.analytic.AnalyticContext;
+import io.questdb.std.IntList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Base of the factories of analytic aggregates, which are computed over the frame of the OVER clause.
+ */
+public abstract class AbstractAnalyticFrameFunctionFactory implements FunctionFactory {
+    private static final SingleColumnType LONG_COLUMN_TYPE = new SingleColumnType(ColumnType.LONG);
+
+    public static AnalyticContext getAnalyticContext(int position, SqlExecutionContext sqlExecutionContext) throws SqlException {
+        final AnalyticContext analyticContext = sqlExecutionContext.getAnalyticContext();
+        if (analyticContext == null || analyticContext.isEmpty()) {
+            throw SqlException.$(position, "analytic function called in non-analytic context, make sure to add OVER clause");
+        }
+        return analyticContext;
+    }
+
+    /**
+     * @return the optional second argument of lag() and lead(), the number of rows to look behind or ahead
+     */
+    public static long getOffset(ObjList<Function> args, IntList argPositions) throws SqlException {
+        if (args.size() == 1) {
+            return 1;
+        }
+        if (args.size() > 2) {
+            throw SqlException.$(argPositions.getQuick(2), "too many arguments");
+        }
+        final Function offset = args.getQuick(1);
+        final int type = ColumnType.tagOf(offset.getType());
+        if (!offset.isConstant() || (type != ColumnType.BYTE && type != ColumnType.SHORT && type != ColumnType.INT && type != ColumnType.LONG)) {
+            throw SqlException.$(argPositions.getQuick(1), "offset must be a constant integer");
+        }
+        final long value = offset.getLong(null);
+        if (value < 0) {
+            throw SqlException.$(argPositions.getQuick(1), "offset must not be negative");
+        }
+        return value;
+    }
+
+    public static AnalyticFrame newFrame(
+            String name,
+            int kind,
+            @Nullable Function arg,
+            CairoConfiguration configuration,
+            AnalyticContext analyticContext,
+            int framingMode,
+            long rowsLo,
+            long rowsHi
+    ) {
+        Map map = null;
+        try {
+            if (analyticContext.getPartitionByRecord() != null) {
+                map = MapFactory.createMap(configuration, analyticContext.getPartitionByKeyTypes(), LONG_COLUMN_TYPE);
+            }
+            return new AnalyticFrame(
+                    name,
+                    kind,
+                    arg,
+                    map,
+                    analyticContext.getPartitionByRecord(),
+                    analyticContext.getPartitionBySink(),
+                    Vm.getARWInstance(
+                            configuration.getSqlAnalyticStorePageSize(),
+                            configuration.getSqlAnalyticStoreMaxPages(),
+                            MemoryTag.NATIVE_DEFAULT
+                    ),
+                    framingMode,
+                    rowsLo,
+                    rowsHi,
+                    analyticContext.getTimestampIndex()
+            );
+        } catch (Throwable th) {
+            Misc.free(map);
+            throw th;
+        }
+    }
+
+    @Override
+    public boolean isWindow() {
+        return true;
+    }
+
+    @Override
+    public Function newInstance(
+            int position,
+            ObjList<Function> args,
+            IntList argPositions,
+            CairoConfiguration configuration,
+            SqlExecutionContext sqlExecutionContext
+    ) throws SqlException {
+        final AnalyticContext analyticContext = getAnalyticContext(position, sqlExecutionContext);
+        final int kind = getKind();
+        final String signature = getSignature();
+        final AnalyticFrame frame = newFrame(
+                signature.substring(0, signature.indexOf('(')),
+                kind,
+                args != null && args.size() > 0 ? args.getQuick(0) : null,
+                configuration,
+                analyticContext,
+                analyticContext.getFramingMode(),
+                analyticContext.getRowsLo(),
+                analyticContext.getRowsHi()
+        );
+        return kind == AnalyticFrame.COUNT ? new LongAnalyticFrameFunction(frame) : new DoubleAnalyticFrameFunction(frame);
+    }
+
+    /**
+     * @return aggregate computed over the frame, one of the constants in {@link AnalyticFrame}
+     */
+    protected abstract int getKind();
+}
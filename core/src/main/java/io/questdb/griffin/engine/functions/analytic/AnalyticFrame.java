@@ -0,0 +1,476 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.Reopenable;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.cairo.sql.VirtualRecord;
+import io.questdb.cairo.vm.api.MemoryARW;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.model.AnalyticColumn;
+import io.questdb.std.Misc;
+import io.questdb.std.Mutable;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * State of a window frame that ends at the current row. Rows are added one at a time in the order
+ * of the window, the aggregate of the frame is updated incrementally: values leaving a bounded frame
+ * are subtracted rather than the frame being re-scanned.
+ * <p>
+ * Each partition has a fixed size header followed by a ring buffer of the values in the frame. Both
+ * live in a single off-heap memory region, partitions map to the offset of their header. The ring
+ * buffer of a ROWS frame has a fixed capacity of the frame size, the ring of a RANGE frame stores
+ * timestamps next to the values and doubles its capacity when the frame outgrows it. Frames that start
+ * with UNBOUNDED PRECEDING need no ring buffer at all.
+ */
+public class AnalyticFrame implements Mutable, Reopenable {
+    public static final int AVG = 0;
+    public static final int COUNT = 1;
+    public static final int FIRST_VALUE = 2;
+    public static final int LAG = 3;
+    public static final int LAST_VALUE = 4;
+    public static final int MAX = 5;
+    public static final int MIN = 6;
+    public static final int OFFSETS = 7;
+    public static final int SUM = 8;
+    private static final int HEADER_COUNT = 8;
+    private static final int HEADER_EXTREME = 16;
+    private static final int HEADER_FIRST = 24;
+    private static final int HEADER_LAST = 32;
+    private static final int HEADER_RING_CAPACITY = 48;
+    private static final int HEADER_RING_HEAD = 56;
+    private static final int HEADER_RING_OFFSET = 40;
+    private static final int HEADER_RING_SIZE = 64;
+    private static final int HEADER_ROWS = 72;
+    private static final int HEADER_SIZE = 80;
+    private static final int HEADER_SUM = 0;
+    private static final int INITIAL_RANGE_CAPACITY = 16;
+    private final Function arg;
+    // size of the frame in rows or timestamp units, -1 when the frame is unbounded
+    private final long frameSize;
+    private final int framingMode;
+    private final int kind;
+    private final Map map;
+    private final MemoryARW memory;
+    private final String name;
+    private final VirtualRecord partitionByRecord;
+    private final RecordSink partitionBySink;
+    private final long ringCapacity;
+    private final int ringEntrySize;
+    private final int timestampIndex;
+    private final boolean wholePartition;
+    private long count;
+    private long singleHeader = -1;
+    private double value;
+
+    public AnalyticFrame(
+            String name,
+            int kind,
+            @Nullable Function arg,
+            @Nullable Map map,
+            @Nullable VirtualRecord partitionByRecord,
+            @Nullable RecordSink partitionBySink,
+            MemoryARW memory,
+            int framingMode,
+            long rowsLo,
+            long rowsHi,
+            int timestampIndex
+    ) {
+        this.name = name;
+        this.kind = kind;
+        this.arg = arg;
+        this.map = map;
+        this.partitionByRecord = partitionByRecord;
+        this.partitionBySink = partitionBySink;
+        this.memory = memory;
+        this.framingMode = framingMode;
+        this.wholePartition = rowsLo == AnalyticColumn.UNBOUNDED_PRECEDING && rowsHi == AnalyticColumn.UNBOUNDED_FOLLOWING;
+        this.timestampIndex = timestampIndex;
+        if (rowsLo == AnalyticColumn.UNBOUNDED_PRECEDING) {
+            this.frameSize = -1;
+            this.ringCapacity = 0;
+            this.ringEntrySize = 0;
+        } else if (framingMode == AnalyticColumn.FRAMING_ROWS) {
+            // the frame holds the preceding rows and the current one, offsets only need the preceding ones
+            this.frameSize = -rowsLo;
+            this.ringCapacity = kind == OFFSETS ? frameSize : frameSize + 1;
+            this.ringEntrySize = Long.BYTES;
+        } else {
+            this.frameSize = -rowsLo;
+            this.ringCapacity = INITIAL_RANGE_CAPACITY;
+            this.ringEntrySize = 2 * Long.BYTES;
+        }
+    }
+
+    /**
+     * Adds the row to the frame of its partition and computes the value of the frame.
+     *
+     * @param record current row
+     */
+    public void add(Record record) {
+        final long header = header(record);
+        final double v = arg != null ? arg.getDouble(record) : 0;
+        if (ringCapacity == 0) {
+            include(header, v);
+        } else if (framingMode == AnalyticColumn.FRAMING_ROWS) {
+            addRow(header, v);
+        } else {
+            addRange(header, record.getTimestamp(timestampIndex), v);
+        }
+        if (!wholePartition) {
+            computeValue(header);
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (map != null) {
+            map.clear();
+        }
+        memory.truncate();
+        singleHeader = -1;
+    }
+
+    @Override
+    public void close() {
+        Misc.free(map);
+        Misc.free(memory);
+        if (partitionByRecord != null) {
+            Misc.freeObjList(partitionByRecord.getFunctions());
+        }
+        Misc.free(arg);
+        singleHeader = -1;
+    }
+
+    /**
+     * Computes the value of the whole partition of the row, after all rows were added.
+     *
+     * @param record row of the partition
+     */
+    public void computePartitionValue(Record record) {
+        computeValue(header(record));
+    }
+
+    public Function getArg() {
+        return arg;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getDouble() {
+        return value;
+    }
+
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        if (arg != null) {
+            arg.init(symbolTableSource, executionContext);
+        }
+        if (partitionByRecord != null) {
+            Function.init(partitionByRecord.getFunctions(), symbolTableSource, executionContext);
+        }
+        clear();
+    }
+
+    public boolean isWholePartition() {
+        return wholePartition;
+    }
+
+    /**
+     * Remembers the offset of the row in its partition.
+     *
+     * @param record       current row
+     * @param recordOffset offset of the row
+     * @return offset of the row that is as many rows behind the current one as the frame is long,
+     * or -1 when the partition has fewer rows than that
+     */
+    public long pushOffset(Record record, long recordOffset) {
+        final long header = header(record);
+        final long ringOffset = memory.getLong(header + HEADER_RING_OFFSET);
+        long head = memory.getLong(header + HEADER_RING_HEAD);
+        long size = memory.getLong(header + HEADER_RING_SIZE);
+        long result = -1;
+        if (size == ringCapacity) {
+            result = memory.getLong(ringOffset + head * Long.BYTES);
+            memory.putLong(ringOffset + head * Long.BYTES, recordOffset);
+            memory.putLong(header + HEADER_RING_HEAD, (head + 1) % ringCapacity);
+        } else {
+            memory.putLong(ringOffset + ((head + size) % ringCapacity) * Long.BYTES, recordOffset);
+            memory.putLong(header + HEADER_RING_SIZE, size + 1);
+        }
+        return result;
+    }
+
+    @Override
+    public void reopen() {
+        if (map != null) {
+            map.reopen();
+        }
+        singleHeader = -1;
+    }
+
+    public void reset() {
+        if (map != null) {
+            map.close();
+        }
+        memory.close();
+        singleHeader = -1;
+    }
+
+    public void toPlan(PlanSink sink) {
+        sink.val(name).val('(');
+        if (arg != null) {
+            sink.val(arg);
+        }
+        if (kind == LAG || kind == OFFSETS) {
+            sink.val(',').val(frameSize);
+            sink.val(')');
+            if (partitionByRecord != null) {
+                sink.val(" over (partition by ").val(partitionByRecord.getFunctions()).val(')');
+            }
+            return;
+        }
+        sink.val(") over (");
+        if (partitionByRecord != null) {
+            sink.val("partition by ").val(partitionByRecord.getFunctions()).val(' ');
+        }
+        sink.val(framingMode == AnalyticColumn.FRAMING_ROWS ? "rows between " : "range between ");
+        if (frameSize == -1) {
+            sink.val("unbounded preceding");
+        } else if (frameSize == 0) {
+            sink.val("current row");
+        } else {
+            sink.val(frameSize).val(" preceding");
+        }
+        sink.val(wholePartition ? " and unbounded following)" : " and current row)");
+    }
+
+    private static boolean isBetter(int kind, double v, double extreme) {
+        return Double.isNaN(extreme) || (kind == MIN ? v < extreme : v > extreme);
+    }
+
+    private void addRange(long header, long timestamp, double v) {
+        long ringOffset = memory.getLong(header + HEADER_RING_OFFSET);
+        long capacity = memory.getLong(header + HEADER_RING_CAPACITY);
+        long head = memory.getLong(header + HEADER_RING_HEAD);
+        long size = memory.getLong(header + HEADER_RING_SIZE);
+
+        // evict rows that are older than the frame
+        final long threshold = timestamp > Long.MIN_VALUE + frameSize ? timestamp - frameSize : Long.MIN_VALUE;
+        boolean rescan = false;
+        while (size > 0) {
+            final long entry = ringOffset + head * ringEntrySize;
+            if (memory.getLong(entry) >= threshold) {
+                break;
+            }
+            rescan |= exclude(header, memory.getDouble(entry + Long.BYTES));
+            head = (head + 1) % capacity;
+            size--;
+        }
+
+        if (size == capacity) {
+            // the frame does not fit, move it to a ring twice as large, oldest entry first
+            final long newCapacity = capacity * 2;
+            final long newRingOffset = memory.getAppendOffset();
+            memory.skip(newCapacity * ringEntrySize);
+            for (long i = 0; i < size; i++) {
+                final long src = ringOffset + ((head + i) % capacity) * ringEntrySize;
+                final long dst = newRingOffset + i * ringEntrySize;
+                memory.putLong(dst, memory.getLong(src));
+                memory.putLong(dst + Long.BYTES, memory.getLong(src + Long.BYTES));
+            }
+            ringOffset = newRingOffset;
+            capacity = newCapacity;
+            head = 0;
+            memory.putLong(header + HEADER_RING_OFFSET, ringOffset);
+            memory.putLong(header + HEADER_RING_CAPACITY, capacity);
+        }
+
+        final long entry = ringOffset + ((head + size) % capacity) * ringEntrySize;
+        memory.putLong(entry, timestamp);
+        memory.putDouble(entry + Long.BYTES, v);
+        memory.putLong(header + HEADER_RING_HEAD, head);
+        memory.putLong(header + HEADER_RING_SIZE, size + 1);
+        include(header, v);
+        if (rescan) {
+            rescanExtreme(header);
+        }
+    }
+
+    private void addRow(long header, double v) {
+        final long ringOffset = memory.getLong(header + HEADER_RING_OFFSET);
+        final long head = memory.getLong(header + HEADER_RING_HEAD);
+        final long size = memory.getLong(header + HEADER_RING_SIZE);
+        if (size == ringCapacity) {
+            // the oldest entry leaves the frame, the new one takes its place
+            final long entry = ringOffset + head * Long.BYTES;
+            final boolean rescan = exclude(header, memory.getDouble(entry));
+            memory.putDouble(entry, v);
+            memory.putLong(header + HEADER_RING_HEAD, (head + 1) % ringCapacity);
+            include(header, v);
+            if (rescan) {
+                rescanExtreme(header);
+            }
+        } else {
+            memory.putDouble(ringOffset + ((head + size) % ringCapacity) * Long.BYTES, v);
+            memory.putLong(header + HEADER_RING_SIZE, size + 1);
+            include(header, v);
+        }
+    }
+
+    private void computeValue(long header) {
+        count = memory.getLong(header + HEADER_COUNT);
+        switch (kind) {
+            case SUM:
+                value = count > 0 ? memory.getDouble(header + HEADER_SUM) : Double.NaN;
+                break;
+            case AVG:
+                value = count > 0 ? memory.getDouble(header + HEADER_SUM) / count : Double.NaN;
+                break;
+            case MIN:
+            case MAX:
+                value = memory.getDouble(header + HEADER_EXTREME);
+                break;
+            case COUNT:
+                value = count;
+                break;
+            case FIRST_VALUE:
+                value = ringCapacity == 0 ? memory.getDouble(header + HEADER_FIRST) : oldest(header);
+                break;
+            case LAST_VALUE:
+                value = memory.getDouble(header + HEADER_LAST);
+                break;
+            case LAG:
+                value = memory.getLong(header + HEADER_RING_SIZE) == ringCapacity ? oldest(header) : Double.NaN;
+                break;
+            default:
+                value = Double.NaN;
+                break;
+        }
+    }
+
+    // removes value from the aggregates, returns true when the extreme has to be looked up again
+    private boolean exclude(long header, double v) {
+        memory.putLong(header + HEADER_ROWS, memory.getLong(header + HEADER_ROWS) - 1);
+        if (Double.isNaN(v)) {
+            return false;
+        }
+        final long count = memory.getLong(header + HEADER_COUNT) - 1;
+        memory.putLong(header + HEADER_COUNT, count);
+        // start from scratch once the frame is empty, so that rounding errors do not pile up
+        memory.putDouble(header + HEADER_SUM, count > 0 ? memory.getDouble(header + HEADER_SUM) - v : 0);
+        return (kind == MIN || kind == MAX) && v == memory.getDouble(header + HEADER_EXTREME);
+    }
+
+    private long header(Record record) {
+        if (map == null) {
+            if (singleHeader == -1) {
+                singleHeader = newHeader();
+            }
+            return singleHeader;
+        }
+        partitionByRecord.of(record);
+        final MapKey key = map.withKey();
+        key.put(partitionByRecord, partitionBySink);
+        final MapValue mapValue = key.createValue();
+        if (mapValue.isNew()) {
+            final long header = newHeader();
+            mapValue.putLong(0, header);
+            return header;
+        }
+        return mapValue.getLong(0);
+    }
+
+    private void include(long header, double v) {
+        final long rows = memory.getLong(header + HEADER_ROWS);
+        if (rows == 0) {
+            memory.putDouble(header + HEADER_FIRST, v);
+        }
+        memory.putLong(header + HEADER_ROWS, rows + 1);
+        memory.putDouble(header + HEADER_LAST, v);
+        if (!Double.isNaN(v)) {
+            memory.putLong(header + HEADER_COUNT, memory.getLong(header + HEADER_COUNT) + 1);
+            memory.putDouble(header + HEADER_SUM, memory.getDouble(header + HEADER_SUM) + v);
+            if ((kind == MIN || kind == MAX) && isBetter(kind, v, memory.getDouble(header + HEADER_EXTREME))) {
+                memory.putDouble(header + HEADER_EXTREME, v);
+            }
+        }
+    }
+
+    private long newHeader() {
+        final long header = memory.getAppendOffset();
+        memory.skip(HEADER_SIZE);
+        memory.putDouble(header + HEADER_SUM, 0);
+        memory.putLong(header + HEADER_COUNT, 0);
+        memory.putDouble(header + HEADER_EXTREME, Double.NaN);
+        memory.putDouble(header + HEADER_FIRST, Double.NaN);
+        memory.putDouble(header + HEADER_LAST, Double.NaN);
+        memory.putLong(header + HEADER_ROWS, 0);
+        memory.putLong(header + HEADER_RING_HEAD, 0);
+        memory.putLong(header + HEADER_RING_SIZE, 0);
+        memory.putLong(header + HEADER_RING_CAPACITY, ringCapacity);
+        if (ringCapacity > 0) {
+            memory.putLong(header + HEADER_RING_OFFSET, memory.getAppendOffset());
+            memory.skip(ringCapacity * ringEntrySize);
+        } else {
+            memory.putLong(header + HEADER_RING_OFFSET, -1);
+        }
+        return header;
+    }
+
+    private double oldest(long header) {
+        if (memory.getLong(header + HEADER_RING_SIZE) == 0) {
+            return Double.NaN;
+        }
+        final long entry = memory.getLong(header + HEADER_RING_OFFSET) + memory.getLong(header + HEADER_RING_HEAD) * ringEntrySize;
+        // RANGE entries start with the timestamp
+        return memory.getDouble(ringEntrySize == Long.BYTES ? entry : entry + Long.BYTES);
+    }
+
+    private void rescanExtreme(long header) {
+        final long ringOffset = memory.getLong(header + HEADER_RING_OFFSET);
+        final long capacity = memory.getLong(header + HEADER_RING_CAPACITY);
+        final long head = memory.getLong(header + HEADER_RING_HEAD);
+        final long size = memory.getLong(header + HEADER_RING_SIZE);
+        final int valueOffset = ringEntrySize == Long.BYTES ? 0 : Long.BYTES;
+        double extreme = Double.NaN;
+        for (long i = 0; i < size; i++) {
+            final double v = memory.getDouble(ringOffset + ((head + i) % capacity) * ringEntrySize + valueOffset);
+            if (!Double.isNaN(v) && isBetter(kind, v, extreme)) {
+                extreme = v;
+            }
+        }
+        memory.putDouble(header + HEADER_EXTREME, extreme);
+    }
+}
@@ -26,6 +26,7 @@ package io.questdb.griffin.engine.functions.catalogue;
 
 import io.questdb.MessageBus;
 import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.QueryPlanCache;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.FunctionFactory;
@@ -56,20 +57,24 @@ public class FlushQueryCacheFunctionFactory implements FunctionFactory {
                                 CairoConfiguration configuration,
                                 SqlExecutionContext sqlExecutionContext
     ) {
-        return new FlushQueryCacheFunction(sqlExecutionContext.getMessageBus());
+        return new FlushQueryCacheFunction(sqlExecutionContext.getMessageBus(), sqlExecutionContext.getCairoEngine().getQueryPlanCache());
     }
 
     private static class FlushQueryCacheFunction extends BooleanFunction {
 
         private final MessageBus messageBus;
+        private final QueryPlanCache queryPlanCache;
 
-        public FlushQueryCacheFunction(MessageBus messageBus) {
+        public FlushQueryCacheFunction(MessageBus messageBus, QueryPlanCache queryPlanCache) {
             this.messageBus = messageBus;
+            this.queryPlanCache = queryPlanCache;
         }
 
         @Override
         public boolean getBool(Record rec) {
             LOG.info().$("flushing query caches").$();
+            // plans are shared by all connections, per-worker caches are flushed via the event
+            queryPlanCache.clear();
 
             while (true) {
                 final long pubCursor = messageBus.getQueryCacheEventPubSeq().next();
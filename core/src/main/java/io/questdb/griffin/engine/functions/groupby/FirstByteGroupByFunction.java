@@ -36,7 +36,7 @@ import org.jetbrains.annotations.NotNull;
 
 public class FirstByteGroupByFunction extends ByteFunction implements GroupByFunction, UnaryFunction {
     private final Function arg;
-    private int valueIndex;
+    protected int valueIndex;
 
     public FirstByteGroupByFunction(@NotNull Function arg) {
         this.arg = arg;
@@ -47,6 +47,12 @@ public class FirstByteGroupByFunction extends ByteFunction implements GroupByFun
         mapValue.putByte(this.valueIndex, this.arg.getByte(record));
     }
 
+    @Override
+    public void computeFirst(MapValue mapValue, Record record, long rowId) {
+        computeFirst(mapValue, record);
+        mapValue.putLong(this.valueIndex + 1, rowId);
+    }
+
     @Override
     public void computeNext(MapValue mapValue, Record record) {
         // empty
@@ -67,10 +73,26 @@ public class FirstByteGroupByFunction extends ByteFunction implements GroupByFun
         return "first";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        // keep the value that belongs to the earliest row
+        final long srcRowId = srcValue.getLong(this.valueIndex + 1);
+        if (srcRowId < destValue.getLong(this.valueIndex + 1)) {
+            destValue.putByte(this.valueIndex, srcValue.getByte(this.valueIndex));
+            destValue.putLong(this.valueIndex + 1, srcRowId);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
         columnTypes.add(ColumnType.BYTE);
+        columnTypes.add(ColumnType.LONG); // row id
     }
 
     public void setByte(MapValue mapValue, byte value) {
@@ -36,7 +36,7 @@ import org.jetbrains.annotations.NotNull;
 
 public class FirstDoubleGroupByFunction extends DoubleFunction implements GroupByFunction, UnaryFunction {
     private final Function arg;
-    private int valueIndex;
+    protected int valueIndex;
 
     public FirstDoubleGroupByFunction(@NotNull Function arg) {
         this.arg = arg;
@@ -47,6 +47,12 @@ public class FirstDoubleGroupByFunction extends DoubleFunction implements GroupB
         mapValue.putDouble(this.valueIndex, this.arg.getDouble(record));
     }
 
+    @Override
+    public void computeFirst(MapValue mapValue, Record record, long rowId) {
+        computeFirst(mapValue, record);
+        mapValue.putLong(this.valueIndex + 1, rowId);
+    }
+
     @Override
     public void computeNext(MapValue mapValue, Record record) {
         // empty
@@ -67,10 +73,26 @@ public class FirstDoubleGroupByFunction extends DoubleFunction implements GroupB
         return "first";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        // keep the value that belongs to the earliest row
+        final long srcRowId = srcValue.getLong(this.valueIndex + 1);
+        if (srcRowId < destValue.getLong(this.valueIndex + 1)) {
+            destValue.putDouble(this.valueIndex, srcValue.getDouble(this.valueIndex));
+            destValue.putLong(this.valueIndex + 1, srcRowId);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
         columnTypes.add(ColumnType.DOUBLE);
+        columnTypes.add(ColumnType.LONG); // row id
     }
 
     @Override
@@ -36,7 +36,7 @@ import org.jetbrains.annotations.NotNull;
 
 public class FirstFloatGroupByFunction extends FloatFunction implements GroupByFunction, UnaryFunction {
     private final Function arg;
-    private int valueIndex;
+    protected int valueIndex;
 
     public FirstFloatGroupByFunction(@NotNull Function arg) {
         this.arg = arg;
@@ -47,6 +47,12 @@ public class FirstFloatGroupByFunction extends FloatFunction implements GroupByF
         mapValue.putFloat(this.valueIndex, this.arg.getFloat(record));
     }
 
+    @Override
+    public void computeFirst(MapValue mapValue, Record record, long rowId) {
+        computeFirst(mapValue, record);
+        mapValue.putLong(this.valueIndex + 1, rowId);
+    }
+
     @Override
     public void computeNext(MapValue mapValue, Record record) {
         // empty
@@ -67,10 +73,26 @@ public class FirstFloatGroupByFunction extends FloatFunction implements GroupByF
         return "first";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        // keep the value that belongs to the earliest row
+        final long srcRowId = srcValue.getLong(this.valueIndex + 1);
+        if (srcRowId < destValue.getLong(this.valueIndex + 1)) {
+            destValue.putFloat(this.valueIndex, srcValue.getFloat(this.valueIndex));
+            destValue.putLong(this.valueIndex + 1, srcRowId);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
         columnTypes.add(ColumnType.FLOAT);
+        columnTypes.add(ColumnType.LONG); // row id
     }
 
     @Override
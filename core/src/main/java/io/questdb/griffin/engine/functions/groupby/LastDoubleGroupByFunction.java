@@ -40,8 +40,23 @@ public class LastDoubleGroupByFunction extends FirstDoubleGroupByFunction {
         super.computeFirst(mapValue, record);
     }
 
+    @Override
+    public void computeNext(MapValue mapValue, Record record, long rowId) {
+        super.computeFirst(mapValue, record, rowId);
+    }
+
     @Override
     public String getName() {
         return "last";
     }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        // keep the value that belongs to the latest row
+        final long srcRowId = srcValue.getLong(valueIndex + 1);
+        if (srcRowId > destValue.getLong(valueIndex + 1)) {
+            destValue.putDouble(valueIndex, srcValue.getDouble(valueIndex));
+            destValue.putLong(valueIndex + 1, srcRowId);
+        }
+    }
 }
@@ -72,6 +72,20 @@ public class MaxDateGroupByFunction extends DateFunction implements GroupByFunct
         return "max";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        long srcMax = srcValue.getDate(valueIndex);
+        long destMax = destValue.getDate(valueIndex);
+        if (srcMax > destMax) {
+            destValue.putDate(valueIndex, srcMax);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
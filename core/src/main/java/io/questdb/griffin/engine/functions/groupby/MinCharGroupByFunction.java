@@ -71,6 +71,20 @@ public class MinCharGroupByFunction extends CharFunction implements GroupByFunct
         return "min";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        char srcMin = srcValue.getChar(valueIndex);
+        char destMin = destValue.getChar(valueIndex);
+        if (srcMin > 0 && (srcMin < destMin || destMin == 0)) {
+            destValue.putChar(valueIndex, srcMin);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
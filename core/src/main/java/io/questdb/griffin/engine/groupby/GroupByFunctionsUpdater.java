@@ -31,11 +31,17 @@ import io.questdb.std.ObjList;
 
 public interface GroupByFunctionsUpdater {
 
+    void merge(MapValue destValue, MapValue srcValue);
+
     void setFunctions(ObjList<GroupByFunction> groupByFunctions);
 
     void updateEmpty(MapValue value);
 
     void updateExisting(MapValue value, Record record);
 
+    void updateExisting(MapValue value, Record record, long rowId);
+
     void updateNew(MapValue value, Record record);
+
+    void updateNew(MapValue value, Record record, long rowId);
 }
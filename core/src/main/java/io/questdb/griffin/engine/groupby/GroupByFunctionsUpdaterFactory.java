@@ -27,6 +27,7 @@ package io.questdb.griffin.engine.groupby;
 import io.questdb.griffin.engine.functions.GroupByFunction;
 import io.questdb.std.BytecodeAssembler;
 import io.questdb.std.ObjList;
+import io.questdb.std.ex.BytecodeException;
 
 public class GroupByFunctionsUpdaterFactory {
     private static final int FIELD_POOL_OFFSET = 3;
@@ -42,8 +43,11 @@ public class GroupByFunctionsUpdaterFactory {
      * The generated class will have the following methods:
      * <ul>
      * <li>updateNew(MapValue value, Record record) - calls f0, f1, f2 ... fn.computeFirst(value, record) for each group by function</li>
+     * <li>updateNew(MapValue value, Record record, long rowId) - calls f0, f1, f2 ... fn.computeFirst(value, record, rowId) for each group by function</li>
      * <li>updateExisting(MapValue value, Record record) - calls f0, f1, f2 ... fn.computeNext(value, record) for each group by function</li>
+     * <li>updateExisting(MapValue value, Record record, long rowId) - calls f0, f1, f2 ... fn.computeNext(value, record, rowId) for each group by function</li>
      * <li>updateEmpty(MapValue value) - calls f0, f1, f2 ... fn.setEmpty(value) for each group by function</li>
+     * <li>merge(MapValue destValue, MapValue srcValue) - calls f0, f1, f2 ... fn.merge(destValue, srcValue) for each group by function</li>
      * <li>setFunctions(ObjList&lt;GroupByFunction&gt; groupByFunctions) - sets the group by functions to the fields. This method is called by the factory and should not be called by the caller.</li>
      * </ul>
      *
@@ -55,6 +59,40 @@ public class GroupByFunctionsUpdaterFactory {
             BytecodeAssembler asm,
             ObjList<GroupByFunction> groupByFunctions
     ) {
+        return getInstance(getInstanceClass(asm, groupByFunctions.size()), groupByFunctions);
+    }
+
+    /**
+     * Creates a GroupByFunctionUpdater instance of the given generated class capturing the provided group by functions.
+     * Useful when multiple lists of same group by functions, e.g. per-worker copies, need their own updaters.
+     *
+     * @param updaterClass     class generated by {@link #getInstanceClass(BytecodeAssembler, int)}
+     * @param groupByFunctions list of group by functions
+     * @return GroupByFunctionUpdater instance
+     */
+    public static GroupByFunctionsUpdater getInstance(
+            Class<GroupByFunctionsUpdater> updaterClass,
+            ObjList<GroupByFunction> groupByFunctions
+    ) {
+        final GroupByFunctionsUpdater updater;
+        try {
+            updater = updaterClass.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            throw BytecodeException.INSTANCE;
+        }
+        updater.setFunctions(groupByFunctions);
+        return updater;
+    }
+
+    /**
+     * Generates GroupByFunctionUpdater class for the given number of group by functions.
+     * See {@link #getInstance(BytecodeAssembler, ObjList)} for the description of the generated class.
+     *
+     * @param asm          BytecodeAssembler instance
+     * @param functionSize number of group by functions
+     * @return generated GroupByFunctionUpdater class
+     */
+    public static Class<GroupByFunctionsUpdater> getInstanceClass(BytecodeAssembler asm, int functionSize) {
         asm.init(GroupByFunctionsUpdater.class);
         asm.setupPool();
         final int thisClassIndex = asm.poolClass(asm.poolUtf8("io/questdb/griffin/engine/groupby/GroupByFunctionsUpdaterAsm"));
@@ -65,7 +103,6 @@ public class GroupByFunctionsUpdaterFactory {
         final int superIndex = asm.poolMethod(superclassIndex, "<init>", "()V");
 
         final int typeIndex = asm.poolUtf8("Lio/questdb/griffin/engine/functions/GroupByFunction;");
-        final int functionSize = groupByFunctions.size();
 
         int firstFieldNameIndex = 0;
         int firstFieldIndex = 0;
@@ -81,15 +118,21 @@ public class GroupByFunctionsUpdaterFactory {
         }
 
         final int computeFirstIndex = asm.poolInterfaceMethod(GroupByFunction.class, "computeFirst", "(Lio/questdb/cairo/map/MapValue;Lio/questdb/cairo/sql/Record;)V");
+        final int computeFirstRowIdIndex = asm.poolInterfaceMethod(GroupByFunction.class, "computeFirst", "(Lio/questdb/cairo/map/MapValue;Lio/questdb/cairo/sql/Record;J)V");
         final int computeNextIndex = asm.poolInterfaceMethod(GroupByFunction.class, "computeNext", "(Lio/questdb/cairo/map/MapValue;Lio/questdb/cairo/sql/Record;)V");
+        final int computeNextRowIdIndex = asm.poolInterfaceMethod(GroupByFunction.class, "computeNext", "(Lio/questdb/cairo/map/MapValue;Lio/questdb/cairo/sql/Record;J)V");
         final int setEmptyIndex = asm.poolInterfaceMethod(GroupByFunction.class, "setEmpty", "(Lio/questdb/cairo/map/MapValue;)V");
+        final int mergeIndex = asm.poolInterfaceMethod(GroupByFunction.class, "merge", "(Lio/questdb/cairo/map/MapValue;Lio/questdb/cairo/map/MapValue;)V");
 
         final int updateNewIndex = asm.poolUtf8("updateNew");
         final int updateNewSigIndex = asm.poolUtf8("(Lio/questdb/cairo/map/MapValue;Lio/questdb/cairo/sql/Record;)V");
         final int updateExistingIndex = asm.poolUtf8("updateExisting");
         final int updateExistingSigIndex = asm.poolUtf8("(Lio/questdb/cairo/map/MapValue;Lio/questdb/cairo/sql/Record;)V");
+        final int updateRowIdSigIndex = asm.poolUtf8("(Lio/questdb/cairo/map/MapValue;Lio/questdb/cairo/sql/Record;J)V");
         final int updateEmptyIndex = asm.poolUtf8("updateEmpty");
         final int updateEmptySigIndex = asm.poolUtf8("(Lio/questdb/cairo/map/MapValue;)V");
+        final int mergeNameIndex = asm.poolUtf8("merge");
+        final int mergeSigIndex = asm.poolUtf8("(Lio/questdb/cairo/map/MapValue;Lio/questdb/cairo/map/MapValue;)V");
         final int setFunctionsIndex = asm.poolUtf8("setFunctions");
         final int setFunctionsSigIndex = asm.poolUtf8("(Lio/questdb/std/ObjList;)V");
 
@@ -104,21 +147,46 @@ public class GroupByFunctionsUpdaterFactory {
         for (int i = 0; i < functionSize; i++) {
             asm.defineField(firstFieldNameIndex + (i * FIELD_POOL_OFFSET), typeIndex);
         }
-        asm.methodCount(5);
+        asm.methodCount(8);
         asm.defineDefaultConstructor(superIndex);
 
         generateUpdateNew(asm, functionSize, firstFieldIndex, computeFirstIndex, updateNewIndex, updateNewSigIndex);
+        generateUpdateRowId(asm, functionSize, firstFieldIndex, computeFirstRowIdIndex, updateNewIndex, updateRowIdSigIndex);
         generateUpdateExisting(asm, functionSize, firstFieldIndex, computeNextIndex, updateExistingIndex, updateExistingSigIndex);
+        generateUpdateRowId(asm, functionSize, firstFieldIndex, computeNextRowIdIndex, updateExistingIndex, updateRowIdSigIndex);
         generateUpdateEmpty(asm, functionSize, firstFieldIndex, setEmptyIndex, updateEmptyIndex, updateEmptySigIndex);
+        generateMerge(asm, functionSize, firstFieldIndex, mergeIndex, mergeNameIndex, mergeSigIndex);
         generateSetFunction(asm, functionSize, firstFieldIndex, setFunctionsIndex, setFunctionsSigIndex, getIndex);
 
         // class attribute count
         asm.putShort(0);
 
-        GroupByFunctionsUpdater updater = asm.newInstance();
+        return asm.loadClass(GroupByFunctionsUpdater.class);
+    }
 
-        updater.setFunctions(groupByFunctions);
-        return updater;
+    private static void generateMerge(
+            BytecodeAssembler asm,
+            int fieldCount,
+            int firstFieldIndex,
+            int mergeIndex,
+            int mergeNameIndex,
+            int mergeSigIndex
+    ) {
+        asm.startMethod(mergeNameIndex, mergeSigIndex, 3, 3);
+        for (int i = 0; i < fieldCount; i++) {
+            asm.aload(0);
+            asm.getfield(firstFieldIndex + (i * FIELD_POOL_OFFSET));
+            asm.aload(1); // destination map value
+            asm.aload(2); // source map value
+            asm.invokeInterface(mergeIndex, 2);
+        }
+        asm.return_();
+        asm.endMethodCode();
+        // exceptions
+        asm.putShort(0);
+        // attributes
+        asm.putShort(0);
+        asm.endMethod();
     }
 
     private static void generateSetFunction(BytecodeAssembler asm, int functionSize, int firstFieldIndex, int setFunctionsIndex, int setFunctionsSigIndex, int getIndex) {
@@ -224,4 +292,31 @@ public class GroupByFunctionsUpdaterFactory {
         asm.putShort(0);
         asm.endMethod();
     }
+
+    private static void generateUpdateRowId(
+            BytecodeAssembler asm,
+            int fieldCount,
+            int firstFieldIndex,
+            int computeIndex,
+            int updateNameIndex,
+            int updateSigIndex
+    ) {
+        // the row id is a long, so it takes two stack and local variable slots
+        asm.startMethod(updateNameIndex, updateSigIndex, 5, 5);
+        for (int i = 0; i < fieldCount; i++) {
+            asm.aload(0);
+            asm.getfield(firstFieldIndex + (i * FIELD_POOL_OFFSET));
+            asm.aload(1); // map value
+            asm.aload(2); // record
+            asm.lload(3); // row id
+            asm.invokeInterface(computeIndex, 4);
+        }
+        asm.return_();
+        asm.endMethodCode();
+        // exceptions
+        asm.putShort(0);
+        // attributes
+        asm.putShort(0);
+        asm.endMethod();
+    }
 }
@@ -39,6 +39,11 @@ class MicroTimestampSampler implements TimestampSampler {
         return this.bucket;
     }
 
+    @Override
+    public boolean isBucketSizeFixed() {
+        return true;
+    }
+
     @Override
     public long nextTimestamp(long timestamp) {
         return timestamp + bucket;
@@ -32,6 +32,16 @@ public interface TimestampSampler extends Sinkable {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Returns true when all buckets have the same size, i.e. a timestamp can be
+     * rounded to its bucket without looking at the neighbouring timestamps.
+     *
+     * @return true for fixed size buckets
+     */
+    default boolean isBucketSizeFixed() {
+        return false;
+    }
+
     long nextTimestamp(long timestamp);
 
     long previousTimestamp(long timestamp);
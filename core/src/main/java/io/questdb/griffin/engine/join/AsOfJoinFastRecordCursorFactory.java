@@ -0,0 +1,331 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.BinarySearch;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.model.JoinContext;
+import io.questdb.std.*;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ASC;
+
+/**
+ * ASOF JOIN on a single symbol key column, for a slave that supports page frames. The slave
+ * is consumed a page frame at a time: the last slave row that is not newer than the master row
+ * is found with a binary search over the timestamp column, then the rows up to it are scanned
+ * to remember the last row id of each symbol key. Row ids are kept in a flat list indexed by
+ * slave symbol keys rather than in a map.
+ * <p>
+ * Master symbol keys are translated to slave symbol keys once per distinct key. The result
+ * is the same as the one of {@link AsOfJoinLightRecordCursorFactory}.
+ */
+public class AsOfJoinFastRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final AsOfJoinFastRecordCursor cursor;
+    private final JoinContext joinContext;
+    private final RecordCursorFactory masterFactory;
+    private final RecordCursorFactory slaveFactory;
+
+    public AsOfJoinFastRecordCursorFactory(
+            CairoConfiguration configuration,
+            RecordMetadata metadata,
+            RecordCursorFactory masterFactory,
+            RecordCursorFactory slaveFactory,
+            int masterKeyIndex,
+            int slaveKeyIndex,
+            int columnSplit,
+            JoinContext joinContext
+    ) {
+        super(metadata);
+        this.masterFactory = masterFactory;
+        this.slaveFactory = slaveFactory;
+        this.joinContext = joinContext;
+        this.cursor = new AsOfJoinFastRecordCursor(
+                configuration,
+                columnSplit,
+                NullRecordFactory.getInstance(slaveFactory.getMetadata()),
+                masterFactory.getMetadata().getTimestampIndex(),
+                masterKeyIndex,
+                slaveFactory.getMetadata(),
+                slaveKeyIndex
+        );
+    }
+
+    /**
+     * Checks whether the ASOF JOIN can be executed by this factory.
+     *
+     * @param masterMetadata master metadata
+     * @param masterKeyIndex index of the master join key column
+     * @param slaveFactory   slave factory
+     * @param slaveKeyIndex  index of the slave join key column
+     * @return true when both keys are symbols with static symbol tables and the slave supports page frames
+     */
+    public static boolean isSupported(RecordMetadata masterMetadata, int masterKeyIndex, RecordCursorFactory slaveFactory, int slaveKeyIndex) {
+        final RecordMetadata slaveMetadata = slaveFactory.getMetadata();
+        return slaveFactory.supportPageFrameCursor()
+                && masterMetadata.getColumnType(masterKeyIndex) == ColumnType.SYMBOL
+                && masterMetadata.isSymbolTableStatic(masterKeyIndex)
+                && slaveMetadata.getColumnType(slaveKeyIndex) == ColumnType.SYMBOL
+                && slaveMetadata.isSymbolTableStatic(slaveKeyIndex);
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        RecordCursor master = masterFactory.getCursor(executionContext);
+        PageFrameCursor slave = null;
+        try {
+            slave = slaveFactory.getPageFrameCursor(executionContext, ORDER_ASC);
+            cursor.of(master, slave);
+        } catch (Throwable ex) {
+            Misc.free(master);
+            Misc.free(slave);
+            throw ex;
+        }
+        return cursor;
+    }
+
+    @Override
+    public boolean hasDescendingOrder() {
+        return masterFactory.hasDescendingOrder();
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("AsOf Join Fast Scan");
+        sink.attr("condition").val(joinContext);
+        sink.child(masterFactory);
+        sink.child(slaveFactory);
+    }
+
+    @Override
+    protected void _close() {
+        ((JoinRecordMetadata) getMetadata()).close();
+        masterFactory.close();
+        slaveFactory.close();
+        cursor.close();
+    }
+
+    private static class AsOfJoinFastRecordCursor implements NoRandomAccessRecordCursor {
+        private static final int KEY_NOT_RESOLVED = -2;
+        private final int columnSplit;
+        // slave row ids indexed by slave symbol key + 1, the null key goes first
+        private final LongList lastRowIds = new LongList();
+        private final int masterKeyIndex;
+        // slave symbol key + 1 indexed by master symbol key + 1, -1 when the slave has no such symbol
+        private final IntList masterToSlaveKeys = new IntList();
+        private final int masterTimestampIndex;
+        private final PageAddressCache pageAddressCache;
+        private final OuterJoinRecord record;
+        private final int slaveKeyIndex;
+        private final RecordMetadata slaveMetadata;
+        private final PageAddressCacheRecord slaveRecord = new PageAddressCacheRecord();
+        private final int slaveTimestampIndex;
+        private long frameRowCount;
+        private long frameRowIndex;
+        private int frameCount;
+        private boolean isOpen;
+        private RecordCursor masterCursor;
+        private Record masterRecord;
+        private SymbolTable masterSymbolTable;
+        private PageFrameCursor slaveCursor;
+        private boolean slaveExhausted;
+        private StaticSymbolTable slaveSymbolTable;
+
+        private AsOfJoinFastRecordCursor(
+                CairoConfiguration configuration,
+                int columnSplit,
+                Record nullRecord,
+                int masterTimestampIndex,
+                int masterKeyIndex,
+                RecordMetadata slaveMetadata,
+                int slaveKeyIndex
+        ) {
+            this.columnSplit = columnSplit;
+            this.record = new OuterJoinRecord(columnSplit, nullRecord);
+            this.masterTimestampIndex = masterTimestampIndex;
+            this.masterKeyIndex = masterKeyIndex;
+            this.slaveMetadata = slaveMetadata;
+            this.slaveKeyIndex = slaveKeyIndex;
+            this.slaveTimestampIndex = slaveMetadata.getTimestampIndex();
+            this.pageAddressCache = new PageAddressCache(configuration);
+            this.isOpen = true;
+        }
+
+        @Override
+        public void close() {
+            if (isOpen) {
+                isOpen = false;
+                masterCursor = Misc.free(masterCursor);
+                slaveCursor = Misc.free(slaveCursor);
+                Misc.free(slaveRecord);
+                pageAddressCache.clear();
+            }
+        }
+
+        @Override
+        public Record getRecord() {
+            return record;
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            if (columnIndex < columnSplit) {
+                return masterCursor.getSymbolTable(columnIndex);
+            }
+            return slaveCursor.getSymbolTable(columnIndex - columnSplit);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!masterCursor.hasNext()) {
+                return false;
+            }
+            if (!slaveExhausted) {
+                advanceSlave(masterRecord.getTimestamp(masterTimestampIndex));
+            }
+            final int slot = slaveSlot(masterRecord.getInt(masterKeyIndex));
+            final long rowId = slot != -1 ? lastRowIds.getQuick(slot) : -1;
+            if (rowId != -1) {
+                slaveRecord.setFrameIndex(Rows.toPartitionIndex(rowId));
+                slaveRecord.setRowIndex(Rows.toLocalRowID(rowId));
+                record.hasSlave(true);
+            } else {
+                record.hasSlave(false);
+            }
+            return true;
+        }
+
+        @Override
+        public SymbolTable newSymbolTable(int columnIndex) {
+            if (columnIndex < columnSplit) {
+                return masterCursor.newSymbolTable(columnIndex);
+            }
+            return slaveCursor.newSymbolTable(columnIndex - columnSplit);
+        }
+
+        @Override
+        public long size() {
+            return masterCursor.size();
+        }
+
+        @Override
+        public void toTop() {
+            masterCursor.toTop();
+            slaveCursor.toTop();
+            resetSlave();
+        }
+
+        // Remembers the last row id of each key for slave rows that are not newer than the master timestamp.
+        private void advanceSlave(long masterTimestamp) {
+            while (true) {
+                if (frameRowIndex == frameRowCount) {
+                    final PageFrame frame = slaveCursor.next();
+                    if (frame == null) {
+                        slaveExhausted = true;
+                        return;
+                    }
+                    pageAddressCache.add(frameCount++, frame);
+                    frameRowIndex = 0;
+                    frameRowCount = frame.getPartitionHi() - frame.getPartitionLo();
+                    if (frameRowCount == 0) {
+                        continue;
+                    }
+                }
+
+                final int frameIndex = frameCount - 1;
+                final long timestampAddress = pageAddressCache.getPageAddress(frameIndex, slaveTimestampIndex);
+                final long lastTimestamp = Unsafe.getUnsafe().getLong(timestampAddress + (frameRowCount - 1) * Long.BYTES);
+                final long hi = lastTimestamp <= masterTimestamp
+                        ? frameRowCount - 1
+                        : Vect.boundedBinarySearch64Bit(timestampAddress, masterTimestamp, frameRowIndex, frameRowCount - 1, BinarySearch.SCAN_DOWN);
+
+                final long keyAddress = pageAddressCache.getPageAddress(frameIndex, slaveKeyIndex);
+                for (long r = frameRowIndex; r <= hi; r++) {
+                    // the key column may be absent in old partitions, its values are null then
+                    final int key = keyAddress != 0 ? Unsafe.getUnsafe().getInt(keyAddress + r * Integer.BYTES) : SymbolTable.VALUE_IS_NULL;
+                    lastRowIds.setQuick(key == SymbolTable.VALUE_IS_NULL ? 0 : key + 1, Rows.toRowID(frameIndex, r));
+                }
+                if (hi < frameRowCount - 1) {
+                    // the rest of the frame is newer than the master row
+                    frameRowIndex = hi + 1;
+                    return;
+                }
+                frameRowIndex = frameRowCount;
+            }
+        }
+
+        private void resetSlave() {
+            pageAddressCache.clear();
+            pageAddressCache.of(slaveMetadata);
+            frameCount = 0;
+            frameRowIndex = frameRowCount = 0;
+            slaveExhausted = false;
+            lastRowIds.setAll(slaveSymbolTable.getSymbolCount() + 1, -1);
+        }
+
+        // Returns index of the slave row id slot that belongs to the master key, -1 if there is none.
+        private int slaveSlot(int masterKey) {
+            final int masterSlot = masterKey == SymbolTable.VALUE_IS_NULL ? 0 : masterKey + 1;
+            for (int i = masterToSlaveKeys.size(); i <= masterSlot; i++) {
+                masterToSlaveKeys.add(KEY_NOT_RESOLVED);
+            }
+            int slot = masterToSlaveKeys.getQuick(masterSlot);
+            if (slot == KEY_NOT_RESOLVED) {
+                if (masterSlot == 0) {
+                    slot = 0;
+                } else {
+                    final int slaveKey = slaveSymbolTable.keyOf(masterSymbolTable.valueOf(masterKey));
+                    slot = slaveKey == SymbolTable.VALUE_NOT_FOUND ? -1 : slaveKey + 1;
+                }
+                masterToSlaveKeys.setQuick(masterSlot, slot);
+            }
+            return slot;
+        }
+
+        void of(RecordCursor masterCursor, PageFrameCursor slaveCursor) {
+            this.isOpen = true;
+            this.masterCursor = masterCursor;
+            this.slaveCursor = slaveCursor;
+            this.masterRecord = masterCursor.getRecord();
+            this.masterSymbolTable = masterCursor.getSymbolTable(masterKeyIndex);
+            this.slaveSymbolTable = (StaticSymbolTable) slaveCursor.getSymbolTable(slaveKeyIndex);
+            masterToSlaveKeys.clear();
+            resetSlave();
+            slaveRecord.of(slaveCursor, pageAddressCache);
+            record.of(masterRecord, slaveRecord);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnTypes;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.map.FastMap;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.LimitOverflowException;
+import io.questdb.griffin.engine.table.AsyncFilterAtom;
+import io.questdb.std.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Holds the state of a parallel hash join. The hash table is built from the slave cursor by
+ * the query owner thread before master page frames are dispatched. Once built, the table is
+ * read-only, so the owner and worker threads probe it concurrently, each with its own probe key.
+ * <p>
+ * Slave row ids are chained per join key in a flat list, so that reading the chains doesn't
+ * need any per-thread state either.
+ */
+public class AsyncHashJoinLightAtom implements StatefulAtom, Closeable {
+
+    private final AsyncFilterAtom filterAtom;
+    private final boolean hasDescendingOrder;
+    private final FastMap joinKeyMap;
+    private final RecordSink masterKeySink;
+    private final long maxChainEntries;
+    private final int maxChainPages;
+    private final FastMap.ProbeKey ownerProbeKey;
+    private final AtomicIntegerArray perWorkerLocks;
+    private final ObjList<FastMap.ProbeKey> perWorkerProbeKeys;
+    // Used to randomize acquire attempts for work stealing threads. Accessed in a racy way, intentionally.
+    private final Rnd rnd;
+    // pairs of next entry index and slave row id, the next index is -1 for the last entry of a chain
+    private final DirectLongList slaveChain;
+    private final RecordSink slaveKeySink;
+
+    public AsyncHashJoinLightAtom(
+            @NotNull CairoConfiguration configuration,
+            @Transient @NotNull ColumnTypes joinColumnTypes,
+            @Transient @NotNull ColumnTypes valueTypes,
+            @NotNull RecordSink masterKeySink,
+            @NotNull RecordSink slaveKeySink,
+            @Nullable AsyncFilterAtom filterAtom,
+            boolean hasDescendingOrder,
+            int workerCount
+    ) {
+        assert workerCount > 0;
+        this.rnd = new Rnd(
+                configuration.getNanosecondClock().getTicks(),
+                configuration.getMicrosecondClock().getTicks()
+        );
+        this.masterKeySink = masterKeySink;
+        this.slaveKeySink = slaveKeySink;
+        this.filterAtom = filterAtom;
+        this.hasDescendingOrder = hasDescendingOrder;
+        this.perWorkerLocks = new AtomicIntegerArray(workerCount);
+        // the chain obeys the same limit as the serial hash join chain, 16 bytes per entry
+        this.maxChainPages = configuration.getSqlHashJoinLightValueMaxPages();
+        this.maxChainEntries = (long) configuration.getSqlHashJoinLightValuePageSize() * maxChainPages / (2 * Long.BYTES);
+        this.perWorkerProbeKeys = new ObjList<>(workerCount);
+        try {
+            this.joinKeyMap = new FastMap(
+                    configuration.getSqlMapPageSize(),
+                    joinColumnTypes,
+                    valueTypes,
+                    configuration.getSqlMapKeyCapacity(),
+                    configuration.getSqlFastMapLoadFactor(),
+                    configuration.getSqlMapMaxResizes()
+            );
+            this.slaveChain = new DirectLongList(configuration.getSqlHashJoinLightValuePageSize() / Long.BYTES, MemoryTag.NATIVE_DEFAULT);
+            this.ownerProbeKey = joinKeyMap.newProbeKey();
+            for (int i = 0; i < workerCount; i++) {
+                perWorkerProbeKeys.extendAndSet(i, joinKeyMap.newProbeKey());
+            }
+            // The map and the chain are reopened in build(), so an idle atom holds no memory for them.
+            clear();
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    public int acquire(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
+        if (workerId == -1 && owner) {
+            // Owner thread is free to use the owner probe key anytime.
+            return -1;
+        }
+        final int size = perWorkerProbeKeys.size();
+        workerId = workerId == -1 ? rnd.nextInt(size) : workerId;
+        while (true) {
+            for (int i = 0; i < size; i++) {
+                int id = (i + workerId) % size;
+                if (perWorkerLocks.compareAndSet(id, 0, 1)) {
+                    return id;
+                }
+            }
+            circuitBreaker.statefulThrowExceptionIfTripped();
+            Os.pause();
+        }
+    }
+
+    /**
+     * Builds the hash table from all rows of the slave cursor. Must be called by the query owner
+     * thread before master page frames are dispatched.
+     *
+     * @param slaveCursor    slave cursor
+     * @param circuitBreaker query circuit breaker
+     */
+    public void build(RecordCursor slaveCursor, SqlExecutionCircuitBreaker circuitBreaker) {
+        joinKeyMap.reopen();
+        joinKeyMap.clear();
+        slaveChain.reopen();
+        slaveChain.clear();
+        final Record record = slaveCursor.getRecord();
+        while (slaveCursor.hasNext()) {
+            circuitBreaker.statefulThrowExceptionIfTripped();
+            final MapKey key = joinKeyMap.withKey();
+            key.put(record, slaveKeySink);
+            final MapValue value = key.createValue();
+            final long entry = slaveChain.size() / 2;
+            if (entry >= maxChainEntries) {
+                throw LimitOverflowException.instance().put("Maximum number of pages (").put(maxChainPages).put(") breached in VirtualMemory");
+            }
+            slaveChain.add(-1);
+            slaveChain.add(record.getRowId());
+            if (value.isNew()) {
+                value.putLong(0, entry);
+            } else {
+                slaveChain.set(2 * value.getLong(1), entry);
+            }
+            value.putLong(1, entry);
+        }
+    }
+
+    /**
+     * Releases memory held by the hash table.
+     */
+    public void clear() {
+        Misc.free(joinKeyMap);
+        Misc.free(slaveChain);
+    }
+
+    @Override
+    public void close() {
+        clear();
+        Misc.free(ownerProbeKey);
+        Misc.freeObjListAndKeepObjects(perWorkerProbeKeys);
+        Misc.free(filterAtom);
+    }
+
+    /**
+     * Returns index of the first slave row of the chain that belongs to a join key.
+     *
+     * @param value hash table value found for the join key
+     * @return chain entry index
+     */
+    public long getChainHead(MapValue value) {
+        return value.getLong(0);
+    }
+
+    /**
+     * @param entry chain entry index
+     * @return index of the next entry of the same chain, -1 if there is none
+     */
+    public long getChainNext(long entry) {
+        return slaveChain.get(2 * entry);
+    }
+
+    /**
+     * @param entry chain entry index
+     * @return slave row id kept in the entry
+     */
+    public long getChainRowId(long entry) {
+        return slaveChain.get(2 * entry + 1);
+    }
+
+    public @Nullable AsyncFilterAtom getFilterAtom() {
+        return filterAtom;
+    }
+
+    public RecordSink getMasterKeySink() {
+        return masterKeySink;
+    }
+
+    /**
+     * Returns probe key of the given slot. Slot -1 stands for the owner key, worker keys
+     * use slots starting from 0.
+     *
+     * @param slotId slot id returned by {@link #acquire(int, boolean, SqlExecutionCircuitBreaker)}
+     * @return probe key to look up the hash table with
+     */
+    public FastMap.ProbeKey getProbeKey(int slotId) {
+        return slotId == -1 ? ownerProbeKey : perWorkerProbeKeys.getQuick(slotId);
+    }
+
+    /**
+     * @return true when master rows are read in descending order, so each page frame is probed backwards
+     */
+    public boolean hasDescendingOrder() {
+        return hasDescendingOrder;
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        if (filterAtom != null) {
+            filterAtom.init(symbolTableSource, executionContext);
+        }
+    }
+
+    public void release(int slotId) {
+        if (slotId == -1) {
+            return;
+        }
+        perWorkerLocks.set(slotId, 0);
+    }
+}
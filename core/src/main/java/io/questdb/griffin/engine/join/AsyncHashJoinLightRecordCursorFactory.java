@@ -0,0 +1,247 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnTypes;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.map.FastMap;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameReducer;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.table.AsyncFilterAtom;
+import io.questdb.griffin.model.JoinContext;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ASC;
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_DESC;
+
+/**
+ * Inner hash join that probes the hash table with master page frames in parallel on the
+ * shared worker pool. Like {@link HashJoinLightRecordCursorFactory}, the hash table keeps
+ * slave row ids only and the output follows the order of master rows, then the order of
+ * slave rows within each join key.
+ * <p>
+ * When the master has a WHERE clause, the filter is applied in the same pass, right
+ * before the rows of each page frame are probed.
+ */
+public class AsyncHashJoinLightRecordCursorFactory extends AbstractRecordCursorFactory {
+
+    private static final PageFrameReducer REDUCER = AsyncHashJoinLightRecordCursorFactory::probe;
+
+    private final SCSequence collectSubSeq = new SCSequence();
+    private final AsyncHashJoinLightRecordCursor cursor;
+    private final PageFrameSequence<AsyncHashJoinLightAtom> frameSequence;
+    private final JoinContext joinContext;
+    private final RecordCursorFactory masterFactory;
+    private final RecordCursorFactory slaveFactory;
+    private final int workerCount;
+    private AsyncHashJoinLightAtom atom;
+
+    public AsyncHashJoinLightRecordCursorFactory(
+            @NotNull CairoConfiguration configuration,
+            @NotNull MessageBus messageBus,
+            @NotNull RecordMetadata metadata,
+            @NotNull RecordCursorFactory masterFactory,
+            @NotNull RecordCursorFactory slaveFactory,
+            @Transient @NotNull ColumnTypes joinColumnTypes,
+            @Transient @NotNull ColumnTypes valueTypes, // two LONGs, head and tail of the slave chain
+            @NotNull RecordSink masterKeySink,
+            @NotNull RecordSink slaveKeySink,
+            int columnSplit,
+            @NotNull JoinContext joinContext,
+            @Nullable AsyncFilterAtom filterAtom,
+            @NotNull @Transient WeakClosableObjectPool<PageFrameReduceTask> localTaskPool,
+            int workerCount
+    ) {
+        super(metadata);
+        try {
+            this.masterFactory = masterFactory;
+            this.slaveFactory = slaveFactory;
+            this.joinContext = joinContext;
+            this.atom = new AsyncHashJoinLightAtom(
+                    configuration,
+                    joinColumnTypes,
+                    valueTypes,
+                    masterKeySink,
+                    slaveKeySink,
+                    filterAtom,
+                    masterFactory.hasDescendingOrder(),
+                    workerCount
+            );
+            this.frameSequence = new PageFrameSequence<>(configuration, messageBus, REDUCER, localTaskPool);
+            this.cursor = new AsyncHashJoinLightRecordCursor(columnSplit);
+            this.workerCount = workerCount;
+        } catch (Throwable e) {
+            if (atom != null) {
+                Misc.free(atom);
+            } else {
+                // The atom takes over the ownership of the filter, but it wasn't created.
+                Misc.free(filterAtom);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public PageFrameSequence<AsyncHashJoinLightAtom> execute(SqlExecutionContext executionContext, SCSequence collectSubSeq, int order) throws SqlException {
+        return frameSequence.of(masterFactory, executionContext, collectSubSeq, atom, order);
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return masterFactory;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        final RecordCursor slaveCursor = slaveFactory.getCursor(executionContext);
+        final PageFrameSequence<AsyncHashJoinLightAtom> frameSequence;
+        try {
+            // The hash table must be complete before any master frame is dispatched.
+            atom.build(slaveCursor, executionContext.getCircuitBreaker());
+            frameSequence = execute(executionContext, collectSubSeq, masterFactory.hasDescendingOrder() ? ORDER_DESC : ORDER_ASC);
+        } catch (Throwable e) {
+            Misc.free(slaveCursor);
+            atom.clear();
+            throw e;
+        }
+        cursor.of(frameSequence, slaveCursor);
+        return cursor;
+    }
+
+    @Override
+    public boolean hasDescendingOrder() {
+        return masterFactory.hasDescendingOrder();
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsUpdateRowId(TableToken tableToken) {
+        return masterFactory.supportsUpdateRowId(tableToken);
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type(usesCompiledFilter() ? "Async JIT Hash Join Light" : "Async Hash Join Light");
+        sink.attr("condition").val(joinContext);
+        sink.optAttr("filter", atom.getFilterAtom(), true);
+        sink.attr("workers").val(workerCount);
+        sink.child(masterFactory);
+        sink.child("Hash", slaveFactory);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        final AsyncFilterAtom filterAtom = atom.getFilterAtom();
+        return filterAtom != null && filterAtom.usesCompiledFilter();
+    }
+
+    private static void probe(
+            int workerId,
+            @NotNull PageAddressCacheRecord record,
+            @NotNull PageFrameReduceTask task,
+            @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+            @Nullable PageFrameSequence<?> stealingFrameSequence
+    ) {
+        final PageFrameSequence<AsyncHashJoinLightAtom> frameSequence = task.getFrameSequence(AsyncHashJoinLightAtom.class);
+        final AsyncHashJoinLightAtom atom = frameSequence.getAtom();
+        final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
+
+        final AsyncFilterAtom filterAtom = atom.getFilterAtom();
+        final DirectLongList rows = task.getRows();
+        final long rowCount;
+        if (filterAtom != null) {
+            filterAtom.filter(workerId, record, task, circuitBreaker, owner);
+            rowCount = rows.size();
+        } else {
+            rows.clear();
+            rowCount = task.getFrameRowCount();
+        }
+
+        if (rowCount == 0) {
+            return;
+        }
+
+        final boolean descending = atom.hasDescendingOrder();
+        final RecordSink masterKeySink = atom.getMasterKeySink();
+        final int slotId = atom.acquire(workerId, owner, circuitBreaker);
+        try {
+            final FastMap.ProbeKey probeKey = atom.getProbeKey(slotId);
+            // Matches are appended after the filtered rows, if there are any,
+            // and moved to the start of the list once the frame is probed.
+            for (long i = 0; i < rowCount; i++) {
+                final long p = descending ? rowCount - i - 1 : i;
+                final long rowIndex = filterAtom != null ? rows.get(p) : p;
+                record.setRowIndex(rowIndex);
+                final MapKey key = probeKey.init();
+                key.put(record, masterKeySink);
+                final MapValue value = key.findValue();
+                if (value != null) {
+                    long entry = atom.getChainHead(value);
+                    while (entry != -1) {
+                        rows.add(rowIndex);
+                        rows.add(atom.getChainRowId(entry));
+                        entry = atom.getChainNext(entry);
+                    }
+                }
+            }
+        } finally {
+            atom.release(slotId);
+        }
+
+        if (filterAtom != null) {
+            final long matchCount = rows.size() - rowCount;
+            Vect.memmove(rows.getAddress(), rows.getAddress() + rowCount * Long.BYTES, matchCount * Long.BYTES);
+            rows.setPos(matchCount);
+        }
+    }
+
+    @Override
+    protected void _close() {
+        ((JoinRecordMetadata) getMetadata()).close();
+        Misc.free(cursor);
+        Misc.free(masterFactory);
+        Misc.free(slaveFactory);
+        Misc.free(atom);
+        Misc.free(frameSequence);
+    }
+}
@@ -52,6 +52,7 @@ public class AlterOperation extends AbstractOperation implements Mutable {
     public final static short REMOVE_SYMBOL_CACHE = 7;
     public final static short RENAME_COLUMN = 9;
     public final static short SET_PARAM_COMMIT_LAG = 11;
+    public final static short SET_PARAM_COMPRESSION_AGE = 13;
     public final static short SET_PARAM_MAX_UNCOMMITTED_ROWS = 10;
     private final static Log LOG = LogFactory.getLog(AlterOperation.class);
     private final DirectCharSequenceList directExtraStrInfo = new DirectCharSequenceList();
@@ -121,6 +122,9 @@ public class AlterOperation extends AbstractOperation implements Mutable {
                 case SET_PARAM_COMMIT_LAG:
                     applyParamO3MaxLag(svc);
                     break;
+                case SET_PARAM_COMPRESSION_AGE:
+                    applyParamCompressionAge(svc);
+                    break;
                 default:
                     LOG.error()
                             .$("invalid alter table command [code=").$(command)
@@ -385,6 +389,19 @@ public class AlterOperation extends AbstractOperation implements Mutable {
         }
     }
 
+    private void applyParamCompressionAge(MetadataService svc) {
+        long compressionAge = extraInfo.get(0);
+        try {
+            svc.setMetaCompressionAge(compressionAge);
+        } catch (CairoException e) {
+            LOG.error().$("could not change compressionAge [table=").utf8(tableToken != null ? tableToken.getTableName() : "<null>")
+                    .$(", errno=").$(e.getErrno())
+                    .$(", error=").$(e.getFlyweightMessage())
+                    .I$();
+            throw e;
+        }
+    }
+
     private void applyParamO3MaxLag(MetadataService svc) {
         long o3MaxLag = extraInfo.get(0);
         try {
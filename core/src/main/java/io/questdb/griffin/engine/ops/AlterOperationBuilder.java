@@ -205,6 +205,15 @@ public class AlterOperationBuilder {
         extraStrInfo.add(newName);
     }
 
+    public AlterOperationBuilder ofSetCompressionAge(int tableNamePosition, TableToken tableToken, int tableId, long compressionAge) {
+        this.command = SET_PARAM_COMPRESSION_AGE;
+        this.tableNamePosition = tableNamePosition;
+        this.tableToken = tableToken;
+        this.extraInfo.add(compressionAge);
+        this.tableId = tableId;
+        return this;
+    }
+
     public AlterOperationBuilder ofSetO3MaxLag(int tableNamePosition, TableToken tableToken, int tableId, long o3MaxLag) {
         this.command = SET_PARAM_COMMIT_LAG;
         this.tableNamePosition = tableNamePosition;
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.orderby;
+
+import io.questdb.cairo.Reopenable;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Mutable;
+
+import java.io.Closeable;
+
+/**
+ * Off-heap binary heap of (sort key, row id) pairs that keeps the first or the last N rows of
+ * a sort order, where the sort key is a long. Keys of other primitive types are mapped to longs
+ * that sort in the same order.
+ * <p>
+ * The rows are kept the same way as {@link LimitedSizeLongTreeChain} keeps them: when the
+ * heap is full, a row that ties with the worst kept row is rejected and, once {@link #sort()}
+ * is called, rows with equal keys are ordered by descending row id.
+ */
+public class LongTopKHeap implements Closeable, Mutable, Reopenable {
+    // pairs of key and row id
+    private final DirectLongList entries;
+    private boolean isFirstN;
+    // maximum number of rows to keep, -1 means no limit
+    private long limit;
+    private long size;
+
+    public LongTopKHeap(long initialCapacity) {
+        this.entries = new DirectLongList(2 * initialCapacity, MemoryTag.NATIVE_TREE_CHAIN);
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    @Override
+    public void close() {
+        size = 0;
+        Misc.free(entries);
+    }
+
+    public long getRowId(long index) {
+        return entries.get(2 * index + 1);
+    }
+
+    /**
+     * Clears the heap and sets what rows it should keep.
+     *
+     * @param limit    number of rows to keep, -1 to keep all rows
+     * @param isFirstN true to keep the first rows of the sort order, false to keep the last ones
+     */
+    public void of(long limit, boolean isFirstN) {
+        clear();
+        this.limit = limit;
+        this.isFirstN = isFirstN;
+    }
+
+    public void put(long key, long rowId) {
+        if (limit == size) {
+            if (size == 0 || compareKept(key, rowId, 0) >= 0) {
+                return;
+            }
+            entries.set(0, key);
+            entries.set(1, rowId);
+            siftDown(0, size, false);
+            return;
+        }
+        entries.add(key);
+        entries.add(rowId);
+        if (limit > -1) {
+            siftUp(size);
+        }
+        size++;
+    }
+
+    /**
+     * Moves all rows of the other heap to this one.
+     *
+     * @param other heap to merge, it is cleared afterwards
+     */
+    public void putAll(LongTopKHeap other) {
+        for (long i = 0, n = other.size; i < n; i++) {
+            put(other.entries.get(2 * i), other.entries.get(2 * i + 1));
+        }
+        other.clear();
+    }
+
+    @Override
+    public void reopen() {
+        entries.reopen();
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Sorts the rows in ascending order of keys, rows with equal keys in descending order of
+     * row ids. No rows can be added after this call until the heap is cleared.
+     */
+    public void sort() {
+        for (long i = size / 2 - 1; i > -1; i--) {
+            siftDown(i, size, true);
+        }
+        for (long n = size - 1; n > 0; n--) {
+            swap(0, n);
+            siftDown(0, n, true);
+        }
+    }
+
+    private int compare(long i, long j, boolean sorted) {
+        return sorted ? compareSorted(i, j) : compareKept(entries.get(2 * i), entries.get(2 * i + 1), j);
+    }
+
+    // order in which rows are kept, the worst kept row is at the heap's root
+    private int compareKept(long key, long rowId, long j) {
+        final long keyJ = entries.get(2 * j);
+        int cmp = isFirstN ? Long.compare(key, keyJ) : Long.compare(keyJ, key);
+        return cmp != 0 ? cmp : Long.compare(rowId, entries.get(2 * j + 1));
+    }
+
+    // order in which rows are returned
+    private int compareSorted(long i, long j) {
+        final int cmp = Long.compare(entries.get(2 * i), entries.get(2 * j));
+        return cmp != 0 ? cmp : Long.compare(entries.get(2 * j + 1), entries.get(2 * i + 1));
+    }
+
+    private void siftDown(long i, long n, boolean sorted) {
+        while (true) {
+            final long left = 2 * i + 1;
+            if (left >= n) {
+                return;
+            }
+            long largest = left;
+            final long right = left + 1;
+            if (right < n && compare(right, left, sorted) > 0) {
+                largest = right;
+            }
+            if (compare(largest, i, sorted) <= 0) {
+                return;
+            }
+            swap(i, largest);
+            i = largest;
+        }
+    }
+
+    private void siftUp(long i) {
+        while (i > 0) {
+            final long parent = (i - 1) / 2;
+            if (compare(i, parent, false) <= 0) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void swap(long i, long j) {
+        final long key = entries.get(2 * i);
+        final long rowId = entries.get(2 * i + 1);
+        entries.set(2 * i, entries.get(2 * j));
+        entries.set(2 * i + 1, entries.get(2 * j + 1));
+        entries.set(2 * j, key);
+        entries.set(2 * j + 1, rowId);
+    }
+}
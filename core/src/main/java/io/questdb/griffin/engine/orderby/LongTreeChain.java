@@ -25,6 +25,7 @@
 package io.questdb.griffin.engine.orderby;
 
 import io.questdb.cairo.Reopenable;
+import io.questdb.cairo.sql.PageAddressCacheRecord;
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.vm.Vm;
@@ -33,6 +34,7 @@ import io.questdb.griffin.engine.AbstractRedBlackTree;
 import io.questdb.griffin.engine.RecordComparator;
 import io.questdb.std.MemoryTag;
 import io.questdb.std.Misc;
+import io.questdb.std.Rows;
 
 public class LongTreeChain extends AbstractRedBlackTree implements Reopenable {
     private final TreeCursor cursor = new TreeCursor();
@@ -105,6 +107,63 @@ public class LongTreeChain extends AbstractRedBlackTree implements Reopenable {
         fixInsert(p);
     }
 
+    /**
+     * Inserts the row id of the left record, where rows are addressed via page address cache.
+     * Unlike {@link #put(Record, RecordCursor, Record, RecordComparator)}, rows with equal sort
+     * keys are ordered by descending row id rather than chained in insertion order. This keeps
+     * the order of equal rows independent of the order page frames were inserted in, so trees
+     * built concurrently from different frames can be merged deterministically.
+     *
+     * @param leftRecord  record positioned at the row to insert
+     * @param rightRecord record used to access rows already in the tree
+     * @param comparator  comparator of sort keys
+     */
+    public void put(
+            PageAddressCacheRecord leftRecord,
+            PageAddressCacheRecord rightRecord,
+            RecordComparator comparator
+    ) {
+        final long rowId = leftRecord.getRowId();
+        if (root == -1) {
+            putParent(rowId);
+            return;
+        }
+
+        comparator.setLeft(leftRecord);
+
+        long p = root;
+        long parent;
+        int cmp;
+        do {
+            parent = p;
+            final long r = refOf(p);
+            final long rightRowId = valueChain.getLong(r);
+            rightRecord.setFrameIndex(Rows.toPartitionIndex(rightRowId));
+            rightRecord.setRowIndex(Rows.toLocalRowID(rightRowId));
+            cmp = comparator.compare(rightRecord);
+            if (cmp == 0) {
+                cmp = Long.compare(rightRowId, rowId);
+            }
+            if (cmp < 0) {
+                p = leftOf(p);
+            } else {
+                p = rightOf(p);
+            }
+        } while (p > -1);
+
+        p = allocateBlock();
+        setParent(p, parent);
+
+        setRef(p, appendValue(rowId, -1L));
+
+        if (cmp < 0) {
+            setLeft(parent, p);
+        } else {
+            setRight(parent, p);
+        }
+        fixInsert(p);
+    }
+
     @Override
     public void reopen() {
         //nothing to do here
@@ -30,6 +30,7 @@ import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.SqlParser;
 import io.questdb.griffin.engine.RecordComparator;
 import io.questdb.std.*;
+import io.questdb.std.ex.BytecodeException;
 
 public class RecordComparatorCompiler {
     private final BytecodeAssembler asm;
@@ -47,6 +48,20 @@ public class RecordComparatorCompiler {
         this.asm = asm;
     }
 
+    /**
+     * Creates an instance of a comparator class generated by {@link #compileClass(ColumnTypes, IntList)}.
+     *
+     * @param comparatorClass generated comparator class
+     * @return RecordComparator instance.
+     */
+    public static RecordComparator newInstance(Class<RecordComparator> comparatorClass) {
+        try {
+            return comparatorClass.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            throw BytecodeException.INSTANCE;
+        }
+    }
+
     /**
      * Generates byte code for record comparator. To avoid frequent calls to
      * record field getters comparator caches values of left argument.
@@ -58,6 +73,20 @@ public class RecordComparatorCompiler {
      * @return RecordComparator instance.
      */
     public RecordComparator compile(ColumnTypes columnTypes, @Transient IntList keyColumnIndices) {
+        return newInstance(compileClass(columnTypes, keyColumnIndices));
+    }
+
+    /**
+     * Same as {@link #compile(ColumnTypes, IntList)}, but returns the generated class. Comparators
+     * cache values of the left record, so threads that sort concurrently need their own instances.
+     *
+     * @param columnTypes      types of columns in the cursor. All but BINARY types are supported
+     * @param keyColumnIndices indexes of columns in types object. Column indexes are 1-based.
+     *                         Index sign indicates direction of sort: negative - descending,
+     *                         positive - ascending.
+     * @return generated RecordComparator class.
+     */
+    public Class<RecordComparator> compileClass(ColumnTypes columnTypes, @Transient IntList keyColumnIndices) {
 
         assert keyColumnIndices.size() < SqlParser.MAX_ORDER_BY_COLUMNS;
 
@@ -92,7 +121,7 @@ public class RecordComparatorCompiler {
 
         // class attribute count
         asm.putShort(0);
-        return asm.newInstance();
+        return asm.loadClass(RecordComparator.class);
     }
 
     private void instrumentCompareMethod(int stackMapTableIndex, int nameIndex, int descIndex, IntList keyColumns, ColumnTypes columnTypes) {
@@ -94,7 +94,7 @@ public class SortedLightRecordCursorFactory extends AbstractRecordCursorFactory
         return base.usesCompiledFilter();
     }
 
-    static void addSortKeys(PlanSink sink, ListColumnFilter filter) {
+    public static void addSortKeys(PlanSink sink, ListColumnFilter filter) {
         sink.attr("keys").val('[');
         for (int i = 0, n = filter.size(); i < n; i++) {
             int colIdx = filter.get(i);
@@ -27,6 +27,7 @@ package io.questdb.griffin.engine.table;
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
 import io.questdb.griffin.PlanSink;
 import io.questdb.griffin.Plannable;
 import io.questdb.griffin.SqlException;
@@ -99,6 +100,41 @@ public class AsyncFilterAtom implements StatefulAtom, Closeable, Plannable {
         Misc.freeObjList(perWorkerFilters);
     }
 
+    /**
+     * Applies the filter to the task's page frame and collects indexes of the matching
+     * rows into the task's row list.
+     *
+     * @param workerId       worker id or -1 for the query owner and work stealing threads
+     * @param record         record positioned at the task's page frame
+     * @param task           reduce task
+     * @param circuitBreaker circuit breaker to check while waiting for a per-worker filter
+     * @param owner          true if the calling thread is the query owner
+     */
+    public void filter(
+            int workerId,
+            @NotNull PageAddressCacheRecord record,
+            @NotNull PageFrameReduceTask task,
+            @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+            boolean owner
+    ) {
+        final DirectLongList rows = task.getRows();
+        final long frameRowCount = task.getFrameRowCount();
+        rows.clear();
+
+        final int filterId = acquireFilter(workerId, owner, circuitBreaker);
+        final Function filter = getFilter(filterId);
+        try {
+            for (long r = 0; r < frameRowCount; r++) {
+                record.setRowIndex(r);
+                if (filter.getBool(record)) {
+                    rows.add(r);
+                }
+            }
+        } finally {
+            releaseFilter(filterId);
+        }
+    }
+
     public Function getFilter(int filterId) {
         if (filterId == -1) {
             return filter;
@@ -223,4 +259,8 @@ public class AsyncFilterAtom implements StatefulAtom, Closeable, Plannable {
     public void toPlan(PlanSink sink) {
         sink.val(filter);
     }
+
+    public boolean usesCompiledFilter() {
+        return false;
+    }
 }
@@ -142,6 +142,22 @@ public class AsyncFilteredRecordCursorFactory extends AbstractRecordCursorFactor
         return cursor;
     }
 
+    public AsyncFilterAtom getFilterAtom() {
+        return filterAtom;
+    }
+
+    /**
+     * Releases all resources, but the base factory and the filter atom. Used when the filter
+     * is fused into a parent factory, which takes over the ownership of both of them.
+     * The factory must not be used or closed after this call.
+     */
+    public void halfClose() {
+        Misc.free(frameSequence);
+        Misc.free(negativeLimitRows);
+        cursor.freeRecords();
+        negativeLimitCursor.freeRecords();
+    }
+
     @Override
     public boolean hasDescendingOrder() {
         return base.hasDescendingOrder();
@@ -201,28 +217,12 @@ public class AsyncFilteredRecordCursorFactory extends AbstractRecordCursorFactor
             @NotNull SqlExecutionCircuitBreaker circuitBreaker,
             @Nullable PageFrameSequence<?> stealingFrameSequence
     ) {
-        final DirectLongList rows = task.getRows();
-        final long frameRowCount = task.getFrameRowCount();
         final AsyncFilterAtom atom = task.getFrameSequence(AsyncFilterAtom.class).getAtom();
-
-        rows.clear();
-
         final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
-        final int filterId = atom.acquireFilter(workerId, owner, circuitBreaker);
-        final Function filter = atom.getFilter(filterId);
-        try {
-            for (long r = 0; r < frameRowCount; r++) {
-                record.setRowIndex(r);
-                if (filter.getBool(record)) {
-                    rows.add(r);
-                }
-            }
-        } finally {
-            atom.releaseFilter(filterId);
-        }
+        atom.filter(workerId, record, task, circuitBreaker, owner);
 
         // Pre-touch fixed-size columns, if asked.
-        atom.preTouchColumns(record, rows);
+        atom.preTouchColumns(record, task.getRows());
     }
 
     @Override
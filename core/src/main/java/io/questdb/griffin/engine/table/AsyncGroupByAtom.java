@@ -0,0 +1,257 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnTypes;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.map.FastMap;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapValueMergeFunction;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.StatefulAtom;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.groupby.GroupByFunctionsUpdater;
+import io.questdb.griffin.engine.groupby.GroupByFunctionsUpdaterFactory;
+import io.questdb.std.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Holds the state of a parallel keyed GROUP BY. Each worker thread aggregates page frames
+ * into its own map shard while the query owner thread uses the owner map. Once all frames
+ * are reduced, the shards are merged into the owner map.
+ * <p>
+ * Group by functions that are not thread-safe are cloned per worker, so each map shard
+ * is always updated with its own set of functions. An optional filter is applied
+ * to page frame rows before the aggregation.
+ */
+public class AsyncGroupByAtom implements StatefulAtom, Closeable {
+
+    private final AsyncFilterAtom filterAtom;
+    private final MapValueMergeFunction mergeFunction;
+    private final RecordSink mapSink;
+    private final GroupByFunctionsUpdater ownerFunctionUpdater;
+    private final Map ownerMap;
+    private final ObjList<GroupByFunctionsUpdater> perWorkerFunctionUpdaters;
+    private final ObjList<ObjList<GroupByFunction>> perWorkerFunctions;
+    private final AtomicIntegerArray perWorkerLocks;
+    private final ObjList<Map> perWorkerMaps;
+    // Used to randomize acquire attempts for work stealing threads. Accessed in a racy way, intentionally.
+    private final Rnd rnd;
+
+    public AsyncGroupByAtom(
+            @Transient @NotNull BytecodeAssembler asm,
+            @NotNull CairoConfiguration configuration,
+            @Transient @NotNull ColumnTypes keyTypes,
+            @Transient @NotNull ColumnTypes valueTypes,
+            @NotNull ObjList<GroupByFunction> ownerFunctions,
+            @Nullable ObjList<ObjList<GroupByFunction>> perWorkerFunctions,
+            @NotNull RecordSink mapSink,
+            @Nullable AsyncFilterAtom filterAtom,
+            int workerCount
+    ) {
+        assert workerCount > 0;
+        assert perWorkerFunctions == null || perWorkerFunctions.size() == workerCount;
+        this.rnd = new Rnd(
+                configuration.getNanosecondClock().getTicks(),
+                configuration.getMicrosecondClock().getTicks()
+        );
+        this.perWorkerFunctions = perWorkerFunctions;
+        this.filterAtom = filterAtom;
+        this.mapSink = mapSink;
+        this.perWorkerLocks = new AtomicIntegerArray(workerCount);
+        this.perWorkerMaps = new ObjList<>(workerCount);
+        try {
+            final Class<GroupByFunctionsUpdater> updaterClass = GroupByFunctionsUpdaterFactory.getInstanceClass(asm, ownerFunctions.size());
+            this.ownerFunctionUpdater = GroupByFunctionsUpdaterFactory.getInstance(updaterClass, ownerFunctions);
+            this.mergeFunction = ownerFunctionUpdater::merge;
+            if (perWorkerFunctions != null) {
+                perWorkerFunctionUpdaters = new ObjList<>(workerCount);
+                for (int i = 0; i < workerCount; i++) {
+                    perWorkerFunctionUpdaters.extendAndSet(i, GroupByFunctionsUpdaterFactory.getInstance(updaterClass, perWorkerFunctions.getQuick(i)));
+                }
+            } else {
+                perWorkerFunctionUpdaters = null;
+            }
+
+            this.ownerMap = createMap(configuration, keyTypes, valueTypes);
+            for (int i = 0; i < workerCount; i++) {
+                final Map map = createMap(configuration, keyTypes, valueTypes);
+                // Worker maps are allocated lazily, on the first use.
+                map.close();
+                perWorkerMaps.extendAndSet(i, map);
+            }
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    public int acquire(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
+        if (workerId == -1 && owner) {
+            // Owner thread is free to use the owner map anytime.
+            return -1;
+        }
+        final int size = perWorkerMaps.size();
+        workerId = workerId == -1 ? rnd.nextInt(size) : workerId;
+        while (true) {
+            for (int i = 0; i < size; i++) {
+                int id = (i + workerId) % size;
+                if (perWorkerLocks.compareAndSet(id, 0, 1)) {
+                    return id;
+                }
+            }
+            circuitBreaker.statefulThrowExceptionIfTripped();
+            Os.pause();
+        }
+    }
+
+    /**
+     * Releases memory held by the owner and worker maps.
+     */
+    public void clear() {
+        Misc.free(ownerMap);
+        for (int i = 0, n = perWorkerMaps.size(); i < n; i++) {
+            Misc.free(perWorkerMaps.getQuick(i));
+        }
+        if (perWorkerFunctions != null) {
+            for (int i = 0, n = perWorkerFunctions.size(); i < n; i++) {
+                Misc.clearObjList(perWorkerFunctions.getQuick(i));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        clear();
+        Misc.free(filterAtom);
+        if (perWorkerFunctions != null) {
+            for (int i = 0, n = perWorkerFunctions.size(); i < n; i++) {
+                Misc.freeObjList(perWorkerFunctions.getQuick(i));
+            }
+        }
+    }
+
+    public @Nullable AsyncFilterAtom getFilterAtom() {
+        return filterAtom;
+    }
+
+    /**
+     * Returns the function updater to be used by the thread that acquired the given slot.
+     *
+     * @param slotId slot id returned by {@link #acquire(int, boolean, SqlExecutionCircuitBreaker)}
+     * @return function updater
+     */
+    public GroupByFunctionsUpdater getFunctionUpdater(int slotId) {
+        if (slotId == -1 || perWorkerFunctionUpdaters == null) {
+            return ownerFunctionUpdater;
+        }
+        return perWorkerFunctionUpdaters.getQuick(slotId);
+    }
+
+    /**
+     * Returns the map to be used by the thread that acquired the given slot.
+     * Worker maps are reopened lazily, so that idle workers don't hold any memory.
+     *
+     * @param slotId slot id returned by {@link #acquire(int, boolean, SqlExecutionCircuitBreaker)}
+     * @return map shard
+     */
+    public Map getMap(int slotId) {
+        if (slotId == -1) {
+            return ownerMap;
+        }
+        final Map map = perWorkerMaps.getQuick(slotId);
+        map.reopen();
+        return map;
+    }
+
+    public RecordSink getMapSink() {
+        return mapSink;
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        ownerMap.reopen();
+        if (filterAtom != null) {
+            filterAtom.init(symbolTableSource, executionContext);
+        }
+        if (perWorkerFunctions != null) {
+            final boolean current = executionContext.getCloneSymbolTables();
+            executionContext.setCloneSymbolTables(true);
+            try {
+                for (int i = 0, n = perWorkerFunctions.size(); i < n; i++) {
+                    Function.init(perWorkerFunctions.getQuick(i), symbolTableSource, executionContext);
+                }
+            } finally {
+                executionContext.setCloneSymbolTables(current);
+            }
+        }
+    }
+
+    /**
+     * Merges worker map shards into the owner map. Must be called by the query owner thread
+     * once all page frames are reduced.
+     *
+     * @return the owner map holding the final result
+     */
+    public Map mergeShards() {
+        for (int i = 0, n = perWorkerMaps.size(); i < n; i++) {
+            final Map srcMap = perWorkerMaps.getQuick(i);
+            if (srcMap.size() > 0) {
+                ownerMap.merge(srcMap, mergeFunction);
+            }
+            // Worker maps are no longer needed, so let's release the memory.
+            srcMap.close();
+        }
+        return ownerMap;
+    }
+
+    public void release(int slotId) {
+        if (slotId == -1) {
+            return;
+        }
+        perWorkerLocks.set(slotId, 0);
+    }
+
+    private static Map createMap(CairoConfiguration configuration, ColumnTypes keyTypes, ColumnTypes valueTypes) {
+        // Map shards are merged via raw memory copies, so we always use FastMap here.
+        return new FastMap(
+                configuration.getSqlMapPageSize(),
+                keyTypes,
+                valueTypes,
+                configuration.getSqlMapKeyCapacity(),
+                configuration.getSqlFastMapLoadFactor(),
+                configuration.getSqlMapMaxResizes()
+        );
+    }
+}
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.StatefulAtom;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.groupby.GroupByFunctionsUpdater;
+import io.questdb.griffin.engine.groupby.GroupByFunctionsUpdaterFactory;
+import io.questdb.griffin.engine.groupby.SimpleMapValue;
+import io.questdb.std.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Holds the state of a parallel non-keyed GROUP BY. Each worker thread aggregates page frames
+ * into its own value while the query owner thread uses the owner value. Once all frames
+ * are reduced, the worker values are merged into the owner value.
+ * <p>
+ * Group by functions that are not thread-safe are cloned per worker. An optional filter
+ * is applied to page frame rows before the aggregation.
+ */
+public class AsyncGroupByNotKeyedAtom implements StatefulAtom, Closeable {
+
+    private final AsyncFilterAtom filterAtom;
+    private final GroupByFunctionsUpdater ownerFunctionUpdater;
+    private final SimpleMapValue ownerValue;
+    private final ObjList<GroupByFunctionsUpdater> perWorkerFunctionUpdaters;
+    private final ObjList<ObjList<GroupByFunction>> perWorkerFunctions;
+    private final AtomicIntegerArray perWorkerLocks;
+    private final ObjList<SimpleMapValue> perWorkerValues;
+    // Used to randomize acquire attempts for work stealing threads. Accessed in a racy way, intentionally.
+    private final Rnd rnd;
+    // Flags for the values that hold aggregated rows; index 0 is reserved for the owner value.
+    private final boolean[] valuesInitialized;
+
+    public AsyncGroupByNotKeyedAtom(
+            @Transient @NotNull BytecodeAssembler asm,
+            @NotNull CairoConfiguration configuration,
+            @NotNull ObjList<GroupByFunction> ownerFunctions,
+            @Nullable ObjList<ObjList<GroupByFunction>> perWorkerFunctions,
+            int valueCount,
+            @Nullable AsyncFilterAtom filterAtom,
+            int workerCount
+    ) {
+        assert workerCount > 0;
+        assert perWorkerFunctions == null || perWorkerFunctions.size() == workerCount;
+        this.rnd = new Rnd(
+                configuration.getNanosecondClock().getTicks(),
+                configuration.getMicrosecondClock().getTicks()
+        );
+        this.perWorkerFunctions = perWorkerFunctions;
+        this.filterAtom = filterAtom;
+        this.perWorkerLocks = new AtomicIntegerArray(workerCount);
+        this.ownerValue = new SimpleMapValue(valueCount);
+        this.perWorkerValues = new ObjList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            perWorkerValues.extendAndSet(i, new SimpleMapValue(valueCount));
+        }
+        this.valuesInitialized = new boolean[workerCount + 1];
+
+        final Class<GroupByFunctionsUpdater> updaterClass = GroupByFunctionsUpdaterFactory.getInstanceClass(asm, ownerFunctions.size());
+        this.ownerFunctionUpdater = GroupByFunctionsUpdaterFactory.getInstance(updaterClass, ownerFunctions);
+        if (perWorkerFunctions != null) {
+            perWorkerFunctionUpdaters = new ObjList<>(workerCount);
+            for (int i = 0; i < workerCount; i++) {
+                perWorkerFunctionUpdaters.extendAndSet(i, GroupByFunctionsUpdaterFactory.getInstance(updaterClass, perWorkerFunctions.getQuick(i)));
+            }
+        } else {
+            perWorkerFunctionUpdaters = null;
+        }
+    }
+
+    public int acquire(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
+        if (workerId == -1 && owner) {
+            // Owner thread is free to use the owner value anytime.
+            return -1;
+        }
+        final int size = perWorkerValues.size();
+        workerId = workerId == -1 ? rnd.nextInt(size) : workerId;
+        while (true) {
+            for (int i = 0; i < size; i++) {
+                int id = (i + workerId) % size;
+                if (perWorkerLocks.compareAndSet(id, 0, 1)) {
+                    return id;
+                }
+            }
+            circuitBreaker.statefulThrowExceptionIfTripped();
+            Os.pause();
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(valuesInitialized, false);
+        if (perWorkerFunctions != null) {
+            for (int i = 0, n = perWorkerFunctions.size(); i < n; i++) {
+                Misc.clearObjList(perWorkerFunctions.getQuick(i));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        clear();
+        Misc.free(filterAtom);
+        if (perWorkerFunctions != null) {
+            for (int i = 0, n = perWorkerFunctions.size(); i < n; i++) {
+                Misc.freeObjList(perWorkerFunctions.getQuick(i));
+            }
+        }
+    }
+
+    public @Nullable AsyncFilterAtom getFilterAtom() {
+        return filterAtom;
+    }
+
+    /**
+     * Returns the function updater to be used by the thread that acquired the given slot.
+     *
+     * @param slotId slot id returned by {@link #acquire(int, boolean, SqlExecutionCircuitBreaker)}
+     * @return function updater
+     */
+    public GroupByFunctionsUpdater getFunctionUpdater(int slotId) {
+        if (slotId == -1 || perWorkerFunctionUpdaters == null) {
+            return ownerFunctionUpdater;
+        }
+        return perWorkerFunctionUpdaters.getQuick(slotId);
+    }
+
+    /**
+     * Returns the value to be used by the thread that acquired the given slot.
+     *
+     * @param slotId slot id returned by {@link #acquire(int, boolean, SqlExecutionCircuitBreaker)}
+     * @return aggregated value
+     */
+    public SimpleMapValue getValue(int slotId) {
+        if (slotId == -1) {
+            return ownerValue;
+        }
+        return perWorkerValues.getQuick(slotId);
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        Arrays.fill(valuesInitialized, false);
+        if (filterAtom != null) {
+            filterAtom.init(symbolTableSource, executionContext);
+        }
+        if (perWorkerFunctions != null) {
+            final boolean current = executionContext.getCloneSymbolTables();
+            executionContext.setCloneSymbolTables(true);
+            try {
+                for (int i = 0, n = perWorkerFunctions.size(); i < n; i++) {
+                    Function.init(perWorkerFunctions.getQuick(i), symbolTableSource, executionContext);
+                }
+            } finally {
+                executionContext.setCloneSymbolTables(current);
+            }
+        }
+    }
+
+    public boolean isValueInitialized(int slotId) {
+        return valuesInitialized[slotId + 1];
+    }
+
+    /**
+     * Merges worker values into the owner value. Must be called by the query owner thread
+     * once all page frames are reduced.
+     *
+     * @return the owner value holding the final result
+     */
+    public SimpleMapValue mergeValues() {
+        for (int i = 0, n = perWorkerValues.size(); i < n; i++) {
+            if (!valuesInitialized[i + 1]) {
+                continue;
+            }
+            final SimpleMapValue srcValue = perWorkerValues.getQuick(i);
+            if (valuesInitialized[0]) {
+                ownerFunctionUpdater.merge(ownerValue, srcValue);
+            } else {
+                ownerValue.copy(srcValue);
+                valuesInitialized[0] = true;
+            }
+        }
+        if (!valuesInitialized[0]) {
+            ownerFunctionUpdater.updateEmpty(ownerValue);
+            valuesInitialized[0] = true;
+        }
+        return ownerValue;
+    }
+
+    public void release(int slotId) {
+        if (slotId == -1) {
+            return;
+        }
+        perWorkerLocks.set(slotId, 0);
+    }
+
+    public void setValueInitialized(int slotId) {
+        valuesInitialized[slotId + 1] = true;
+    }
+}
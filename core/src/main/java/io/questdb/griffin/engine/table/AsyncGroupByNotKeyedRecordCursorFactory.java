@@ -0,0 +1,215 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameReducer;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.groupby.GroupByFunctionsUpdater;
+import io.questdb.griffin.engine.groupby.SimpleMapValue;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ANY;
+
+/**
+ * Non-keyed GROUP BY that aggregates page frames in parallel on the shared worker pool.
+ * Unlike the vectorized non-keyed GROUP BY, it supports any group by function that implements
+ * {@link GroupByFunction#merge(io.questdb.cairo.map.MapValue, io.questdb.cairo.map.MapValue)}.
+ * <p>
+ * When the query has a WHERE clause, the filter is applied in the same pass, right
+ * before the aggregation of each page frame.
+ */
+public class AsyncGroupByNotKeyedRecordCursorFactory extends AbstractRecordCursorFactory {
+
+    private static final PageFrameReducer REDUCER = AsyncGroupByNotKeyedRecordCursorFactory::aggregate;
+
+    private final RecordCursorFactory base;
+    private final SCSequence collectSubSeq = new SCSequence();
+    private final AsyncGroupByNotKeyedRecordCursor cursor;
+    private final PageFrameSequence<AsyncGroupByNotKeyedAtom> frameSequence;
+    private final ObjList<GroupByFunction> groupByFunctions;
+    private final int workerCount;
+    private AsyncGroupByNotKeyedAtom atom;
+
+    public AsyncGroupByNotKeyedRecordCursorFactory(
+            @Transient @NotNull BytecodeAssembler asm,
+            @NotNull CairoConfiguration configuration,
+            @NotNull MessageBus messageBus,
+            @NotNull RecordCursorFactory base,
+            @NotNull RecordMetadata groupByMetadata,
+            @NotNull ObjList<GroupByFunction> groupByFunctions,
+            @Nullable ObjList<ObjList<GroupByFunction>> perWorkerGroupByFunctions,
+            @NotNull ObjList<Function> recordFunctions,
+            int valueCount,
+            @Nullable AsyncFilterAtom filterAtom,
+            @NotNull @Transient WeakClosableObjectPool<PageFrameReduceTask> localTaskPool,
+            int workerCount
+    ) {
+        super(groupByMetadata);
+        try {
+            this.base = base;
+            this.groupByFunctions = groupByFunctions;
+            this.atom = new AsyncGroupByNotKeyedAtom(
+                    asm,
+                    configuration,
+                    groupByFunctions,
+                    perWorkerGroupByFunctions,
+                    valueCount,
+                    filterAtom,
+                    workerCount
+            );
+            this.frameSequence = new PageFrameSequence<>(configuration, messageBus, REDUCER, localTaskPool);
+            this.cursor = new AsyncGroupByNotKeyedRecordCursor(recordFunctions, groupByFunctions);
+            this.workerCount = workerCount;
+        } catch (Throwable e) {
+            if (atom != null) {
+                Misc.free(atom);
+            } else {
+                // The atom takes over the ownership of these, but it wasn't created.
+                Misc.free(filterAtom);
+                if (perWorkerGroupByFunctions != null) {
+                    for (int i = 0, n = perWorkerGroupByFunctions.size(); i < n; i++) {
+                        Misc.freeObjList(perWorkerGroupByFunctions.getQuick(i));
+                    }
+                }
+            }
+            Misc.freeObjList(groupByFunctions);
+            throw e;
+        }
+    }
+
+    @Override
+    public PageFrameSequence<AsyncGroupByNotKeyedAtom> execute(SqlExecutionContext executionContext, SCSequence collectSubSeq, int order) throws SqlException {
+        return frameSequence.of(base, executionContext, collectSubSeq, atom, ORDER_ANY);
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        final PageFrameSequence<AsyncGroupByNotKeyedAtom> frameSequence = execute(executionContext, collectSubSeq, ORDER_ANY);
+        try {
+            cursor.of(frameSequence, executionContext);
+            return cursor;
+        } catch (Throwable e) {
+            cursor.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type(usesCompiledFilter() ? "Async JIT Group By" : "Async Group By");
+        sink.optAttr("values", groupByFunctions, true);
+        sink.optAttr("filter", atom.getFilterAtom(), true);
+        sink.attr("workers").val(workerCount);
+        sink.child(base);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        final AsyncFilterAtom filterAtom = atom.getFilterAtom();
+        return filterAtom != null && filterAtom.usesCompiledFilter();
+    }
+
+    private static void aggregate(
+            int workerId,
+            @NotNull PageAddressCacheRecord record,
+            @NotNull PageFrameReduceTask task,
+            @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+            @Nullable PageFrameSequence<?> stealingFrameSequence
+    ) {
+        final AsyncGroupByNotKeyedAtom atom = task.getFrameSequence(AsyncGroupByNotKeyedAtom.class).getAtom();
+        final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
+
+        final AsyncFilterAtom filterAtom = atom.getFilterAtom();
+        final DirectLongList rows = task.getRows();
+        final long rowCount;
+        if (filterAtom != null) {
+            filterAtom.filter(workerId, record, task, circuitBreaker, owner);
+            rowCount = rows.size();
+        } else {
+            rowCount = task.getFrameRowCount();
+        }
+
+        if (rowCount == 0) {
+            return;
+        }
+
+        final int slotId = atom.acquire(workerId, owner, circuitBreaker);
+        try {
+            final GroupByFunctionsUpdater functionUpdater = atom.getFunctionUpdater(slotId);
+            final SimpleMapValue value = atom.getValue(slotId);
+            long p = 0;
+            if (!atom.isValueInitialized(slotId)) {
+                record.setRowIndex(filterAtom != null ? rows.get(0) : 0);
+                functionUpdater.updateNew(value, record, record.getRowId());
+                atom.setValueInitialized(slotId);
+                p++;
+            }
+            if (filterAtom != null) {
+                for (; p < rowCount; p++) {
+                    record.setRowIndex(rows.get(p));
+                    functionUpdater.updateExisting(value, record, record.getRowId());
+                }
+            } else {
+                for (; p < rowCount; p++) {
+                    record.setRowIndex(p);
+                    functionUpdater.updateExisting(value, record, record.getRowId());
+                }
+            }
+        } finally {
+            atom.release(slotId);
+        }
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(cursor);
+        Misc.freeObjList(groupByFunctions);
+        Misc.free(base);
+        Misc.free(atom);
+        Misc.free(frameSequence);
+    }
+}
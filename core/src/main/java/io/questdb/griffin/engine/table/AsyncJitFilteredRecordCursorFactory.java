@@ -160,6 +160,22 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
         return cursor;
     }
 
+    public AsyncFilterAtom getFilterAtom() {
+        return filterAtom;
+    }
+
+    /**
+     * Releases all resources, but the base factory and the filter atom. Used when the filter
+     * is fused into a parent factory, which takes over the ownership of both of them.
+     * The factory must not be used or closed after this call.
+     */
+    public void halfClose() {
+        Misc.free(frameSequence);
+        Misc.free(negativeLimitRows);
+        cursor.freeRecords();
+        negativeLimitCursor.freeRecords();
+    }
+
     public boolean hasDescendingOrder() {
         return base.hasDescendingOrder();
     }
@@ -218,61 +234,12 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
             @NotNull SqlExecutionCircuitBreaker circuitBreaker,
             @Nullable PageFrameSequence<?> stealingFrameSequence
     ) {
-        final DirectLongList rows = task.getRows();
-        final DirectLongList columns = task.getColumns();
-        final long frameRowCount = task.getFrameRowCount();
         final AsyncJitFilterAtom atom = task.getFrameSequence(AsyncJitFilterAtom.class).getAtom();
-        final PageAddressCache pageAddressCache = task.getPageAddressCache();
-
-        rows.clear();
-
-        if (pageAddressCache.hasColumnTops(task.getFrameIndex())) {
-            // Use Java-based filter in case of a page frame with column tops.
-            final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
-            final int filterId = atom.acquireFilter(workerId, owner, circuitBreaker);
-            final Function filter = atom.getFilter(filterId);
-            try {
-                for (long r = 0; r < frameRowCount; r++) {
-                    record.setRowIndex(r);
-                    if (filter.getBool(record)) {
-                        rows.add(r);
-                    }
-                }
-                return;
-            } finally {
-                atom.releaseFilter(filterId);
-            }
-        }
-
-        // Use JIT-compiled filter.
-
-        final long columnCount = pageAddressCache.getColumnCount();
-        if (columns.getCapacity() < columnCount) {
-            columns.setCapacity(columnCount);
-        }
-        columns.clear();
-        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
-            columns.add(pageAddressCache.getPageAddress(task.getFrameIndex(), columnIndex));
-        }
-
-        final long rowCount = task.getFrameRowCount();
-        if (rows.getCapacity() < rowCount) {
-            rows.setCapacity(rowCount);
-        }
-
-        long hi = atom.compiledFilter.call(
-                columns.getAddress(),
-                columns.size(),
-                atom.bindVarMemory.getAddress(),
-                atom.bindVarFunctions.size(),
-                rows.getAddress(),
-                rowCount,
-                0
-        );
-        rows.setPos(hi);
+        final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
+        atom.filter(workerId, record, task, circuitBreaker, owner);
 
         // Pre-touch fixed-size columns, if asked.
-        atom.preTouchColumns(record, rows);
+        atom.preTouchColumns(record, task.getRows());
     }
 
     @Override
@@ -314,6 +281,61 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
             Misc.freeObjList(bindVarFunctions);
         }
 
+        @Override
+        public void filter(
+                int workerId,
+                @NotNull PageAddressCacheRecord record,
+                @NotNull PageFrameReduceTask task,
+                @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+                boolean owner
+        ) {
+            final PageAddressCache pageAddressCache = task.getPageAddressCache();
+            if (pageAddressCache.hasColumnTops(task.getFrameIndex())) {
+                // Use Java-based filter in case of a page frame with column tops.
+                super.filter(workerId, record, task, circuitBreaker, owner);
+                return;
+            }
+
+            // Use JIT-compiled filter.
+            final DirectLongList rows = task.getRows();
+            final DirectLongList columns = task.getColumns();
+            rows.clear();
+
+            // Data page addresses are followed by the index (aux) page addresses,
+            // the latter are used for string columns.
+            final int columnCount = pageAddressCache.getColumnCount();
+            if (columns.getCapacity() < 2L * columnCount) {
+                columns.setCapacity(2L * columnCount);
+            }
+            columns.clear();
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                columns.add(pageAddressCache.getPageAddress(task.getFrameIndex(), columnIndex));
+            }
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                columns.add(
+                        pageAddressCache.isVarLenColumn(columnIndex)
+                                ? pageAddressCache.getIndexPageAddress(task.getFrameIndex(), columnIndex)
+                                : 0
+                );
+            }
+
+            final long rowCount = task.getFrameRowCount();
+            if (rows.getCapacity() < rowCount) {
+                rows.setCapacity(rowCount);
+            }
+
+            long hi = compiledFilter.call(
+                    columns.getAddress(),
+                    columnCount,
+                    bindVarMemory.getAddress(),
+                    bindVarFunctions.size(),
+                    rows.getAddress(),
+                    rowCount,
+                    0
+            );
+            rows.setPos(hi);
+        }
+
         @Override
         public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
             super.init(symbolTableSource, executionContext);
@@ -321,18 +343,27 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
             prepareBindVarMemory(symbolTableSource, executionContext);
         }
 
+        @Override
+        public boolean usesCompiledFilter() {
+            return true;
+        }
+
         private void prepareBindVarMemory(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
             //don't trigger memory allocation if there are no variables 
             if (bindVarFunctions.size() > 0) {
+                // Each variable has a word-sized slot. Values that don't fit into the slot
+                // are appended after the slots, the slot then holds the value's offset.
                 bindVarMemory.truncate();
+                bindVarMemory.jumpTo((long) bindVarFunctions.size() * Long.BYTES);
                 for (int i = 0, n = bindVarFunctions.size(); i < n; i++) {
                     Function function = bindVarFunctions.getQuick(i);
-                    writeBindVarFunction(function, symbolTableSource, executionContext);
+                    writeBindVarFunction((long) i * Long.BYTES, function, symbolTableSource, executionContext);
                 }
             }
         }
 
         private void writeBindVarFunction(
+                long slotOffset,
                 Function function,
                 SymbolTableSource symbolTableSource,
                 SqlExecutionContext executionContext
@@ -341,53 +372,67 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
             final int columnTypeTag = ColumnType.tagOf(columnType);
             switch (columnTypeTag) {
                 case ColumnType.BOOLEAN:
-                    bindVarMemory.putLong(function.getBool(null) ? 1 : 0);
+                    bindVarMemory.putLong(slotOffset, function.getBool(null) ? 1 : 0);
                     return;
                 case ColumnType.BYTE:
-                    bindVarMemory.putLong(function.getByte(null));
+                    bindVarMemory.putLong(slotOffset, function.getByte(null));
                     return;
                 case ColumnType.GEOBYTE:
-                    bindVarMemory.putLong(function.getGeoByte(null));
+                    bindVarMemory.putLong(slotOffset, function.getGeoByte(null));
                     return;
                 case ColumnType.SHORT:
-                    bindVarMemory.putLong(function.getShort(null));
+                    bindVarMemory.putLong(slotOffset, function.getShort(null));
                     return;
                 case ColumnType.GEOSHORT:
-                    bindVarMemory.putLong(function.getGeoShort(null));
+                    bindVarMemory.putLong(slotOffset, function.getGeoShort(null));
                     return;
                 case ColumnType.CHAR:
-                    bindVarMemory.putLong(function.getChar(null));
+                    bindVarMemory.putLong(slotOffset, function.getChar(null));
                     return;
                 case ColumnType.INT:
-                    bindVarMemory.putLong(function.getInt(null));
+                    bindVarMemory.putLong(slotOffset, function.getInt(null));
                     return;
                 case ColumnType.GEOINT:
-                    bindVarMemory.putLong(function.getGeoInt(null));
+                    bindVarMemory.putLong(slotOffset, function.getGeoInt(null));
                     return;
                 case ColumnType.SYMBOL:
                     assert function instanceof CompiledFilterSymbolBindVariable;
                     function.init(symbolTableSource, executionContext);
-                    bindVarMemory.putLong(function.getInt(null));
+                    bindVarMemory.putLong(slotOffset, function.getInt(null));
                     return;
                 case ColumnType.FLOAT:
                     // compiled filter function will read only the first word
-                    bindVarMemory.putFloat(function.getFloat(null));
-                    bindVarMemory.putFloat(Float.NaN);
+                    bindVarMemory.putFloat(slotOffset, function.getFloat(null));
+                    bindVarMemory.putFloat(slotOffset + Float.BYTES, Float.NaN);
                     return;
                 case ColumnType.LONG:
-                    bindVarMemory.putLong(function.getLong(null));
+                    bindVarMemory.putLong(slotOffset, function.getLong(null));
                     return;
                 case ColumnType.GEOLONG:
-                    bindVarMemory.putLong(function.getGeoLong(null));
+                    bindVarMemory.putLong(slotOffset, function.getGeoLong(null));
                     return;
                 case ColumnType.DATE:
-                    bindVarMemory.putLong(function.getDate(null));
+                    bindVarMemory.putLong(slotOffset, function.getDate(null));
                     return;
                 case ColumnType.TIMESTAMP:
-                    bindVarMemory.putLong(function.getTimestamp(null));
+                    bindVarMemory.putLong(slotOffset, function.getTimestamp(null));
                     return;
                 case ColumnType.DOUBLE:
-                    bindVarMemory.putDouble(function.getDouble(null));
+                    bindVarMemory.putDouble(slotOffset, function.getDouble(null));
+                    return;
+                case ColumnType.UUID:
+                case ColumnType.LONG128:
+                    bindVarMemory.putLong(slotOffset, bindVarMemory.getAppendOffset());
+                    bindVarMemory.putLong128(function.getLong128Lo(null), function.getLong128Hi(null));
+                    return;
+                case ColumnType.LONG256:
+                    bindVarMemory.putLong(slotOffset, bindVarMemory.getAppendOffset());
+                    bindVarMemory.putLong256(function.getLong256A(null));
+                    return;
+                case ColumnType.STRING:
+                    // same layout as in column data: length followed by UTF-16 chars
+                    bindVarMemory.putLong(slotOffset, bindVarMemory.getAppendOffset());
+                    bindVarMemory.putStr(function.getStr(null));
                     return;
                 default:
                     throw SqlException.position(0).put("unsupported bind variable type: ").put(ColumnType.nameOf(columnTypeTag));
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnTypes;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.PageAddressCache;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.groupby.TimestampSampler;
+import io.questdb.std.*;
+import io.questdb.std.datetime.microtime.Timestamps;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Holds the state of a parallel SAMPLE BY. On top of the keyed GROUP BY state,
+ * it keeps the timestamp sampler used to round row timestamps to their buckets.
+ * Sampled timestamp is the last component of the map key.
+ * <p>
+ * Since buckets have fixed size, the bucket of any row depends only on the sampler
+ * start, so the start is set before page frames are dispatched to the workers.
+ */
+public class AsyncSampleByAtom extends AsyncGroupByAtom {
+
+    private final Function offsetFunc;
+    private final int offsetFuncPos;
+    private final TimestampSampler timestampSampler;
+    private final int timestampIndex;
+    private long fixedOffset;
+
+    public AsyncSampleByAtom(
+            @Transient @NotNull BytecodeAssembler asm,
+            @NotNull CairoConfiguration configuration,
+            @Transient @NotNull ColumnTypes keyTypes,
+            @Transient @NotNull ColumnTypes valueTypes,
+            @NotNull ObjList<GroupByFunction> ownerFunctions,
+            @Nullable ObjList<ObjList<GroupByFunction>> perWorkerFunctions,
+            @NotNull RecordSink mapSink,
+            @Nullable AsyncFilterAtom filterAtom,
+            @NotNull TimestampSampler timestampSampler,
+            int timestampIndex,
+            @NotNull Function offsetFunc,
+            int offsetFuncPos,
+            int workerCount
+    ) {
+        super(asm, configuration, keyTypes, valueTypes, ownerFunctions, perWorkerFunctions, mapSink, filterAtom, workerCount);
+        this.timestampSampler = timestampSampler;
+        this.timestampIndex = timestampIndex;
+        this.offsetFunc = offsetFunc;
+        this.offsetFuncPos = offsetFuncPos;
+    }
+
+    /**
+     * Aligns sample buckets either to the offset provided by the query or to the first
+     * observation. Must be called by the query owner thread before any of the frames
+     * is reduced.
+     *
+     * @param frameSequence frame sequence that was just initialized with this atom
+     */
+    public void alignSampler(PageFrameSequence<AsyncSampleByAtom> frameSequence) {
+        if (fixedOffset != Long.MIN_VALUE) {
+            timestampSampler.setStart(fixedOffset);
+        } else if (frameSequence.getFrameCount() > 0) {
+            // base cursor is ordered by timestamp, so the first observation
+            // is the first row of the first page frame
+            final PageAddressCache pageAddressCache = frameSequence.getPageAddressCache();
+            timestampSampler.setStart(Unsafe.getUnsafe().getLong(pageAddressCache.getPageAddress(0, timestampIndex)));
+        }
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        Misc.free(offsetFunc);
+    }
+
+    public TimestampSampler getTimestampSampler() {
+        return timestampSampler;
+    }
+
+    public int getTimestampIndex() {
+        return timestampIndex;
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        super.init(symbolTableSource, executionContext);
+        offsetFunc.init(symbolTableSource, executionContext);
+        final CharSequence offset = offsetFunc.getStr(null);
+        if (offset != null) {
+            final long val = Timestamps.parseOffset(offset);
+            if (val == Numbers.LONG_NaN) {
+                // bad value for offset
+                throw SqlException.$(offsetFuncPos, "invalid offset: ").put(offset);
+            }
+            fixedOffset = Numbers.decodeLowInt(val) * Timestamps.MINUTE_MICROS;
+        } else {
+            fixedOffset = Long.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.ObjList;
+import io.questdb.std.Vect;
+
+/**
+ * Streams merged SAMPLE BY buckets in timestamp order. Once the map is built, pairs of
+ * bucket timestamp and map row id are sorted with a stable radix sort, so that groups
+ * within a bucket keep the order in which they were added to the map.
+ */
+class AsyncSampleByRecordCursor extends AsyncGroupByRecordCursor {
+    // pairs of (sortable bucket timestamp, map row id)
+    private final DirectLongList bucketIndex;
+    private final DirectLongList sortBuffer;
+    // index of the sampled timestamp in map record
+    private final int timestampIndex;
+    private long bucketIndexPos;
+    private long bucketIndexSize;
+
+    public AsyncSampleByRecordCursor(
+            ObjList<Function> recordFunctions,
+            ObjList<GroupByFunction> groupByFunctions,
+            int timestampIndex,
+            long initialCapacity
+    ) {
+        super(recordFunctions, groupByFunctions, false);
+        this.timestampIndex = timestampIndex;
+        this.bucketIndex = new DirectLongList(initialCapacity, MemoryTag.NATIVE_SAMPLE_BY_LONG_LIST);
+        this.sortBuffer = new DirectLongList(initialCapacity, MemoryTag.NATIVE_SAMPLE_BY_LONG_LIST);
+        // Lists are allocated lazily, on the first use.
+        bucketIndex.close();
+        sortBuffer.close();
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        bucketIndex.close();
+        sortBuffer.close();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (bucketIndexPos < bucketIndexSize) {
+            baseCursor.recordAt(baseCursor.getRecord(), bucketIndex.get(2 * bucketIndexPos + 1));
+            bucketIndexPos++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void of(RecordCursor mapCursor) {
+        super.of(mapCursor);
+        bucketIndex.reopen();
+        bucketIndex.clear();
+        final Record record = mapCursor.getRecord();
+        while (mapCursor.hasNext()) {
+            // flip the sign bit, so that radix sort orders timestamps as signed values
+            bucketIndex.add(record.getTimestamp(timestampIndex) ^ Long.MIN_VALUE);
+            bucketIndex.add(record.getRowId());
+        }
+        bucketIndexSize = bucketIndex.size() / 2;
+        bucketIndexPos = 0;
+        if (bucketIndexSize > 1) {
+            sortBuffer.reopen();
+            sortBuffer.setCapacity(bucketIndex.size());
+            Vect.radixSortLongIndexAscInPlace(bucketIndex.getAddress(), bucketIndexSize, sortBuffer.getAddress());
+            // the buffer is not needed past this point
+            sortBuffer.close();
+        }
+    }
+
+    @Override
+    public long size() {
+        return -1;
+    }
+
+    @Override
+    public void toTop() {
+        super.toTop();
+        bucketIndexPos = 0;
+    }
+}
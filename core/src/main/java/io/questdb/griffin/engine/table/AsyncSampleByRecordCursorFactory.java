@@ -0,0 +1,268 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.*;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameReducer;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.functions.columns.TimestampColumn;
+import io.questdb.griffin.engine.groupby.GroupByFunctionsUpdater;
+import io.questdb.griffin.engine.groupby.GroupByRecordCursorFactory;
+import io.questdb.griffin.engine.groupby.TimestampSampler;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ASC;
+
+/**
+ * SAMPLE BY with FILL(NONE) that aggregates page frames in parallel on the shared worker pool.
+ * Rows are grouped by their keys and the sampled timestamp, so that each thread accumulates
+ * partial buckets in its own map shard. The shards are merged when all frames are reduced.
+ * Merged buckets are then sorted by timestamp.
+ * <p>
+ * Only samplers with fixed size buckets are supported since the bucket of a row
+ * must not depend on the rows reduced by other threads.
+ */
+public class AsyncSampleByRecordCursorFactory extends AbstractRecordCursorFactory {
+
+    private static final PageFrameReducer REDUCER = AsyncSampleByRecordCursorFactory::aggregate;
+
+    private final RecordCursorFactory base;
+    private final SCSequence collectSubSeq = new SCSequence();
+    private final AsyncSampleByRecordCursor cursor;
+    private final PageFrameSequence<AsyncSampleByAtom> frameSequence;
+    private final ObjList<GroupByFunction> groupByFunctions;
+    private final ObjList<Function> recordFunctions;
+    private final int workerCount;
+    private AsyncSampleByAtom atom;
+
+    public AsyncSampleByRecordCursorFactory(
+            @Transient @NotNull BytecodeAssembler asm,
+            @NotNull CairoConfiguration configuration,
+            @NotNull MessageBus messageBus,
+            @NotNull RecordCursorFactory base,
+            @Transient @NotNull ListColumnFilter listColumnFilter,
+            @Transient @NotNull ArrayColumnTypes keyTypes,
+            @Transient @NotNull ArrayColumnTypes valueTypes,
+            @NotNull RecordMetadata groupByMetadata,
+            @NotNull ObjList<GroupByFunction> groupByFunctions,
+            @Nullable ObjList<ObjList<GroupByFunction>> perWorkerGroupByFunctions,
+            @NotNull ObjList<Function> recordFunctions,
+            @Nullable AsyncFilterAtom filterAtom,
+            @NotNull TimestampSampler timestampSampler,
+            int timestampIndex,
+            @NotNull Function offsetFunc,
+            int offsetFuncPos,
+            @NotNull @Transient WeakClosableObjectPool<PageFrameReduceTask> localTaskPool,
+            int workerCount
+    ) {
+        super(groupByMetadata);
+        try {
+            this.base = base;
+            this.groupByFunctions = groupByFunctions;
+            this.recordFunctions = recordFunctions;
+
+            // sampled timestamp goes to the map key, right after the key columns
+            final ArrayColumnTypes mapKeyTypes = new ArrayColumnTypes();
+            for (int i = 0, n = keyTypes.getColumnCount(); i < n; i++) {
+                mapKeyTypes.add(keyTypes.getColumnType(i));
+            }
+            mapKeyTypes.add(ColumnType.TIMESTAMP);
+            final int timestampMapIndex = valueTypes.getColumnCount() + keyTypes.getColumnCount();
+            for (int i = 0, n = recordFunctions.size(); i < n; i++) {
+                if (recordFunctions.getQuick(i) == null) {
+                    recordFunctions.setQuick(i, TimestampColumn.newInstance(timestampMapIndex));
+                }
+            }
+
+            final RecordSink mapSink = RecordSinkFactory.getInstance(asm, base.getMetadata(), listColumnFilter, false);
+            this.atom = new AsyncSampleByAtom(
+                    asm,
+                    configuration,
+                    mapKeyTypes,
+                    valueTypes,
+                    groupByFunctions,
+                    perWorkerGroupByFunctions,
+                    mapSink,
+                    filterAtom,
+                    timestampSampler,
+                    timestampIndex,
+                    offsetFunc,
+                    offsetFuncPos,
+                    workerCount
+            );
+            this.frameSequence = new PageFrameSequence<>(configuration, messageBus, REDUCER, localTaskPool);
+            this.cursor = new AsyncSampleByRecordCursor(
+                    recordFunctions,
+                    groupByFunctions,
+                    timestampMapIndex,
+                    2L * configuration.getSqlMapKeyCapacity()
+            );
+            this.workerCount = workerCount;
+        } catch (Throwable e) {
+            if (atom != null) {
+                Misc.free(atom);
+            } else {
+                // The atom takes over the ownership of these, but it wasn't created.
+                Misc.free(filterAtom);
+                Misc.free(offsetFunc);
+                if (perWorkerGroupByFunctions != null) {
+                    for (int i = 0, n = perWorkerGroupByFunctions.size(); i < n; i++) {
+                        Misc.freeObjList(perWorkerGroupByFunctions.getQuick(i));
+                    }
+                }
+            }
+            Misc.freeObjList(recordFunctions);
+            throw e;
+        }
+    }
+
+    @Override
+    public PageFrameSequence<AsyncSampleByAtom> execute(SqlExecutionContext executionContext, SCSequence collectSubSeq, int order) throws SqlException {
+        final PageFrameSequence<AsyncSampleByAtom> frameSequence = this.frameSequence.of(base, executionContext, collectSubSeq, atom, ORDER_ASC);
+        // page frames are dispatched lazily, so it's not too late to set the bucket start
+        atom.alignSampler(frameSequence);
+        return frameSequence;
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        final PageFrameSequence<AsyncSampleByAtom> frameSequence = execute(executionContext, collectSubSeq, ORDER_ASC);
+        try {
+            cursor.of(frameSequence, executionContext);
+            return cursor;
+        } catch (Throwable e) {
+            cursor.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type(usesCompiledFilter() ? "Async JIT Sample By" : "Async Sample By");
+        sink.optAttr("keys", GroupByRecordCursorFactory.getKeys(recordFunctions, getMetadata()));
+        sink.optAttr("values", groupByFunctions, true);
+        sink.optAttr("filter", atom.getFilterAtom(), true);
+        sink.attr("workers").val(workerCount);
+        sink.child(base);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        final AsyncFilterAtom filterAtom = atom.getFilterAtom();
+        return filterAtom != null && filterAtom.usesCompiledFilter();
+    }
+
+    private static void aggregate(
+            int workerId,
+            @NotNull PageAddressCacheRecord record,
+            @NotNull PageFrameReduceTask task,
+            @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+            @Nullable PageFrameSequence<?> stealingFrameSequence
+    ) {
+        final AsyncSampleByAtom atom = task.getFrameSequence(AsyncSampleByAtom.class).getAtom();
+        final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
+
+        final AsyncFilterAtom filterAtom = atom.getFilterAtom();
+        if (filterAtom != null) {
+            filterAtom.filter(workerId, record, task, circuitBreaker, owner);
+        }
+
+        final int slotId = atom.acquire(workerId, owner, circuitBreaker);
+        try {
+            final GroupByFunctionsUpdater functionUpdater = atom.getFunctionUpdater(slotId);
+            final RecordSink mapSink = atom.getMapSink();
+            final Map map = atom.getMap(slotId);
+            final TimestampSampler timestampSampler = atom.getTimestampSampler();
+            final int timestampIndex = atom.getTimestampIndex();
+            if (filterAtom != null) {
+                final DirectLongList rows = task.getRows();
+                for (long p = 0, n = rows.size(); p < n; p++) {
+                    record.setRowIndex(rows.get(p));
+                    aggregateRecord(record, map, mapSink, timestampSampler, timestampIndex, functionUpdater);
+                }
+            } else {
+                for (long r = 0, n = task.getFrameRowCount(); r < n; r++) {
+                    record.setRowIndex(r);
+                    aggregateRecord(record, map, mapSink, timestampSampler, timestampIndex, functionUpdater);
+                }
+            }
+        } finally {
+            atom.release(slotId);
+        }
+    }
+
+    private static void aggregateRecord(
+            Record record,
+            Map map,
+            RecordSink mapSink,
+            TimestampSampler timestampSampler,
+            int timestampIndex,
+            GroupByFunctionsUpdater functionUpdater
+    ) {
+        final MapKey key = map.withKey();
+        key.put(record, mapSink);
+        key.putTimestamp(timestampSampler.round(record.getTimestamp(timestampIndex)));
+        final MapValue value = key.createValue();
+        if (value.isNew()) {
+            functionUpdater.updateNew(value, record, record.getRowId());
+        } else {
+            functionUpdater.updateExisting(value, record, record.getRowId());
+        }
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(cursor);
+        Misc.freeObjList(recordFunctions);
+        Misc.free(base);
+        Misc.free(atom);
+        Misc.free(frameSequence);
+    }
+}
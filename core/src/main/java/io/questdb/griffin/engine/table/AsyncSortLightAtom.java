@@ -0,0 +1,217 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.PageAddressCacheRecord;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.StatefulAtom;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.RecordComparator;
+import io.questdb.griffin.engine.orderby.LongTreeChain;
+import io.questdb.griffin.engine.orderby.RecordComparatorCompiler;
+import io.questdb.std.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Holds the state of a parallel ORDER BY. Each worker thread sorts rows of the page frames
+ * it reduces into its own tree chain, while the query owner thread uses the owner chain.
+ * The chains are sorted runs that are merged when the result is read.
+ * <p>
+ * Comparators cache values of the left record, so each chain comes with its own comparator.
+ * An optional filter is applied to page frame rows before they are sorted.
+ */
+public class AsyncSortLightAtom implements StatefulAtom, Closeable {
+
+    private final AsyncFilterAtom filterAtom;
+    private final LongTreeChain ownerChain;
+    private final RecordComparator ownerComparator;
+    private final PageAddressCacheRecord ownerRecord = new PageAddressCacheRecord();
+    private final ObjList<LongTreeChain> perWorkerChains;
+    private final ObjList<RecordComparator> perWorkerComparators;
+    private final AtomicIntegerArray perWorkerLocks;
+    private final ObjList<PageAddressCacheRecord> perWorkerRecords;
+    private final LongList perWorkerRowCounts;
+    // Used to randomize acquire attempts for work stealing threads. Accessed in a racy way, intentionally.
+    private final Rnd rnd;
+    private long ownerRowCount;
+
+    public AsyncSortLightAtom(
+            @NotNull CairoConfiguration configuration,
+            @NotNull Class<RecordComparator> comparatorClass,
+            @Nullable AsyncFilterAtom filterAtom,
+            int workerCount
+    ) {
+        assert workerCount > 0;
+        this.rnd = new Rnd(
+                configuration.getNanosecondClock().getTicks(),
+                configuration.getMicrosecondClock().getTicks()
+        );
+        this.filterAtom = filterAtom;
+        this.perWorkerLocks = new AtomicIntegerArray(workerCount);
+        this.perWorkerChains = new ObjList<>(workerCount);
+        this.perWorkerComparators = new ObjList<>(workerCount);
+        this.perWorkerRecords = new ObjList<>(workerCount);
+        this.perWorkerRowCounts = new LongList(workerCount);
+        try {
+            this.ownerComparator = RecordComparatorCompiler.newInstance(comparatorClass);
+            this.ownerChain = createChain(configuration);
+            for (int i = 0; i < workerCount; i++) {
+                perWorkerChains.extendAndSet(i, createChain(configuration));
+                perWorkerComparators.extendAndSet(i, RecordComparatorCompiler.newInstance(comparatorClass));
+                perWorkerRecords.extendAndSet(i, new PageAddressCacheRecord());
+                perWorkerRowCounts.add(0);
+            }
+            // Closed chains allocate memory on the first insert, so an idle atom holds no native memory.
+            clear();
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    public int acquire(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
+        if (workerId == -1 && owner) {
+            // Owner thread is free to use the owner chain anytime.
+            return -1;
+        }
+        final int size = perWorkerChains.size();
+        workerId = workerId == -1 ? rnd.nextInt(size) : workerId;
+        while (true) {
+            for (int i = 0; i < size; i++) {
+                int id = (i + workerId) % size;
+                if (perWorkerLocks.compareAndSet(id, 0, 1)) {
+                    return id;
+                }
+            }
+            circuitBreaker.statefulThrowExceptionIfTripped();
+            Os.pause();
+        }
+    }
+
+    /**
+     * Releases memory held by the owner and worker chains.
+     */
+    public void clear() {
+        Misc.free(ownerChain);
+        ownerRowCount = 0;
+        for (int i = 0, n = perWorkerChains.size(); i < n; i++) {
+            Misc.free(perWorkerChains.getQuick(i));
+            perWorkerRowCounts.setQuick(i, 0);
+        }
+        Misc.free(ownerRecord);
+        Misc.freeObjListAndKeepObjects(perWorkerRecords);
+    }
+
+    @Override
+    public void close() {
+        clear();
+        Misc.free(filterAtom);
+    }
+
+    /**
+     * Returns tree chain of the given slot. Slot -1 stands for the owner chain, worker chains
+     * use slots starting from 0.
+     *
+     * @param slotId slot id returned by {@link #acquire(int, boolean, SqlExecutionCircuitBreaker)}
+     * @return tree chain holding the row ids sorted by the slot
+     */
+    public LongTreeChain getChain(int slotId) {
+        return slotId == -1 ? ownerChain : perWorkerChains.getQuick(slotId);
+    }
+
+    public RecordComparator getComparator(int slotId) {
+        return slotId == -1 ? ownerComparator : perWorkerComparators.getQuick(slotId);
+    }
+
+    public @Nullable AsyncFilterAtom getFilterAtom() {
+        return filterAtom;
+    }
+
+    /**
+     * Returns the record used by the given slot to access rows that are already sorted.
+     *
+     * @param slotId slot id returned by {@link #acquire(int, boolean, SqlExecutionCircuitBreaker)}
+     * @return record to be positioned by the tree chain
+     */
+    public PageAddressCacheRecord getRecordB(int slotId) {
+        return slotId == -1 ? ownerRecord : perWorkerRecords.getQuick(slotId);
+    }
+
+    /**
+     * Returns the total number of sorted rows. Must be called by the query owner thread
+     * once all page frames are reduced.
+     *
+     * @return number of rows in all chains
+     */
+    public long getRowCount() {
+        long rowCount = ownerRowCount;
+        for (int i = 0, n = perWorkerRowCounts.size(); i < n; i++) {
+            rowCount += perWorkerRowCounts.getQuick(i);
+        }
+        return rowCount;
+    }
+
+    public int getWorkerCount() {
+        return perWorkerChains.size();
+    }
+
+    public void incrementRowCount(int slotId, long delta) {
+        if (slotId == -1) {
+            ownerRowCount += delta;
+        } else {
+            perWorkerRowCounts.setQuick(slotId, perWorkerRowCounts.getQuick(slotId) + delta);
+        }
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        if (filterAtom != null) {
+            filterAtom.init(symbolTableSource, executionContext);
+        }
+    }
+
+    public void release(int slotId) {
+        if (slotId == -1) {
+            return;
+        }
+        perWorkerLocks.set(slotId, 0);
+    }
+
+    private static LongTreeChain createChain(CairoConfiguration configuration) {
+        return new LongTreeChain(
+                configuration.getSqlSortKeyPageSize(),
+                configuration.getSqlSortKeyMaxPages(),
+                configuration.getSqlSortLightValuePageSize(),
+                configuration.getSqlSortLightValueMaxPages()
+        );
+    }
+}
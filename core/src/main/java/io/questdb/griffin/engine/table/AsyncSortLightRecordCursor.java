@@ -0,0 +1,252 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.RecordComparator;
+import io.questdb.griffin.engine.orderby.LongTreeChain;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+
+/**
+ * Merges the sorted runs built by the owner and worker threads. Runs are few, one per thread
+ * at most, so the smallest head is found with a linear scan rather than a heap.
+ */
+class AsyncSortLightRecordCursor implements RecordCursor {
+
+    private static final Log LOG = LogFactory.getLog(AsyncSortLightRecordCursor.class);
+    private static final String exceptionMessage = "timeout, query aborted";
+    private final ObjList<LongTreeChain.TreeCursor> chainCursors = new ObjList<>();
+    // Row id at the head of each run, -1 once the run is exhausted.
+    private final LongList heads = new LongList();
+    private final PageAddressCacheRecord leftRecord = new PageAddressCacheRecord();
+    private final PageAddressCacheRecord record = new PageAddressCacheRecord();
+    private final PageAddressCacheRecord rightRecord = new PageAddressCacheRecord();
+    private SqlExecutionCircuitBreaker circuitBreaker;
+    private RecordComparator comparator;
+    private long cursor = -1;
+    private PageFrameSequence<AsyncSortLightAtom> frameSequence;
+    private boolean isOpen;
+    private PageAddressCacheRecord recordB;
+
+    @Override
+    public void close() {
+        if (isOpen) {
+            isOpen = false;
+            if (frameSequence != null) {
+                LOG.debug()
+                        .$("closing [shard=").$(frameSequence.getShard())
+                        .$(", frameCount=").$(frameSequence.getFrameCount())
+                        .$(", frameId=").$(frameSequence.getId())
+                        .I$();
+                collectCursor(true);
+                if (frameSequence.getFrameCount() > 0) {
+                    frameSequence.await();
+                }
+                frameSequence.clear();
+                frameSequence.getAtom().clear();
+            }
+            chainCursors.clear();
+            heads.clear();
+            Misc.free(record);
+            Misc.free(recordB);
+            Misc.free(leftRecord);
+            Misc.free(rightRecord);
+        }
+    }
+
+    @Override
+    public Record getRecord() {
+        return record;
+    }
+
+    @Override
+    public Record getRecordB() {
+        if (recordB != null) {
+            return recordB;
+        }
+        recordB = new PageAddressCacheRecord(record);
+        return recordB;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable(int columnIndex) {
+        return frameSequence.getSymbolTableSource().getSymbolTable(columnIndex);
+    }
+
+    @Override
+    public boolean hasNext() {
+        final int runCount = heads.size();
+        int best = -1;
+        long bestRowId = -1;
+        for (int i = 0; i < runCount; i++) {
+            final long rowId = heads.getQuick(i);
+            if (rowId == -1) {
+                continue;
+            }
+            if (best == -1) {
+                best = i;
+                bestRowId = rowId;
+                position(leftRecord, rowId);
+                comparator.setLeft(leftRecord);
+                continue;
+            }
+            position(rightRecord, rowId);
+            final int cmp = comparator.compare(rightRecord);
+            // Runs order equal rows by descending row id, so does the merge.
+            if (cmp > 0 || (cmp == 0 && rowId > bestRowId)) {
+                best = i;
+                bestRowId = rowId;
+                position(leftRecord, rowId);
+                comparator.setLeft(leftRecord);
+            }
+        }
+
+        if (best == -1) {
+            return false;
+        }
+        position(record, bestRowId);
+        final LongTreeChain.TreeCursor chainCursor = chainCursors.getQuick(best);
+        heads.setQuick(best, chainCursor.hasNext() ? chainCursor.next() : -1);
+        return true;
+    }
+
+    @Override
+    public SymbolTable newSymbolTable(int columnIndex) {
+        return frameSequence.getSymbolTableSource().newSymbolTable(columnIndex);
+    }
+
+    @Override
+    public void recordAt(Record record, long atRowId) {
+        position((PageAddressCacheRecord) record, atRowId);
+    }
+
+    @Override
+    public long size() {
+        // Same as the serial sort, the size is reported only when the rows are not filtered.
+        final AsyncSortLightAtom atom = frameSequence.getAtom();
+        return atom.getFilterAtom() != null ? -1 : atom.getRowCount();
+    }
+
+    @Override
+    public void toTop() {
+        for (int i = 0, n = chainCursors.size(); i < n; i++) {
+            final LongTreeChain.TreeCursor chainCursor = chainCursors.getQuick(i);
+            chainCursor.toTop();
+            heads.setQuick(i, chainCursor.hasNext() ? chainCursor.next() : -1);
+        }
+    }
+
+    private static void position(PageAddressCacheRecord record, long rowId) {
+        record.setFrameIndex(Rows.toPartitionIndex(rowId));
+        record.setRowIndex(Rows.toLocalRowID(rowId));
+    }
+
+    private void addRun(LongTreeChain chain) {
+        final LongTreeChain.TreeCursor chainCursor = chain.getCursor();
+        if (chainCursor.hasNext()) {
+            chainCursors.add(chainCursor);
+            heads.add(chainCursor.next());
+        }
+    }
+
+    private void collectCursor(boolean forceCollect) {
+        if (cursor > -1) {
+            frameSequence.collect(cursor, forceCollect);
+            // It is necessary to clear 'cursor' value
+            // because we updated frameIndex and loop can exit due to lack of frames.
+            // Non-update of 'cursor' could cause double-free.
+            cursor = -1;
+        }
+    }
+
+    private void sortFrames() {
+        final int frameCount = frameSequence.getFrameCount();
+        boolean allFramesActive = true;
+        try {
+            int frameIndex = -1;
+            while (frameIndex < frameCount - 1) {
+                cursor = frameSequence.next();
+                if (cursor > -1) {
+                    final PageFrameReduceTask task = frameSequence.getTask(cursor);
+                    LOG.debug()
+                            .$("collected [shard=").$(frameSequence.getShard())
+                            .$(", frameIndex=").$(task.getFrameIndex())
+                            .$(", frameCount=").$(frameCount)
+                            .$(", frameId=").$(frameSequence.getId())
+                            .$(", active=").$(frameSequence.isActive())
+                            .$(", cursor=").$(cursor)
+                            .I$();
+                    allFramesActive &= frameSequence.isActive();
+                    frameIndex = task.getFrameIndex();
+                    collectCursor(false);
+                    // Workers use their own circuit breakers, so the owner checks the query's one.
+                    if (circuitBreaker.checkIfTripped()) {
+                        frameSequence.cancel();
+                        allFramesActive = false;
+                    }
+                } else {
+                    Os.pause();
+                }
+            }
+        } catch (Throwable e) {
+            LOG.critical().$("unexpected error [ex=").$(e).I$();
+            throw CairoException.nonCritical().put(exceptionMessage).setInterruption(true);
+        }
+
+        if (!allFramesActive) {
+            throw CairoException.nonCritical().put(exceptionMessage).setInterruption(true);
+        }
+
+        final AsyncSortLightAtom atom = frameSequence.getAtom();
+        addRun(atom.getChain(-1));
+        for (int i = 0, n = atom.getWorkerCount(); i < n; i++) {
+            addRun(atom.getChain(i));
+        }
+    }
+
+    void of(PageFrameSequence<AsyncSortLightAtom> frameSequence, SqlExecutionContext executionContext) throws SqlException {
+        this.frameSequence = frameSequence;
+        this.circuitBreaker = executionContext.getCircuitBreaker();
+        this.comparator = frameSequence.getAtom().getComparator(-1);
+        this.isOpen = true;
+        final SymbolTableSource symbolTableSource = frameSequence.getSymbolTableSource();
+        final PageAddressCache pageAddressCache = frameSequence.getPageAddressCache();
+        record.of(symbolTableSource, pageAddressCache);
+        leftRecord.of(symbolTableSource, pageAddressCache);
+        rightRecord.of(symbolTableSource, pageAddressCache);
+        if (recordB != null) {
+            recordB.of(symbolTableSource, pageAddressCache);
+        }
+        sortFrames();
+    }
+}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ListColumnFilter;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameReducer;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.RecordComparator;
+import io.questdb.griffin.engine.orderby.LongTreeChain;
+import io.questdb.griffin.engine.orderby.SortedLightRecordCursorFactory;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.Misc;
+import io.questdb.std.Transient;
+import io.questdb.std.WeakClosableObjectPool;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ANY;
+
+/**
+ * ORDER BY that sorts page frames in parallel on the shared worker pool. Each thread sorts
+ * row ids of the frames it reduces into its own tree, the trees are merged when the result
+ * is read. Like {@link SortedLightRecordCursorFactory}, only row ids are copied, rows are
+ * read from the page frames.
+ * <p>
+ * When the query has a WHERE clause, the filter is applied in the same pass, right
+ * before the rows of each page frame are sorted.
+ */
+public class AsyncSortLightRecordCursorFactory extends AbstractRecordCursorFactory {
+
+    private static final PageFrameReducer REDUCER = AsyncSortLightRecordCursorFactory::sort;
+
+    private final RecordCursorFactory base;
+    private final SCSequence collectSubSeq = new SCSequence();
+    private final AsyncSortLightRecordCursor cursor;
+    private final PageFrameSequence<AsyncSortLightAtom> frameSequence;
+    private final ListColumnFilter sortColumnFilter;
+    private final int workerCount;
+    private AsyncSortLightAtom atom;
+
+    public AsyncSortLightRecordCursorFactory(
+            @NotNull CairoConfiguration configuration,
+            @NotNull MessageBus messageBus,
+            @NotNull RecordMetadata metadata,
+            @NotNull RecordCursorFactory base,
+            @NotNull Class<RecordComparator> comparatorClass,
+            @NotNull ListColumnFilter sortColumnFilter,
+            @Nullable AsyncFilterAtom filterAtom,
+            @NotNull @Transient WeakClosableObjectPool<PageFrameReduceTask> localTaskPool,
+            int workerCount
+    ) {
+        super(metadata);
+        try {
+            this.base = base;
+            this.sortColumnFilter = sortColumnFilter;
+            this.atom = new AsyncSortLightAtom(configuration, comparatorClass, filterAtom, workerCount);
+            this.frameSequence = new PageFrameSequence<>(configuration, messageBus, REDUCER, localTaskPool);
+            this.cursor = new AsyncSortLightRecordCursor();
+            this.workerCount = workerCount;
+        } catch (Throwable e) {
+            if (atom != null) {
+                Misc.free(atom);
+            } else {
+                // The atom takes over the ownership of the filter, but it wasn't created.
+                Misc.free(filterAtom);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public PageFrameSequence<AsyncSortLightAtom> execute(SqlExecutionContext executionContext, SCSequence collectSubSeq, int order) throws SqlException {
+        return frameSequence.of(base, executionContext, collectSubSeq, atom, ORDER_ANY);
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        final PageFrameSequence<AsyncSortLightAtom> frameSequence = execute(executionContext, collectSubSeq, ORDER_ANY);
+        try {
+            cursor.of(frameSequence, executionContext);
+            return cursor;
+        } catch (Throwable e) {
+            cursor.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return true;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type(usesCompiledFilter() ? "Async JIT Sort light" : "Async Sort light");
+        SortedLightRecordCursorFactory.addSortKeys(sink, sortColumnFilter);
+        sink.optAttr("filter", atom.getFilterAtom(), true);
+        sink.attr("workers").val(workerCount);
+        sink.child(base);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        final AsyncFilterAtom filterAtom = atom.getFilterAtom();
+        return filterAtom != null && filterAtom.usesCompiledFilter();
+    }
+
+    private static void sort(
+            int workerId,
+            @NotNull PageAddressCacheRecord record,
+            @NotNull PageFrameReduceTask task,
+            @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+            @Nullable PageFrameSequence<?> stealingFrameSequence
+    ) {
+        final PageFrameSequence<AsyncSortLightAtom> frameSequence = task.getFrameSequence(AsyncSortLightAtom.class);
+        final AsyncSortLightAtom atom = frameSequence.getAtom();
+        final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
+
+        final AsyncFilterAtom filterAtom = atom.getFilterAtom();
+        final DirectLongList rows = task.getRows();
+        final long rowCount;
+        if (filterAtom != null) {
+            filterAtom.filter(workerId, record, task, circuitBreaker, owner);
+            rowCount = rows.size();
+        } else {
+            rowCount = task.getFrameRowCount();
+        }
+
+        if (rowCount == 0) {
+            return;
+        }
+
+        final int slotId = atom.acquire(workerId, owner, circuitBreaker);
+        try {
+            final LongTreeChain chain = atom.getChain(slotId);
+            final RecordComparator comparator = atom.getComparator(slotId);
+            final PageAddressCacheRecord recordB = atom.getRecordB(slotId);
+            recordB.of(frameSequence.getSymbolTableSource(), frameSequence.getPageAddressCache());
+            if (filterAtom != null) {
+                for (long p = 0; p < rowCount; p++) {
+                    record.setRowIndex(rows.get(p));
+                    chain.put(record, recordB, comparator);
+                }
+            } else {
+                for (long p = 0; p < rowCount; p++) {
+                    record.setRowIndex(p);
+                    chain.put(record, recordB, comparator);
+                }
+            }
+            atom.incrementRowCount(slotId, rowCount);
+        } finally {
+            atom.release(slotId);
+        }
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(cursor);
+        Misc.free(base);
+        Misc.free(atom);
+        Misc.free(frameSequence);
+    }
+}
@@ -0,0 +1,252 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.StatefulAtom;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.orderby.LongTopKHeap;
+import io.questdb.std.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Holds the state of a parallel ORDER BY ... LIMIT on a single primitive column. Each worker
+ * thread keeps the first or the last N rows of the page frames it reduces in its own heap,
+ * while the query owner thread uses the owner heap. The heaps are merged into the owner heap
+ * once all frames are reduced.
+ * <p>
+ * Sort key values are mapped to longs that sort in the same order, so the heaps compare
+ * plain longs rather than calling a record comparator.
+ */
+public class AsyncTopKAtom implements StatefulAtom, Closeable {
+
+    private final AsyncFilterAtom filterAtom;
+    private final boolean keyAscending;
+    private final int keyColumnIndex;
+    private final int keyColumnType;
+    private final LongTopKHeap ownerHeap;
+    private final ObjList<LongTopKHeap> perWorkerHeaps;
+    private final AtomicIntegerArray perWorkerLocks;
+    // Used to randomize acquire attempts for work stealing threads. Accessed in a racy way, intentionally.
+    private final Rnd rnd;
+    private boolean isFirstN;
+    private long limit;
+
+    public AsyncTopKAtom(
+            @NotNull CairoConfiguration configuration,
+            int keyColumnIndex,
+            int keyColumnType,
+            boolean keyAscending,
+            @Nullable AsyncFilterAtom filterAtom,
+            int workerCount
+    ) {
+        assert workerCount > 0;
+        assert isKeyTypeSupported(keyColumnType);
+        this.rnd = new Rnd(
+                configuration.getNanosecondClock().getTicks(),
+                configuration.getMicrosecondClock().getTicks()
+        );
+        this.keyColumnIndex = keyColumnIndex;
+        this.keyColumnType = keyColumnType;
+        this.keyAscending = keyAscending;
+        this.filterAtom = filterAtom;
+        this.perWorkerLocks = new AtomicIntegerArray(workerCount);
+        this.perWorkerHeaps = new ObjList<>(workerCount);
+        final long initialCapacity = configuration.getSqlSortLightValuePageSize() / (2 * Long.BYTES);
+        try {
+            this.ownerHeap = new LongTopKHeap(initialCapacity);
+            for (int i = 0; i < workerCount; i++) {
+                perWorkerHeaps.extendAndSet(i, new LongTopKHeap(initialCapacity));
+            }
+            // Heaps are reopened in init(), so an idle atom holds no native memory.
+            clear();
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    public static boolean isKeyTypeSupported(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+            case ColumnType.DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public int acquire(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
+        if (workerId == -1 && owner) {
+            // Owner thread is free to use the owner heap anytime.
+            return -1;
+        }
+        final int size = perWorkerHeaps.size();
+        workerId = workerId == -1 ? rnd.nextInt(size) : workerId;
+        while (true) {
+            for (int i = 0; i < size; i++) {
+                int id = (i + workerId) % size;
+                if (perWorkerLocks.compareAndSet(id, 0, 1)) {
+                    return id;
+                }
+            }
+            circuitBreaker.statefulThrowExceptionIfTripped();
+            Os.pause();
+        }
+    }
+
+    /**
+     * Releases memory held by the owner and worker heaps.
+     */
+    public void clear() {
+        Misc.free(ownerHeap);
+        Misc.freeObjListAndKeepObjects(perWorkerHeaps);
+    }
+
+    @Override
+    public void close() {
+        clear();
+        Misc.free(filterAtom);
+    }
+
+    public @Nullable AsyncFilterAtom getFilterAtom() {
+        return filterAtom;
+    }
+
+    /**
+     * Returns heap of the given slot. Slot -1 stands for the owner heap, worker heaps
+     * use slots starting from 0.
+     *
+     * @param slotId slot id returned by {@link #acquire(int, boolean, SqlExecutionCircuitBreaker)}
+     * @return heap holding the rows kept by the slot
+     */
+    public LongTopKHeap getHeap(int slotId) {
+        return slotId == -1 ? ownerHeap : perWorkerHeaps.getQuick(slotId);
+    }
+
+    /**
+     * Reads sort key of the current row and maps it to a long, such that ascending order of
+     * the longs is the order of the rows. Nulls come first, same as in the record comparators.
+     *
+     * @param record record positioned at the row
+     * @return sort key
+     */
+    public long getKey(Record record) {
+        long key;
+        switch (ColumnType.tagOf(keyColumnType)) {
+            case ColumnType.INT:
+                key = record.getInt(keyColumnIndex);
+                break;
+            case ColumnType.LONG:
+                key = record.getLong(keyColumnIndex);
+                break;
+            case ColumnType.DATE:
+                key = record.getDate(keyColumnIndex);
+                break;
+            case ColumnType.TIMESTAMP:
+                key = record.getTimestamp(keyColumnIndex);
+                break;
+            default:
+                key = toSortableLong(record.getDouble(keyColumnIndex));
+                break;
+        }
+        return keyAscending ? key : ~key;
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        if (filterAtom != null) {
+            filterAtom.init(symbolTableSource, executionContext);
+        }
+        ownerHeap.reopen();
+        ownerHeap.of(limit, isFirstN);
+        for (int i = 0, n = perWorkerHeaps.size(); i < n; i++) {
+            final LongTopKHeap heap = perWorkerHeaps.getQuick(i);
+            heap.reopen();
+            heap.of(limit, isFirstN);
+        }
+    }
+
+    /**
+     * Merges worker heaps into the owner heap. Must be called by the query owner thread
+     * once all page frames are reduced.
+     *
+     * @return the owner heap
+     */
+    public LongTopKHeap mergeHeaps() {
+        for (int i = 0, n = perWorkerHeaps.size(); i < n; i++) {
+            ownerHeap.putAll(perWorkerHeaps.getQuick(i));
+        }
+        return ownerHeap;
+    }
+
+    /**
+     * Sets what rows the heaps should keep. Takes effect on the next {@link #init(SymbolTableSource, SqlExecutionContext)}.
+     *
+     * @param limit    number of rows to keep, -1 to keep all rows
+     * @param isFirstN true to keep the first rows of the sort order, false to keep the last ones
+     */
+    public void of(long limit, boolean isFirstN) {
+        this.limit = limit;
+        this.isFirstN = isFirstN;
+    }
+
+    public void release(int slotId) {
+        if (slotId == -1) {
+            return;
+        }
+        perWorkerLocks.set(slotId, 0);
+    }
+
+    // Orders doubles the same way as Numbers.compare(double, double): NaN (null) first,
+    // then -Infinity to +Infinity, with 0.0 ahead of -0.0.
+    private static long toSortableLong(double value) {
+        if (value != value) {
+            return Long.MIN_VALUE;
+        }
+        final long bits = Double.doubleToLongBits(value);
+        if (bits == 0) {
+            // 0.0
+            return -1;
+        }
+        if (bits == Long.MIN_VALUE) {
+            // -0.0
+            return 0;
+        }
+        return bits < 0 ? bits ^ Long.MAX_VALUE : bits;
+    }
+}
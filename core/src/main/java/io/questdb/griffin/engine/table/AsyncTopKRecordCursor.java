@@ -0,0 +1,209 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.orderby.LongTopKHeap;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Misc;
+import io.questdb.std.Os;
+import io.questdb.std.Rows;
+
+/**
+ * Merges the heaps built by the owner and worker threads and returns the kept rows in
+ * sort order, skipping rows the same way as {@link io.questdb.griffin.engine.orderby.LimitedSizeSortedLightRecordCursor}.
+ */
+class AsyncTopKRecordCursor implements RecordCursor {
+
+    private static final Log LOG = LogFactory.getLog(AsyncTopKRecordCursor.class);
+    private static final String exceptionMessage = "timeout, query aborted";
+    private final PageAddressCacheRecord record = new PageAddressCacheRecord();
+    private SqlExecutionCircuitBreaker circuitBreaker;
+    private long cursor = -1;
+    private PageFrameSequence<AsyncTopKAtom> frameSequence;
+    private LongTopKHeap heap;
+    private boolean isOpen;
+    private long next;
+    private PageAddressCacheRecord recordB;
+    private long rowsLeft;
+    private long skipFirst;
+    private long skipLast;
+
+    @Override
+    public void close() {
+        if (isOpen) {
+            isOpen = false;
+            heap = null;
+            if (frameSequence != null) {
+                LOG.debug()
+                        .$("closing [shard=").$(frameSequence.getShard())
+                        .$(", frameCount=").$(frameSequence.getFrameCount())
+                        .$(", frameId=").$(frameSequence.getId())
+                        .I$();
+                collectCursor(true);
+                if (frameSequence.getFrameCount() > 0) {
+                    frameSequence.await();
+                }
+                frameSequence.clear();
+                frameSequence.getAtom().clear();
+            }
+            Misc.free(record);
+            Misc.free(recordB);
+        }
+    }
+
+    @Override
+    public Record getRecord() {
+        return record;
+    }
+
+    @Override
+    public Record getRecordB() {
+        if (recordB != null) {
+            return recordB;
+        }
+        recordB = new PageAddressCacheRecord(record);
+        return recordB;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable(int columnIndex) {
+        return frameSequence.getSymbolTableSource().getSymbolTable(columnIndex);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (rowsLeft-- > 0) {
+            position(record, heap.getRowId(next++));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public SymbolTable newSymbolTable(int columnIndex) {
+        return frameSequence.getSymbolTableSource().newSymbolTable(columnIndex);
+    }
+
+    @Override
+    public void recordAt(Record record, long atRowId) {
+        position((PageAddressCacheRecord) record, atRowId);
+    }
+
+    @Override
+    public long size() {
+        return Math.max(heap.size() - skipFirst - skipLast, 0);
+    }
+
+    @Override
+    public void toTop() {
+        next = skipFirst;
+        rowsLeft = size();
+    }
+
+    private static void position(PageAddressCacheRecord record, long rowId) {
+        record.setFrameIndex(Rows.toPartitionIndex(rowId));
+        record.setRowIndex(Rows.toLocalRowID(rowId));
+    }
+
+    private void collectCursor(boolean forceCollect) {
+        if (cursor > -1) {
+            frameSequence.collect(cursor, forceCollect);
+            // It is necessary to clear 'cursor' value
+            // because we updated frameIndex and loop can exit due to lack of frames.
+            // Non-update of 'cursor' could cause double-free.
+            cursor = -1;
+        }
+    }
+
+    private void reduceFrames() {
+        final int frameCount = frameSequence.getFrameCount();
+        boolean allFramesActive = true;
+        try {
+            int frameIndex = -1;
+            while (frameIndex < frameCount - 1) {
+                cursor = frameSequence.next();
+                if (cursor > -1) {
+                    final PageFrameReduceTask task = frameSequence.getTask(cursor);
+                    LOG.debug()
+                            .$("collected [shard=").$(frameSequence.getShard())
+                            .$(", frameIndex=").$(task.getFrameIndex())
+                            .$(", frameCount=").$(frameCount)
+                            .$(", frameId=").$(frameSequence.getId())
+                            .$(", active=").$(frameSequence.isActive())
+                            .$(", cursor=").$(cursor)
+                            .I$();
+                    allFramesActive &= frameSequence.isActive();
+                    frameIndex = task.getFrameIndex();
+                    collectCursor(false);
+                    // Workers use their own circuit breakers, so the owner checks the query's one.
+                    if (circuitBreaker.checkIfTripped()) {
+                        frameSequence.cancel();
+                        allFramesActive = false;
+                    }
+                } else {
+                    Os.pause();
+                }
+            }
+        } catch (Throwable e) {
+            LOG.critical().$("unexpected error [ex=").$(e).I$();
+            throw CairoException.nonCritical().put(exceptionMessage).setInterruption(true);
+        }
+
+        if (!allFramesActive) {
+            throw CairoException.nonCritical().put(exceptionMessage).setInterruption(true);
+        }
+
+        heap = frameSequence.getAtom().mergeHeaps();
+        heap.sort();
+    }
+
+    void of(
+            PageFrameSequence<AsyncTopKAtom> frameSequence,
+            SqlExecutionContext executionContext,
+            long skipFirst,
+            long skipLast
+    ) throws SqlException {
+        this.frameSequence = frameSequence;
+        this.circuitBreaker = executionContext.getCircuitBreaker();
+        this.skipFirst = skipFirst;
+        this.skipLast = skipLast;
+        this.isOpen = true;
+        final SymbolTableSource symbolTableSource = frameSequence.getSymbolTableSource();
+        record.of(symbolTableSource, frameSequence.getPageAddressCache());
+        if (recordB != null) {
+            recordB.of(symbolTableSource, frameSequence.getPageAddressCache());
+        }
+        reduceFrames();
+        toTop();
+    }
+}
@@ -0,0 +1,279 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ListColumnFilter;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameReducer;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.orderby.LimitedSizeSortedLightRecordCursorFactory;
+import io.questdb.griffin.engine.orderby.LongTopKHeap;
+import io.questdb.griffin.engine.orderby.SortedLightRecordCursorFactory;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.Misc;
+import io.questdb.std.Rows;
+import io.questdb.std.Transient;
+import io.questdb.std.WeakClosableObjectPool;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ANY;
+
+/**
+ * ORDER BY ... LIMIT on a single INT, LONG, DATE, TIMESTAMP or DOUBLE column, computed on the
+ * shared worker pool. Each thread keeps the first or the last N rows of the page frames it
+ * reduces in an off-heap binary heap of (sort key, row id) pairs, the heaps are merged once
+ * all frames are reduced. Returns the same rows in the same order as
+ * {@link LimitedSizeSortedLightRecordCursorFactory}.
+ * <p>
+ * When the query has a WHERE clause, the filter is applied in the same pass, right
+ * before the rows of each page frame are put to the heap.
+ */
+public class AsyncTopKRecordCursorFactory extends AbstractRecordCursorFactory {
+
+    private static final PageFrameReducer REDUCER = AsyncTopKRecordCursorFactory::topK;
+
+    private final AsyncTopKAtom atom;
+    private final RecordCursorFactory base;
+    private final SCSequence collectSubSeq = new SCSequence();
+    private final AsyncTopKRecordCursor cursor;
+    private final PageFrameSequence<AsyncTopKAtom> frameSequence;
+    private final Function hiFunction;
+    private final Function loFunction;
+    private final ListColumnFilter sortColumnFilter;
+    private final int workerCount;
+
+    public AsyncTopKRecordCursorFactory(
+            @NotNull CairoConfiguration configuration,
+            @NotNull MessageBus messageBus,
+            @NotNull RecordMetadata metadata,
+            @NotNull RecordCursorFactory base,
+            @NotNull ListColumnFilter sortColumnFilter,
+            @NotNull Function loFunction,
+            @Nullable Function hiFunction,
+            @Nullable AsyncFilterAtom filterAtom,
+            @NotNull @Transient WeakClosableObjectPool<PageFrameReduceTask> localTaskPool,
+            int workerCount
+    ) {
+        super(metadata);
+        AsyncTopKAtom atom = null;
+        try {
+            this.base = base;
+            this.sortColumnFilter = sortColumnFilter;
+            this.loFunction = loFunction;
+            this.hiFunction = hiFunction;
+            // column index sign indicates direction
+            final int index = sortColumnFilter.getColumnIndex(0);
+            final int keyColumnIndex = (index > 0 ? index : -index) - 1;
+            atom = new AsyncTopKAtom(
+                    configuration,
+                    keyColumnIndex,
+                    base.getMetadata().getColumnType(keyColumnIndex),
+                    index > 0,
+                    filterAtom,
+                    workerCount
+            );
+            this.atom = atom;
+            this.frameSequence = new PageFrameSequence<>(configuration, messageBus, REDUCER, localTaskPool);
+            this.cursor = new AsyncTopKRecordCursor();
+            this.workerCount = workerCount;
+        } catch (Throwable e) {
+            if (atom != null) {
+                Misc.free(atom);
+            } else {
+                // The atom takes over the ownership of the filter, but it wasn't created.
+                Misc.free(filterAtom);
+            }
+            Misc.free(loFunction);
+            Misc.free(hiFunction);
+            throw e;
+        }
+    }
+
+    @Override
+    public PageFrameSequence<AsyncTopKAtom> execute(SqlExecutionContext executionContext, SCSequence collectSubSeq, int order) throws SqlException {
+        return frameSequence.of(base, executionContext, collectSubSeq, atom, ORDER_ANY);
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
+    /*
+     * lo and hi are interpreted the same way as in LimitedSizeSortedLightRecordCursorFactory. When lo >= 0
+     * and hi < 0 the result spans up to the H-th row from the end, so all rows are kept and skipped later.
+     */
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        loFunction.init(null, executionContext);
+        if (hiFunction != null) {
+            hiFunction.init(null, executionContext);
+        }
+
+        long skipFirst = 0, skipLast = 0, limit;
+        boolean isFirstN = false;
+
+        final long lo = loFunction.getLong(null);
+        if (hiFunction == null) {
+            if (lo < 0) {
+                // last N rows
+                limit = -lo;
+            } else {
+                // first N rows
+                isFirstN = true;
+                limit = lo;
+            }
+        } else {
+            final long hi = hiFunction.getLong(null);
+            if (lo < 0) {
+                // e.g. -10,-5 is five rows away from the tail, -3,-10 is an empty result
+                limit = lo < hi ? -lo : 0;
+                skipLast = Math.max(-hi, 0);
+            } else if (hi < 0) {
+                limit = -1;
+                skipFirst = lo;
+                skipLast = -hi;
+            } else if (hi <= lo) {
+                limit = 0;
+            } else {
+                isFirstN = true;
+                limit = hi;
+                skipFirst = lo;
+            }
+        }
+        atom.of(limit, isFirstN);
+
+        final boolean preTouchEnabled = executionContext.isColumnPreTouchEnabled();
+        // Same as LimitedSizeSortedLightRecordCursorFactory, disable column pre-touch
+        // for LIMIT K,N queries to avoid redundant disk reads.
+        executionContext.setColumnPreTouchEnabled(preTouchEnabled && hiFunction == null);
+        try {
+            final PageFrameSequence<AsyncTopKAtom> frameSequence = execute(executionContext, collectSubSeq, ORDER_ANY);
+            try {
+                cursor.of(frameSequence, executionContext, skipFirst, skipLast);
+                return cursor;
+            } catch (Throwable e) {
+                cursor.close();
+                throw e;
+            }
+        } finally {
+            executionContext.setColumnPreTouchEnabled(preTouchEnabled);
+        }
+    }
+
+    @Override
+    public boolean implementsLimit() {
+        return true;
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return true;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type(usesCompiledFilter() ? "Async JIT Top K" : "Async Top K");
+        sink.meta("lo").val(loFunction);
+        if (hiFunction != null) {
+            sink.meta("hi").val(hiFunction);
+        }
+        SortedLightRecordCursorFactory.addSortKeys(sink, sortColumnFilter);
+        sink.optAttr("filter", atom.getFilterAtom(), true);
+        sink.attr("workers").val(workerCount);
+        sink.child(base);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        final AsyncFilterAtom filterAtom = atom.getFilterAtom();
+        return filterAtom != null && filterAtom.usesCompiledFilter();
+    }
+
+    private static void topK(
+            int workerId,
+            @NotNull PageAddressCacheRecord record,
+            @NotNull PageFrameReduceTask task,
+            @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+            @Nullable PageFrameSequence<?> stealingFrameSequence
+    ) {
+        final PageFrameSequence<AsyncTopKAtom> frameSequence = task.getFrameSequence(AsyncTopKAtom.class);
+        final AsyncTopKAtom atom = frameSequence.getAtom();
+        final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
+
+        final AsyncFilterAtom filterAtom = atom.getFilterAtom();
+        final DirectLongList rows = task.getRows();
+        final long rowCount;
+        if (filterAtom != null) {
+            filterAtom.filter(workerId, record, task, circuitBreaker, owner);
+            rowCount = rows.size();
+        } else {
+            rowCount = task.getFrameRowCount();
+        }
+
+        if (rowCount == 0) {
+            return;
+        }
+
+        final int frameIndex = task.getFrameIndex();
+        final int slotId = atom.acquire(workerId, owner, circuitBreaker);
+        try {
+            final LongTopKHeap heap = atom.getHeap(slotId);
+            if (filterAtom != null) {
+                for (long p = 0; p < rowCount; p++) {
+                    final long r = rows.get(p);
+                    record.setRowIndex(r);
+                    heap.put(atom.getKey(record), Rows.toRowID(frameIndex, r));
+                }
+            } else {
+                for (long r = 0; r < rowCount; r++) {
+                    record.setRowIndex(r);
+                    heap.put(atom.getKey(record), Rows.toRowID(frameIndex, r));
+                }
+            }
+        } finally {
+            atom.release(slotId);
+        }
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(cursor);
+        Misc.free(base);
+        Misc.free(atom);
+        Misc.free(frameSequence);
+        Misc.free(loFunction);
+        Misc.free(hiFunction);
+    }
+}
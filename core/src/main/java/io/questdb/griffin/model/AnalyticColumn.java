@@ -27,16 +27,38 @@ package io.questdb.griffin.model;
 import io.questdb.std.IntList;
 import io.questdb.std.ObjList;
 import io.questdb.std.ObjectFactory;
+import io.questdb.std.str.CharSink;
 
 public final class AnalyticColumn extends QueryColumn {
     public final static ObjectFactory<AnalyticColumn> FACTORY = AnalyticColumn::new;
+    public static final int FRAMING_RANGE = 1;
+    public static final int FRAMING_ROWS = 0;
+    // frame bounds are offsets relative to the current row, these two stand for UNBOUNDED PRECEDING and UNBOUNDED FOLLOWING
+    public static final long UNBOUNDED_FOLLOWING = Long.MAX_VALUE;
+    public static final long UNBOUNDED_PRECEDING = Long.MIN_VALUE;
     private final ObjList<ExpressionNode> orderBy = new ObjList<>(2);
     private final IntList orderByDirection = new IntList(2);
     private final ObjList<ExpressionNode> partitionBy = new ObjList<>(2);
+    private int framingMode = FRAMING_RANGE;
+    private long rowsHi = UNBOUNDED_FOLLOWING;
+    private long rowsLo = UNBOUNDED_PRECEDING;
+    private int rowsLoPos;
 
     private AnalyticColumn() {
     }
 
+    public static void frameToSink(CharSink sink, int framingMode, long rowsLo, long rowsHi) {
+        sink.put(framingMode == FRAMING_ROWS ? "rows between " : "range between ");
+        if (rowsLo == UNBOUNDED_PRECEDING) {
+            sink.put("unbounded preceding");
+        } else if (rowsLo == 0) {
+            sink.put("current row");
+        } else {
+            sink.put(-rowsLo).put(" preceding");
+        }
+        sink.put(rowsHi == UNBOUNDED_FOLLOWING ? " and unbounded following" : " and current row");
+    }
+
     public void addOrderBy(ExpressionNode node, int direction) {
         orderBy.add(node);
         orderByDirection.add(direction);
@@ -48,6 +70,14 @@ public final class AnalyticColumn extends QueryColumn {
         partitionBy.clear();
         orderBy.clear();
         orderByDirection.clear();
+        framingMode = FRAMING_RANGE;
+        rowsLo = UNBOUNDED_PRECEDING;
+        rowsHi = UNBOUNDED_FOLLOWING;
+        rowsLoPos = 0;
+    }
+
+    public int getFramingMode() {
+        return framingMode;
     }
 
     public ObjList<ExpressionNode> getOrderBy() {
@@ -62,8 +92,37 @@ public final class AnalyticColumn extends QueryColumn {
         return partitionBy;
     }
 
+    public long getRowsHi() {
+        return rowsHi;
+    }
+
+    public long getRowsLo() {
+        return rowsLo;
+    }
+
+    public int getRowsLoPos() {
+        return rowsLoPos;
+    }
+
+    public boolean isDefaultFrame() {
+        return framingMode == FRAMING_RANGE
+                && rowsLo == UNBOUNDED_PRECEDING
+                && rowsHi == (orderBy.size() > 0 ? 0 : UNBOUNDED_FOLLOWING);
+    }
+
+    public boolean isWholePartition() {
+        return rowsLo == UNBOUNDED_PRECEDING && rowsHi == UNBOUNDED_FOLLOWING;
+    }
+
     @Override
     public AnalyticColumn of(CharSequence alias, ExpressionNode ast) {
         return (AnalyticColumn) super.of(alias, ast);
     }
+
+    public void setFrame(int framingMode, long rowsLo, int rowsLoPos, long rowsHi) {
+        this.framingMode = framingMode;
+        this.rowsLo = rowsLo;
+        this.rowsLoPos = rowsLoPos;
+        this.rowsHi = rowsHi;
+    }
 }
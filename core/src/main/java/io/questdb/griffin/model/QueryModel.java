@@ -1229,6 +1229,13 @@ public class QueryModel implements Mutable, ExecutionModel, AliasTranslator, Sin
                             }
                         }
                     }
+
+                    if (!ac.isDefaultFrame()) {
+                        if (partitionBy.size() > 0 || orderBy.size() > 0) {
+                            sink.put(' ');
+                        }
+                        AnalyticColumn.frameToSink(sink, ac.getFramingMode(), ac.getRowsLo(), ac.getRowsHi());
+                    }
                     sink.put(')');
                 }
             } else {
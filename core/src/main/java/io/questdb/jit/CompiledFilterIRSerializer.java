@@ -31,8 +31,7 @@ import io.questdb.griffin.*;
 import io.questdb.griffin.engine.functions.bind.CompiledFilterSymbolBindVariable;
 import io.questdb.griffin.engine.functions.bind.IndexedParameterLinkFunction;
 import io.questdb.griffin.engine.functions.bind.NamedParameterLinkFunction;
-import io.questdb.griffin.engine.functions.constants.ConstantFunction;
-import io.questdb.griffin.engine.functions.constants.SymbolConstant;
+import io.questdb.griffin.engine.functions.constants.*;
 import io.questdb.griffin.model.ExpressionNode;
 import io.questdb.std.*;
 
@@ -60,8 +59,10 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
     static final int GT = 12;  // a >  b
     // Options:
     // Data types
+    static final int I16_TYPE = 6; // UUID, LONG128
     static final int I1_TYPE = 0;
     static final int I2_TYPE = 1;
+    static final int I32_TYPE = 7; // LONG256
     static final int I4_TYPE = 2;
     static final int I8_TYPE = 4;
     // Constants
@@ -79,6 +80,8 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
     // Opcodes:
     // Return code. Breaks the loop
     static final int RET = 0; // ret
+    static final int STARTS_WITH = 19; // a starts with b
+    static final int STR_TYPE = 8; // STRING, read through the column's offset page
     static final int SUB = 15;  // a - b
     // Stub value for opcodes and options
     static final int UNDEFINED_CODE = -1;
@@ -86,6 +89,11 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
     static final int VAR = 3;
     // contains <memory_offset, constant_node> pairs for backfilling purposes
     private final LongObjHashMap<ExpressionNode> backfillNodes = new LongObjHashMap<>();
+    // UUID, LONG128, LONG256 and STRING operands are understood only by recent native libraries
+    private final boolean extendedTypesEnabled;
+    // nodes of "x = a or x = b" trees that replace "x in (a, b)" lists
+    private final ObjectPool<ExpressionNode> inListNodePool = new ObjectPool<>(ExpressionNode.FACTORY, 16);
+    private final Long256Impl long256Sink = new Long256Impl();
     private final PredicateContext predicateContext = new PredicateContext();
     private final PostOrderTreeTraversalAlgo traverseAlgo = new PostOrderTreeTraversalAlgo();
     private ObjList<Function> bindVarFunctions;
@@ -97,6 +105,14 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
     private RecordMetadata metadata;
     private PageFrameCursor pageFrameCursor;
 
+    public CompiledFilterIRSerializer() {
+        this(JitUtil.isExtendedTypesSupported());
+    }
+
+    CompiledFilterIRSerializer(boolean extendedTypesEnabled) {
+        this.extendedTypesEnabled = extendedTypesEnabled;
+    }
+
     @Override
     public void clear() {
         memory = null;
@@ -105,6 +121,7 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         forceScalarMode = false;
         predicateContext.clear();
         backfillNodes.clear();
+        inListNodePool.clear();
     }
 
     @Override
@@ -169,7 +186,7 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
      * @throws SqlException thrown when IR serialization failed.
      */
     public int serialize(ExpressionNode node, boolean scalar, boolean debug, boolean nullChecks) throws SqlException {
-        traverseAlgo.traverse(node, this);
+        traverseAlgo.traverse(expandInLists(node), this);
         putOperator(RET);
 
         TypesObserver typesObserver = predicateContext.globalTypesObserver;
@@ -210,6 +227,8 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
                             .put("unsupported token: ")
                             .put(node.token);
             }
+        } else if (SqlKeywords.isLikeKeyword(node.token)) {
+            serializeLike(node);
         } else {
             serializeOperator(node.position, node.token, argCount);
         }
@@ -224,6 +243,8 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
             // calculations instead of implicit upcast to int done by *.sql.Function classes.
             forceScalarMode |=
                     predicateContext.hasArithmeticOperations && predicateContext.localTypesObserver.maxSize() <= 2;
+            // UUID, LONG128, LONG256 and STRING operands are compiled for the scalar loop only.
+            forceScalarMode |= predicateContext.isExtendedType();
 
             // Then backfill constants and symbol bind variables and clean up
             try {
@@ -258,6 +279,11 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
                 return I8_TYPE;
             case ColumnType.DOUBLE:
                 return F8_TYPE;
+            case ColumnType.UUID:
+            case ColumnType.LONG128:
+                return I16_TYPE;
+            case ColumnType.LONG256:
+                return I32_TYPE;
             default:
                 return UNDEFINED_CODE;
         }
@@ -286,6 +312,13 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
                 return I8_TYPE;
             case ColumnType.DOUBLE:
                 return F8_TYPE;
+            case ColumnType.UUID:
+            case ColumnType.LONG128:
+                return I16_TYPE;
+            case ColumnType.LONG256:
+                return I32_TYPE;
+            case ColumnType.STRING:
+                return STR_TYPE;
             default:
                 return UNDEFINED_CODE;
         }
@@ -308,6 +341,40 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         return Chars.equals(token, "/");
     }
 
+    private static boolean isEqualityOperation(CharSequence token) {
+        return Chars.equals(token, "=") || Chars.equals(token, "<>") || Chars.equals(token, "!=");
+    }
+
+    private static boolean isExtendedTypeCode(int typeCode) {
+        return typeCode == I16_TYPE || typeCode == I32_TYPE || typeCode == STR_TYPE;
+    }
+
+    private static boolean isInListValue(ExpressionNode node) {
+        if (node.type == ExpressionNode.CONSTANT) {
+            // x = null and x in (null) differ in their treatment of null values
+            return !SqlKeywords.isNullKeyword(node.token);
+        }
+        if (node.type == ExpressionNode.BIND_VARIABLE) {
+            return true;
+        }
+        // negative constant
+        if (node.type == ExpressionNode.OPERATION && node.paramCount == 1 && Chars.equals(node.token, "-")) {
+            final ExpressionNode nextNode = node.lhs != null ? node.lhs : node.rhs;
+            return nextNode != null && nextNode.paramCount == 0 && nextNode.type == ExpressionNode.CONSTANT;
+        }
+        return false;
+    }
+
+    private static boolean isStringMatchOperation(ExpressionNode node) {
+        if (node.paramCount != 2) {
+            return false;
+        }
+        if (SqlKeywords.isLikeKeyword(node.token)) {
+            return true;
+        }
+        return node.type == ExpressionNode.FUNCTION && Chars.equalsLowerCaseAscii(node.token, "starts_with");
+    }
+
     private static boolean isTopLevelOperation(ExpressionNode node) {
         final CharSequence token = node.token;
         if (SqlKeywords.isNotKeyword(token)) {
@@ -331,10 +398,18 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         if (Chars.equals(token, ">")) {
             return true;
         }
+        if (isStringMatchOperation(node)) {
+            return true;
+        }
         return Chars.equals(token, ">=");
     }
 
     private void backfillConstant(long offset, final ExpressionNode node) throws SqlException {
+        if (node == predicateContext.likePatternNode) {
+            backfillLikePattern(offset, node);
+            return;
+        }
+
         int position = node.position;
         CharSequence token = node.token;
         boolean negate = false;
@@ -351,6 +426,20 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         serializeConstant(offset, position, token, negate);
     }
 
+    private void backfillLikePattern(long offset, final ExpressionNode node) {
+        // the pattern has been validated when serializing the like operator:
+        // it is either a plain string or a prefix followed by a single '%'
+        final CharSequence token = node.token;
+        final int len = token.length();
+        final StrConstant function;
+        if (token.charAt(len - 2) == '%') {
+            function = new StrConstant(Chars.toString(token, 0, len - 2) + '\'');
+        } else {
+            function = new StrConstant(token);
+        }
+        putConstantFunction(offset, function, STR_TYPE);
+    }
+
     private void backfillNode(long key, ExpressionNode value) {
         try {
             switch (value.type) {
@@ -359,7 +448,7 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
                     backfillConstant(key, value);
                     break;
                 case ExpressionNode.BIND_VARIABLE:
-                    backfillSymbolBindVariable(key, value);
+                    backfillStrBindVariable(key, value);
                     break;
                 default:
                     throw SqlException.position(value.position)
@@ -371,7 +460,13 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         }
     }
 
-    private void backfillSymbolBindVariable(long offset, final ExpressionNode node) throws SqlException {
+    private void backfillStrBindVariable(long offset, final ExpressionNode node) throws SqlException {
+        if (PredicateType.STRING == predicateContext.type) {
+            bindVarFunctions.add(getBindVariableFunction(node.position, node.token));
+            putOperand(offset, VAR, STR_TYPE, bindVarFunctions.size() - 1);
+            return;
+        }
+
         if (predicateContext.symbolColumnIndex == -1) {
             throw SqlException.position(node.position)
                     .put("symbol column index is missing for bind variable: ")
@@ -401,6 +496,54 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         putOperand(offset, VAR, typeCode, index);
     }
 
+    private ExpressionNode expandInList(ExpressionNode inNode) throws SqlException {
+        final int valueCount = inNode.paramCount - 1;
+        if (valueCount < 1) {
+            throw SqlException.position(inNode.position).put("too few arguments for 'in'");
+        }
+        // with more than two arguments, the arguments are stored in reverse order
+        final ExpressionNode column = inNode.paramCount < 3 ? inNode.lhs : inNode.args.getLast();
+        ExpressionNode result = null;
+        for (int i = 0; i < valueCount; i++) {
+            final ExpressionNode value = inNode.paramCount < 3 ? inNode.rhs : inNode.args.getQuick(valueCount - 1 - i);
+            if (!isInListValue(value)) {
+                throw SqlException.position(value.position).put("unsupported 'in' list value");
+            }
+            final ExpressionNode eq = newBinaryOperation("=", inNode.position, column, value);
+            result = result != null ? newBinaryOperation("or", inNode.position, result, eq) : eq;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the filter tree with "x in (a, b)" lists replaced by "x = a or x = b" trees, so that
+     * each value becomes a predicate of its own. The nodes on the path to a list are copied, the
+     * original tree is left intact since the Java filter is compiled from it, too.
+     */
+    private ExpressionNode expandInLists(ExpressionNode node) throws SqlException {
+        if (node == null) {
+            return null;
+        }
+        // depending on the number of values, the list is parsed as a set operation or a function
+        if ((node.type == ExpressionNode.SET_OPERATION || node.type == ExpressionNode.FUNCTION)
+                && SqlKeywords.isInKeyword(node.token)) {
+            return expandInList(node);
+        }
+        if (node.paramCount == 0 || node.paramCount > 2) {
+            return node;
+        }
+        final ExpressionNode lhs = expandInLists(node.lhs);
+        final ExpressionNode rhs = expandInLists(node.rhs);
+        if (lhs == node.lhs && rhs == node.rhs) {
+            return node;
+        }
+        final ExpressionNode copy = inListNodePool.next().of(node.type, node.token, node.precedence, node.position);
+        copy.paramCount = node.paramCount;
+        copy.lhs = lhs;
+        copy.rhs = rhs;
+        return copy;
+    }
+
     private Function getBindVariableFunction(int position, CharSequence token) throws SqlException {
         Function varFunction;
 
@@ -469,6 +612,20 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         return false;
     }
 
+    private ExpressionNode newBinaryOperation(CharSequence token, int position, ExpressionNode lhs, ExpressionNode rhs) {
+        final ExpressionNode node = inListNodePool.next().of(ExpressionNode.OPERATION, token, 0, position);
+        node.paramCount = 2;
+        node.lhs = lhs;
+        node.rhs = rhs;
+        return node;
+    }
+
+    private void putConstantFunction(long offset, Function function, int typeCode) {
+        // constants that do not fit into the payload are passed as bind variables
+        bindVarFunctions.add(function);
+        putOperand(offset, VAR, typeCode, bindVarFunctions.size() - 1);
+    }
+
     private void putDoubleOperand(long offset, int type, double payload) {
         memory.putInt(offset, CompiledFilterIRSerializer.IMM);
         memory.putInt(offset + Integer.BYTES, type);
@@ -516,7 +673,7 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
 
         final int columnTypeTag = ColumnType.tagOf(columnType);
         int typeCode = bindVariableTypeCode(columnTypeTag);
-        if (typeCode == UNDEFINED_CODE) {
+        if (typeCode == UNDEFINED_CODE || (isExtendedTypeCode(typeCode) && !extendedTypesEnabled)) {
             throw SqlException.position(node.position)
                     .put("unsupported bind variable type: ")
                     .put(ColumnType.nameOf(columnTypeTag));
@@ -542,7 +699,7 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         final int columnType = metadata.getColumnType(index);
         final int columnTypeTag = ColumnType.tagOf(columnType);
         int typeCode = columnTypeCode(columnTypeTag);
-        if (typeCode == UNDEFINED_CODE) {
+        if (typeCode == UNDEFINED_CODE || (isExtendedTypeCode(typeCode) && !extendedTypesEnabled)) {
             throw SqlException.position(position)
                     .put("unsupported column type: ")
                     .put(ColumnType.nameOf(columnTypeTag));
@@ -562,6 +719,11 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
     }
 
     private void serializeConstant(long offset, int position, final CharSequence token, boolean negated) throws SqlException {
+        if (predicateContext.isExtendedType()) {
+            serializeExtendedConstant(offset, position, token, negated);
+            return;
+        }
+
         final int len = token.length();
         final int typeCode = predicateContext.localTypesObserver.constantTypeCode();
         if (typeCode == UNDEFINED_CODE) {
@@ -641,6 +803,56 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         putOperand(UNDEFINED_CODE, UNDEFINED_CODE, 0);
     }
 
+    private void serializeExtendedConstant(long offset, int position, final CharSequence token, boolean negated) throws SqlException {
+        if (negated) {
+            throw SqlException.position(position).put("negated constant in non-numeric expression: ").put(token);
+        }
+        final boolean nullConstant = SqlKeywords.isNullKeyword(token);
+        switch (predicateContext.type) {
+            case UUID:
+                if (nullConstant) {
+                    putConstantFunction(offset, UuidConstant.NULL, I16_TYPE);
+                    return;
+                }
+                if (Chars.isQuoted(token)) {
+                    final CharSequence uuid = token.subSequence(1, token.length() - 1);
+                    try {
+                        Uuid.checkDashesAndLength(uuid);
+                        putConstantFunction(offset, new UuidConstant(Uuid.parseLo(uuid), Uuid.parseHi(uuid)), I16_TYPE);
+                        return;
+                    } catch (NumericException ignore) {
+                    }
+                }
+                throw SqlException.position(position).put("invalid uuid constant: ").put(token);
+            case LONG128:
+                if (nullConstant) {
+                    putConstantFunction(offset, Long128Constant.NULL, I16_TYPE);
+                    return;
+                }
+                throw SqlException.position(position).put("unsupported long128 constant: ").put(token);
+            case LONG256:
+                if (nullConstant) {
+                    putConstantFunction(offset, Long256NullConstant.INSTANCE, I32_TYPE);
+                    return;
+                }
+                if (Numbers.extractLong256(token, token.length(), long256Sink)) {
+                    putConstantFunction(offset, new Long256Constant(long256Sink), I32_TYPE);
+                    return;
+                }
+                throw SqlException.position(position).put("invalid long256 constant: ").put(token);
+            default:
+                if (nullConstant) {
+                    putConstantFunction(offset, StrConstant.NULL, STR_TYPE);
+                    return;
+                }
+                if (Chars.isQuoted(token)) {
+                    putConstantFunction(offset, new StrConstant(token), STR_TYPE);
+                    return;
+                }
+                throw SqlException.position(position).put("non-string constant in string expression: ").put(token);
+        }
+    }
+
     private void serializeGeoHash(long offset, int position, final ConstantFunction geoHashConstant, int typeCode) throws SqlException {
         try {
             switch (typeCode) {
@@ -664,6 +876,27 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         }
     }
 
+    private void serializeLike(ExpressionNode node) throws SqlException {
+        // Only the patterns that boil down to equality or a prefix match are compiled.
+        final ExpressionNode pattern = node.rhs;
+        if (pattern == null || pattern.type != ExpressionNode.CONSTANT || !Chars.isQuoted(pattern.token)) {
+            throw SqlException.position(node.position).put("constant like pattern expected");
+        }
+        final CharSequence token = pattern.token;
+        final int len = token.length();
+        if (len < 3) {
+            throw SqlException.position(pattern.position).put("unsupported like pattern: ").put(token);
+        }
+        for (int i = 1; i < len - 1; i++) {
+            final char c = token.charAt(i);
+            if (c == '_' || (c == '%' && i < len - 2)) {
+                throw SqlException.position(pattern.position).put("unsupported like pattern: ").put(token);
+            }
+        }
+        predicateContext.likePatternNode = pattern;
+        putOperator(token.charAt(len - 2) == '%' ? STARTS_WITH : EQ);
+    }
+
     private void serializeNull(long offset, int position, int typeCode, boolean geoHashPredicate) throws SqlException {
         switch (typeCode) {
             case I1_TYPE:
@@ -804,6 +1037,10 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
             putOperator(DIV);
             return;
         }
+        if (argCount == 2 && Chars.equalsLowerCaseAscii(token, "starts_with")) {
+            putOperator(STARTS_WITH);
+            return;
+        }
         throw SqlException.position(position).put("invalid operator: ").put(token);
     }
 
@@ -872,7 +1109,7 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
     }
 
     private enum PredicateType {
-        NUMERIC, CHAR, SYMBOL, BOOLEAN, GEO_HASH
+        NUMERIC, CHAR, SYMBOL, BOOLEAN, GEO_HASH, UUID, LONG128, LONG256, STRING
     }
 
     private static class SqlWrapperException extends RuntimeException {
@@ -1015,6 +1252,7 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         final TypesObserver globalTypesObserver = new TypesObserver();
         final TypesObserver localTypesObserver = new TypesObserver();
         boolean hasArithmeticOperations;
+        ExpressionNode likePatternNode; // constant to be backfilled with the prefix of the pattern
         boolean singleBooleanColumn;
         int symbolColumnIndex; // used for symbol deferred constants and bind variables
         StaticSymbolTable symbolTable; // used for known symbol constant lookups
@@ -1031,6 +1269,13 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
             return rootNode != null;
         }
 
+        public boolean isExtendedType() {
+            return type == PredicateType.UUID
+                    || type == PredicateType.LONG128
+                    || type == PredicateType.LONG256
+                    || type == PredicateType.STRING;
+        }
+
         public void onNodeDescended(final ExpressionNode node) {
             if (rootNode == null) {
                 boolean topLevelOperation = isTopLevelOperation(node);
@@ -1048,6 +1293,7 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         }
 
         public boolean onNodeVisited(final ExpressionNode node) throws SqlException {
+            final boolean inPredicate = isActive();
             boolean predicateLeft = false;
             if (node == rootNode) {
                 // We left the predicate.
@@ -1063,7 +1309,8 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
                     handleBindVariable(node);
                     break;
                 case ExpressionNode.OPERATION:
-                    handleOperation(node);
+                case ExpressionNode.FUNCTION:
+                    handleOperation(node, inPredicate);
                     break;
             }
 
@@ -1074,10 +1321,11 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
             Function varFunction = getBindVariableFunction(node.position, node.token);
             // We treat bind variables as columns here for the sake of simplicity
             final int columnType = varFunction.getType();
-            int columnTypeTag = ColumnType.tagOf(columnType);
-            // Treat string bind variable to be of symbol type
+            final int columnTypeTag = ColumnType.tagOf(columnType);
+            // String bind variables take the type of the column they're compared with:
+            // they stand for symbol keys in symbol predicates and for strings in string ones
             if (columnTypeTag == ColumnType.STRING) {
-                columnTypeTag = ColumnType.SYMBOL;
+                return;
             }
 
             updateType(node.position, columnTypeTag);
@@ -1106,13 +1354,29 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
             globalTypesObserver.observe(typeCode);
         }
 
-        private void handleOperation(ExpressionNode node) {
+        private void handleOperation(ExpressionNode node, boolean inPredicate) throws SqlException {
             hasArithmeticOperations |= isArithmeticOperation(node);
+            if (!inPredicate) {
+                return;
+            }
+            final CharSequence token = node.token;
+            if (isStringMatchOperation(node)) {
+                if (type != PredicateType.STRING) {
+                    throw SqlException.position(node.position)
+                            .put("non-string operand in string match: ")
+                            .put(token);
+                }
+            } else if (isExtendedType() && !isEqualityOperation(token) && !SqlKeywords.isNotKeyword(token)) {
+                throw SqlException.position(node.position)
+                        .put("unsupported operator in ").put(type.name()).put(" expression: ")
+                        .put(token);
+            }
         }
 
         private void reset() {
             rootNode = null;
             type = null;
+            likePatternNode = null;
             symbolTable = null;
             symbolColumnIndex = -1;
             singleBooleanColumn = false;
@@ -1157,6 +1421,38 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
                     }
                     type = PredicateType.SYMBOL;
                     break;
+                case ColumnType.UUID:
+                    if (type != null && type != PredicateType.UUID) {
+                        throw SqlException.position(position)
+                                .put("non-uuid column in uuid expression: ")
+                                .put(ColumnType.nameOf(columnTypeTag));
+                    }
+                    type = PredicateType.UUID;
+                    break;
+                case ColumnType.LONG128:
+                    if (type != null && type != PredicateType.LONG128) {
+                        throw SqlException.position(position)
+                                .put("non-long128 column in long128 expression: ")
+                                .put(ColumnType.nameOf(columnTypeTag));
+                    }
+                    type = PredicateType.LONG128;
+                    break;
+                case ColumnType.LONG256:
+                    if (type != null && type != PredicateType.LONG256) {
+                        throw SqlException.position(position)
+                                .put("non-long256 column in long256 expression: ")
+                                .put(ColumnType.nameOf(columnTypeTag));
+                    }
+                    type = PredicateType.LONG256;
+                    break;
+                case ColumnType.STRING:
+                    if (type != null && type != PredicateType.STRING) {
+                        throw SqlException.position(position)
+                                .put("non-string column in string expression: ")
+                                .put(ColumnType.nameOf(columnTypeTag));
+                    }
+                    type = PredicateType.STRING;
+                    break;
                 default:
                     if (type != null && type != PredicateType.NUMERIC) {
                         throw SqlException.position(position)
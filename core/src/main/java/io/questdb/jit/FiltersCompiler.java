@@ -44,6 +44,12 @@ final class FiltersCompiler {
 
     public static native long freeFunction(long fnAddress);
 
+    /**
+     * Returns the version of the filter IR understood by the native compiler.
+     * Version 2 added UUID, LONG128, LONG256 and STRING operands.
+     */
+    public static native int getIRVersion();
+
     static class JitError {
 
         private final StringSink message = new StringSink();
@@ -28,11 +28,31 @@ import io.questdb.std.Os;
 
 public final class JitUtil {
 
+    private static final int EXTENDED_TYPES_IR_VERSION = 2;
+    private static final boolean extendedTypesSupported = isJitSupported() && getIRVersion() >= EXTENDED_TYPES_IR_VERSION;
+
     private JitUtil() {
     }
 
+    /**
+     * Returns true when the loaded native library compiles filters over UUID, LONG128,
+     * LONG256 and STRING columns.
+     */
+    public static boolean isExtendedTypesSupported() {
+        return extendedTypesSupported;
+    }
+
     public static boolean isJitSupported() {
         // TODO what about FREEBSD_ARM64?
         return Os.type != Os.LINUX_ARM64 && Os.type != Os.OSX_ARM64;
     }
+
+    private static int getIRVersion() {
+        try {
+            return FiltersCompiler.getIRVersion();
+        } catch (UnsatisfiedLinkError e) {
+            // the library predates the version probe
+            return 1;
+        }
+    }
 }
@@ -339,10 +339,22 @@ public abstract class AbstractCairoTest {
         node1.getConfigurationOverrides().setParallelFilterEnabled(parallelFilterEnabled);
     }
 
+    protected static void configOverrideParallelGroupByEnabled(Boolean parallelGroupByEnabled) {
+        node1.getConfigurationOverrides().setParallelGroupByEnabled(parallelGroupByEnabled);
+    }
+
+    protected static void configOverrideParallelHashJoinEnabled(Boolean parallelHashJoinEnabled) {
+        node1.getConfigurationOverrides().setParallelHashJoinEnabled(parallelHashJoinEnabled);
+    }
+
     protected static void configOverrideParallelImportStatusLogKeepNDays(int parallelImportStatusLogKeepNDays) {
         node1.getConfigurationOverrides().setParallelImportStatusLogKeepNDays(parallelImportStatusLogKeepNDays);
     }
 
+    protected static void configOverrideParallelOrderByEnabled(Boolean parallelOrderByEnabled) {
+        node1.getConfigurationOverrides().setParallelOrderByEnabled(parallelOrderByEnabled);
+    }
+
     protected static void configOverrideRndFunctionMemoryMaxPages(int rndFunctionMemoryMaxPages) {
         node1.getConfigurationOverrides().setRndFunctionMemoryMaxPages(rndFunctionMemoryMaxPages);
     }
@@ -375,6 +387,14 @@ public abstract class AbstractCairoTest {
         node1.getConfigurationOverrides().setWalSegmentRolloverRowCount(walSegmentRolloverRowCount);
     }
 
+    protected static void configOverrideWalSquashMaxRows(long walSquashMaxRows) {
+        node1.getConfigurationOverrides().setWalSquashMaxRows(walSquashMaxRows);
+    }
+
+    protected static void configOverrideZoneMapBlockRowCount(long zoneMapBlockRowCount) {
+        node1.getConfigurationOverrides().setZoneMapBlockRowCount(zoneMapBlockRowCount);
+    }
+
     protected static void configureForBackups() throws IOException {
         backupDir = temp.newFolder().getAbsolutePath();
         backupDirTimestampFormat = new TimestampFormatCompiler().compile("ddMMMyyyy");
@@ -49,7 +49,11 @@ public final class AllowAllSqlSecurityContext {
                     @Nullable RecordSink partitionBySink,
                     @Nullable ColumnTypes keyTypes,
                     boolean isOrdered,
-                    boolean baseSupportsRandomAccess
+                    boolean baseSupportsRandomAccess,
+                    int framingMode,
+                    long rowsLo,
+                    long rowsHi,
+                    int timestampIndex
             ) {
             }
 
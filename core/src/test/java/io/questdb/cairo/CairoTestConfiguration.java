@@ -264,6 +264,11 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return overrides.getWalSegmentRolloverRowCount() < 0 ? super.getWalSegmentRolloverRowCount() : overrides.getWalSegmentRolloverRowCount();
     }
 
+    @Override
+    public long getWalSquashMaxRows() {
+        return overrides.getWalSquashMaxRows() < 0 ? super.getWalSquashMaxRows() : overrides.getWalSquashMaxRows();
+    }
+
     @Override
     public int getWalTxnNotificationQueueCapacity() {
         return overrides.getWalTxnNotificationQueueCapacity() > 0 ? overrides.getWalTxnNotificationQueueCapacity() : 256;
@@ -289,6 +294,11 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return overrides.getWriterCommandQueueSlotSize();
     }
 
+    @Override
+    public long getZoneMapBlockRowCount() {
+        return overrides.getZoneMapBlockRowCount() < 0 ? super.getZoneMapBlockRowCount() : overrides.getZoneMapBlockRowCount();
+    }
+
     @Override
     public boolean isIOURingEnabled() {
         return overrides.isIoURingEnabled() != null ? overrides.isIoURingEnabled() : super.isIOURingEnabled();
@@ -314,6 +324,21 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return overrides.isColumnPreTouchEnabled() != null ? overrides.isColumnPreTouchEnabled() : super.isSqlParallelFilterPreTouchEnabled();
     }
 
+    @Override
+    public boolean isSqlParallelGroupByEnabled() {
+        return overrides.isParallelGroupByEnabled() != null ? overrides.isParallelGroupByEnabled() : super.isSqlParallelGroupByEnabled();
+    }
+
+    @Override
+    public boolean isSqlParallelHashJoinEnabled() {
+        return overrides.isParallelHashJoinEnabled() != null ? overrides.isParallelHashJoinEnabled() : super.isSqlParallelHashJoinEnabled();
+    }
+
+    @Override
+    public boolean isSqlParallelOrderByEnabled() {
+        return overrides.isParallelOrderByEnabled() != null ? overrides.isParallelOrderByEnabled() : super.isSqlParallelOrderByEnabled();
+    }
+
     @Override
     public boolean isWalSupported() {
         return true;
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ColumnCompressionTest extends AbstractCairoTest {
+
+    @BeforeClass
+    public static void setUpStatic() {
+        AbstractCairoTest.setUpStatic();
+        // Zip allocates native memory in its static initializer
+        Zip.init();
+    }
+
+    @Test
+    public void testEmptyFile() throws Exception {
+        assertRoundTrip(0, 0);
+    }
+
+    @Test
+    public void testMultipleBlocks() throws Exception {
+        assertRoundTrip(ColumnCompression.BLOCK_SIZE * 2L + 4096, 0);
+    }
+
+    @Test
+    public void testMultipleBlocksDeltaOfDelta() throws Exception {
+        assertRoundTrip(ColumnCompression.BLOCK_SIZE * 2L + 4096, ColumnCompression.FLAG_DELTA_OF_DELTA);
+    }
+
+    @Test
+    public void testTailBytesDeltaOfDelta() throws Exception {
+        // size is not a multiple of long, the tail must be copied verbatim
+        assertRoundTrip(8 * 1000 + 5, ColumnCompression.FLAG_DELTA_OF_DELTA);
+    }
+
+    private static void assertRoundTrip(long size, int flags) throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final FilesFacade ff = configuration.getFilesFacade();
+            final Rnd rnd = new Rnd();
+            try (
+                    Path src = new Path().of(root).concat("col.d").$();
+                    Path dst = new Path().of(root).concat("col.d.z").$();
+                    Path out = new Path().of(root).concat("col.out").$()
+            ) {
+                // monotonic timestamps with jitter followed by random tail bytes
+                long addr = Unsafe.malloc(Math.max(size, 1), MemoryTag.NATIVE_DEFAULT);
+                try {
+                    long ts = 1_000_000_000L;
+                    long p = 0;
+                    for (; p + Long.BYTES <= size; p += Long.BYTES) {
+                        ts += 1000 + rnd.nextInt(10);
+                        Unsafe.getUnsafe().putLong(addr + p, ts);
+                    }
+                    for (; p < size; p++) {
+                        Unsafe.getUnsafe().putByte(addr + p, rnd.nextByte());
+                    }
+                    int fd = TableUtils.openRW(ff, src, LOG, configuration.getWriterFileOpenOpts());
+                    try {
+                        Assert.assertEquals(size, ff.write(fd, addr, size, 0));
+                    } finally {
+                        ff.close(fd);
+                    }
+
+                    final long compressedSize = ColumnCompression.compress(ff, src, size, dst, flags, configuration.getWriterFileOpenOpts());
+                    Assert.assertEquals(compressedSize, ff.length(dst));
+                    if (size > 0) {
+                        Assert.assertTrue(compressedSize < size);
+                        Assert.assertEquals(Unsafe.getUnsafe().getLong(addr), ColumnCompression.readFirstLong(ff, dst));
+                    }
+
+                    ColumnCompression.decompress(ff, dst, out, configuration.getWriterFileOpenOpts());
+                    Assert.assertEquals(size, ff.length(out));
+                    fd = TableUtils.openRO(ff, out, LOG);
+                    final long outAddr = Unsafe.malloc(Math.max(size, 1), MemoryTag.NATIVE_DEFAULT);
+                    try {
+                        Assert.assertEquals(size, ff.read(fd, outAddr, size, 0));
+                        for (long i = 0; i < size; i++) {
+                            Assert.assertEquals(Unsafe.getUnsafe().getByte(addr + i), Unsafe.getUnsafe().getByte(outAddr + i));
+                        }
+                    } finally {
+                        Unsafe.free(outAddr, Math.max(size, 1), MemoryTag.NATIVE_DEFAULT);
+                        ff.close(fd);
+                    }
+                } finally {
+                    Unsafe.free(addr, Math.max(size, 1), MemoryTag.NATIVE_DEFAULT);
+                }
+            }
+        });
+    }
+}
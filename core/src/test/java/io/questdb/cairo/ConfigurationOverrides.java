@@ -112,6 +112,8 @@ public interface ConfigurationOverrides {
 
     long getWalSegmentRolloverRowCount();
 
+    long getWalSquashMaxRows();
+
     int getWalTxnNotificationQueueCapacity();
 
     long getWriterAsyncCommandBusyWaitTimeout();
@@ -122,6 +124,8 @@ public interface ConfigurationOverrides {
 
     long getWriterCommandQueueSlotSize();
 
+    long getZoneMapBlockRowCount();
+
     Boolean isColumnPreTouchEnabled();
 
     boolean isHidingTelemetryTable();
@@ -132,6 +136,12 @@ public interface ConfigurationOverrides {
 
     Boolean isParallelFilterEnabled();
 
+    Boolean isParallelGroupByEnabled();
+
+    Boolean isParallelHashJoinEnabled();
+
+    Boolean isParallelOrderByEnabled();
+
     boolean mangleTableDirNames();
 
     void reset();
@@ -198,8 +208,14 @@ public interface ConfigurationOverrides {
 
     void setParallelFilterEnabled(Boolean parallelFilterEnabled);
 
+    void setParallelGroupByEnabled(Boolean parallelGroupByEnabled);
+
+    void setParallelHashJoinEnabled(Boolean parallelHashJoinEnabled);
+
     void setParallelImportStatusLogKeepNDays(int parallelImportStatusLogKeepNDays);
 
+    void setParallelOrderByEnabled(Boolean parallelOrderByEnabled);
+
     void setQueryCacheEventQueueCapacity(int queryCacheEventQueueCapacity);
 
     void setRecreateDistressedSequencerAttempts(int recreateDistressedSequencerAttempts);
@@ -228,6 +244,8 @@ public interface ConfigurationOverrides {
 
     void setWalSegmentRolloverRowCount(long walSegmentRolloverRowCount);
 
+    void setWalSquashMaxRows(long walSquashMaxRows);
+
     void setWalTxnNotificationQueueCapacity(int walTxnNotificationQueueCapacity);
 
     void setWriterAsyncCommandBusyWaitTimeout(long writerAsyncCommandBusyWaitTimeout);
@@ -237,4 +255,6 @@ public interface ConfigurationOverrides {
     void setWriterCommandQueueCapacity(int writerCommandQueueCapacity);
 
     void setWriterCommandQueueSlotSize(long writerCommandQueueSlotSize);
+
+    void setZoneMapBlockRowCount(long zoneMapBlockRowCount);
 }
@@ -65,7 +65,10 @@ public class Overrides implements ConfigurationOverrides {
     private int pageFrameReduceQueueCapacity = -1;
     private int pageFrameReduceShardCount = -1;
     private Boolean parallelFilterEnabled = null;
+    private Boolean parallelGroupByEnabled = null;
+    private Boolean parallelHashJoinEnabled = null;
     private int parallelImportStatusLogKeepNDays = -1;
+    private Boolean parallelOrderByEnabled = null;
     private int queryCacheEventQueueCapacity = -1;
     private int recreateDistressedSequencerAttempts = 3;
     private int rndFunctionMemoryMaxPages = -1;
@@ -79,11 +82,13 @@ public class Overrides implements ConfigurationOverrides {
     private int sqlJoinMetadataMaxResizes = -1;
     private int sqlJoinMetadataPageSize = -1;
     private long walSegmentRolloverRowCount = -1;
+    private long walSquashMaxRows = -1;
     private int walTxnNotificationQueueCapacity = -1;
     private long writerAsyncCommandBusyWaitTimeout = -1;
     private long writerAsyncCommandMaxTimeout = -1;
     private int writerCommandQueueCapacity = 4;
     private long writerCommandQueueSlotSize = 2048L;
+    private long zoneMapBlockRowCount = -1;
 
     @Override
     public String getAttachableDirSuffix() {
@@ -285,6 +290,11 @@ public class Overrides implements ConfigurationOverrides {
         return walSegmentRolloverRowCount;
     }
 
+    @Override
+    public long getWalSquashMaxRows() {
+        return walSquashMaxRows;
+    }
+
     @Override
     public int getWalTxnNotificationQueueCapacity() {
         return walTxnNotificationQueueCapacity;
@@ -310,6 +320,11 @@ public class Overrides implements ConfigurationOverrides {
         return writerCommandQueueSlotSize;
     }
 
+    @Override
+    public long getZoneMapBlockRowCount() {
+        return zoneMapBlockRowCount;
+    }
+
     @Override
     public Boolean isColumnPreTouchEnabled() {
         return columnPreTouchEnabled;
@@ -335,6 +350,21 @@ public class Overrides implements ConfigurationOverrides {
         return parallelFilterEnabled;
     }
 
+    @Override
+    public Boolean isParallelGroupByEnabled() {
+        return parallelGroupByEnabled;
+    }
+
+    @Override
+    public Boolean isParallelHashJoinEnabled() {
+        return parallelHashJoinEnabled;
+    }
+
+    @Override
+    public Boolean isParallelOrderByEnabled() {
+        return parallelOrderByEnabled;
+    }
+
     @Override
     public boolean mangleTableDirNames() {
         return mangleTableDirNames;
@@ -359,6 +389,9 @@ public class Overrides implements ConfigurationOverrides {
         snapshotInstanceId = null;
         snapshotRecoveryEnabled = null;
         parallelFilterEnabled = null;
+        parallelGroupByEnabled = null;
+        parallelHashJoinEnabled = null;
+        parallelOrderByEnabled = null;
         columnPreTouchEnabled = null;
         writerCommandQueueCapacity = 4;
         queryCacheEventQueueCapacity = -1;
@@ -379,6 +412,8 @@ public class Overrides implements ConfigurationOverrides {
         dataAppendPageSize = -1;
         o3QuickSortEnabled = false;
         walSegmentRolloverRowCount = -1;
+        walSquashMaxRows = -1;
+        zoneMapBlockRowCount = -1;
         mangleTableDirNames = true;
     }
 
@@ -537,11 +572,26 @@ public class Overrides implements ConfigurationOverrides {
         this.parallelFilterEnabled = parallelFilterEnabled;
     }
 
+    @Override
+    public void setParallelGroupByEnabled(Boolean parallelGroupByEnabled) {
+        this.parallelGroupByEnabled = parallelGroupByEnabled;
+    }
+
+    @Override
+    public void setParallelHashJoinEnabled(Boolean parallelHashJoinEnabled) {
+        this.parallelHashJoinEnabled = parallelHashJoinEnabled;
+    }
+
     @Override
     public void setParallelImportStatusLogKeepNDays(int parallelImportStatusLogKeepNDays) {
         this.parallelImportStatusLogKeepNDays = parallelImportStatusLogKeepNDays;
     }
 
+    @Override
+    public void setParallelOrderByEnabled(Boolean parallelOrderByEnabled) {
+        this.parallelOrderByEnabled = parallelOrderByEnabled;
+    }
+
     @Override
     public void setQueryCacheEventQueueCapacity(int queryCacheEventQueueCapacity) {
         this.queryCacheEventQueueCapacity = queryCacheEventQueueCapacity;
@@ -612,6 +662,11 @@ public class Overrides implements ConfigurationOverrides {
         this.walSegmentRolloverRowCount = walSegmentRolloverRowCount;
     }
 
+    @Override
+    public void setWalSquashMaxRows(long walSquashMaxRows) {
+        this.walSquashMaxRows = walSquashMaxRows;
+    }
+
     @Override
     public void setWalTxnNotificationQueueCapacity(int walTxnNotificationQueueCapacity) {
         this.walTxnNotificationQueueCapacity = walTxnNotificationQueueCapacity;
@@ -636,4 +691,9 @@ public class Overrides implements ConfigurationOverrides {
     public void setWriterCommandQueueSlotSize(long writerCommandQueueSlotSize) {
         this.writerCommandQueueSlotSize = writerCommandQueueSlotSize;
     }
+
+    @Override
+    public void setZoneMapBlockRowCount(long zoneMapBlockRowCount) {
+        this.zoneMapBlockRowCount = zoneMapBlockRowCount;
+    }
 }
@@ -785,6 +785,83 @@ public class FastMapTest extends AbstractCairoTest {
         }
     }
 
+    @Test
+    public void testMergeFixedSizeKey() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            SingleColumnType keyTypes = new SingleColumnType(ColumnType.LONG);
+            SingleColumnType valueTypes = new SingleColumnType(ColumnType.LONG);
+            final int N = 10000;
+            try (
+                    FastMap mapA = new FastMap(64, keyTypes, valueTypes, 16, 0.8, Integer.MAX_VALUE);
+                    FastMap mapB = new FastMap(64, keyTypes, valueTypes, 16, 0.8, Integer.MAX_VALUE)
+            ) {
+                // even keys go to A, all keys go to B
+                for (int i = 0; i < N; i++) {
+                    if (i % 2 == 0) {
+                        MapKey keyA = mapA.withKey();
+                        keyA.putLong(i);
+                        keyA.createValue().putLong(0, i);
+                    }
+                    MapKey keyB = mapB.withKey();
+                    keyB.putLong(i);
+                    keyB.createValue().putLong(0, 1);
+                }
+
+                mapA.merge(mapB, (destValue, srcValue) -> destValue.addLong(0, srcValue.getLong(0)));
+                Assert.assertEquals(N, mapA.size());
+
+                for (int i = 0; i < N; i++) {
+                    MapKey key = mapA.withKey();
+                    key.putLong(i);
+                    MapValue value = key.findValue();
+                    Assert.assertNotNull(value);
+                    Assert.assertEquals(i % 2 == 0 ? i + 1 : 1, value.getLong(0));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testMergeVarSizeKey() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            ArrayColumnTypes keyTypes = new ArrayColumnTypes();
+            keyTypes.add(ColumnType.STRING);
+            keyTypes.add(ColumnType.INT);
+            SingleColumnType valueTypes = new SingleColumnType(ColumnType.LONG);
+            final int N = 10000;
+            try (
+                    FastMap mapA = new FastMap(64, keyTypes, valueTypes, 16, 0.8, Integer.MAX_VALUE);
+                    FastMap mapB = new FastMap(64, keyTypes, valueTypes, 16, 0.8, Integer.MAX_VALUE)
+            ) {
+                // keys [0, N) go to A, keys [N / 2, 3 * N / 2) go to B
+                for (int i = 0; i < N; i++) {
+                    MapKey keyA = mapA.withKey();
+                    keyA.putStr("k" + i);
+                    keyA.putInt(i);
+                    keyA.createValue().putLong(0, 1);
+
+                    MapKey keyB = mapB.withKey();
+                    keyB.putStr("k" + (i + N / 2));
+                    keyB.putInt(i + N / 2);
+                    keyB.createValue().putLong(0, 10);
+                }
+
+                mapA.merge(mapB, (destValue, srcValue) -> destValue.addLong(0, srcValue.getLong(0)));
+                Assert.assertEquals(3 * N / 2, mapA.size());
+
+                for (int i = 0; i < 3 * N / 2; i++) {
+                    MapKey key = mapA.withKey();
+                    key.putStr("k" + i);
+                    key.putInt(i);
+                    MapValue value = key.findValue();
+                    Assert.assertNotNull(value);
+                    long expected = i < N / 2 ? 1 : (i < N ? 11 : 10);
+                    Assert.assertEquals(expected, value.getLong(0));
+                }
+            }
+        });
+    }
+
     @Test
     public void testNoValueColumns() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
@@ -812,6 +889,77 @@ public class FastMapTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testProbeKeyFixedSize() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final ArrayColumnTypes keyTypes = new ArrayColumnTypes();
+            keyTypes.add(ColumnType.INT);
+            keyTypes.add(ColumnType.LONG);
+            final Rnd rnd = new Rnd();
+            final int N = 1000;
+            try (
+                    FastMap map = new FastMap(Numbers.SIZE_1MB, keyTypes, new SingleColumnType(ColumnType.LONG), 64, 0.7, Integer.MAX_VALUE);
+                    FastMap.ProbeKey probeKey = map.newProbeKey()
+            ) {
+                for (int i = 0; i < N; i++) {
+                    MapKey key = map.withKey();
+                    key.putInt(rnd.nextInt());
+                    key.putLong(rnd.nextLong());
+                    key.createValue().putLong(0, i);
+                }
+
+                rnd.reset();
+                for (int i = 0; i < N; i++) {
+                    MapKey key = probeKey.init();
+                    key.putInt(rnd.nextInt());
+                    key.putLong(rnd.nextLong());
+                    MapValue value = key.findValue();
+                    Assert.assertNotNull(value);
+                    Assert.assertEquals(i, value.getLong(0));
+                }
+
+                MapKey key = probeKey.init();
+                key.putInt(rnd.nextInt());
+                key.putLong(rnd.nextLong());
+                Assert.assertNull(key.findValue());
+                Assert.assertEquals(N, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void testProbeKeyVarSize() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final Rnd rnd = new Rnd();
+            final int N = 1000;
+            try (
+                    FastMap map = new FastMap(Numbers.SIZE_1MB, new SingleColumnType(ColumnType.STRING), new SingleColumnType(ColumnType.LONG), 64, 0.7, Integer.MAX_VALUE);
+                    FastMap.ProbeKey probeKey = map.newProbeKey()
+            ) {
+                // long keys make the probe key grow its memory
+                for (int i = 0; i < N; i++) {
+                    MapKey key = map.withKey();
+                    key.putStr(i + ":" + rnd.nextChars(rnd.nextPositiveInt() % 200));
+                    key.createValue().putLong(0, i);
+                }
+
+                rnd.reset();
+                for (int i = 0; i < N; i++) {
+                    MapKey key = probeKey.init();
+                    key.putStr(i + ":" + rnd.nextChars(rnd.nextPositiveInt() % 200));
+                    MapValue value = key.findValue();
+                    Assert.assertNotNull(value);
+                    Assert.assertEquals(i, value.getLong(0));
+                }
+
+                MapKey key = probeKey.init();
+                key.putStr("not there");
+                Assert.assertNull(key.findValue());
+                Assert.assertEquals(N, map.size());
+            }
+        });
+    }
+
     @Test
     public void testRecordAsKey() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.sql;
+
+import io.questdb.Metrics;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.DefaultTestCairoConfiguration;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.SqlException;
+import io.questdb.std.IntList;
+import io.questdb.std.str.StringSink;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QueryPlanCacheTest extends AbstractGriffinTest {
+
+    @Test
+    public void testBindVariableTypesMustMatch() throws Exception {
+        assertMemoryLeak(() -> {
+            final QueryPlanCacheMetrics cacheMetrics = Metrics.enabled().queryPlanCache();
+            try (QueryPlanCache cache = newCache(true, 4, cacheMetrics)) {
+                final String sql = "select x from long_sequence(10) where x > $1";
+                final IntList types = new IntList();
+                types.add(ColumnType.LONG);
+                cache.push(sql, types, compile(sql));
+
+                // plans with bind variables are not handed out to callers without them
+                Assert.assertNull(cache.poll(sql, null));
+
+                bindVariableService.clear();
+                bindVariableService.define(0, ColumnType.STRING, 0);
+                Assert.assertNull(cache.poll(sql, bindVariableService));
+
+                // undefined variables are defined with the cached types
+                bindVariableService.clear();
+                final RecordCursorFactory factory = cache.poll(sql, bindVariableService);
+                Assert.assertNotNull(factory);
+                Assert.assertEquals(ColumnType.LONG, bindVariableService.getFunction(0).getType());
+                factory.close();
+
+                Assert.assertEquals(1, cacheMetrics.getHitCount());
+                Assert.assertEquals(2, cacheMetrics.getMissCount());
+                Assert.assertEquals(0, cacheMetrics.cachedPlansGauge().getValue());
+            }
+        });
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        assertMemoryLeak(() -> {
+            final QueryPlanCacheMetrics cacheMetrics = Metrics.enabled().queryPlanCache();
+            try (QueryPlanCache cache = newCache(true, 4, cacheMetrics)) {
+                cache.push("select 1 a", null, compile("select 1 a"));
+                cache.push("select 2 b", null, compile("select 2 b"));
+                Assert.assertEquals(2, cacheMetrics.cachedPlansGauge().getValue());
+
+                cache.clear();
+                Assert.assertEquals(0, cacheMetrics.cachedPlansGauge().getValue());
+                Assert.assertNull(cache.poll("select 1 a", null));
+            }
+        });
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        assertMemoryLeak(() -> {
+            final QueryPlanCacheMetrics cacheMetrics = Metrics.enabled().queryPlanCache();
+            try (QueryPlanCache cache = newCache(false, 4, cacheMetrics)) {
+                Assert.assertFalse(cache.isEnabled());
+                // the plan is freed straight away
+                cache.push("select 1 a", null, compile("select 1 a"));
+                Assert.assertNull(cache.poll("select 1 a", null));
+                Assert.assertEquals(0, cacheMetrics.cachedPlansGauge().getValue());
+                Assert.assertEquals(0, cacheMetrics.getMissCount());
+            }
+        });
+    }
+
+    @Test
+    public void testDuplicatePushIsFreed() throws Exception {
+        assertMemoryLeak(() -> {
+            final QueryPlanCacheMetrics cacheMetrics = Metrics.enabled().queryPlanCache();
+            try (QueryPlanCache cache = newCache(true, 4, cacheMetrics)) {
+                cache.push("select 1 a", null, compile("select 1 a"));
+                cache.push("select 1 a", null, compile("select 1 a"));
+                Assert.assertEquals(1, cacheMetrics.cachedPlansGauge().getValue());
+            }
+        });
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyPushed() throws Exception {
+        assertMemoryLeak(() -> {
+            final QueryPlanCacheMetrics cacheMetrics = Metrics.enabled().queryPlanCache();
+            try (QueryPlanCache cache = newCache(true, 2, cacheMetrics)) {
+                cache.push("select 1 a", null, compile("select 1 a"));
+                cache.push("select 2 b", null, compile("select 2 b"));
+
+                // returning a plan makes it the most recent one
+                final RecordCursorFactory factory = cache.poll("select 1 a", null);
+                Assert.assertNotNull(factory);
+                cache.push("select 1 a", null, factory);
+
+                cache.push("select 3 c", null, compile("select 3 c"));
+                Assert.assertEquals(2, cacheMetrics.cachedPlansGauge().getValue());
+                Assert.assertNull(cache.poll("select 2 b", null));
+
+                final RecordCursorFactory first = cache.poll("select 1 a", null);
+                Assert.assertNotNull(first);
+                first.close();
+                final RecordCursorFactory third = cache.poll("select 3 c", null);
+                Assert.assertNotNull(third);
+                third.close();
+            }
+        });
+    }
+
+    @Test
+    public void testHitIgnoresWhitespace() throws Exception {
+        assertMemoryLeak(() -> {
+            final QueryPlanCacheMetrics cacheMetrics = Metrics.enabled().queryPlanCache();
+            try (QueryPlanCache cache = newCache(true, 4, cacheMetrics)) {
+                Assert.assertNull(cache.poll("select 1 a", null));
+                cache.push("select 1 a", null, compile("select 1 a"));
+
+                final RecordCursorFactory factory = cache.poll("  select\n\t1   a ", null);
+                Assert.assertNotNull(factory);
+                // the plan is checked out exclusively
+                Assert.assertNull(cache.poll("select 1 a", null));
+                factory.close();
+
+                Assert.assertEquals(1, cacheMetrics.getHitCount());
+                Assert.assertEquals(2, cacheMetrics.getMissCount());
+            }
+        });
+    }
+
+    @Test
+    public void testNormalize() {
+        final StringSink sink = new StringSink();
+        QueryPlanCache.normalize("\n select  a,\tb\r\nfrom   t  ", sink);
+        Assert.assertEquals("select a, b from t", sink.toString());
+
+        QueryPlanCache.normalize("select 'a  b', \"c   d\"  from t where s = 'it''s  ok'", sink);
+        Assert.assertEquals("select 'a  b', \"c   d\" from t where s = 'it''s  ok'", sink.toString());
+    }
+
+    private static RecordCursorFactory compile(String sql) throws SqlException {
+        return compiler.compile(sql, sqlExecutionContext).getRecordCursorFactory();
+    }
+
+    private static QueryPlanCache newCache(boolean enabled, int capacity, QueryPlanCacheMetrics cacheMetrics) {
+        return new QueryPlanCache(new DefaultTestCairoConfiguration(root) {
+            @Override
+            public int getQueryPlanCacheCapacity() {
+                return capacity;
+            }
+
+            @Override
+            public boolean isQueryPlanCacheEnabled() {
+                return enabled;
+            }
+        }, cacheMetrics);
+    }
+}
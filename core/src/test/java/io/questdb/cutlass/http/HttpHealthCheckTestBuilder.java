@@ -59,7 +59,7 @@ public class HttpHealthCheckTestBuilder {
                 metrics = Metrics.enabled();
             }
 
-            QueryCache.configure(httpConfiguration, metrics);
+            QueryCache.configure(httpConfiguration);
 
             WorkerPool workerPool = new TestWorkerPool(1, metrics);
 
@@ -72,7 +72,7 @@ public class HttpMinTestBuilder {
                     }
                 });
 
-                QueryCache.configure(httpConfiguration, Metrics.disabled());
+                QueryCache.configure(httpConfiguration);
 
                 workerPool.start(LOG);
 
@@ -241,7 +241,7 @@ public class HttpQueryTestBuilder {
                     }
                 });
 
-                QueryCache.configure(httpConfiguration, metrics);
+                QueryCache.configure(httpConfiguration);
 
                 workerPool.start(LOG);
 
@@ -4916,7 +4916,7 @@ public class IODispatcherTest {
                     .withHttpProtocolVersion("HTTP/1.1 ")
                     .withOnPeerDisconnect(peerDisconnectLatch::countDown)
                     .build();
-            QueryCache.configure(httpConfiguration, metrics);
+            QueryCache.configure(httpConfiguration);
 
             WorkerPool workerPool = new TestWorkerPool(1);
 
@@ -7776,7 +7776,7 @@ public class IODispatcherTest {
                 .withServerKeepAlive(serverKeepAlive)
                 .withHttpProtocolVersion(httpProtocolVersion)
                 .build();
-        QueryCache.configure(httpConfiguration, metrics);
+        QueryCache.configure(httpConfiguration);
         return httpConfiguration;
     }
 
@@ -75,7 +75,7 @@ public class PGFlushQueryCacheTest extends BasePGTest {
                             "TIMESTAMP(ts)\n" +
                             "PARTITION BY DAY");
 
-                    Assert.assertEquals(0, metrics.pgWire().cachedSelectsGauge().getValue());
+                    Assert.assertEquals(0, metrics.queryPlanCache().cachedPlansGauge().getValue());
 
                     String sql = "SELECT *\n" +
                             "FROM test t1 JOIN test t2 \n" +
@@ -83,11 +83,16 @@ public class PGFlushQueryCacheTest extends BasePGTest {
                             "LIMIT 1";
                     statement.execute(sql);
 
-                    assertEventually(() -> Assert.assertEquals(1, metrics.pgWire().cachedSelectsGauge().getValue()));
+                    assertEventually(() -> Assert.assertEquals(1, metrics.queryPlanCache().cachedPlansGauge().getValue()));
 
                     statement.execute("SELECT flush_query_cache()");
 
-                    assertEventually(() -> Assert.assertEquals(0, metrics.pgWire().cachedSelectsGauge().getValue()));
+                    // the join plan is gone, only the flush query's own plan may be cached
+                    final long missCount = metrics.queryPlanCache().getMissCount();
+                    final long hitCount = metrics.queryPlanCache().getHitCount();
+                    statement.execute(sql);
+                    Assert.assertEquals(missCount + 1, metrics.queryPlanCache().getMissCount());
+                    Assert.assertEquals(hitCount, metrics.queryPlanCache().getHitCount());
                 }
             }
         });
@@ -1639,7 +1639,7 @@ if __name__ == "__main__":
             }
         };
 
-        TestUtils.assertMemoryLeak(() -> {
+        assertMemoryLeak(() -> {
             try (
                     final PGWireServer server = createPGServer(configuration);
                     final WorkerPool workerPool = server.getWorkerPool()
@@ -3681,7 +3681,7 @@ nodejs code:
     @Test
     public void testLargeOutput() throws Exception {
         skipOnWalRun(); // non-partitioned table
-        TestUtils.assertMemoryLeak(() -> {
+        assertMemoryLeak(() -> {
 
             final String expected = "1[INTEGER],2[INTEGER],3[INTEGER]\n" +
                     "1,2,3\n" +
@@ -4055,7 +4055,7 @@ nodejs code:
     @Test
     public void testLoginBadUsername() throws Exception {
         skipOnWalRun(); // non-partitioned table
-        TestUtils.assertMemoryLeak(() -> {
+        assertMemoryLeak(() -> {
             try (
                     final PGWireServer server = createPGServer(1);
                     final WorkerPool workerPool = server.getWorkerPool()
@@ -4196,7 +4196,7 @@ nodejs code:
     @Test
     public void testMultiplePreparedStatements() throws Exception {
         skipOnWalRun(); // non-partitioned table
-        TestUtils.assertMemoryLeak(() -> {
+        assertMemoryLeak(() -> {
             try (
                     final PGWireServer server = createPGServer(2);
                     final WorkerPool workerPool = server.getWorkerPool()
@@ -4450,7 +4450,7 @@ nodejs code:
     @Test
     public void testParseErrorDoesNotCorruptConnection() throws Exception {
         skipOnWalRun(); // non-partitioned table
-        TestUtils.assertMemoryLeak(() -> {
+        assertMemoryLeak(() -> {
             try (
                     final PGWireServer server = createPGServer(2);
                     final WorkerPool workerPool = server.getWorkerPool()
@@ -4485,7 +4485,7 @@ nodejs code:
     //checks that function parser error doesn't persist and affect later queries issued through the same connection
     public void testParseErrorDoesntCorruptConnection() throws Exception {
         skipOnWalRun(); // non-partitioned table
-        TestUtils.assertMemoryLeak(() -> {
+        assertMemoryLeak(() -> {
             try (
                     final PGWireServer server = createPGServer(2);
                     final WorkerPool workerPool = server.getWorkerPool()
@@ -4612,7 +4612,7 @@ nodejs code:
     @Test
     public void testPreparedStatement() throws Exception {
         skipOnWalRun(); // non-partitioned table
-        TestUtils.assertMemoryLeak(() -> {
+        assertMemoryLeak(() -> {
             try (
                     final PGWireServer server = createPGServer(2);
                     final WorkerPool workerPool = server.getWorkerPool()
@@ -4936,7 +4936,7 @@ nodejs code:
     @Test
     public void testPreparedStatementSelectNull() throws Exception {
         skipOnWalRun(); // non-partitioned table
-        TestUtils.assertMemoryLeak(() -> {
+        assertMemoryLeak(() -> {
             try (
                     final PGWireServer server = createPGServer(2);
                     final WorkerPool workerPool = server.getWorkerPool()
@@ -4964,7 +4964,7 @@ nodejs code:
     @Test
     public void testPreparedStatementTextParams() throws Exception {
         skipOnWalRun(); // non-partitioned table
-        TestUtils.assertMemoryLeak(() -> {
+        assertMemoryLeak(() -> {
             try (
                     final PGWireServer server = createPGServer(2);
                     final WorkerPool workerPool = server.getWorkerPool()
@@ -7425,7 +7425,7 @@ create table tab as (
     @Test
     public void testUnsupportedParameterType() throws Exception {
         skipOnWalRun(); // non-partitioned table
-        TestUtils.assertMemoryLeak(() -> {
+        assertMemoryLeak(() -> {
             try (
                     final PGWireServer server = createPGServer(2);
                     final WorkerPool workerPool = server.getWorkerPool()
@@ -8945,7 +8945,7 @@ create table tab as (
 
     private void testGeoHashSelect(boolean simple, boolean binary) throws Exception {
         skipOnWalRun(); // non-partitioned table
-        TestUtils.assertMemoryLeak(() -> {
+        assertMemoryLeak(() -> {
             try (
                     final PGWireServer server = createPGServer(2);
                     final WorkerPool workerPool = server.getWorkerPool()
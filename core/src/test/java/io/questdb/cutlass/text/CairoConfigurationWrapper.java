@@ -377,6 +377,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.getO3PurgeDiscoveryQueueCapacity();
     }
 
+    @Override
+    public int getPageFramePrefetchCount() {
+        return conf.getPageFramePrefetchCount();
+    }
+
     @Override
     public int getPageFrameReduceColumnListCapacity() {
         return conf.getPageFrameReduceColumnListCapacity();
@@ -407,6 +412,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.getParallelIndexThreshold();
     }
 
+    @Override
+    public long getPartitionCompressionCheckInterval() {
+        return conf.getPartitionCompressionCheckInterval();
+    }
+
     @Override
     public int getPartitionPurgeListCapacity() {
         return conf.getPartitionPurgeListCapacity();
@@ -417,6 +427,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.getQueryCacheEventQueueCapacity();
     }
 
+    @Override
+    public int getQueryPlanCacheCapacity() {
+        return conf.getQueryPlanCacheCapacity();
+    }
+
     @Override
     public int getReaderPoolMaxSegments() {
         return conf.getReaderPoolMaxSegments();
@@ -782,6 +797,16 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.getWalSegmentRolloverRowCount();
     }
 
+    @Override
+    public long getWalSquashMaxRows() {
+        return conf.getWalSquashMaxRows();
+    }
+
+    @Override
+    public long getWalSquashMaxSize() {
+        return conf.getWalSquashMaxSize();
+    }
+
     @Override
     public int getWalTxnNotificationQueueCapacity() {
         return conf.getWalTxnNotificationQueueCapacity();
@@ -827,6 +852,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.getWriterTickRowsCountMod();
     }
 
+    @Override
+    public long getZoneMapBlockRowCount() {
+        return conf.getZoneMapBlockRowCount();
+    }
+
     @Override
     public boolean isIOURingEnabled() {
         return conf.isIOURingEnabled();
@@ -842,6 +872,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.isParallelIndexingEnabled();
     }
 
+    @Override
+    public boolean isQueryPlanCacheEnabled() {
+        return conf.isQueryPlanCacheEnabled();
+    }
+
     @Override
     public boolean isReadOnlyInstance() {
         return conf.isReadOnlyInstance();
@@ -867,6 +902,21 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.isSqlParallelFilterPreTouchEnabled();
     }
 
+    @Override
+    public boolean isSqlParallelGroupByEnabled() {
+        return conf.isSqlParallelGroupByEnabled();
+    }
+
+    @Override
+    public boolean isSqlParallelHashJoinEnabled() {
+        return conf.isSqlParallelHashJoinEnabled();
+    }
+
+    @Override
+    public boolean isSqlParallelOrderByEnabled() {
+        return conf.isSqlParallelOrderByEnabled();
+    }
+
     @Override
     public boolean isWalSupported() {
         return conf.isWalSupported();
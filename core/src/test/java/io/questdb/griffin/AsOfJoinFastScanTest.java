@@ -0,0 +1,206 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.engine.join.AsOfJoinFastRecordCursorFactory;
+import io.questdb.griffin.engine.join.AsOfJoinLightRecordCursorFactory;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AsOfJoinFastScanTest extends AbstractGriffinTest {
+
+    private static final int PAGE_FRAME_MAX_ROWS = 100;
+
+    @BeforeClass
+    public static void setUpStatic() {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        AbstractGriffinTest.setUpStatic();
+    }
+
+    @Before
+    public void setUp() {
+        // small page frames make sure that master rows fall both inside and between slave frames
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        super.setUp();
+    }
+
+    @Test
+    public void testColumnTop() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compile("alter table quotes add column venue symbol");
+            compile(
+                    "insert into quotes select rnd_symbol('AA','BB','CC',null) sym, rnd_double() bid," +
+                            " timestamp_sequence(50000000000, 1500000) ts, rnd_symbol('X','Y',null) venue" +
+                            " from long_sequence(2000)"
+            );
+            compile(
+                    "insert into trades select rnd_symbol('AA','BB','DD',null) sym, rnd_double() px," +
+                            " timestamp_sequence(50000000000, 1000000) ts" +
+                            " from long_sequence(3000)"
+            );
+            assertFastMatchesFullFat("select * from trades asof join quotes on sym");
+            compile("alter table trades add column venue symbol");
+            compile(
+                    "insert into trades select rnd_symbol('AA','BB','DD',null) sym, rnd_double() px," +
+                            " timestamp_sequence(60000000000, 1000000) ts, rnd_symbol('X','Z',null) venue" +
+                            " from long_sequence(1000)"
+            );
+            assertFastMatchesFullFat("select * from trades asof join quotes on venue");
+        });
+    }
+
+    @Test
+    public void testEmptySlave() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compile("create table empty as (select * from quotes where 1 = 0) timestamp(ts) partition by hour");
+            assertFastMatchesFullFat("select * from trades asof join empty on sym");
+        });
+    }
+
+    @Test
+    public void testMatchesFullFat() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            assertFastMatchesFullFat("select * from trades asof join quotes on sym");
+            assertFastMatchesFullFat("select * from trades t asof join quotes q on (sym)");
+            assertFastMatchesFullFat("select t.ts, q.ts, t.sym, q.bid from trades t asof join quotes q on t.sym = q.sym");
+            assertFastMatchesFullFat("select * from (trades where px > 0.5) asof join quotes on sym");
+        });
+    }
+
+    @Test
+    public void testNotSupported() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compile("create table str_quotes as (select sym::string sym, bid, ts from quotes) timestamp(ts) partition by hour");
+            assertFactoryClass("select * from trades asof join str_quotes on sym", AsOfJoinLightRecordCursorFactory.class);
+            assertFactoryClass("select * from trades asof join (quotes where bid > 0.5) on sym", AsOfJoinLightRecordCursorFactory.class);
+        });
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            assertPlan(
+                    "select * from trades asof join quotes on sym",
+                    "SelectedRecord\n" +
+                            "    AsOf Join Fast Scan\n" +
+                            "      condition: quotes.sym=trades.sym\n" +
+                            "        DataFrame\n" +
+                            "            Row forward scan\n" +
+                            "            Frame forward scan on: trades\n" +
+                            "        DataFrame\n" +
+                            "            Row forward scan\n" +
+                            "            Frame forward scan on: quotes\n"
+            );
+        });
+    }
+
+    @Test
+    public void testSameTimestamps() throws Exception {
+        assertMemoryLeak(() -> {
+            compile(
+                    "create table quotes as (" +
+                            "select rnd_symbol('AA','BB',null) sym, x bid, ((x / 7) * 1000000)::timestamp ts" +
+                            " from long_sequence(1000)" +
+                            ") timestamp(ts) partition by hour"
+            );
+            compile(
+                    "create table trades as (" +
+                            "select rnd_symbol('AA','BB','CC',null) sym, x px, ((x / 3) * 1000000)::timestamp ts" +
+                            " from long_sequence(500)" +
+                            ") timestamp(ts) partition by hour"
+            );
+            assertFastMatchesFullFat("select * from trades asof join quotes on sym");
+        });
+    }
+
+    @Test
+    public void testToTop() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            final String query = "select * from trades asof join quotes on sym";
+            compiler.setFullFatJoins(true);
+            final StringSink expected = new StringSink();
+            try {
+                TestUtils.printSql(compiler, sqlExecutionContext, query, expected);
+            } finally {
+                compiler.setFullFatJoins(false);
+            }
+            try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+                // the join is wrapped by the column projection
+                Assert.assertEquals(AsOfJoinFastRecordCursorFactory.class, factory.getBaseFactory().getClass());
+                try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                    TestUtils.assertCursor(expected, cursor, factory.getMetadata(), true, sink);
+                    cursor.toTop();
+                    TestUtils.assertCursor(expected, cursor, factory.getMetadata(), true, sink);
+                }
+            }
+        });
+    }
+
+    private void assertFactoryClass(String sql, Class<?> expected) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(sql, sqlExecutionContext).getRecordCursorFactory()) {
+            // the join is wrapped by the column projection
+            Assert.assertEquals(expected, factory.getBaseFactory().getClass());
+        }
+    }
+
+    private void assertFastMatchesFullFat(String sql) throws SqlException {
+        compiler.setFullFatJoins(true);
+        final StringSink expected = new StringSink();
+        try {
+            TestUtils.printSql(compiler, sqlExecutionContext, sql, expected);
+        } finally {
+            compiler.setFullFatJoins(false);
+        }
+        assertFactoryClass(sql, AsOfJoinFastRecordCursorFactory.class);
+        TestUtils.assertSql(compiler, sqlExecutionContext, sql, sink, expected);
+    }
+
+    private void createTables() throws SqlException {
+        compile(
+                "create table quotes as (" +
+                        "select rnd_symbol('AA','BB','CC',null) sym, rnd_double() bid, timestamp_sequence(100000000, 1500000) ts" +
+                        " from long_sequence(10000)" +
+                        ") timestamp(ts) partition by hour"
+        );
+        compile(
+                "create table trades as (" +
+                        "select rnd_symbol('AA','BB','DD',null) sym, rnd_double() px, timestamp_sequence(0, 1000000) ts" +
+                        " from long_sequence(20000)" +
+                        ") timestamp(ts) partition by hour"
+        );
+    }
+}
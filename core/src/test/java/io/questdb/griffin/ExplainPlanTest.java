@@ -33,7 +33,8 @@ import io.questdb.cairo.sql.Function;
 import io.questdb.griffin.engine.EmptyTableRecordCursorFactory;
 import io.questdb.griffin.engine.functions.CursorFunction;
 import io.questdb.griffin.engine.functions.NegatableBooleanFunction;
-import io.questdb.griffin.engine.functions.analytic.RowNumberFunctionFactory;
+import io.questdb.griffin.engine.functions.analytic.LagDoubleAnalyticFunctionFactory;
+import io.questdb.griffin.engine.functions.analytic.LeadDoubleAnalyticFunctionFactory;
 import io.questdb.griffin.engine.functions.bool.InCharFunctionFactory;
 import io.questdb.griffin.engine.functions.bool.InTimestampStrFunctionFactory;
 import io.questdb.griffin.engine.functions.bool.InTimestampTimestampFunctionFactory;
@@ -48,6 +49,7 @@ import io.questdb.griffin.engine.functions.date.*;
 import io.questdb.griffin.engine.functions.eq.EqIntStrCFunctionFactory;
 import io.questdb.griffin.engine.functions.rnd.LongSequenceFunctionFactory;
 import io.questdb.griffin.engine.functions.test.TestSumXDoubleGroupByFunctionFactory;
+import io.questdb.griffin.model.AnalyticColumn;
 import io.questdb.jit.JitUtil;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
@@ -375,8 +377,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
                             "            Row forward scan\n" +
                             "            Frame forward scan on: a\n" +
                             "        SelectedRecord\n" +
-                            "            Sort light\n" +
+                            "            Async Sort light\n" +
                             "              keys: [ts, i]\n" +
+                            "              workers: 1\n" +
                             "                DataFrame\n" +
                             "                    Row forward scan\n" +
                             "                    Frame forward scan on: b\n");
@@ -668,15 +671,17 @@ public class ExplainPlanTest extends AbstractGriffinTest {
                 "with b as (select i from a order by s)" +
                         "select * from a join b on a.i = b.i",
                 "SelectedRecord\n" +
-                        "    Hash Join Light\n" +
+                        "    Async Hash Join Light\n" +
                         "      condition: b.i=a.i\n" +
+                        "      workers: 1\n" +
                         "        DataFrame\n" +
                         "            Row forward scan\n" +
                         "            Frame forward scan on: a\n" +
                         "        Hash\n" +
                         "            SelectedRecord\n" +
-                        "                Sort light\n" +
+                        "                Async Sort light\n" +
                         "                  keys: [s]\n" +
+                        "                  workers: 1\n" +
                         "                    DataFrame\n" +
                         "                        Row forward scan\n" +
                         "                        Frame forward scan on: a\n");
@@ -721,8 +726,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
                             "    VirtualRecord\n" +
                             "      functions: [1,d1]\n" +
                             "        SelectedRecord\n" +
-                            "            Hash Join Light\n" +
+                            "            Async Hash Join Light\n" +
                             "              condition: l2=l1\n" +
+                            "              workers: 1\n" +
                             "                DataFrame\n" +
                             "                    Row forward scan\n" +
                             "                    Frame forward scan on: a\n" +
@@ -1175,6 +1181,8 @@ public class ExplainPlanTest extends AbstractGriffinTest {
                                 args.add(new StrConstant("CEST"));
                             } else if (factory instanceof TimestampAddFunctionFactory && p == 0) {
                                 args.add(new CharConstant('s'));
+                            } else if ((factory instanceof LagDoubleAnalyticFunctionFactory || factory instanceof LeadDoubleAnalyticFunctionFactory) && p == 1) {
+                                args.add(new IntConstant(1));
                             } else if (factory instanceof EqIntStrCFunctionFactory && sigArgType == ColumnType.STRING) {
                                 args.add(new StrConstant("1"));
                             } else if (!useConst) {
@@ -1190,11 +1198,26 @@ public class ExplainPlanTest extends AbstractGriffinTest {
 
                         argPositions.setAll(args.size(), 0);
 
-                        if (factory instanceof RowNumberFunctionFactory) {
-                            sqlExecutionContext.configureAnalyticContext(null, null, null, true, true);
+                        if (factory.isWindow()) {
+                            sqlExecutionContext.configureAnalyticContext(
+                                    null,
+                                    null,
+                                    null,
+                                    true,
+                                    true,
+                                    AnalyticColumn.FRAMING_ROWS,
+                                    -2,
+                                    0,
+                                    -1
+                            );
                         }
 
-                        Function function = factory.newInstance(0, args, argPositions, engine.getConfiguration(), sqlExecutionContext);
+                        Function function;
+                        try {
+                            function = factory.newInstance(0, args, argPositions, engine.getConfiguration(), sqlExecutionContext);
+                        } finally {
+                            sqlExecutionContext.clearAnalyticContext();
+                        }
                         function.toPlan(planSink);
                         goodArgsFound = true;
 
@@ -1229,9 +1252,10 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testGroupByBoolean() throws Exception {
         assertPlan("create table a ( l long, b boolean)",
                 "select b, min(l)  from a group by b",
-                "GroupBy vectorized: false\n" +
+                "Async Group By\n" +
                         "  keys: [b]\n" +
                         "  values: [min(l)]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Frame forward scan on: a\n");
@@ -1255,9 +1279,10 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testGroupByDouble() throws Exception {
         assertPlan("create table a ( l long, d double)",
                 "select d, min(l) from a group by d",
-                "GroupBy vectorized: false\n" +
+                "Async Group By\n" +
                         "  keys: [d]\n" +
                         "  values: [min(l)]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Frame forward scan on: a\n");
@@ -1267,9 +1292,10 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testGroupByFloat() throws Exception {
         assertPlan("create table a ( l long, f float)",
                 "select f, min(l) from a group by f",
-                "GroupBy vectorized: false\n" +
+                "Async Group By\n" +
                         "  keys: [f]\n" +
                         "  values: [min(l)]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Frame forward scan on: a\n");
@@ -1304,9 +1330,10 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     @Test//repeated int key disables vectorized impl
     public void testGroupByInt2() throws Exception {
         assertPlan("create table a ( i int, d double)", "select i, i, min(d) from a group by i, i",
-                "GroupBy vectorized: false\n" +
+                "Async Group By\n" +
                         "  keys: [i,i1]\n" +
                         "  values: [min(d)]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Frame forward scan on: a\n");
@@ -1386,9 +1413,10 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testGroupByLong() throws Exception {
         assertPlan("create table a ( l long, d double)",
                 "select l, min(d) from a group by l",
-                "GroupBy vectorized: false\n" +
+                "Async Group By\n" +
                         "  keys: [l]\n" +
                         "  values: [min(d)]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Frame forward scan on: a\n");
@@ -1412,8 +1440,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
                 "GroupBy vectorized: false\n" +
                         "  values: [max(i)]\n" +
                         "    SelectedRecord\n" +
-                        "        Hash Join Light\n" +
+                        "        Async Hash Join Light\n" +
                         "          condition: b.i=a.i\n" +
+                        "          workers: 1\n" +
                         "            DataFrame\n" +
                         "                Row forward scan\n" +
                         "                Frame forward scan on: a\n" +
@@ -1438,8 +1467,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testGroupByNotKeyed2() throws Exception {
         assertPlan("create table a ( i int, d double)",
                 "select min(d), max(d*d) from a",
-                "GroupBy vectorized: false\n" +
+                "Async Group By\n" +
                         "  values: [min(d),max(d*d)]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Frame forward scan on: a\n");
@@ -1449,8 +1479,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testGroupByNotKeyed3() throws Exception {
         assertPlan("create table a ( i int, d double)",
                 "select max(d+1) from a",
-                "GroupBy vectorized: false\n" +
+                "Async Group By\n" +
                         "  values: [max(d+1)]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Frame forward scan on: a\n");
@@ -1471,8 +1502,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testGroupByNotKeyed5() throws Exception {
         assertPlan("create table a ( i int, d double)",
                 "select first(10), last(d), avg(10), min(10), max(10) from a",
-                "GroupBy vectorized: false\n" +
+                "Async Group By\n" +
                         "  values: [first(10),last(d),avg(10),min(10),max(10)]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Frame forward scan on: a\n");
@@ -1482,14 +1514,13 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testGroupByNotKeyed6() throws Exception {
         assertPlan("create table a ( i int, d double)",
                 "select max(i) from a where i < 10",
-                "GroupBy vectorized: false\n" +
+                "Async JIT Group By\n" +
                         "  values: [max(i)]\n" +
-                        "    Async JIT Filter\n" +
-                        "      filter: i<10\n" +
-                        "      workers: 1\n" +
-                        "        DataFrame\n" +
-                        "            Row forward scan\n" +
-                        "            Frame forward scan on: a\n");
+                        "  filter: i<10\n" +
+                        "  workers: 1\n" +
+                        "    DataFrame\n" +
+                        "        Row forward scan\n" +
+                        "        Frame forward scan on: a\n");
     }
 
     @Test//order by is ignored and grouped by - vectorized
@@ -1509,8 +1540,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
                 "select max(i) from (select * from a order by d limit 10)",
                 "GroupBy vectorized: false\n" +
                         "  values: [max(i)]\n" +
-                        "    Sort light lo: 10\n" +
+                        "    Async Top K lo: 10\n" +
                         "      keys: [d]\n" +
+                        "      workers: 1\n" +
                         "        DataFrame\n" +
                         "            Row forward scan\n" +
                         "            Frame forward scan on: a\n");
@@ -1540,8 +1572,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
             assertPlan("select s1, s2 from (select a.s1, b.s2, b.i, a.i  from a join b on i) where i < i1 and s1 = s2",
                     "SelectedRecord\n" +
                             "    Filter filter: (b.i<a.i and a.s1=b.s2)\n" +
-                            "        Hash Join Light\n" +
+                            "        Async Hash Join Light\n" +
                             "          condition: b.i=a.i\n" +
+                            "          workers: 1\n" +
                             "            DataFrame\n" +
                             "                Row forward scan\n" +
                             "                Frame forward scan on: a\n" +
@@ -2590,8 +2623,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
                             "            Row forward scan\n" +
                             "            Frame forward scan on: a\n" +
                             "        SelectedRecord\n" +
-                            "            Sort light\n" +
+                            "            Async Sort light\n" +
                             "              keys: [ts, i]\n" +
+                            "              workers: 1\n" +
                             "                DataFrame\n" +
                             "                    Row forward scan\n" +
                             "                    Frame forward scan on: b\n");
@@ -2728,15 +2762,17 @@ public class ExplainPlanTest extends AbstractGriffinTest {
             compile("  CREATE TABLE tab ( x double );");
 
             assertPlan("SELECT sum(x), sum(x+10) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By\n" +
                             "  values: [sum(x),sum(x+10)]\n" +
+                            "  workers: 1\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
                             "        Frame forward scan on: tab\n");
 
             assertPlan("SELECT sum(x), sum(10+x) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By\n" +
                             "  values: [sum(x),sum(10+x)]\n" +
+                            "  workers: 1\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
                             "        Frame forward scan on: tab\n");
@@ -2774,15 +2810,17 @@ public class ExplainPlanTest extends AbstractGriffinTest {
             compile("  CREATE TABLE tab ( x double );");
 
             assertPlan("SELECT sum(x), sum(x*10) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By\n" +
                             "  values: [sum(x),sum(x*10)]\n" +
+                            "  workers: 1\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
                             "        Frame forward scan on: tab\n");
 
             assertPlan("SELECT sum(x), sum(10*x) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By\n" +
                             "  values: [sum(x),sum(10*x)]\n" +
+                            "  workers: 1\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
                             "        Frame forward scan on: tab\n");
@@ -2795,15 +2833,17 @@ public class ExplainPlanTest extends AbstractGriffinTest {
             compile("  CREATE TABLE tab ( x double );");
 
             assertPlan("SELECT sum(x), sum(x*10.0) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By\n" +
                             "  values: [sum(x),sum(x*10.0)]\n" +
+                            "  workers: 1\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
                             "        Frame forward scan on: tab\n");
 
             assertPlan("SELECT sum(x), sum(10.0*x) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By\n" +
                             "  values: [sum(x),sum(10.0*x)]\n" +
+                            "  workers: 1\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
                             "        Frame forward scan on: tab\n");
@@ -2841,15 +2881,17 @@ public class ExplainPlanTest extends AbstractGriffinTest {
             compile("  CREATE TABLE tab ( x double );");
 
             assertPlan("SELECT sum(x), sum(x-10) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By\n" +
                             "  values: [sum(x),sum(x-10)]\n" +
+                            "  workers: 1\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
                             "        Frame forward scan on: tab\n");
 
             assertPlan("SELECT sum(x), sum(10-x) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By\n" +
                             "  values: [sum(x),sum(10-x)]\n" +
+                            "  workers: 1\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
                             "        Frame forward scan on: tab\n");
@@ -2882,8 +2924,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testSampleBy() throws Exception {
         assertPlan("create table a ( i int, ts timestamp) timestamp(ts);",
                 "select first(i) from a sample by 1h",
-                "SampleBy\n" +
+                "Async Sample By\n" +
                         "  values: [first(i)]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Frame forward scan on: a\n");
@@ -2984,9 +3027,10 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testSampleByKeyed0() throws Exception {
         assertPlan("create table a ( i int, l long, ts timestamp) timestamp(ts);",
                 "select l, i, first(i) from a sample by 1h",
-                "SampleBy\n" +
+                "Async Sample By\n" +
                         "  keys: [l,i]\n" +
                         "  values: [first(i)]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Frame forward scan on: a\n");
@@ -2996,9 +3040,10 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testSampleByKeyed1() throws Exception {
         assertPlan("create table a ( i int, l long, ts timestamp) timestamp(ts);",
                 "select l, i, first(i) from a sample by 1h",
-                "SampleBy\n" +
+                "Async Sample By\n" +
                         "  keys: [l,i]\n" +
                         "  values: [first(i)]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Frame forward scan on: a\n");
@@ -3292,8 +3337,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testSelectDesc2() throws Exception {
         assertPlan("create table a ( i int, ts timestamp) ;",
                 "select * from a order by ts desc",
-                "Sort light\n" +
+                "Async Sort light\n" +
                         "  keys: [ts desc]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Frame forward scan on: a\n");
@@ -3445,8 +3491,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testSelectDynamicTsInterval6() throws Exception {
         assertPlan("create table tab ( l long, ts timestamp) timestamp(ts);",
                 "select * from tab where ts > '2022-01-01' and ts > now() order by ts desc",
-                "Sort light\n" +
+                "Async Sort light\n" +
                         "  keys: [ts desc]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Interval forward scan on: tab\n" +
@@ -3633,15 +3680,14 @@ public class ExplainPlanTest extends AbstractGriffinTest {
                             "where (s1 = 'S1' or s1 = 'S2') " +
                             "and ts > 0::timestamp and ts < 9::timestamp  " +
                             "order by s1,ts desc",
-                    "Sort light\n" +
+                    "Async JIT Sort light\n" +
                             "  keys: [s1, ts desc]\n" +
-                            "    Async JIT Filter\n" +
-                            "      filter: (s1='S1' or s1='S2')\n" +
-                            "      workers: 1\n" +
-                            "        DataFrame\n" +
-                            "            Row forward scan\n" +
-                            "            Interval forward scan on: a\n" +
-                            "              intervals: [static=[1,8]\n");
+                            "  filter: (s1='S1' or s1='S2')\n" +
+                            "  workers: 1\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Interval forward scan on: a\n" +
+                            "          intervals: [static=[1,8]\n");
         });
     }
 
@@ -3794,8 +3840,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testSelectOrderedAsc() throws Exception {
         assertPlan("create table a ( i int, ts timestamp) timestamp(ts) ;",
                 "select * from a order by i asc",
-                "Sort light\n" +
+                "Async Sort light\n" +
                         "  keys: [i]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Frame forward scan on: a\n");
@@ -3805,8 +3852,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testSelectOrderedDesc() throws Exception {
         assertPlan("create table a ( i int, ts timestamp) timestamp(ts) ;",
                 "select * from a order by i desc",
-                "Sort light\n" +
+                "Async Sort light\n" +
                         "  keys: [i desc]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Frame forward scan on: a\n");
@@ -3816,8 +3864,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testSelectOrderedWithLimitLoHi() throws Exception {
         assertPlan("create table a ( i int, ts timestamp) timestamp(ts) ;",
                 "select * from a order by i limit 10, 100",
-                "Sort light lo: 10 hi: 100\n" +
+                "Async Top K lo: 10 hi: 100\n" +
                         "  keys: [i]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Frame forward scan on: a\n");
@@ -3845,8 +3894,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testSelectStaticTsInterval10() throws Exception {
         assertPlan("create table tab ( l long, ts timestamp) timestamp(ts);",
                 "select * from tab where ts in '2020-01-01T03:00:00;1h;24h;3' order by l desc ",
-                "Sort light\n" +
+                "Async Sort light\n" +
                         "  keys: [l desc]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Interval forward scan on: tab\n" +
@@ -3857,8 +3907,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testSelectStaticTsInterval10a() throws Exception {
         assertPlan("create table tab ( l long, ts timestamp) timestamp(ts);",
                 "select * from tab where ts in '2020-01-01T03:00:00;1h;24h;3' order by l desc, ts desc ",
-                "Sort light\n" +
+                "Async Sort light\n" +
                         "  keys: [l desc, ts desc]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Interval forward scan on: tab\n" +
@@ -3942,8 +3993,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
     public void testSelectStaticTsInterval9() throws Exception {
         assertPlan("create table tab ( l long, ts timestamp) timestamp(ts);",
                 "select * from tab where ts in '2020-01-01T03:00:00;1h;24h;3' order by ts desc ",
-                "Sort light\n" +
+                "Async Sort light\n" +
                         "  keys: [ts desc]\n" +
+                        "  workers: 1\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
                         "        Interval forward scan on: tab\n" +
@@ -4843,8 +4895,9 @@ public class ExplainPlanTest extends AbstractGriffinTest {
                             "            Row forward scan\n" +
                             "            Frame forward scan on: a\n" +
                             "        SelectedRecord\n" +
-                            "            Sort light\n" +
+                            "            Async Sort light\n" +
                             "              keys: [ts, i]\n" +
+                            "              workers: 1\n" +
                             "                DataFrame\n" +
                             "                    Row forward scan\n" +
                             "                    Frame forward scan on: b\n");
@@ -72,6 +72,13 @@ public class OrderByTimeoutTest extends AbstractGriffinTest {
         circuitBreaker = Misc.free(circuitBreaker);
     }
 
+    @Before
+    public void setUp() {
+        super.setUp();
+        // parallel ORDER BY checks the circuit breaker per page frame rather than per row
+        configOverrideParallelOrderByEnabled(false);
+    }
+
     @After
     public void tearDown() {
         super.tearDown();
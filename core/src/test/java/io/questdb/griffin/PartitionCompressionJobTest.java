@@ -0,0 +1,170 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.*;
+import io.questdb.std.Files;
+import io.questdb.std.Zip;
+import io.questdb.std.str.Path;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PartitionCompressionJobTest extends AbstractGriffinTest {
+
+    @BeforeClass
+    public static void setUpStatic() {
+        AbstractGriffinTest.setUpStatic();
+        // Zip allocates native memory in its static initializer
+        Zip.init();
+    }
+
+    @Test
+    public void testAddIndexToCompressedPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compressPartitions(4);
+
+            compile("alter table x alter column sym add index");
+            compile("alter table y alter column sym add index");
+            assertTables("select * from x where sym = 'b'", "select * from y where sym = 'b'");
+        });
+    }
+
+    @Test
+    public void testCompressColdPartitions() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compressPartitions(4);
+
+            try (TableReader reader = getReader("x")) {
+                final TxReader txFile = reader.getTxFile();
+                Assert.assertEquals(5, txFile.getPartitionCount());
+                for (int i = 0; i < 4; i++) {
+                    Assert.assertTrue(txFile.isPartitionCompressed(i));
+                    assertCompressedFiles(reader.getTableToken(), txFile.getPartitionTimestamp(i), txFile.getPartitionNameTxn(i));
+                }
+                Assert.assertFalse(txFile.isPartitionCompressed(4));
+            }
+            assertTables("x", "y");
+            assertTables("select sym, count(), sum(l), max(str) from x", "select sym, count(), sum(l), max(str) from y");
+
+            // already compressed partitions are skipped
+            try (PartitionCompressionJob job = new PartitionCompressionJob(engine)) {
+                Assert.assertEquals(0, job.compressPartitions());
+            }
+        });
+    }
+
+    @Test
+    public void testCompressionAgeNotSet() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            try (PartitionCompressionJob job = new PartitionCompressionJob(engine)) {
+                Assert.assertEquals(0, job.compressPartitions());
+            }
+        });
+    }
+
+    @Test
+    public void testDropActivePartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compressPartitions(4);
+
+            compile("alter table x drop partition list '1970-01-05'");
+            compile("alter table y drop partition list '1970-01-05'");
+            compile("insert into x values (1000, 'c', 'abc', '1970-01-04T23:00:00.000000Z')");
+            compile("insert into y values (1000, 'c', 'abc', '1970-01-04T23:00:00.000000Z')");
+            assertTables("x", "y");
+        });
+    }
+
+    @Test
+    public void testO3InsertIntoCompressedPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compressPartitions(4);
+
+            compile("create table z as (" +
+                    "select x + 100 l, rnd_symbol('a', 'b', 'c') sym, rnd_str(3, 5, 1) str," +
+                    " timestamp_sequence('1970-01-02T00:30:00.000000Z', 60000000) ts from long_sequence(30)" +
+                    ")");
+            compile("insert into x select * from z");
+            compile("insert into y select * from z");
+            assertTables("x", "y");
+
+            try (TableReader reader = getReader("x")) {
+                Assert.assertTrue(reader.getTxFile().isPartitionCompressed(0));
+                Assert.assertFalse(reader.getTxFile().isPartitionCompressed(1));
+            }
+        });
+    }
+
+    @Test
+    public void testUpdateCompressedPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compressPartitions(4);
+
+            executeOperation("update x set l = l * 2 where ts < '1970-01-02'", CompiledQuery.UPDATE);
+            executeOperation("update y set l = l * 2 where ts < '1970-01-02'", CompiledQuery.UPDATE);
+            assertTables("x", "y");
+        });
+    }
+
+    private static void assertCompressedFiles(TableToken tableToken, long partitionTimestamp, long nameTxn) {
+        try (Path path = new Path()) {
+            path.of(configuration.getRoot()).concat(tableToken);
+            TableUtils.setPathForPartition(path, path.length(), PartitionBy.DAY, partitionTimestamp, nameTxn);
+            final int plen = path.length();
+            Assert.assertTrue(Files.exists(path.concat("ts.d.z").$()));
+            Assert.assertFalse(Files.exists(path.trimTo(plen).concat("ts.d").$()));
+            Assert.assertTrue(Files.exists(path.trimTo(plen).concat("str.i.z").$()));
+            Assert.assertTrue(Files.exists(path.trimTo(plen).concat("str.d.z").$()));
+        }
+    }
+
+    private static void assertTables(String expected, String actual) throws SqlException {
+        TestUtils.assertSqlCursors(compiler, sqlExecutionContext, expected, actual, LOG);
+    }
+
+    private static void compressPartitions(int expectedCount) throws SqlException {
+        compile("alter table x set param compressionAge = 1d");
+        try (PartitionCompressionJob job = new PartitionCompressionJob(engine)) {
+            Assert.assertEquals(expectedCount, job.compressPartitions());
+        }
+    }
+
+    private static void createTables() throws SqlException {
+        compile("create table x as (" +
+                "select x l, rnd_symbol('a', 'b', 'c') sym, rnd_str(3, 5, 1) str, timestamp_sequence(0, 3600000000) ts" +
+                " from long_sequence(100)" +
+                ") timestamp(ts) partition by DAY");
+        compile("create table y as (select * from x) timestamp(ts) partition by DAY");
+    }
+}
@@ -102,6 +102,24 @@ public class SecurityTest extends AbstractGriffinTest {
                 return 1024;
             }
 
+            @Override
+            public boolean isSqlParallelGroupByEnabled() {
+                // parallel GROUP BY checks its own circuit breaker, not the dummy one used by these tests
+                return false;
+            }
+
+            @Override
+            public boolean isSqlParallelHashJoinEnabled() {
+                // parallel hash join as well
+                return false;
+            }
+
+            @Override
+            public boolean isSqlParallelOrderByEnabled() {
+                // so does parallel ORDER BY
+                return false;
+            }
+
         };
         memoryRestrictedEngine = new CairoEngine(readOnlyConfiguration);
         SqlExecutionCircuitBreaker dummyCircuitBreaker = new SqlExecutionCircuitBreaker() {
@@ -229,6 +247,8 @@ public class SecurityTest extends AbstractGriffinTest {
 
     @Test
     public void testCircuitBreakerTimeout() throws Exception {
+        // the dummy circuit breaker interrupts row-by-row sort, parallel ORDER BY checks it per page frame
+        configOverrideParallelOrderByEnabled(false);
         assertMemoryLeak(() -> {
             sqlExecutionContext.getRandom().reset();
             compiler.compile("create table tab as (select" +
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.sql.PageFrame;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.std.Files;
+import io.questdb.std.str.Path;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ASC;
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_DESC;
+
+public class ZoneMapTest extends AbstractGriffinTest {
+    // one second apart rows, 86400 per partition, two zone map blocks per partition
+    private static final long LAST_PARTITION_ROWS = 86400;
+
+    @Before
+    public void setUp() {
+        configOverrideZoneMapBlockRowCount(65536);
+        super.setUp();
+    }
+
+    @Test
+    public void testFilterResultsMatchScan() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (" +
+                    "select rnd_int(0, 1000, 2) i, rnd_long(-500, 500, 2) l, rnd_double(2) d, rnd_short() s, rnd_symbol('a', 'b', 'c', null) sym, timestamp_sequence(0, 1000000) ts" +
+                    " from long_sequence(" + 4 * LAST_PARTITION_ROWS + ")" +
+                    ") timestamp(ts) partition by DAY");
+
+            assertZoneMaps("x", 4);
+            assertFilter("select * from x where i < 10", "select * from x where i + 0 < 10");
+            assertFilter("select * from x where 990 <= i", "select * from x where i + 0 >= 990");
+            assertFilter("select * from x where i = 500 and l > 0", "select * from x where i + 0 = 500 and l + 0 > 0");
+            assertFilter("select * from x where l <= -499", "select * from x where l + 0 <= -499");
+            assertFilter("select * from x where d > 0.999", "select * from x where d + 0 > 0.999");
+            assertFilter("select * from x where d = 0.5", "select * from x where d + 0 = 0.5");
+            assertFilter("select * from x where s >= 32000", "select * from x where s + 0 >= 32000");
+            assertFilter("select * from x where sym = 'b' and i > 900", "select * from x where sym || '' = 'b' and i + 0 > 900");
+            assertFilter("select * from x where sym = 'd'", "select * from x where sym || '' = 'd'");
+            assertFilter("select * from x where ts in '1970-01-02' and i > 995", "select * from x where ts in '1970-01-02' and i + 0 > 995");
+            assertFilter("select * from x where i > 995 order by ts desc", "select * from x where i + 0 > 995 order by ts desc");
+        });
+    }
+
+    @Test
+    public void testO3MergeRewritesZoneMap() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            assertRowsScanned("select * from x where v > 1000000", ORDER_ASC, LAST_PARTITION_ROWS);
+
+            // merged partition gets new version and a new zone map
+            executeInsert("insert into x values (2000000, '1970-01-02T00:00:00.5Z')");
+            assertZoneMaps("x", 4);
+            assertSql("select * from x where v > 1000000", "v\tts\n" +
+                    "2000000\t1970-01-02T00:00:00.500000Z\n");
+            assertRowsScanned("select * from x where v > 1000000", ORDER_ASC, 65536 + LAST_PARTITION_ROWS);
+        });
+    }
+
+    @Test
+    public void testSkipsPartitionsAndBlocks() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            assertZoneMaps("x", 4);
+
+            // the last partition has no zone map and is always scanned
+            assertRowsScanned("select * from x where v > 259200", ORDER_ASC, LAST_PARTITION_ROWS);
+            assertRowsScanned("select * from x where v > 259200", ORDER_DESC, LAST_PARTITION_ROWS);
+            assertRowsScanned("select * from x where v < 1000", ORDER_ASC, 65536 + LAST_PARTITION_ROWS);
+            assertRowsScanned("select * from x where v < 1000", ORDER_DESC, 65536 + LAST_PARTITION_ROWS);
+            assertRowsScanned("select * from x where v = 151937", ORDER_ASC, 86400 - 65536 + LAST_PARTITION_ROWS);
+            assertRowsScanned("select * from x where v > 100 and v < 200", ORDER_ASC, 65536 + LAST_PARTITION_ROWS);
+            assertRowsScanned("select * from x where v + 1 > 3 * 86400", ORDER_ASC, 4 * LAST_PARTITION_ROWS);
+            assertRowsScanned("select * from x where v > 259200 or v < 10", ORDER_ASC, 4 * LAST_PARTITION_ROWS);
+            assertRowsScanned("select * from x where ts in '1970-01-01T12' and v > 259200", ORDER_ASC, 0);
+
+            assertSql("select count() from x where v < 1000", "count\n999\n");
+            assertSql("select count() from x where v = 151937", "count\n1\n");
+        });
+    }
+
+    @Test
+    public void testUpdateInvalidatesZoneMap() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            executeOperation("update x set v = v + 1000000 where ts < '1970-01-01T01'", CompiledQuery.UPDATE);
+
+            // rewritten column version has no statistics
+            assertRowsScanned("select * from x where v > 1000000", ORDER_ASC, 2 * LAST_PARTITION_ROWS);
+            assertSql("select count() from x where v > 1000000", "count\n3600\n");
+        });
+    }
+
+    private static void assertFilter(String query, String expected) throws SqlException {
+        TestUtils.assertSqlCursors(compiler, sqlExecutionContext, expected, query, LOG);
+    }
+
+    private static void assertRowsScanned(String query, int order, long expectedRows) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+            final RecordCursorFactory base = factory.supportPageFrameCursor() ? factory : factory.getBaseFactory();
+            long rows = 0;
+            try (PageFrameCursor cursor = base.getPageFrameCursor(sqlExecutionContext, order)) {
+                PageFrame frame;
+                while ((frame = cursor.next()) != null) {
+                    rows += frame.getPartitionHi() - frame.getPartitionLo();
+                }
+            }
+            Assert.assertEquals(expectedRows, rows);
+        }
+    }
+
+    private static void assertZoneMaps(String tableName, int partitionCount) {
+        try (
+                TableReader reader = getReader(tableName);
+                Path path = new Path()
+        ) {
+            final TxReader txFile = reader.getTxFile();
+            Assert.assertEquals(partitionCount, txFile.getPartitionCount());
+            for (int i = 0; i < partitionCount; i++) {
+                path.of(configuration.getRoot()).concat(reader.getTableToken());
+                TableUtils.setPathForPartition(path, path.length(), PartitionBy.DAY, txFile.getPartitionTimestamp(i), txFile.getPartitionNameTxn(i));
+                Assert.assertEquals(i < partitionCount - 1, Files.exists(path.concat(ZoneMap.FILE_NAME).$()));
+            }
+        }
+    }
+
+    private static void createTable() throws SqlException {
+        compile("create table x as (" +
+                "select x v, timestamp_sequence(0, 1000000) ts" +
+                " from long_sequence(" + 4 * LAST_PARTITION_ROWS + ")" +
+                ") timestamp(ts) partition by DAY");
+    }
+}
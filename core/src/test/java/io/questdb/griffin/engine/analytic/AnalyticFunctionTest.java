@@ -32,6 +32,13 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 public class AnalyticFunctionTest extends AbstractGriffinTest {
+    private static final String DDL_X = "create table x as (" +
+            "select" +
+            " x::double price," +
+            " case when x % 2 = 0 then 'A' else 'B' end sym," +
+            " timestamp_sequence(0, 1000000) ts" +
+            " from long_sequence(6)" +
+            ") timestamp(ts)";
 
     @Test
     @Ignore
@@ -67,6 +74,258 @@ public class AnalyticFunctionTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testFirstValueAndLastValue() throws Exception {
+        assertQuery(
+                "ts\tfirst\tlast\n" +
+                        "1970-01-01T00:00:00.000000Z\t1.0\t5.0\n" +
+                        "1970-01-01T00:00:01.000000Z\t1.0\t6.0\n" +
+                        "1970-01-01T00:00:02.000000Z\t1.0\t5.0\n" +
+                        "1970-01-01T00:00:03.000000Z\t2.0\t6.0\n" +
+                        "1970-01-01T00:00:04.000000Z\t3.0\t5.0\n" +
+                        "1970-01-01T00:00:05.000000Z\t4.0\t6.0\n",
+                "select ts," +
+                        " first_value(price) over (order by ts rows 2 preceding) first," +
+                        " last_value(price) over (partition by sym order by ts rows between unbounded preceding and unbounded following) last" +
+                        " from x",
+                DDL_X,
+                null,
+                true,
+                false
+        );
+    }
+
+    @Test
+    public void testFrameCumulative() throws Exception {
+        assertQuery(
+                "ts\tsym\tsum\tcnt\n" +
+                        "1970-01-01T00:00:00.000000Z\tB\t1.0\t1\n" +
+                        "1970-01-01T00:00:01.000000Z\tA\t3.0\t1\n" +
+                        "1970-01-01T00:00:02.000000Z\tB\t6.0\t2\n" +
+                        "1970-01-01T00:00:03.000000Z\tA\t10.0\t2\n" +
+                        "1970-01-01T00:00:04.000000Z\tB\t15.0\t3\n" +
+                        "1970-01-01T00:00:05.000000Z\tA\t21.0\t3\n",
+                "select ts, sym, sum(price) over (order by ts) sum, count(price) over (partition by sym order by ts) cnt from x",
+                DDL_X,
+                "ts",
+                false,
+                true,
+                true
+        );
+    }
+
+    @Test
+    public void testFrameEndFollowing() throws Exception {
+        assertFailure(
+                "select sum(price) over (order by ts rows between 2 preceding and 1 following) from x",
+                DDL_X,
+                65,
+                "frame end must be CURRENT ROW, or UNBOUNDED FOLLOWING when frame start is UNBOUNDED PRECEDING"
+        );
+    }
+
+    @Test
+    public void testFrameOrderedByNonTimestamp() throws Exception {
+        assertQuery(
+                "price\tsum\n" +
+                        "1.0\t3.0\n" +
+                        "2.0\t5.0\n" +
+                        "3.0\t7.0\n" +
+                        "4.0\t9.0\n" +
+                        "5.0\t11.0\n" +
+                        "6.0\t6.0\n",
+                "select price, sum(price) over (order by price desc rows 1 preceding) sum from x",
+                DDL_X,
+                null,
+                true,
+                false
+        );
+    }
+
+    @Test
+    public void testFramePartitionedRows() throws Exception {
+        assertQuery(
+                "ts\tsym\tsum\tmax\n" +
+                        "1970-01-01T00:00:00.000000Z\tB\t1.0\t1.0\n" +
+                        "1970-01-01T00:00:01.000000Z\tA\t2.0\t2.0\n" +
+                        "1970-01-01T00:00:02.000000Z\tB\t4.0\t3.0\n" +
+                        "1970-01-01T00:00:03.000000Z\tA\t6.0\t4.0\n" +
+                        "1970-01-01T00:00:04.000000Z\tB\t8.0\t5.0\n" +
+                        "1970-01-01T00:00:05.000000Z\tA\t10.0\t6.0\n",
+                "select ts, sym," +
+                        " sum(price) over (partition by sym order by ts rows 1 preceding) sum," +
+                        " max(price) over (partition by sym rows current row) max" +
+                        " from x",
+                DDL_X,
+                "ts",
+                false,
+                true,
+                true
+        );
+    }
+
+    @Test
+    public void testFrameRange() throws Exception {
+        assertQuery(
+                "ts\tsum\tavg\n" +
+                        "1970-01-01T00:00:00.000000Z\t1.0\t1.0\n" +
+                        "1970-01-01T00:00:01.000000Z\t3.0\t1.5\n" +
+                        "1970-01-01T00:00:02.000000Z\t6.0\t2.5\n" +
+                        "1970-01-01T00:00:03.000000Z\t9.0\t3.5\n" +
+                        "1970-01-01T00:00:04.000000Z\t12.0\t4.5\n" +
+                        "1970-01-01T00:00:05.000000Z\t15.0\t5.5\n",
+                "select ts," +
+                        " sum(price) over (order by ts range 2 seconds preceding) sum," +
+                        " avg(price) over (order by ts range between 1500000 preceding and current row) avg" +
+                        " from x",
+                DDL_X,
+                "ts",
+                false,
+                true,
+                true
+        );
+    }
+
+    @Test
+    public void testFrameRangeRequiresOrderBy() throws Exception {
+        assertFailure(
+                "select sum(price) over (range 2 preceding) from x",
+                DDL_X,
+                30,
+                "RANGE frame with offset requires exactly one ORDER BY column"
+        );
+    }
+
+    @Test
+    public void testFrameRangeRequiresTimestampOrder() throws Exception {
+        assertFailure(
+                "select sum(price) over (order by price range 2 preceding) from x",
+                DDL_X,
+                45,
+                "RANGE frame with offset requires ORDER BY on a timestamp column"
+        );
+    }
+
+    @Test
+    public void testFrameRows() throws Exception {
+        assertQuery(
+                "ts\tprice\tavg\tsum\tmin\tmax\tcnt\n" +
+                        "1970-01-01T00:00:00.000000Z\t1.0\t1.0\t1.0\t1.0\t1.0\t1\n" +
+                        "1970-01-01T00:00:01.000000Z\t2.0\t1.5\t3.0\t1.0\t2.0\t2\n" +
+                        "1970-01-01T00:00:02.000000Z\t3.0\t2.0\t6.0\t1.0\t3.0\t3\n" +
+                        "1970-01-01T00:00:03.000000Z\t4.0\t3.0\t9.0\t2.0\t4.0\t3\n" +
+                        "1970-01-01T00:00:04.000000Z\t5.0\t4.0\t12.0\t3.0\t5.0\t3\n" +
+                        "1970-01-01T00:00:05.000000Z\t6.0\t5.0\t15.0\t4.0\t6.0\t3\n",
+                "select ts, price," +
+                        " avg(price) over (order by ts rows between 2 preceding and current row) avg," +
+                        " sum(price) over (order by ts rows 2 preceding) sum," +
+                        " min(price) over (order by ts rows 2 preceding) min," +
+                        " max(price) over (order by ts rows 2 preceding) max," +
+                        " count() over (order by ts rows 2 preceding) cnt" +
+                        " from x",
+                DDL_X,
+                "ts",
+                false,
+                true,
+                true
+        );
+    }
+
+    @Test
+    public void testFrameStartFollowing() throws Exception {
+        assertFailure(
+                "select sum(price) over (order by ts rows between 1 following and current row) from x",
+                DDL_X,
+                49,
+                "frame start cannot be FOLLOWING"
+        );
+    }
+
+    @Test
+    public void testFrameWholePartition() throws Exception {
+        assertQuery(
+                "sym\tprice\tavg\tmax\n" +
+                        "B\t1.0\t3.0\t6.0\n" +
+                        "A\t2.0\t4.0\t6.0\n" +
+                        "B\t3.0\t3.0\t6.0\n" +
+                        "A\t4.0\t4.0\t6.0\n" +
+                        "B\t5.0\t3.0\t6.0\n" +
+                        "A\t6.0\t4.0\t6.0\n",
+                "select sym, price, avg(price) over (partition by sym) avg, max(price) over () max from x",
+                DDL_X,
+                null,
+                true,
+                false
+        );
+    }
+
+    @Test
+    public void testGroupByFunctionsOutsideOfWindow() throws Exception {
+        assertQuery(
+                "sym\tsum\tcount\n" +
+                        "A\t12.0\t3\n" +
+                        "B\t9.0\t3\n",
+                "select sym, sum(price), count() from x order by sym",
+                DDL_X,
+                null,
+                true,
+                true,
+                true
+        );
+    }
+
+    @Test
+    public void testLagAndLead() throws Exception {
+        assertQuery(
+                "ts\tprice\tlag1\tlag2\tlead1\n" +
+                        "1970-01-01T00:00:00.000000Z\t1.0\tNaN\tNaN\t2.0\n" +
+                        "1970-01-01T00:00:01.000000Z\t2.0\t1.0\tNaN\t3.0\n" +
+                        "1970-01-01T00:00:02.000000Z\t3.0\t2.0\tNaN\t4.0\n" +
+                        "1970-01-01T00:00:03.000000Z\t4.0\t3.0\tNaN\t5.0\n" +
+                        "1970-01-01T00:00:04.000000Z\t5.0\t4.0\t1.0\t6.0\n" +
+                        "1970-01-01T00:00:05.000000Z\t6.0\t5.0\t2.0\tNaN\n",
+                "select ts, price," +
+                        " lag(price) over (order by ts) lag1," +
+                        " lag(price, 2) over (partition by sym order by ts) lag2," +
+                        " lead(price) over (order by ts) lead1" +
+                        " from x",
+                DDL_X,
+                null,
+                true,
+                false
+        );
+    }
+
+    @Test
+    public void testPlanCached() throws Exception {
+        assertMemoryLeak(() -> {
+            compile(DDL_X);
+            assertPlan(
+                    "select ts, lead(price) over (order by ts) from x",
+                    "CachedAnalytic\n" +
+                            "  functions: [lead(price,1)]\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
+    @Test
+    public void testPlanStreaming() throws Exception {
+        assertMemoryLeak(() -> {
+            compile(DDL_X);
+            assertPlan(
+                    "select ts, avg(price) over (partition by sym order by ts rows 2 preceding) from x",
+                    "Analytic\n" +
+                            "  functions: [avg(price) over (partition by [sym] rows between 2 preceding and current row)]\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
     @Test
     @Ignore
     public void testRankFailsInNonAnalyticContext() throws Exception {
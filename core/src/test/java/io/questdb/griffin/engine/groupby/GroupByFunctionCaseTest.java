@@ -29,6 +29,7 @@ import io.questdb.griffin.AbstractGriffinTest;
 import io.questdb.std.Chars;
 import io.questdb.std.str.StringSink;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Locale;
@@ -41,6 +42,13 @@ public class GroupByFunctionCaseTest extends AbstractGriffinTest {
     StringSink planSink = new StringSink();
     StringSink sqlSink = new StringSink();
 
+    @Before
+    public void setUp() {
+        // plans in this suite are about vectorized vs. non-vectorized execution
+        configOverrideParallelGroupByEnabled(false);
+        super.setUp();
+    }
+
     @Test
     public void testAggregatesOnColumnWithNoKeyWorkRegardlessOfCase() throws Exception {
         assertMemoryLeak(() -> {
@@ -58,6 +58,13 @@ public class GroupByFunctionsUpdaterFactoryTest {
 
         updater.updateEmpty(value);
         Assert.assertEquals(-1, value.getLong(0));
+
+        MapValue srcValue = new SimpleMapValue(1);
+        srcValue.putLong(0, 10);
+        value.putLong(0, 1);
+        updater.merge(value, srcValue);
+        Assert.assertEquals(1 + 10 * functions.size(), value.getLong(0));
+        Assert.assertEquals(10, srcValue.getLong(0));
     }
 
     private static class TestGroupByFunction extends LongFunction implements GroupByFunction, UnaryFunction {
@@ -83,6 +90,16 @@ public class GroupByFunctionsUpdaterFactoryTest {
             return 0;
         }
 
+        @Override
+        public boolean isParallelismSupported() {
+            return true;
+        }
+
+        @Override
+        public void merge(MapValue destValue, MapValue srcValue) {
+            destValue.addLong(0, srcValue.getLong(0));
+        }
+
         @Override
         public void pushValueTypes(ArrayColumnTypes columnTypes) {
         }
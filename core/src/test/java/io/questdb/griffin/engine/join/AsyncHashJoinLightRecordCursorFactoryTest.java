@@ -0,0 +1,203 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.mp.TestWorkerPool;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AsyncHashJoinLightRecordCursorFactoryTest extends AbstractGriffinTest {
+
+    private static final int PAGE_FRAME_MAX_ROWS = 1000;
+    private static final int WORKER_COUNT = 4;
+
+    @BeforeClass
+    public static void setUpStatic() {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        AbstractGriffinTest.setUpStatic();
+    }
+
+    @Before
+    public void setUp() {
+        // small page frames make sure that the rows are spread between the workers
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        super.setUp();
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        configOverrideParallelHashJoinEnabled(false);
+        withPool(ctx -> {
+            createTables(ctx);
+            assertFactoryClass(ctx, "select * from x join y on i", HashJoinLightRecordCursorFactory.class);
+        });
+    }
+
+    @Test
+    public void testEmptySlave() throws Exception {
+        withPool(ctx -> {
+            createTables(ctx);
+            compiler.compile("create table z as (select * from y where 1 = 0)", ctx);
+            assertParallelMatchesSerial(ctx, "select * from x join z on i");
+        });
+    }
+
+    @Test
+    public void testFilteredMatchesSerial() throws Exception {
+        withPool(ctx -> {
+            createTables(ctx);
+            assertParallelMatchesSerial(ctx, "select * from x join y on i where x.l > 500");
+            assertParallelMatchesSerial(ctx, "select * from x join y on s where x.str = 'foo'");
+            assertParallelMatchesSerial(ctx, "select * from (x where l < 100 order by ts desc) a join y on i");
+        });
+    }
+
+    @Test
+    public void testMatchesSerial() throws Exception {
+        withPool(ctx -> {
+            createTables(ctx);
+            assertParallelMatchesSerial(ctx, "select * from x join y on i");
+            assertParallelMatchesSerial(ctx, "select * from x join y on s");
+            assertParallelMatchesSerial(ctx, "select * from x join y on str");
+            assertParallelMatchesSerial(ctx, "select * from x join y on (i, s)");
+            assertParallelMatchesSerial(ctx, "select x.ts, y.ts, x.i from x join y on (i)");
+            assertParallelMatchesSerial(ctx, "select * from (x order by ts desc) a join y on i");
+        });
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        withPool(ctx -> {
+            compiler.compile("create table x as (select x i, x l from long_sequence(100))", ctx);
+            compiler.compile("create table y as (select x i from long_sequence(10))", ctx);
+            assertPlan(
+                    "select * from x join y on i",
+                    "SelectedRecord\n" +
+                            "    Async Hash Join Light\n" +
+                            "      condition: y.i=x.i\n" +
+                            "      workers: 1\n" +
+                            "        DataFrame\n" +
+                            "            Row forward scan\n" +
+                            "            Frame forward scan on: x\n" +
+                            "        Hash\n" +
+                            "            DataFrame\n" +
+                            "                Row forward scan\n" +
+                            "                Frame forward scan on: y\n"
+            );
+        });
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        withPool(ctx -> {
+            createTables(ctx);
+            configOverrideParallelHashJoinEnabled(false);
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, ctx, "select * from x join y on i", expected);
+            configOverrideParallelHashJoinEnabled(true);
+            try (RecordCursorFactory factory = compiler.compile("select * from x join y on i", ctx).getRecordCursorFactory()) {
+                // the join is wrapped by the column projection
+                Assert.assertEquals(AsyncHashJoinLightRecordCursorFactory.class, factory.getBaseFactory().getClass());
+                for (int i = 0; i < 3; i++) {
+                    try (RecordCursor cursor = factory.getCursor(ctx)) {
+                        TestUtils.assertCursor(expected, cursor, factory.getMetadata(), true, sink);
+                    }
+                }
+            }
+        });
+    }
+
+    private void assertFactoryClass(SqlExecutionContext ctx, String sql, Class<?> expected) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(sql, ctx).getRecordCursorFactory()) {
+            // the join is wrapped by the column projection
+            Assert.assertEquals(expected, factory.getBaseFactory().getClass());
+        }
+    }
+
+    private void assertParallelMatchesSerial(SqlExecutionContext ctx, String sql) throws SqlException {
+        configOverrideParallelHashJoinEnabled(false);
+        final StringSink expected = new StringSink();
+        TestUtils.printSql(compiler, ctx, sql, expected);
+        configOverrideParallelHashJoinEnabled(true);
+        assertFactoryClass(ctx, sql, AsyncHashJoinLightRecordCursorFactory.class);
+        TestUtils.assertSql(compiler, ctx, sql, sink, expected);
+    }
+
+    private void createTables(SqlExecutionContext ctx) throws SqlException {
+        compiler.compile(
+                "create table x as (" +
+                        "select rnd_symbol('a','b','c',null) s," +
+                        " rnd_str('foo','bar','baz',null) str," +
+                        " rnd_int(0, 200, 2) i," +
+                        " rnd_long(0, 1000, 2) l," +
+                        " timestamp_sequence(0, 1000000) ts" +
+                        " from long_sequence(20000)" +
+                        ") timestamp(ts) partition by hour",
+                ctx
+        );
+        compiler.compile(
+                "create table y as (" +
+                        "select rnd_symbol('a','b','c','d',null) s," +
+                        " rnd_str('foo','bar','qux',null) str," +
+                        " rnd_int(0, 300, 2) i," +
+                        " timestamp_sequence(0, 1000000) ts" +
+                        " from long_sequence(500)" +
+                        ") timestamp(ts) partition by hour",
+                ctx
+        );
+    }
+
+    private void withPool(PoolRunnable runnable) throws Exception {
+        assertMemoryLeak(() -> {
+            final WorkerPool pool = new TestWorkerPool(WORKER_COUNT);
+            TestUtils.setupWorkerPool(pool, engine);
+            pool.start();
+            try {
+                final SqlExecutionContext ctx = new SqlExecutionContextImpl(engine, WORKER_COUNT, WORKER_COUNT)
+                        .with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null, -1, null);
+                runnable.run(ctx);
+            } finally {
+                pool.halt();
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface PoolRunnable {
+        void run(SqlExecutionContext ctx) throws Exception;
+    }
+}
@@ -33,8 +33,10 @@ import io.questdb.griffin.*;
 import io.questdb.griffin.engine.analytic.AnalyticContext;
 import io.questdb.jit.JitUtil;
 import io.questdb.mp.*;
+import io.questdb.std.Files;
 import io.questdb.std.Misc;
 import io.questdb.std.Rnd;
+import io.questdb.std.TestFilesFacadeImpl;
 import io.questdb.std.str.StringSink;
 import io.questdb.test.tools.TestUtils;
 import org.hamcrest.MatcherAssert;
@@ -382,6 +384,52 @@ public class AsyncFilteredRecordCursorFactoryTest extends AbstractGriffinTest {
         testPageFrameSequence(SqlJitMode.JIT_MODE_DISABLED, AsyncFilteredRecordCursorFactory.class);
     }
 
+    @Test
+    public void testPageFramePrefetch() throws Exception {
+        final int pageFrameRows = 100;
+        final int frameCount = 20;
+        pageFrameMaxRows = pageFrameRows;
+        final AtomicInteger prefetchCount = new AtomicInteger();
+        final AtomicInteger misalignedCount = new AtomicInteger();
+        ff = new TestFilesFacadeImpl() {
+            @Override
+            public void madvise(long address, long len, int advise) {
+                if (advise == Files.POSIX_MADV_WILLNEED) {
+                    prefetchCount.incrementAndGet();
+                    if (address % Files.PAGE_SIZE != 0) {
+                        misalignedCount.incrementAndGet();
+                    }
+                }
+                super.madvise(address, len, advise);
+            }
+        };
+
+        withPool((engine, compiler, sqlExecutionContext) -> {
+            sqlExecutionContext.setJitMode(SqlJitMode.JIT_MODE_DISABLED);
+            compiler.compile("create table x as (" +
+                    "  select rnd_double() a, rnd_str(5, 10, 0) s," +
+                    "  timestamp_sequence(0, 100000) t from long_sequence(" + (frameCount * pageFrameRows) + ")" +
+                    ") timestamp(t) partition by hour", sqlExecutionContext);
+
+            final String sql = "x where a > 0.9999";
+            try (RecordCursorFactory f = compiler.compile(sql, sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertEquals(AsyncFilteredRecordCursorFactory.class, f.getClass());
+                prefetchCount.set(0);
+                try (RecordCursor cursor = f.getCursor(sqlExecutionContext)) {
+                    while (cursor.hasNext()) {
+                        Assert.assertTrue(cursor.getRecord().getDouble(0) > 0.9999);
+                    }
+                }
+            }
+
+            // every frame is prefetched once: a, t, and both s index and data pages
+            Assert.assertEquals(4 * frameCount, prefetchCount.get());
+            Assert.assertEquals(0, misalignedCount.get());
+
+            resetTaskCapacities();
+        });
+    }
+
     @Test
     public void testPositiveLimit() throws Exception {
         withPool((engine, compiler, sqlExecutionContext) -> {
@@ -409,6 +457,8 @@ public class AsyncFilteredRecordCursorFactoryTest extends AbstractGriffinTest {
 
     @Test
     public void testPositiveLimitGroupBy() throws Exception {
+        // parallel GROUP BY would fuse the filter and make the floating-point sum order-dependent
+        configOverrideParallelGroupByEnabled(false);
         withPool((engine, compiler, sqlExecutionContext) -> {
             compiler.compile("create table x as (select rnd_double() a, timestamp_sequence(20000000, 100000) t from long_sequence(2000000)) timestamp(t) partition by hour", sqlExecutionContext);
             final String sql = "select sum(a) from x where a > 0.345747032 and a < 0.34575 limit 5";
@@ -809,9 +859,13 @@ public class AsyncFilteredRecordCursorFactoryTest extends AbstractGriffinTest {
                 @Nullable RecordSink partitionBySink,
                 @Nullable ColumnTypes keyTypes,
                 boolean isOrdered,
-                boolean baseSupportsRandomAccess
+                boolean baseSupportsRandomAccess,
+                int framingMode,
+                long rowsLo,
+                long rowsHi,
+                int timestampIndex
         ) {
-            sqlExecutionContext.configureAnalyticContext(partitionByRecord, partitionBySink, keyTypes, isOrdered, baseSupportsRandomAccess);
+            sqlExecutionContext.configureAnalyticContext(partitionByRecord, partitionBySink, keyTypes, isOrdered, baseSupportsRandomAccess, framingMode, rowsLo, rowsHi, timestampIndex);
         }
 
         @Override
@@ -0,0 +1,247 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.griffin.engine.groupby.GroupByRecordCursorFactory;
+import io.questdb.mp.TestWorkerPool;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AsyncGroupByRecordCursorFactoryTest extends AbstractGriffinTest {
+
+    private static final int PAGE_FRAME_MAX_ROWS = 1000;
+    private static final int WORKER_COUNT = 4;
+
+    @BeforeClass
+    public static void setUpStatic() {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        AbstractGriffinTest.setUpStatic();
+    }
+
+    @Before
+    public void setUp() {
+        // small page frames make sure that the reduce work is spread between the workers
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        super.setUp();
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        configOverrideParallelGroupByEnabled(false);
+        withPool(ctx -> {
+            compiler.compile("create table x as (select rnd_symbol('a','b','c') s, rnd_str('foo','bar') str, x l from long_sequence(100))", ctx);
+            assertFactoryClass(ctx, "select s, str, sum(l) from x", GroupByRecordCursorFactory.class);
+        });
+    }
+
+    @Test
+    public void testFallbackOnNonMergeableFunction() throws Exception {
+        withPool(ctx -> {
+            compiler.compile("create table x as (select rnd_symbol('a','b','c') s, rnd_int(0, 10, 0) i from long_sequence(100))", ctx);
+            assertFactoryClass(ctx, "select s, count_distinct(i) from x", GroupByRecordCursorFactory.class);
+        });
+    }
+
+    @Test
+    public void testKeyedMatchesSerial() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+
+            assertParallelMatchesSerial(ctx, "select s, count(), sum(i), sum(l), min(l), max(l), min(i), max(i) from x order by s");
+            assertParallelMatchesSerial(ctx, "select s, str, count(), min(d), max(d), min(f), max(f), min(c), max(c) from x order by s, str");
+            assertParallelMatchesSerial(ctx, "select i, count(), min(ts), max(ts), sum(l) from x order by i");
+            assertParallelMatchesSerial(ctx, "select s, str, round(avg(d), 3), round(sum(d), 3) from x order by s, str");
+        });
+    }
+
+    @Test
+    public void testKeyedPlan() throws Exception {
+        withPool(ctx -> {
+            compiler.compile("create table x as (select rnd_symbol('a','b','c') s, rnd_str('foo','bar') str, x l from long_sequence(100))", ctx);
+            assertFactoryClass(ctx, "select s, str, sum(l), count() from x", AsyncGroupByRecordCursorFactory.class);
+            assertPlan(
+                    "select s, str, sum(l), count() from x",
+                    "Async Group By\n" +
+                            "  keys: [s,str]\n" +
+                            "  values: [sum(l),count(*)]\n" +
+                            "  workers: 1\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
+    @Test
+    public void testKeyedSymbolAndInt() throws Exception {
+        withPool(ctx -> {
+            compiler.compile("create table x as (select rnd_symbol('a','b','c') s, rnd_int(0, 1, 0) i, x l from long_sequence(10000))", ctx);
+            TestUtils.assertSql(
+                    compiler,
+                    ctx,
+                    "select s, i, count(), sum(l) from x order by s, i",
+                    sink,
+                    "s\ti\tcount\tsum\n" +
+                            "a\t0\t1679\t8565549\n" +
+                            "a\t1\t1679\t8260492\n" +
+                            "b\t0\t1715\t8665553\n" +
+                            "b\t1\t1607\t7863437\n" +
+                            "c\t0\t1638\t8277640\n" +
+                            "c\t1\t1682\t8372329\n"
+            );
+        });
+    }
+
+    @Test
+    public void testFilteredMatchesSerial() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+            assertParallelMatchesSerial(ctx, "select count(), sum(l), min(c) from x where d > 0.5");
+            assertParallelMatchesSerial(ctx, "select s, str, count(), sum(i), max(ts) from x where s = 'a' or str = 'foo' order by s, str");
+            assertParallelMatchesSerial(ctx, "select count(), min(l), max(l) from x where i > 50 and s in ('b', 'c')");
+            assertParallelMatchesSerial(ctx, "select s, str, count() from x where str ~ 'ba' order by s, str");
+        });
+    }
+
+    @Test
+    public void testFilteredPlan() throws Exception {
+        withPool(ctx -> {
+            compiler.compile("create table x as (select rnd_symbol('a','b','c') s, rnd_double() d, x l from long_sequence(100))", ctx);
+            assertFactoryClass(ctx, "select count(), avg(l) from x where d > 0.5", AsyncGroupByNotKeyedRecordCursorFactory.class);
+            assertPlan(
+                    "select count(), avg(l) from x where d > 0.5",
+                    "Async JIT Group By\n" +
+                            "  values: [count(*),avg(l)]\n" +
+                            "  filter: 0.5<d\n" +
+                            "  workers: 1\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
+    @Test
+    public void testNonKeyedEmptyResult() throws Exception {
+        withPool(ctx -> {
+            compiler.compile("create table x as (select rnd_str('foo','bar') str, x l from long_sequence(10000))", ctx);
+            TestUtils.assertSql(
+                    compiler,
+                    ctx,
+                    "select count(), sum(l), max(l) from x where l < 0",
+                    sink,
+                    "count\tsum\tmax\n" +
+                            "0\tNaN\tNaN\n"
+            );
+        });
+    }
+
+    @Test
+    public void testNonKeyedMatchesSerial() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+            assertFactoryClass(ctx, "select count(), sum(l), min(c), max(c) from x", AsyncGroupByNotKeyedRecordCursorFactory.class);
+            assertParallelMatchesSerial(ctx, "select count(), sum(l), min(c), max(c) from x");
+            assertParallelMatchesSerial(ctx, "select min(ts), max(ts), min(f), max(f), count(i) from x");
+            assertParallelMatchesSerial(
+                    ctx,
+                    "select round(ksum(d), 3), round(nsum(d), 3), round(stddev_samp(d), 6), round(avg(d), 6) from x"
+            );
+        });
+    }
+
+    @Test
+    public void testNonThreadSafeFunctionArgs() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+            assertFactoryClass(ctx, "select sum(length(s)), count() from x", AsyncGroupByNotKeyedRecordCursorFactory.class);
+            assertParallelMatchesSerial(ctx, "select sum(length(s)), count() from x");
+            assertParallelMatchesSerial(ctx, "select str, sum(length(s)), max(length(s)) from x where s != 'a' order by str");
+        });
+    }
+
+    private void assertFactoryClass(SqlExecutionContext ctx, String sql, Class<?> expected) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(sql, ctx).getRecordCursorFactory()) {
+            Assert.assertEquals(expected, factory.getClass());
+        }
+    }
+
+    private void assertParallelMatchesSerial(SqlExecutionContext ctx, String sql) throws SqlException {
+        configOverrideParallelGroupByEnabled(false);
+        final StringSink expected = new StringSink();
+        TestUtils.printSql(compiler, ctx, sql, expected);
+        configOverrideParallelGroupByEnabled(true);
+        TestUtils.assertSql(compiler, ctx, sql, sink, expected);
+    }
+
+    private void createTable(SqlExecutionContext ctx) throws SqlException {
+        compiler.compile(
+                "create table x as (" +
+                        "select rnd_symbol('a','b','c','d','e',null) s," +
+                        " rnd_str('foo','bar','baz',null) str," +
+                        " rnd_int(0, 100, 2) i," +
+                        " rnd_long(0, 1000, 2) l," +
+                        " rnd_double(2) d," +
+                        " rnd_float(2) f," +
+                        " rnd_char() c," +
+                        " timestamp_sequence(0, 1000000) ts" +
+                        " from long_sequence(100000)" +
+                        ") timestamp(ts) partition by hour",
+                ctx
+        );
+    }
+
+    private void withPool(PoolRunnable runnable) throws Exception {
+        assertMemoryLeak(() -> {
+            final WorkerPool pool = new TestWorkerPool(WORKER_COUNT);
+            TestUtils.setupWorkerPool(pool, engine);
+            pool.start();
+            try {
+                final SqlExecutionContext ctx = new SqlExecutionContextImpl(engine, WORKER_COUNT, WORKER_COUNT)
+                        .with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null, -1, null);
+                runnable.run(ctx);
+            } finally {
+                pool.halt();
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface PoolRunnable {
+        void run(SqlExecutionContext ctx) throws Exception;
+    }
+}
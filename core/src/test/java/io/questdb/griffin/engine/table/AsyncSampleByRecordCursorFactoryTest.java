@@ -0,0 +1,215 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.mp.TestWorkerPool;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AsyncSampleByRecordCursorFactoryTest extends AbstractGriffinTest {
+
+    private static final int PAGE_FRAME_MAX_ROWS = 1000;
+    private static final int WORKER_COUNT = 4;
+
+    @BeforeClass
+    public static void setUpStatic() {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        AbstractGriffinTest.setUpStatic();
+    }
+
+    @Before
+    public void setUp() {
+        // small page frames make sure that the reduce work is spread between the workers
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        super.setUp();
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        configOverrideParallelGroupByEnabled(false);
+        withPool(ctx -> {
+            createTable(ctx);
+            assertNotParallel(ctx, "select ts, sum(l) from x sample by 1h");
+        });
+    }
+
+    @Test
+    public void testEmptyTable() throws Exception {
+        withPool(ctx -> {
+            compiler.compile("create table x (s symbol, l long, ts timestamp) timestamp(ts) partition by day", ctx);
+            assertParallel(ctx, "select ts, s, sum(l) from x sample by 1h");
+            TestUtils.assertSql(compiler, ctx, "select ts, s, sum(l) from x sample by 1h", sink, "ts\ts\tsum\n");
+            TestUtils.assertSql(compiler, ctx, "select ts, sum(l) from x sample by 1h", sink, "ts\tsum\n");
+        });
+    }
+
+    @Test
+    public void testFallbackOnFilterWithFirstObservationAlignment() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+            // bucket boundaries depend on the first row that passes the filter
+            assertNotParallel(ctx, "select ts, count() from x where s = 'a' sample by 1h");
+        });
+    }
+
+    @Test
+    public void testFallbackOnMonthSampler() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+            assertNotParallel(ctx, "select ts, count() from x sample by 1M");
+        });
+    }
+
+    @Test
+    public void testFallbackOnTimeZone() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+            assertNotParallel(ctx, "select ts, count() from x sample by 1h align to calendar time zone 'Europe/London'");
+        });
+    }
+
+    @Test
+    public void testFilteredMatchesSerial() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+            assertParallel(ctx, "select ts, count(), sum(l) from x where d > 0.5 sample by 1h align to calendar");
+            assertParallelMatchesSerial(ctx, "select ts, count(), sum(l), first(i), last(i) from x where d > 0.5 sample by 1h align to calendar");
+            assertParallelMatchesSerial(ctx, "select ts, first(l), last(l) from x where s = 'a' sample by 17m align to calendar with offset '00:05'");
+            assertParallelMatchesSerial(
+                    ctx,
+                    "select * from (select ts, s, count(), max(d) from x where str ~ 'ba' sample by 30m align to calendar) order by ts, s"
+            );
+        });
+    }
+
+    @Test
+    public void testKeyedMatchesSerial() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+            // order of the keys within a bucket is not defined, so we sort the result
+            assertParallelMatchesSerial(ctx, "select * from (select ts, s, count(), sum(l), min(d), max(d) from x sample by 1h) order by ts, s");
+            assertParallelMatchesSerial(ctx, "select * from (select s, str, ts, first(i), last(i), first(c), last(c) from x sample by 45m) order by ts, s, str");
+            assertParallelMatchesSerial(ctx, "select * from (select s, count(), last(ts) from x sample by 2h align to calendar) order by s");
+        });
+    }
+
+    @Test
+    public void testNotKeyedMatchesSerial() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+            assertParallelMatchesSerial(ctx, "select ts, first(d) open, max(d) high, min(d) low, last(d) close, sum(l) from x sample by 1m");
+            assertParallelMatchesSerial(ctx, "select ts, first(f), last(f), first(ts), last(ts), count() from x sample by 7m");
+            assertParallelMatchesSerial(ctx, "select ts, first(l), last(l), count() from x sample by 1h align to calendar with offset '00:10'");
+            assertParallelMatchesSerial(ctx, "select count(), max(l) from x sample by 3h");
+        });
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        withPool(ctx -> {
+            compiler.compile("create table x as (select rnd_symbol('a','b','c') s, x l, timestamp_sequence(0, 1000000) ts from long_sequence(100)) timestamp(ts)", ctx);
+            assertParallel(ctx, "select ts, s, first(l), last(l) from x sample by 1m");
+            assertPlan(
+                    "select ts, s, first(l), last(l) from x sample by 1m",
+                    "Async Sample By\n" +
+                            "  keys: [ts,s]\n" +
+                            "  values: [first(l),last(l)]\n" +
+                            "  workers: 1\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
+    private void assertNotParallel(SqlExecutionContext ctx, String sql) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(sql, ctx).getRecordCursorFactory()) {
+            Assert.assertNotEquals(AsyncSampleByRecordCursorFactory.class, factory.getClass());
+        }
+    }
+
+    private void assertParallel(SqlExecutionContext ctx, String sql) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(sql, ctx).getRecordCursorFactory()) {
+            Assert.assertEquals(AsyncSampleByRecordCursorFactory.class, factory.getClass());
+        }
+    }
+
+    private void assertParallelMatchesSerial(SqlExecutionContext ctx, String sql) throws SqlException {
+        configOverrideParallelGroupByEnabled(false);
+        final StringSink expected = new StringSink();
+        TestUtils.printSql(compiler, ctx, sql, expected);
+        configOverrideParallelGroupByEnabled(true);
+        TestUtils.assertSql(compiler, ctx, sql, sink, expected);
+    }
+
+    private void createTable(SqlExecutionContext ctx) throws SqlException {
+        compiler.compile(
+                "create table x as (" +
+                        "select rnd_symbol('a','b','c','d','e',null) s," +
+                        " rnd_str('foo','bar','baz',null) str," +
+                        " rnd_int(0, 100, 2) i," +
+                        " rnd_long(0, 1000, 2) l," +
+                        " rnd_double(2) d," +
+                        " rnd_float(2) f," +
+                        " rnd_char() c," +
+                        " timestamp_sequence(0, 1000000) ts" +
+                        " from long_sequence(100000)" +
+                        ") timestamp(ts) partition by hour",
+                ctx
+        );
+    }
+
+    private void withPool(PoolRunnable runnable) throws Exception {
+        assertMemoryLeak(() -> {
+            final WorkerPool pool = new TestWorkerPool(WORKER_COUNT);
+            TestUtils.setupWorkerPool(pool, engine);
+            pool.start();
+            try {
+                final SqlExecutionContext ctx = new SqlExecutionContextImpl(engine, WORKER_COUNT, WORKER_COUNT)
+                        .with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null, -1, null);
+                runnable.run(ctx);
+            } finally {
+                pool.halt();
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface PoolRunnable {
+        void run(SqlExecutionContext ctx) throws Exception;
+    }
+}
@@ -0,0 +1,234 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.griffin.engine.orderby.SortedLightRecordCursorFactory;
+import io.questdb.mp.TestWorkerPool;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AsyncSortLightRecordCursorFactoryTest extends AbstractGriffinTest {
+
+    private static final int PAGE_FRAME_MAX_ROWS = 1000;
+    private static final int WORKER_COUNT = 4;
+
+    @BeforeClass
+    public static void setUpStatic() {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        AbstractGriffinTest.setUpStatic();
+    }
+
+    @Before
+    public void setUp() {
+        // small page frames make sure that the sorting is spread between the workers
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        super.setUp();
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        configOverrideParallelOrderByEnabled(false);
+        withPool(ctx -> {
+            compiler.compile("create table x as (select rnd_symbol('a','b','c') s, x l from long_sequence(100))", ctx);
+            assertFactoryClass(ctx, "select * from x order by s", SortedLightRecordCursorFactory.class);
+        });
+    }
+
+    @Test
+    public void testEmptyResult() throws Exception {
+        withPool(ctx -> {
+            compiler.compile("create table x as (select rnd_str('foo','bar') str, x l from long_sequence(10000))", ctx);
+            TestUtils.assertSql(
+                    compiler,
+                    ctx,
+                    "select * from x where l < 0 order by str",
+                    sink,
+                    "str\tl\n"
+            );
+        });
+    }
+
+    @Test
+    public void testFilteredMatchesSerial() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+            assertParallelMatchesSerial(ctx, "select * from x where d > 0.5 order by l");
+            assertParallelMatchesSerial(ctx, "select * from x where s = 'a' or str = 'foo' order by str desc, i");
+            assertParallelMatchesSerial(ctx, "select s, l, ts from x where i > 50 and s in ('b', 'c') order by s, l desc");
+            assertParallelMatchesSerial(ctx, "select * from x where str ~ 'ba' order by c");
+        });
+    }
+
+    @Test
+    public void testFilteredPlan() throws Exception {
+        withPool(ctx -> {
+            compiler.compile("create table x as (select rnd_symbol('a','b','c') s, rnd_double() d, x l from long_sequence(100))", ctx);
+            assertFactoryClass(ctx, "select * from x where d > 0.5 order by s", AsyncSortLightRecordCursorFactory.class);
+            assertPlan(
+                    "select * from x where d > 0.5 order by s",
+                    "Async JIT Sort light\n" +
+                            "  keys: [s]\n" +
+                            "  filter: 0.5<d\n" +
+                            "  workers: 1\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
+    @Test
+    public void testMatchesSerial() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+            assertParallelMatchesSerial(ctx, "select * from x order by l");
+            assertParallelMatchesSerial(ctx, "select * from x order by s, d desc");
+            assertParallelMatchesSerial(ctx, "select * from x order by str desc, f");
+            assertParallelMatchesSerial(ctx, "select * from x order by str, str2 desc");
+            assertParallelMatchesSerial(ctx, "select * from x order by ts desc, i");
+        });
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        withPool(ctx -> {
+            compiler.compile("create table x as (select rnd_symbol('a','b','c') s, x l from long_sequence(100))", ctx);
+            assertFactoryClass(ctx, "select * from x order by s, l desc", AsyncSortLightRecordCursorFactory.class);
+            assertPlan(
+                    "select * from x order by s, l desc",
+                    "Async Sort light\n" +
+                            "  keys: [s, l desc]\n" +
+                            "  workers: 1\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
+    @Test
+    public void testRandomAccess() throws Exception {
+        withPool(ctx -> {
+            compiler.compile("create table x as (select rnd_int(0, 1000, 0) i, x l from long_sequence(10000))", ctx);
+            try (
+                    RecordCursorFactory factory = compiler.compile("select * from x order by i, l", ctx).getRecordCursorFactory();
+                    RecordCursor cursor = factory.getCursor(ctx)
+            ) {
+                Assert.assertEquals(10000, cursor.size());
+                int prevI = Integer.MIN_VALUE;
+                long prevL = Long.MIN_VALUE;
+                long rowCount = 0;
+                long midRowId = -1;
+                long midL = -1;
+                while (cursor.hasNext()) {
+                    final int i = cursor.getRecord().getInt(0);
+                    final long l = cursor.getRecord().getLong(1);
+                    Assert.assertTrue(i > prevI || (i == prevI && l > prevL));
+                    prevI = i;
+                    prevL = l;
+                    if (++rowCount == 5000) {
+                        midRowId = cursor.getRecord().getRowId();
+                        midL = l;
+                    }
+                }
+                Assert.assertEquals(10000, rowCount);
+
+                cursor.recordAt(cursor.getRecordB(), midRowId);
+                Assert.assertEquals(midL, cursor.getRecordB().getLong(1));
+
+                cursor.toTop();
+                rowCount = 0;
+                while (cursor.hasNext()) {
+                    rowCount++;
+                }
+                Assert.assertEquals(10000, rowCount);
+            }
+        });
+    }
+
+    private void assertFactoryClass(SqlExecutionContext ctx, String sql, Class<?> expected) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(sql, ctx).getRecordCursorFactory()) {
+            Assert.assertEquals(expected, factory.getClass());
+        }
+    }
+
+    private void assertParallelMatchesSerial(SqlExecutionContext ctx, String sql) throws SqlException {
+        configOverrideParallelOrderByEnabled(false);
+        final StringSink expected = new StringSink();
+        TestUtils.printSql(compiler, ctx, sql, expected);
+        configOverrideParallelOrderByEnabled(true);
+        TestUtils.assertSql(compiler, ctx, sql, sink, expected);
+    }
+
+    private void createTable(SqlExecutionContext ctx) throws SqlException {
+        compiler.compile(
+                "create table x as (" +
+                        "select rnd_symbol('a','b','c','d','e',null) s," +
+                        " rnd_str('foo','bar','baz',null) str," +
+                        " rnd_str(1,2,2) str2," +
+                        " rnd_int(0, 100, 2) i," +
+                        " rnd_long(0, 1000, 2) l," +
+                        " rnd_double(2) d," +
+                        " rnd_float(2) f," +
+                        " rnd_char() c," +
+                        " timestamp_sequence(0, 1000000) ts" +
+                        " from long_sequence(100000)" +
+                        ") timestamp(ts) partition by hour",
+                ctx
+        );
+    }
+
+    private void withPool(PoolRunnable runnable) throws Exception {
+        assertMemoryLeak(() -> {
+            final WorkerPool pool = new TestWorkerPool(WORKER_COUNT);
+            TestUtils.setupWorkerPool(pool, engine);
+            pool.start();
+            try {
+                final SqlExecutionContext ctx = new SqlExecutionContextImpl(engine, WORKER_COUNT, WORKER_COUNT)
+                        .with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null, -1, null);
+                runnable.run(ctx);
+            } finally {
+                pool.halt();
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface PoolRunnable {
+        void run(SqlExecutionContext ctx) throws Exception;
+    }
+}
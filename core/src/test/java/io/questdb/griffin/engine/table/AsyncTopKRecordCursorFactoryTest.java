@@ -0,0 +1,222 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.griffin.engine.orderby.LimitedSizeSortedLightRecordCursorFactory;
+import io.questdb.mp.TestWorkerPool;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AsyncTopKRecordCursorFactoryTest extends AbstractGriffinTest {
+
+    private static final String[] LIMITS = {
+            "10", "-10", "0", "100000", "5, 20", "-20, -5", "10, -10", "20, 5", "-3, -10", "-5, 0"
+    };
+    private static final int PAGE_FRAME_MAX_ROWS = 1000;
+    private static final int WORKER_COUNT = 4;
+
+    @BeforeClass
+    public static void setUpStatic() {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        AbstractGriffinTest.setUpStatic();
+    }
+
+    @Before
+    public void setUp() {
+        // small page frames make sure that the rows are spread between the workers
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        super.setUp();
+    }
+
+    @Test
+    public void testBindVariableLimit() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+            try (RecordCursorFactory factory = compiler.compile("select * from x order by i desc limit $1", ctx).getRecordCursorFactory()) {
+                Assert.assertEquals(AsyncTopKRecordCursorFactory.class, factory.getClass());
+                for (int limit : new int[]{3, -7, 25}) {
+                    bindVariableService.setInt(0, limit);
+                    try (RecordCursor cursor = factory.getCursor(ctx)) {
+                        long rowCount = 0;
+                        while (cursor.hasNext()) {
+                            rowCount++;
+                        }
+                        Assert.assertEquals(Math.abs(limit), rowCount);
+                        Assert.assertEquals(Math.abs(limit), cursor.size());
+                    }
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        configOverrideParallelOrderByEnabled(false);
+        withPool(ctx -> {
+            compiler.compile("create table x as (select rnd_long() l from long_sequence(100))", ctx);
+            assertFactoryClass(ctx, "select * from x order by l limit 10", LimitedSizeSortedLightRecordCursorFactory.class);
+        });
+    }
+
+    @Test
+    public void testFilteredMatchesSerial() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+            assertParallelMatchesSerial(ctx, "select * from x where s = 'a' order by l", true);
+            assertParallelMatchesSerial(ctx, "select * from x where d > 0.5 order by i desc", true);
+            assertParallelMatchesSerial(ctx, "select * from x where str = 'foo' order by d", true);
+        });
+    }
+
+    @Test
+    public void testFilteredPlan() throws Exception {
+        withPool(ctx -> {
+            compiler.compile("create table x as (select rnd_double() d, x l from long_sequence(100))", ctx);
+            assertPlan(
+                    "select * from x where d > 0.5 order by l desc limit 10",
+                    "Async JIT Top K lo: 10\n" +
+                            "  keys: [l desc]\n" +
+                            "  filter: 0.5<d\n" +
+                            "  workers: 1\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
+    @Test
+    public void testMatchesSerial() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+            assertParallelMatchesSerial(ctx, "select * from x order by i", true);
+            assertParallelMatchesSerial(ctx, "select * from x order by i desc", true);
+            assertParallelMatchesSerial(ctx, "select * from x order by l desc", true);
+            assertParallelMatchesSerial(ctx, "select * from x order by d", true);
+            assertParallelMatchesSerial(ctx, "select * from x order by d desc", true);
+            assertParallelMatchesSerial(ctx, "select * from x order by z, l", false);
+            assertParallelMatchesSerial(ctx, "select * from x order by z desc", true);
+            assertParallelMatchesSerial(ctx, "select * from x order by dt", true);
+            assertParallelMatchesSerial(ctx, "select * from x order by ts desc", false);
+        });
+    }
+
+    @Test
+    public void testNotSupportedKeys() throws Exception {
+        withPool(ctx -> {
+            createTable(ctx);
+            assertFactoryClass(ctx, "select * from x order by s limit 10", LimitedSizeSortedLightRecordCursorFactory.class);
+            assertFactoryClass(ctx, "select * from x order by i, l limit 10", LimitedSizeSortedLightRecordCursorFactory.class);
+            assertFactoryClass(ctx, "select * from x order by f limit 10", LimitedSizeSortedLightRecordCursorFactory.class);
+        });
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        withPool(ctx -> {
+            compiler.compile("create table x as (select rnd_int() i, x l from long_sequence(100))", ctx);
+            assertPlan(
+                    "select * from x order by i limit -5, -2",
+                    "Async Top K lo: -5 hi: -2\n" +
+                            "  keys: [i]\n" +
+                            "  workers: 1\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
+    private void assertFactoryClass(SqlExecutionContext ctx, String sql, Class<?> expected) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(sql, ctx).getRecordCursorFactory()) {
+            Assert.assertEquals(expected, factory.getClass());
+        }
+    }
+
+    private void assertParallelMatchesSerial(SqlExecutionContext ctx, String sql, boolean topK) throws SqlException {
+        for (String limit : LIMITS) {
+            final String query = sql + " limit " + limit;
+            configOverrideParallelOrderByEnabled(false);
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, ctx, query, expected);
+            configOverrideParallelOrderByEnabled(true);
+            // a constant LIMIT L, H with L >= 0 and H < 0 is not implemented by the sort
+            if (topK && !limit.equals("10, -10")) {
+                assertFactoryClass(ctx, query, AsyncTopKRecordCursorFactory.class);
+            }
+            TestUtils.assertSql(compiler, ctx, query, sink, expected);
+        }
+    }
+
+    private void createTable(SqlExecutionContext ctx) throws SqlException {
+        compiler.compile(
+                "create table x as (" +
+                        "select rnd_symbol('a','b','c',null) s," +
+                        " rnd_str('foo','bar','baz',null) str," +
+                        " rnd_int(0, 100, 2) i," +
+                        " rnd_long(0, 1000, 2) l," +
+                        " rnd_double(2) d," +
+                        " rnd_float(2) f," +
+                        " (x % 3 - 1) * 0.0 z," +
+                        " rnd_date(to_date('2022', 'yyyy'), to_date('2023', 'yyyy'), 2) dt," +
+                        " timestamp_sequence(0, 1000000) ts" +
+                        " from long_sequence(100000)" +
+                        ") timestamp(ts) partition by hour",
+                ctx
+        );
+    }
+
+    private void withPool(PoolRunnable runnable) throws Exception {
+        assertMemoryLeak(() -> {
+            final WorkerPool pool = new TestWorkerPool(WORKER_COUNT);
+            TestUtils.setupWorkerPool(pool, engine);
+            pool.start();
+            try {
+                final SqlExecutionContext ctx = new SqlExecutionContextImpl(engine, WORKER_COUNT, WORKER_COUNT)
+                        .with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null, -1, null);
+                runnable.run(ctx);
+            } finally {
+                pool.halt();
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface PoolRunnable {
+        void run(SqlExecutionContext ctx) throws Exception;
+    }
+}
@@ -38,7 +38,10 @@ import io.questdb.griffin.engine.functions.rnd.SharedRandom;
 import io.questdb.griffin.engine.ops.AlterOperation;
 import io.questdb.griffin.engine.ops.AlterOperationBuilder;
 import io.questdb.griffin.model.IntervalUtils;
+import io.questdb.mp.TestWorkerPool;
+import io.questdb.mp.WorkerPool;
 import io.questdb.std.*;
+import io.questdb.std.datetime.microtime.Timestamps;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
 import io.questdb.test.tools.TestUtils;
@@ -264,6 +267,54 @@ public class WalTableSqlTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testApplyO3ToManyTablesOnWalApplyPool() throws Exception {
+        assertMemoryLeak(() -> {
+            final int tableCount = 8;
+            for (int i = 0; i < tableCount; i++) {
+                compile("create table x" + i + " as (" +
+                        "select x, rnd_symbol('a', 'b', 'c') sym, rnd_str(3, 10, 1) str, timestamp_sequence('2022-02-24', 3600000000) ts" +
+                        " from long_sequence(100)" +
+                        ") timestamp(ts) partition by DAY WAL");
+            }
+            drainWalQueue();
+            for (int i = 0; i < tableCount; i++) {
+                compile("create table y" + i + " as (select * from x" + i + ") timestamp(ts) partition by DAY BYPASS WAL");
+            }
+
+            // dedicated WAL apply pool, which does not run the shared pool jobs
+            final WorkerPool pool = new TestWorkerPool("wal-apply", 4);
+            WalUtils.setupWorkerPool(pool, engine, 1, null);
+            O3Utils.setupO3Jobs(pool, engine.getMessageBus());
+            pool.start(LOG);
+            try {
+                for (int i = 0; i < tableCount; i++) {
+                    // O3 data into every partition of the table
+                    compile("create table z" + i + " as (" +
+                            "select x + 1000 x, rnd_symbol('a', 'b', 'c') sym, rnd_str(3, 10, 1) str, timestamp_sequence('2022-02-24T00:30', 1800000000) ts" +
+                            " from long_sequence(200)" +
+                            ")");
+                    compile("insert into x" + i + " select * from z" + i);
+                    compile("insert into y" + i + " select * from z" + i);
+                }
+
+                TestUtils.assertEventually(() -> {
+                    try {
+                        assertSql("select count() from wal_tables() where writerTxn = sequencerTxn", "count\n" + tableCount + "\n");
+                    } catch (SqlException e) {
+                        throw new AssertionError(e);
+                    }
+                });
+            } finally {
+                pool.halt();
+            }
+
+            for (int i = 0; i < tableCount; i++) {
+                TestUtils.assertSqlCursors(compiler, sqlExecutionContext, "y" + i, "x" + i, LOG);
+            }
+        });
+    }
+
     @Test
     public void testCreateDropCreate() throws Exception {
         assertMemoryLeak(() -> {
@@ -1059,6 +1110,23 @@ public class WalTableSqlTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testSquashWalTransactions() throws Exception {
+        assertMemoryLeak(() -> assertSquashWalTransactions(1));
+    }
+
+    @Test
+    public void testSquashWalTransactionsDisabled() throws Exception {
+        configOverrideWalSquashMaxRows(1);
+        assertMemoryLeak(() -> assertSquashWalTransactions(6));
+    }
+
+    @Test
+    public void testSquashWalTransactionsRowBudget() throws Exception {
+        configOverrideWalSquashMaxRows(4);
+        assertMemoryLeak(() -> assertSquashWalTransactions(3));
+    }
+
     @Test
     public void testVarSizeColumnBeforeInsertCommit() throws Exception {
         assertMemoryLeak(() -> {
@@ -1092,6 +1160,60 @@ public class WalTableSqlTest extends AbstractGriffinTest {
         });
     }
 
+    private void assertSquashWalTransactions(long expectedTableTxn) throws SqlException, NumericException {
+        String tableName = testName.getMethodName();
+        compile("create table " + tableName + " (" +
+                "x long," +
+                "sym symbol," +
+                "str string," +
+                "ts timestamp" +
+                ") timestamp(ts) partition by DAY WAL");
+        TableToken tableToken = engine.getTableToken(tableName);
+
+        try (
+                WalWriter walWriter1 = engine.getWalWriter(sqlExecutionContext.getCairoSecurityContext(), tableToken);
+                WalWriter walWriter2 = engine.getWalWriter(sqlExecutionContext.getCairoSecurityContext(), tableToken)
+        ) {
+            long x = 0;
+            for (int i = 0; i < 3; i++) {
+                // the second WAL writes the earlier timestamps and its own symbol values
+                for (int j = 0; j < 2; j++) {
+                    WalWriter walWriter = j == 0 ? walWriter1 : walWriter2;
+                    for (int k = 0; k < 2; k++) {
+                        TableWriter.Row row = walWriter.newRow(IntervalUtils.parseFloorPartialTimestamp("2022-02-24") + (2 - j + k * 3 + i * 6) * Timestamps.HOUR_MICROS);
+                        row.putLong(0, x++);
+                        row.putSym(1, "s" + walWriter.getWalId() + "_" + k);
+                        row.putStr(2, "str" + x);
+                        row.append();
+                    }
+                    walWriter.commit();
+                }
+            }
+        }
+
+        drainWalQueue();
+
+        assertSql(tableName, "x\tsym\tstr\tts\n" +
+                "2\ts2_0\tstr3\t2022-02-24T01:00:00.000000Z\n" +
+                "0\ts1_0\tstr1\t2022-02-24T02:00:00.000000Z\n" +
+                "3\ts2_1\tstr4\t2022-02-24T04:00:00.000000Z\n" +
+                "1\ts1_1\tstr2\t2022-02-24T05:00:00.000000Z\n" +
+                "6\ts2_0\tstr7\t2022-02-24T07:00:00.000000Z\n" +
+                "4\ts1_0\tstr5\t2022-02-24T08:00:00.000000Z\n" +
+                "7\ts2_1\tstr8\t2022-02-24T10:00:00.000000Z\n" +
+                "5\ts1_1\tstr6\t2022-02-24T11:00:00.000000Z\n" +
+                "10\ts2_0\tstr11\t2022-02-24T13:00:00.000000Z\n" +
+                "8\ts1_0\tstr9\t2022-02-24T14:00:00.000000Z\n" +
+                "11\ts2_1\tstr12\t2022-02-24T16:00:00.000000Z\n" +
+                "9\ts1_1\tstr10\t2022-02-24T17:00:00.000000Z\n");
+        assertSql("select count_distinct(sym) from " + tableName, "count_distinct\n4\n");
+
+        try (TableReader reader = engine.getReader(sqlExecutionContext.getCairoSecurityContext(), tableToken)) {
+            Assert.assertEquals(6, reader.getTxFile().getSeqTxn());
+            Assert.assertEquals(expectedTableTxn, reader.getTxn());
+        }
+    }
+
     private void checkTableFilesExist(TableToken sysTableName, String partition, String fileName, boolean value) {
         Path sysPath = Path.PATH.get().of(configuration.getRoot()).concat(sysTableName).concat(TXN_FILE_NAME);
         MatcherAssert.assertThat(Chars.toString(sysPath), Files.exists(sysPath.$()), Matchers.is(value));
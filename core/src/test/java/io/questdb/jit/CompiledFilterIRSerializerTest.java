@@ -63,7 +63,7 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
     public static void setUpStatic2() {
         bindVarFunctions = new ObjList<>();
         irMemory = Vm.getCARWInstance(1024, 1, MemoryTag.NATIVE_JIT);
-        serializer = new CompiledFilterIRSerializer();
+        serializer = new CompiledFilterIRSerializer(true);
     }
 
     @AfterClass
@@ -91,6 +91,9 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
                     .col("atimestamp", ColumnType.TIMESTAMP)
                     .col("adouble", ColumnType.DOUBLE)
                     .col("astring", ColumnType.STRING)
+                    .col("auuid", ColumnType.UUID)
+                    .col("along256", ColumnType.LONG256)
+                    .col("abinary", ColumnType.BINARY)
                     .timestamp();
             CairoTestUtils.create(model);
         }
@@ -273,6 +276,27 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
         }
     }
 
+    @Test
+    public void testInList() throws Exception {
+        serialize("anint in (1, 2, 3)");
+        assertIR("(i32 3L)(i32 anint)(=)(i32 2L)(i32 anint)(=)(i32 1L)(i32 anint)(=)(||)(||)(ret)");
+    }
+
+    @Test
+    public void testInListSingleValue() throws Exception {
+        serialize("along in (-1)");
+        assertIR("(i64 -1L)(i64 along)(=)(ret)");
+    }
+
+    @Test
+    public void testInListString() throws Exception {
+        serialize("astring in ('a', 'b') and anint > 0");
+        assertIR("(i32 0L)(i32 anint)(>)(str :0)(str astring)(=)(str :1)(str astring)(=)(||)(&&)(ret)");
+        Assert.assertEquals(2, bindVarFunctions.size());
+        Assert.assertEquals("b", bindVarFunctions.get(0).getStr(null).toString());
+        Assert.assertEquals("a", bindVarFunctions.get(1).getStr(null).toString());
+    }
+
     @Test
     public void testKnownSymbolConstant() throws Exception {
         serialize("asymbol = '" + KNOWN_SYMBOL_1 + "' or anothersymbol = '" + KNOWN_SYMBOL_2 + "'");
@@ -309,6 +333,35 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
         assertIR("(i16 0L)(i16 ashort)(neg)(>)(ret)");
     }
 
+    @Test
+    public void testLikeExactMatch() throws Exception {
+        serialize("astring like 'abc'");
+        assertIR("(str :0)(str astring)(=)(ret)");
+        Assert.assertEquals("abc", bindVarFunctions.get(0).getStr(null).toString());
+    }
+
+    @Test
+    public void testLikePrefix() throws Exception {
+        int options = serialize("astring like 'ab%'", false, false, true);
+        assertIR("(str :0)(str astring)(starts_with)(ret)");
+        assertOptionsHint(options, OptionsHint.SCALAR);
+        Assert.assertEquals("ab", bindVarFunctions.get(0).getStr(null).toString());
+    }
+
+    @Test
+    public void testLong256Constant() throws Exception {
+        serialize("along256 = 0x01");
+        assertIR("(i256 :0)(i256 along256)(=)(ret)");
+        Assert.assertEquals(ColumnType.LONG256, bindVarFunctions.get(0).getType());
+        Assert.assertEquals(1, bindVarFunctions.get(0).getLong256A(null).getLong0());
+    }
+
+    @Test
+    public void testLong256NullConstant() throws Exception {
+        serialize("along256 <> null");
+        assertIR("(i256 :0)(i256 along256)(<>)(ret)");
+    }
+
     @Test
     public void testNullConstantMixedFloatColumns() throws Exception {
         serialize("afloat + adouble <> null");
@@ -476,11 +529,40 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
         Assert.assertEquals(UNKNOWN_SYMBOL, bindVarFunctions.get(0).getStr(null));
     }
 
+    @Test
+    public void testStartsWith() throws Exception {
+        serialize("starts_with(astring, 'foo')");
+        assertIR("(str :0)(str astring)(starts_with)(ret)");
+    }
+
+    @Test
+    public void testStringBindVariable() throws Exception {
+        bindVariableService.clear();
+        bindVariableService.setStr("astring", "foobar");
+        serialize("astring = :astring");
+        assertIR("(str :0)(str astring)(=)(ret)");
+        Assert.assertEquals(ColumnType.STRING, bindVarFunctions.get(0).getType());
+    }
+
+    @Test
+    public void testStringConstant() throws Exception {
+        int options = serialize("astring = 'foo' or astring = null", false, false, true);
+        assertIR("(str :0)(str astring)(=)(str :1)(str astring)(=)(||)(ret)");
+        assertOptionsHint(options, OptionsHint.SCALAR);
+        Assert.assertNull(bindVarFunctions.get(0).getStr(null));
+        Assert.assertEquals("foo", bindVarFunctions.get(1).getStr(null).toString());
+    }
+
     @Test(expected = SqlException.class)
     public void testUnsupportedBindVariableType() throws Exception {
         bindVariableService.clear();
         bindVariableService.setStr("astring", "foobar");
-        serialize("astring = :astring");
+        serialize("astring > :astring");
+    }
+
+    @Test(expected = SqlException.class)
+    public void testUnsupportedLikePattern() throws Exception {
+        serialize("astring like 'a_c%'");
     }
 
     @Test(expected = SqlException.class)
@@ -510,7 +592,7 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
 
     @Test(expected = SqlException.class)
     public void testUnsupportedColumnType() throws Exception {
-        serialize("astring = 'a'");
+        serialize("abinary = null");
     }
 
     @Test(expected = SqlException.class)
@@ -590,7 +672,12 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
 
     @Test(expected = SqlException.class)
     public void testUnsupportedNullType() throws Exception {
-        serialize("astring <> null");
+        serialize("abinary <> null");
+    }
+
+    @Test(expected = SqlException.class)
+    public void testUnsupportedNullValueInList() throws Exception {
+        serialize("anint in (1, null)");
     }
 
     @Test(expected = SqlException.class)
@@ -618,11 +705,42 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
         serialize("achar = 'abc'");
     }
 
+    @Test(expected = SqlException.class)
+    public void testUnsupportedStringColumnsWhenDisabled() throws Exception {
+        irMemory.truncate();
+        bindVarFunctions.clear();
+        CompiledFilterIRSerializer legacySerializer = new CompiledFilterIRSerializer(false);
+        ExpressionNode node = expr("astring = 'a'");
+        try (PageFrameCursor cursor = factory.getPageFrameCursor(sqlExecutionContext, ORDER_ASC)) {
+            legacySerializer.of(irMemory, sqlExecutionContext, metadata, cursor, bindVarFunctions)
+                    .serialize(node, false, false, true);
+        }
+    }
+
+    @Test(expected = SqlException.class)
+    public void testUnsupportedStringOrdering() throws Exception {
+        serialize("astring < 'abc'");
+    }
+
+    @Test(expected = SqlException.class)
+    public void testUnsupportedSymbolInStringMatch() throws Exception {
+        serialize("asymbol like 'ab%'");
+    }
+
     @Test(expected = SqlException.class)
     public void testUnsupportedTrueConstantInNumericContext() throws Exception {
         serialize("along = true");
     }
 
+    @Test
+    public void testUuidConstant() throws Exception {
+        serialize("auuid = '11111111-1111-1111-1111-111111111111' or auuid = null");
+        assertIR("(i128 :0)(i128 auuid)(=)(i128 :1)(i128 auuid)(=)(||)(ret)");
+        Assert.assertEquals(ColumnType.UUID, bindVarFunctions.get(0).getType());
+        Assert.assertEquals(Numbers.LONG_NaN, bindVarFunctions.get(0).getLong128Lo(null));
+        Assert.assertEquals(0x1111111111111111L, bindVarFunctions.get(1).getLong128Lo(null));
+    }
+
     private void assertIR(String message, String expectedIR) {
         TestIRSerializer ser = new TestIRSerializer(irMemory, metadata);
         String actualIR = ser.serialize();
@@ -812,6 +930,8 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
                     return "*";
                 case DIV:
                     return "/";
+                case STARTS_WITH:
+                    return "starts_with";
                 case RET:
                     return "ret";
                 default:
@@ -833,6 +953,12 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
                     return "f32";
                 case F8_TYPE:
                     return "f64";
+                case I16_TYPE:
+                    return "i128";
+                case I32_TYPE:
+                    return "i256";
+                case STR_TYPE:
+                    return "str";
                 default:
                     return "unknown: " + type;
             }